@@ -0,0 +1,218 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Address;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.AddressDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Customer;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.CustomerDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Department;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.DepartmentDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Employee;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.EmployeeDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Node;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.NodeDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Order;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderLine;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderLineDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderStatus;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Product;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.ProductDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Quote;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.QuoteDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Side;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+/**
+ * BenchmarkFixtures creates the (deterministic) source graphs used by the
+ * benchmarks, along with a MapperFactory pre-configured for the
+ * {@link BenchmarkModel}.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+
+    }
+
+    /**
+     * @return a new DefaultMapperFactory, generating direct calls to nested
+     *         mappers, with class-maps registered for each of the source/DTO
+     *         pairs of the {@link BenchmarkModel}
+     */
+    public static MapperFactory newMapperFactory() {
+        return configure(new DefaultMapperFactory.Builder().useDirectMapperCalls(true).build());
+    }
+
+    /**
+     * Registers class-maps for each of the source/DTO pairs of the
+     * {@link BenchmarkModel} on the provided factory.
+     *
+     * @param mapperFactory
+     *            the factory to configure
+     * @return the configured factory
+     */
+    public static MapperFactory configure(MapperFactory mapperFactory) {
+        mapperFactory.classMap(Address.class, AddressDTO.class).byDefault().register();
+        mapperFactory.classMap(Customer.class, CustomerDTO.class).byDefault().register();
+        mapperFactory.classMap(Product.class, ProductDTO.class).byDefault().register();
+        mapperFactory.classMap(OrderLine.class, OrderLineDTO.class).byDefault().register();
+        mapperFactory.classMap(Order.class, OrderDTO.class).byDefault().register();
+        mapperFactory.classMap(Quote.class, QuoteDTO.class).byDefault().register();
+        mapperFactory.classMap(Department.class, DepartmentDTO.class).byDefault().register();
+        mapperFactory.classMap(Employee.class, EmployeeDTO.class).byDefault().register();
+        mapperFactory.classMap(Node.class, NodeDTO.class).byDefault().register();
+        return mapperFactory;
+    }
+
+    public static Address address(int seed) {
+        Address address = new Address();
+        address.setStreet(seed + " Main Street");
+        address.setCity("Springfield");
+        address.setPostalCode("0" + (10000 + seed));
+        return address;
+    }
+
+    public static Customer customer(int seed) {
+        Customer customer = new Customer();
+        customer.setName("Customer #" + seed);
+        customer.setEmail("customer" + seed + "@example.com");
+        customer.setAddress(address(seed));
+        return customer;
+    }
+
+    public static Product product(int seed) {
+        Product product = new Product();
+        product.setSku("SKU-" + seed);
+        product.setName("Product #" + seed);
+        product.setListPrice(BigDecimal.valueOf(seed * 100 + 99, 2));
+        return product;
+    }
+
+    /**
+     * @param seed
+     *            the seed from which property values are derived
+     * @param lineCount
+     *            the number of order lines to create
+     * @return a new Order
+     */
+    public static Order order(int seed, int lineCount) {
+        Order order = new Order();
+        order.setId(seed);
+        order.setCustomer(customer(seed));
+        order.setShippingAddress(address(seed + 1));
+        order.setStatus(OrderStatus.values()[seed % OrderStatus.values().length]);
+        List<OrderLine> lines = new ArrayList<OrderLine>(lineCount);
+        for (int i = 0; i < lineCount; ++i) {
+            OrderLine line = new OrderLine();
+            line.setProduct(product(seed + i));
+            line.setQuantity(i + 1);
+            line.setUnitPrice(line.getProduct().getListPrice());
+            lines.add(line);
+        }
+        order.setLines(lines);
+        return order;
+    }
+
+    public static List<Order> orders(int count, int lineCount) {
+        List<Order> orders = new ArrayList<Order>(count);
+        for (int i = 0; i < count; ++i) {
+            orders.add(order(i, lineCount));
+        }
+        return orders;
+    }
+
+    public static Map<Long, Order> ordersById(int count, int lineCount) {
+        Map<Long, Order> orders = new LinkedHashMap<Long, Order>(count * 2);
+        for (int i = 0; i < count; ++i) {
+            orders.put(Long.valueOf(i), order(i, lineCount));
+        }
+        return orders;
+    }
+
+    public static Quote quote(int seed) {
+        Quote quote = new Quote();
+        quote.setSymbol("ORK" + seed);
+        quote.setPrice(BigDecimal.valueOf(10000L + seed, 2));
+        quote.setVolume(Long.valueOf(1000L * seed));
+        quote.setIssued(new Date(1300000000000L + seed));
+        quote.setSide(seed % 2 == 0 ? Side.BUY : Side.SELL);
+        quote.setSpread("0.25");
+        quote.setRevision(seed);
+        quote.setSequence(BigInteger.valueOf(seed));
+        return quote;
+    }
+
+    /**
+     * @param employeeCount
+     *            the number of employees in the department
+     * @return a Department whose employees (and manager) refer back to it
+     */
+    public static Department department(int employeeCount) {
+        Department department = new Department();
+        department.setName("Engineering");
+        List<Employee> employees = new ArrayList<Employee>(employeeCount);
+        for (int i = 0; i < employeeCount; ++i) {
+            Employee employee = new Employee();
+            employee.setName("Employee #" + i);
+            employee.setDepartment(department);
+            employees.add(employee);
+        }
+        department.setEmployees(employees);
+        department.setManager(employees.isEmpty() ? null : employees.get(0));
+        return department;
+    }
+
+    /**
+     * @param depth
+     *            the number of levels below the root
+     * @param fanOut
+     *            the number of children of each non-leaf node
+     * @return the root of a complete tree of Nodes
+     */
+    public static Node tree(int depth, int fanOut) {
+        return node("root", depth, fanOut);
+    }
+
+    private static Node node(String name, int depth, int fanOut) {
+        Node node = new Node();
+        node.setName(name);
+        Map<String, Integer> weights = new LinkedHashMap<String, Integer>();
+        List<Node> children = new ArrayList<Node>(depth > 0 ? fanOut : 0);
+        if (depth > 0) {
+            for (int i = 0; i < fanOut; ++i) {
+                String childName = name + "." + i;
+                weights.put(childName, Integer.valueOf(i));
+                children.add(node(childName, depth - 1, fanOut));
+            }
+        }
+        node.setWeights(weights);
+        node.setChildren(children);
+        return node;
+    }
+}
@@ -0,0 +1,707 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The object model shared by all of the Orika benchmarks.<br>
+ * Each source type is paired with a "DTO" counterpart having the same
+ * property names, so that the mappers can be generated by default.
+ */
+public interface BenchmarkModel {
+    
+    enum OrderStatus {
+        NEW, PAID, SHIPPED, CANCELLED
+    }
+    
+    enum OrderStatusDTO {
+        NEW, PAID, SHIPPED, CANCELLED
+    }
+    
+    enum Side {
+        BUY, SELL
+    }
+    
+    enum SideDTO {
+        BUY, SELL
+    }
+    
+    class Address {
+        private String street;
+        private String city;
+        private String postalCode;
+        
+        public String getStreet() {
+            return street;
+        }
+        
+        public void setStreet(String street) {
+            this.street = street;
+        }
+        
+        public String getCity() {
+            return city;
+        }
+        
+        public void setCity(String city) {
+            this.city = city;
+        }
+        
+        public String getPostalCode() {
+            return postalCode;
+        }
+        
+        public void setPostalCode(String postalCode) {
+            this.postalCode = postalCode;
+        }
+    }
+    
+    class AddressDTO {
+        private String street;
+        private String city;
+        private String postalCode;
+        
+        public String getStreet() {
+            return street;
+        }
+        
+        public void setStreet(String street) {
+            this.street = street;
+        }
+        
+        public String getCity() {
+            return city;
+        }
+        
+        public void setCity(String city) {
+            this.city = city;
+        }
+        
+        public String getPostalCode() {
+            return postalCode;
+        }
+        
+        public void setPostalCode(String postalCode) {
+            this.postalCode = postalCode;
+        }
+    }
+    
+    class Customer {
+        private String name;
+        private String email;
+        private Address address;
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public String getEmail() {
+            return email;
+        }
+        
+        public void setEmail(String email) {
+            this.email = email;
+        }
+        
+        public Address getAddress() {
+            return address;
+        }
+        
+        public void setAddress(Address address) {
+            this.address = address;
+        }
+    }
+    
+    class CustomerDTO {
+        private String name;
+        private String email;
+        private AddressDTO address;
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public String getEmail() {
+            return email;
+        }
+        
+        public void setEmail(String email) {
+            this.email = email;
+        }
+        
+        public AddressDTO getAddress() {
+            return address;
+        }
+        
+        public void setAddress(AddressDTO address) {
+            this.address = address;
+        }
+    }
+    
+    class Product {
+        private String sku;
+        private String name;
+        private BigDecimal listPrice;
+        
+        public String getSku() {
+            return sku;
+        }
+        
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public BigDecimal getListPrice() {
+            return listPrice;
+        }
+        
+        public void setListPrice(BigDecimal listPrice) {
+            this.listPrice = listPrice;
+        }
+    }
+    
+    class ProductDTO {
+        private String sku;
+        private String name;
+        private BigDecimal listPrice;
+        
+        public String getSku() {
+            return sku;
+        }
+        
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public BigDecimal getListPrice() {
+            return listPrice;
+        }
+        
+        public void setListPrice(BigDecimal listPrice) {
+            this.listPrice = listPrice;
+        }
+    }
+    
+    class OrderLine {
+        private Product product;
+        private int quantity;
+        private BigDecimal unitPrice;
+        
+        public Product getProduct() {
+            return product;
+        }
+        
+        public void setProduct(Product product) {
+            this.product = product;
+        }
+        
+        public int getQuantity() {
+            return quantity;
+        }
+        
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+        
+        public BigDecimal getUnitPrice() {
+            return unitPrice;
+        }
+        
+        public void setUnitPrice(BigDecimal unitPrice) {
+            this.unitPrice = unitPrice;
+        }
+    }
+    
+    class OrderLineDTO {
+        private ProductDTO product;
+        private int quantity;
+        private BigDecimal unitPrice;
+        
+        public ProductDTO getProduct() {
+            return product;
+        }
+        
+        public void setProduct(ProductDTO product) {
+            this.product = product;
+        }
+        
+        public int getQuantity() {
+            return quantity;
+        }
+        
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+        
+        public BigDecimal getUnitPrice() {
+            return unitPrice;
+        }
+        
+        public void setUnitPrice(BigDecimal unitPrice) {
+            this.unitPrice = unitPrice;
+        }
+    }
+    
+    class Order {
+        private long id;
+        private Customer customer;
+        private Address shippingAddress;
+        private List<OrderLine> lines;
+        private OrderStatus status;
+        
+        public long getId() {
+            return id;
+        }
+        
+        public void setId(long id) {
+            this.id = id;
+        }
+        
+        public Customer getCustomer() {
+            return customer;
+        }
+        
+        public void setCustomer(Customer customer) {
+            this.customer = customer;
+        }
+        
+        public Address getShippingAddress() {
+            return shippingAddress;
+        }
+        
+        public void setShippingAddress(Address shippingAddress) {
+            this.shippingAddress = shippingAddress;
+        }
+        
+        public List<OrderLine> getLines() {
+            return lines;
+        }
+        
+        public void setLines(List<OrderLine> lines) {
+            this.lines = lines;
+        }
+        
+        public OrderStatus getStatus() {
+            return status;
+        }
+        
+        public void setStatus(OrderStatus status) {
+            this.status = status;
+        }
+    }
+    
+    class OrderDTO {
+        private long id;
+        private CustomerDTO customer;
+        private AddressDTO shippingAddress;
+        private List<OrderLineDTO> lines;
+        private OrderStatusDTO status;
+        
+        public long getId() {
+            return id;
+        }
+        
+        public void setId(long id) {
+            this.id = id;
+        }
+        
+        public CustomerDTO getCustomer() {
+            return customer;
+        }
+        
+        public void setCustomer(CustomerDTO customer) {
+            this.customer = customer;
+        }
+        
+        public AddressDTO getShippingAddress() {
+            return shippingAddress;
+        }
+        
+        public void setShippingAddress(AddressDTO shippingAddress) {
+            this.shippingAddress = shippingAddress;
+        }
+        
+        public List<OrderLineDTO> getLines() {
+            return lines;
+        }
+        
+        public void setLines(List<OrderLineDTO> lines) {
+            this.lines = lines;
+        }
+        
+        public OrderStatusDTO getStatus() {
+            return status;
+        }
+        
+        public void setStatus(OrderStatusDTO status) {
+            this.status = status;
+        }
+    }
+    
+    /**
+     * A source type whose properties all require a built-in converter.
+     */
+    class Quote {
+        private String symbol;
+        private BigDecimal price;
+        private Long volume;
+        private Date issued;
+        private Side side;
+        private String spread;
+        private int revision;
+        private BigInteger sequence;
+        
+        public String getSymbol() {
+            return symbol;
+        }
+        
+        public void setSymbol(String symbol) {
+            this.symbol = symbol;
+        }
+        
+        public BigDecimal getPrice() {
+            return price;
+        }
+        
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+        
+        public Long getVolume() {
+            return volume;
+        }
+        
+        public void setVolume(Long volume) {
+            this.volume = volume;
+        }
+        
+        public Date getIssued() {
+            return issued;
+        }
+        
+        public void setIssued(Date issued) {
+            this.issued = issued;
+        }
+        
+        public Side getSide() {
+            return side;
+        }
+        
+        public void setSide(Side side) {
+            this.side = side;
+        }
+        
+        public String getSpread() {
+            return spread;
+        }
+        
+        public void setSpread(String spread) {
+            this.spread = spread;
+        }
+        
+        public int getRevision() {
+            return revision;
+        }
+        
+        public void setRevision(int revision) {
+            this.revision = revision;
+        }
+        
+        public BigInteger getSequence() {
+            return sequence;
+        }
+        
+        public void setSequence(BigInteger sequence) {
+            this.sequence = sequence;
+        }
+    }
+    
+    class QuoteDTO {
+        private String symbol;
+        private Double price;
+        private Integer volume;
+        private Calendar issued;
+        private SideDTO side;
+        private double spread;
+        private String revision;
+        private Long sequence;
+        
+        public String getSymbol() {
+            return symbol;
+        }
+        
+        public void setSymbol(String symbol) {
+            this.symbol = symbol;
+        }
+        
+        public Double getPrice() {
+            return price;
+        }
+        
+        public void setPrice(Double price) {
+            this.price = price;
+        }
+        
+        public Integer getVolume() {
+            return volume;
+        }
+        
+        public void setVolume(Integer volume) {
+            this.volume = volume;
+        }
+        
+        public Calendar getIssued() {
+            return issued;
+        }
+        
+        public void setIssued(Calendar issued) {
+            this.issued = issued;
+        }
+        
+        public SideDTO getSide() {
+            return side;
+        }
+        
+        public void setSide(SideDTO side) {
+            this.side = side;
+        }
+        
+        public double getSpread() {
+            return spread;
+        }
+        
+        public void setSpread(double spread) {
+            this.spread = spread;
+        }
+        
+        public String getRevision() {
+            return revision;
+        }
+        
+        public void setRevision(String revision) {
+            this.revision = revision;
+        }
+        
+        public Long getSequence() {
+            return sequence;
+        }
+        
+        public void setSequence(Long sequence) {
+            this.sequence = sequence;
+        }
+    }
+    
+    /**
+     * One side of a bi-directional graph; each employee refers back to its department.
+     */
+    class Department {
+        private String name;
+        private Employee manager;
+        private List<Employee> employees;
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public Employee getManager() {
+            return manager;
+        }
+        
+        public void setManager(Employee manager) {
+            this.manager = manager;
+        }
+        
+        public List<Employee> getEmployees() {
+            return employees;
+        }
+        
+        public void setEmployees(List<Employee> employees) {
+            this.employees = employees;
+        }
+    }
+    
+    class DepartmentDTO {
+        private String name;
+        private EmployeeDTO manager;
+        private List<EmployeeDTO> employees;
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public EmployeeDTO getManager() {
+            return manager;
+        }
+        
+        public void setManager(EmployeeDTO manager) {
+            this.manager = manager;
+        }
+        
+        public List<EmployeeDTO> getEmployees() {
+            return employees;
+        }
+        
+        public void setEmployees(List<EmployeeDTO> employees) {
+            this.employees = employees;
+        }
+    }
+    
+    class Employee {
+        private String name;
+        private Department department;
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public Department getDepartment() {
+            return department;
+        }
+        
+        public void setDepartment(Department department) {
+            this.department = department;
+        }
+    }
+    
+    class EmployeeDTO {
+        private String name;
+        private DepartmentDTO department;
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public DepartmentDTO getDepartment() {
+            return department;
+        }
+        
+        public void setDepartment(DepartmentDTO department) {
+            this.department = department;
+        }
+    }
+    
+    /**
+     * A recursive tree used to exercise deeply nested collections.
+     */
+    class Node {
+        private String name;
+        private List<Node> children;
+        private Map<String, Integer> weights;
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public List<Node> getChildren() {
+            return children;
+        }
+        
+        public void setChildren(List<Node> children) {
+            this.children = children;
+        }
+        
+        public Map<String, Integer> getWeights() {
+            return weights;
+        }
+        
+        public void setWeights(Map<String, Integer> weights) {
+            this.weights = weights;
+        }
+    }
+    
+    class NodeDTO {
+        private String name;
+        private List<NodeDTO> children;
+        private Map<String, Integer> weights;
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public List<NodeDTO> getChildren() {
+            return children;
+        }
+        
+        public void setChildren(List<NodeDTO> children) {
+            this.children = children;
+        }
+        
+        public Map<String, Integer> getWeights() {
+            return weights;
+        }
+        
+        public void setWeights(Map<String, Integer> weights) {
+            this.weights = weights;
+        }
+    }
+}
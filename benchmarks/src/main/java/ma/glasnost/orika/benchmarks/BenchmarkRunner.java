@@ -0,0 +1,118 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.Properties;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkRunner is the entry point of the benchmarks jar; it accepts the
+ * same arguments as the standard JMH launcher, but unless specified
+ * otherwise, records the results as JSON in a file named for the Orika
+ * version under test (e.g. <code>orika-1.5.5-jmh.json</code>), so that
+ * results may be compared from one release to the next. The file is written
+ * to the results directory (see {@link #getResultFile(String)}).<br>
+ * The {@link StartupProfiler} is always enabled.
+ */
+public final class BenchmarkRunner {
+    
+    /**
+     * The system property specifying the directory to which the results are
+     * written, when no result file is specified
+     */
+    public static final String RESULTS_DIRECTORY = "orika.benchmarks.resultsDirectory";
+    
+    private BenchmarkRunner() {
+        
+    }
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            ResultFormatType format = commandLine.getResultFormat().orElse(ResultFormatType.JSON);
+            options.result(getResultFile("orika-" + getOrikaVersion() + "-jmh." + format.toString().toLowerCase()));
+        }
+        options.addProfiler(StartupProfiler.class);
+        new Runner(options.build()).run();
+    }
+    
+    /**
+     * @param name
+     *            the name of the result file
+     * @return the path of the result file within the results directory: the
+     *         directory specified by {@link #RESULTS_DIRECTORY}, or else the
+     *         directory containing the benchmarks jar (the
+     *         <code>target</code> directory of the benchmarks module), which
+     *         is created if necessary
+     */
+    static String getResultFile(String name) {
+        File directory;
+        String configured = System.getProperty(RESULTS_DIRECTORY);
+        if (configured != null) {
+            directory = new File(configured);
+        } else {
+            directory = new File(".");
+            CodeSource codeSource = BenchmarkRunner.class.getProtectionDomain().getCodeSource();
+            if (codeSource != null) {
+                try {
+                    /*
+                     * Either target/benchmarks.jar or target/classes
+                     */
+                    directory = new File(codeSource.getLocation().toURI()).getParentFile();
+                } catch (URISyntaxException e) {
+                    // fall back to the working directory
+                }
+            }
+        }
+        directory.mkdirs();
+        return new File(directory, name).getPath();
+    }
+    
+    static String getOrikaVersion() throws IOException {
+        Properties properties = new Properties();
+        InputStream in = BenchmarkRunner.class.getResourceAsStream("/orika-benchmarks.properties");
+        if (in != null) {
+            try {
+                properties.load(in);
+            } finally {
+                in.close();
+            }
+        }
+        return properties.getProperty("orika.version", "unknown");
+    }
+}
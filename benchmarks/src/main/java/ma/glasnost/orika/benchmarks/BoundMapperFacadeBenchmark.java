@@ -0,0 +1,104 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Order;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderDTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link BoundMapperFacade#map(Object)} and
+ * {@link BoundMapperFacade#mapReverse(Object)}, both with and without cycle
+ * tracking, relative to hand-written mappers; these correspond to the
+ * ORIKA_BOUND and ORIKA_NOCYCLES rows of the historical Caliper results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoundMapperFacadeBenchmark {
+    
+    @Param({ "1", "10" })
+    public int lineCount;
+    
+    private BoundMapperFacade<Order, OrderDTO> bound;
+    private BoundMapperFacade<Order, OrderDTO> boundNoCycles;
+    private Order order;
+    private OrderDTO orderDTO;
+    
+    @Setup
+    public void setUp() {
+        MapperFactory mapperFactory = BenchmarkFixtures.newMapperFactory();
+        bound = mapperFactory.getMapperFacade(Order.class, OrderDTO.class);
+        boundNoCycles = mapperFactory.getMapperFacade(Order.class, OrderDTO.class, false);
+        order = BenchmarkFixtures.order(42, lineCount);
+        orderDTO = ManualMappers.map(order);
+        
+        bound.map(order);
+        bound.mapReverse(orderDTO);
+        boundNoCycles.map(order);
+        boundNoCycles.mapReverse(orderDTO);
+    }
+    
+    @Benchmark
+    public OrderDTO javaManual() {
+        return ManualMappers.map(order);
+    }
+    
+    @Benchmark
+    public Order javaManualReverse() {
+        return ManualMappers.mapReverse(orderDTO);
+    }
+    
+    @Benchmark
+    public OrderDTO orikaBound() {
+        return bound.map(order);
+    }
+    
+    @Benchmark
+    public Order orikaBoundReverse() {
+        return bound.mapReverse(orderDTO);
+    }
+    
+    @Benchmark
+    public OrderDTO orikaNoCycles() {
+        return boundNoCycles.map(order);
+    }
+    
+    @Benchmark
+    public Order orikaNoCyclesReverse() {
+        return boundNoCycles.mapReverse(orderDTO);
+    }
+}
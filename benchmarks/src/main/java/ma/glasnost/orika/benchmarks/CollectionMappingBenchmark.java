@@ -0,0 +1,94 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Order;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderDTO;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link MapperFacade#mapAsList(Iterable, Class)} and
+ * {@link MapperFacade#mapAsMap(Map, Type, Type)} over collections of
+ * increasing size, relative to hand-written loops.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionMappingBenchmark {
+    
+    private static final Type<Map<Long, Order>> ORDERS_BY_ID = new TypeBuilder<Map<Long, Order>>() {}.build();
+    private static final Type<Map<Long, OrderDTO>> ORDER_DTOS_BY_ID = new TypeBuilder<Map<Long, OrderDTO>>() {}.build();
+    
+    @Param({ "10", "100", "1000" })
+    public int size;
+    
+    private MapperFacade mapperFacade;
+    private List<Order> orders;
+    private Map<Long, Order> ordersById;
+    
+    @Setup
+    public void setUp() {
+        mapperFacade = BenchmarkFixtures.newMapperFactory().getMapperFacade();
+        orders = BenchmarkFixtures.orders(size, 3);
+        ordersById = BenchmarkFixtures.ordersById(size, 3);
+        
+        mapperFacade.mapAsList(orders, OrderDTO.class);
+        mapperFacade.mapAsMap(ordersById, ORDERS_BY_ID, ORDER_DTOS_BY_ID);
+    }
+    
+    @Benchmark
+    public List<OrderDTO> javaManualList() {
+        return ManualMappers.mapAsList(orders);
+    }
+    
+    @Benchmark
+    public List<OrderDTO> orikaMapAsList() {
+        return mapperFacade.mapAsList(orders, OrderDTO.class);
+    }
+    
+    @Benchmark
+    public Map<Long, OrderDTO> javaManualMap() {
+        return ManualMappers.mapAsMap(ordersById);
+    }
+    
+    @Benchmark
+    public Map<Long, OrderDTO> orikaMapAsMap() {
+        return mapperFacade.mapAsMap(ordersById, ORDERS_BY_ID, ORDER_DTOS_BY_ID);
+    }
+}
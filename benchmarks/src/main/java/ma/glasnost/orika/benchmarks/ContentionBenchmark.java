@@ -0,0 +1,111 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.benchmarks;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.Converter;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Order;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Quote;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.QuoteDTO;
+import ma.glasnost.orika.converter.ConverterFactory;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the shared state touched on each mapping: the MappingContext
+ * pool (via {@link MapperFacade#map(Object, Class)} and
+ * {@link BoundMapperFacade#map(Object)}), the converter lookup, and the
+ * registered mapper lookup. Reports both throughput and the latency
+ * distribution (see the p0.99 / p0.999 percentiles of the sample-time
+ * results).<br>
+ * <br>
+ * Every thread shares a single MapperFactory; run it through the
+ * {@link ContentionBenchmarkRunner} to produce a scaling curve from 1 to 64
+ * (platform and, where available, virtual) threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentionBenchmark {
+    
+    private MapperFacade mapperFacade;
+    private BoundMapperFacade<Order, OrderDTO> bound;
+    private ConverterFactory converterFactory;
+    private MapperFactory mapperFactory;
+    private MapperKey mapperKey;
+    private Type<?> converterSourceType;
+    private Type<?> converterDestinationType;
+    private Order order;
+    
+    @Setup
+    public void setUp() {
+        mapperFactory = BenchmarkFixtures.newMapperFactory();
+        mapperFacade = mapperFactory.getMapperFacade();
+        bound = mapperFactory.getMapperFacade(Order.class, OrderDTO.class);
+        converterFactory = mapperFactory.getConverterFactory();
+        mapperKey = new MapperKey(TypeFactory.valueOf(Quote.class), TypeFactory.valueOf(QuoteDTO.class));
+        converterSourceType = TypeFactory.valueOf(Date.class);
+        converterDestinationType = TypeFactory.valueOf(Calendar.class);
+        order = BenchmarkFixtures.order(42, 3);
+        
+        mapperFacade.map(order, OrderDTO.class);
+        bound.map(order);
+    }
+    
+    @Benchmark
+    public OrderDTO mapperFacadeMap() {
+        return mapperFacade.map(order, OrderDTO.class);
+    }
+    
+    @Benchmark
+    public OrderDTO boundMapperFacadeMap() {
+        return bound.map(order);
+    }
+    
+    @Benchmark
+    public Converter<Object, Object> converterLookup() {
+        return converterFactory.getConverter(converterSourceType, converterDestinationType);
+    }
+    
+    @Benchmark
+    public Object mapperLookup() {
+        return mapperFactory.lookupMapper(mapperKey);
+    }
+}
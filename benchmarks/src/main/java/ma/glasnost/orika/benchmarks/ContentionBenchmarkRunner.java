@@ -0,0 +1,135 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.Statistics;
+
+/**
+ * ContentionBenchmarkRunner runs the {@link ContentionBenchmark} with 1, 2,
+ * 4, ... 64 threads, first on platform threads, and then on virtual threads
+ * when supported by the JVM (Java 21+), writing all of the results to a
+ * single JSON file (<code>orika-&lt;version&gt;-contention.json</code>, in the
+ * same results directory as the {@link BenchmarkRunner}) and summarizing the
+ * scaling curve on the console.<br>
+ * <br>
+ * Accepts the standard JMH options (e.g. to alter the number of iterations);
+ * run it with:
+ * 
+ * <pre>
+ * java -cp benchmarks.jar ma.glasnost.orika.benchmarks.ContentionBenchmarkRunner
+ * </pre>
+ */
+public final class ContentionBenchmarkRunner {
+    
+    private static final int[] THREAD_COUNTS = { 1, 2, 4, 8, 16, 32, 64 };
+    private static final String EXECUTOR_PROPERTY = "-Djmh.executor=";
+    
+    private ContentionBenchmarkRunner() {
+        
+    }
+    
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        List<String> executors = new ArrayList<String>(2);
+        executors.add("PLATFORM");
+        if (supportsVirtualThreads()) {
+            executors.add("VIRTUAL");
+        } else {
+            System.out.println("Virtual threads are not supported by this JVM; measuring platform threads only");
+        }
+        
+        List<RunResult> results = new ArrayList<RunResult>();
+        for (String executor : executors) {
+            for (int threads : THREAD_COUNTS) {
+                List<String> jvmArgs = new ArrayList<String>(commandLine.getJvmArgsAppend().orElse(Collections.<String> emptyList()));
+                jvmArgs.add(EXECUTOR_PROPERTY + executor);
+                ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine)
+                        .threads(threads)
+                        .jvmArgsAppend(jvmArgs.toArray(new String[jvmArgs.size()]));
+                if (commandLine.getIncludes().isEmpty()) {
+                    options.include(ContentionBenchmark.class.getName());
+                }
+                results.addAll(new Runner(options.build()).run());
+            }
+        }
+        
+        String resultFile = commandLine.getResult().orElse(
+                BenchmarkRunner.getResultFile("orika-" + BenchmarkRunner.getOrikaVersion() + "-contention.json"));
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, resultFile).writeOut(results);
+        printSummary(results);
+        System.out.println("Benchmark results saved to " + resultFile);
+    }
+    
+    private static boolean supportsVirtualThreads() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+    
+    private static String executorOf(BenchmarkParams params) {
+        String executor = "PLATFORM";
+        for (String jvmArg : params.getJvmArgs()) {
+            if (jvmArg.startsWith(EXECUTOR_PROPERTY)) {
+                executor = jvmArg.substring(EXECUTOR_PROPERTY.length());
+            }
+        }
+        return executor;
+    }
+    
+    private static void printSummary(Collection<RunResult> results) {
+        System.out.println();
+        System.out.println(String.format("%-50s %-9s %7s %14s %10s %10s %10s", "Benchmark", "Executor", "Threads", "Throughput",
+                "p50", "p99", "p99.9"));
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            Result<?> primary = result.getPrimaryResult();
+            String name = params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1);
+            if (params.getMode() == Mode.Throughput) {
+                System.out.println(String.format("%-50s %-9s %7d %14s", name, executorOf(params), params.getThreads(),
+                        String.format("%.3f %s", primary.getScore(), primary.getScoreUnit())));
+            } else if (params.getMode() == Mode.SampleTime) {
+                Statistics statistics = primary.getStatistics();
+                System.out.println(String.format("%-50s %-9s %7d %14s %10.3f %10.3f %10.3f %s", name, executorOf(params),
+                        params.getThreads(), "", statistics.getPercentile(50), statistics.getPercentile(99),
+                        statistics.getPercentile(99.9), primary.getScoreUnit()));
+            }
+        }
+    }
+}
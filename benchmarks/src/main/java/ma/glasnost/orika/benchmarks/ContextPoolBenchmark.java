@@ -0,0 +1,122 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingContextFactory;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Order;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderDTO;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the striped MappingContext pool of {@link MappingContext.Factory}
+ * with a single shared {@link LinkedBlockingQueue} (the pool used by earlier
+ * versions), both in isolation (<code>getAndRelease</code>) and for a
+ * complete <code>map</code> call.<br>
+ * <br>
+ * The difference only shows under concurrency; run it through the
+ * {@link ContentionBenchmarkRunner} to produce a scaling curve:
+ * 
+ * <pre>
+ * java -cp benchmarks.jar ma.glasnost.orika.benchmarks.ContentionBenchmarkRunner ContextPoolBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextPoolBenchmark {
+    
+    @Param({ "striped", "queue" })
+    public String pool;
+    
+    private MappingContextFactory contextFactory;
+    private MapperFacade mapperFacade;
+    private Order order;
+    
+    @Setup
+    public void setUp() {
+        contextFactory = "queue".equals(pool) ? new QueueMappingContextFactory() : new MappingContext.Factory();
+        mapperFacade = BenchmarkFixtures.configure(new DefaultMapperFactory.Builder().mappingContextFactory(contextFactory)
+                .useDirectMapperCalls(true).build()).getMapperFacade();
+        order = BenchmarkFixtures.order(42, 3);
+        
+        mapperFacade.map(order, OrderDTO.class);
+    }
+    
+    @Benchmark
+    public MappingContext getAndRelease() {
+        MappingContext context = contextFactory.getContext();
+        contextFactory.release(context);
+        return context;
+    }
+    
+    @Benchmark
+    public OrderDTO mapperFacadeMap() {
+        return mapperFacade.map(order, OrderDTO.class);
+    }
+    
+    /**
+     * The MappingContextFactory of earlier versions, which pools contexts in
+     * a single unbounded queue shared by all threads.
+     */
+    public static class QueueMappingContextFactory implements MappingContextFactory {
+        
+        private final LinkedBlockingQueue<MappingContext> contextQueue = new LinkedBlockingQueue<>();
+        private final ConcurrentHashMap<Object, Object> globalProperties = new ConcurrentHashMap<>();
+        
+        public MappingContext getContext() {
+            MappingContext context = contextQueue.poll();
+            if (context == null) {
+                context = new MappingContext(globalProperties);
+            }
+            context.containsCycle(true);
+            return context;
+        }
+        
+        public void release(MappingContext context) {
+            context.reset();
+            contextQueue.offer(context);
+        }
+        
+        public Map<Object, Object> getGlobalProperties() {
+            return globalProperties;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Quote;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.QuoteDTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the mapping of a type whose every property is resolved through a
+ * built-in converter (numeric narrowing, Date to Calendar, enum to enum,
+ * String to primitive and to String), relative to a hand-written mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+    
+    private MapperFacade mapperFacade;
+    private BoundMapperFacade<Quote, QuoteDTO> bound;
+    private Quote quote;
+    
+    @Setup
+    public void setUp() {
+        MapperFactory mapperFactory = BenchmarkFixtures.newMapperFactory();
+        mapperFacade = mapperFactory.getMapperFacade();
+        bound = mapperFactory.getMapperFacade(Quote.class, QuoteDTO.class, false);
+        quote = BenchmarkFixtures.quote(7);
+        
+        mapperFacade.map(quote, QuoteDTO.class);
+        bound.map(quote);
+    }
+    
+    @Benchmark
+    public QuoteDTO javaManual() {
+        return ManualMappers.map(quote);
+    }
+    
+    @Benchmark
+    public QuoteDTO orika() {
+        return mapperFacade.map(quote, QuoteDTO.class);
+    }
+    
+    @Benchmark
+    public QuoteDTO orikaNoCycles() {
+        return bound.map(quote);
+    }
+}
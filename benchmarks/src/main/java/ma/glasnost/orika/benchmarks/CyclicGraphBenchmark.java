@@ -0,0 +1,111 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingContextFactory;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Department;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.DepartmentDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Order;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderDTO;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.NonCyclicMappingContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of cycle tracking: a bi-directional graph mapped
+ * through the (cycle-aware) {@link MappingContext}, and an acyclic graph
+ * mapped through both the {@link MappingContext} and the
+ * {@link NonCyclicMappingContext}, which isolates the overhead of the
+ * identity cache itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CyclicGraphBenchmark {
+    
+    @Param({ "10", "100" })
+    public int employeeCount;
+    
+    private MapperFacade mapperFacade;
+    private MappingContextFactory cyclicContextFactory;
+    private MappingContextFactory nonCyclicContextFactory;
+    private Department department;
+    private Order order;
+    
+    @Setup
+    public void setUp() {
+        cyclicContextFactory = new MappingContext.Factory();
+        nonCyclicContextFactory = new NonCyclicMappingContext.Factory(cyclicContextFactory.getGlobalProperties());
+        MapperFactory mapperFactory = BenchmarkFixtures.configure(new DefaultMapperFactory.Builder().mappingContextFactory(
+                cyclicContextFactory).useDirectMapperCalls(true).build());
+        mapperFacade = mapperFactory.getMapperFacade();
+        department = BenchmarkFixtures.department(employeeCount);
+        order = BenchmarkFixtures.order(42, employeeCount);
+        
+        mapperFacade.map(department, DepartmentDTO.class);
+        mapperFacade.map(order, OrderDTO.class);
+    }
+    
+    @Benchmark
+    public DepartmentDTO javaManualCyclic() {
+        return ManualMappers.map(department);
+    }
+    
+    @Benchmark
+    public DepartmentDTO orikaCyclic() {
+        return mapperFacade.map(department, DepartmentDTO.class);
+    }
+    
+    @Benchmark
+    public OrderDTO orikaAcyclicWithMappingContext() {
+        return map(order, cyclicContextFactory);
+    }
+    
+    @Benchmark
+    public OrderDTO orikaAcyclicWithNonCyclicMappingContext() {
+        return map(order, nonCyclicContextFactory);
+    }
+    
+    private OrderDTO map(Order source, MappingContextFactory contextFactory) {
+        MappingContext context = contextFactory.getContext();
+        try {
+            return mapperFacade.map(source, OrderDTO.class, context);
+        } finally {
+            contextFactory.release(context);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Address;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.AddressDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Customer;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.CustomerDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Department;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.DepartmentDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Employee;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.EmployeeDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Node;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.NodeDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Order;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderLine;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderLineDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderStatus;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderStatusDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Product;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.ProductDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Quote;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.QuoteDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.SideDTO;
+
+/**
+ * ManualMappers contains hand-written equivalents of the mappers Orika
+ * generates for the {@link BenchmarkModel}; they serve as the "JAVA_MANUAL"
+ * baseline against which the overhead of Orika is measured.<br>
+ * The semantics intentionally mirror the generated code: collections are
+ * copied into new instances and immutable values are copied by reference.
+ */
+public final class ManualMappers {
+
+    private ManualMappers() {
+
+    }
+
+    public static AddressDTO map(Address source) {
+        if (source == null) {
+            return null;
+        }
+        AddressDTO destination = new AddressDTO();
+        destination.setStreet(source.getStreet());
+        destination.setCity(source.getCity());
+        destination.setPostalCode(source.getPostalCode());
+        return destination;
+    }
+
+    public static Address mapReverse(AddressDTO source) {
+        if (source == null) {
+            return null;
+        }
+        Address destination = new Address();
+        destination.setStreet(source.getStreet());
+        destination.setCity(source.getCity());
+        destination.setPostalCode(source.getPostalCode());
+        return destination;
+    }
+
+    public static CustomerDTO map(Customer source) {
+        if (source == null) {
+            return null;
+        }
+        CustomerDTO destination = new CustomerDTO();
+        destination.setName(source.getName());
+        destination.setEmail(source.getEmail());
+        destination.setAddress(map(source.getAddress()));
+        return destination;
+    }
+
+    public static Customer mapReverse(CustomerDTO source) {
+        if (source == null) {
+            return null;
+        }
+        Customer destination = new Customer();
+        destination.setName(source.getName());
+        destination.setEmail(source.getEmail());
+        destination.setAddress(mapReverse(source.getAddress()));
+        return destination;
+    }
+
+    public static ProductDTO map(Product source) {
+        if (source == null) {
+            return null;
+        }
+        ProductDTO destination = new ProductDTO();
+        destination.setSku(source.getSku());
+        destination.setName(source.getName());
+        destination.setListPrice(source.getListPrice());
+        return destination;
+    }
+
+    public static Product mapReverse(ProductDTO source) {
+        if (source == null) {
+            return null;
+        }
+        Product destination = new Product();
+        destination.setSku(source.getSku());
+        destination.setName(source.getName());
+        destination.setListPrice(source.getListPrice());
+        return destination;
+    }
+
+    public static OrderLineDTO map(OrderLine source) {
+        if (source == null) {
+            return null;
+        }
+        OrderLineDTO destination = new OrderLineDTO();
+        destination.setProduct(map(source.getProduct()));
+        destination.setQuantity(source.getQuantity());
+        destination.setUnitPrice(source.getUnitPrice());
+        return destination;
+    }
+
+    public static OrderLine mapReverse(OrderLineDTO source) {
+        if (source == null) {
+            return null;
+        }
+        OrderLine destination = new OrderLine();
+        destination.setProduct(mapReverse(source.getProduct()));
+        destination.setQuantity(source.getQuantity());
+        destination.setUnitPrice(source.getUnitPrice());
+        return destination;
+    }
+
+    public static OrderDTO map(Order source) {
+        if (source == null) {
+            return null;
+        }
+        OrderDTO destination = new OrderDTO();
+        destination.setId(source.getId());
+        destination.setCustomer(map(source.getCustomer()));
+        destination.setShippingAddress(map(source.getShippingAddress()));
+        if (source.getLines() != null) {
+            List<OrderLineDTO> lines = new ArrayList<OrderLineDTO>(source.getLines().size());
+            for (OrderLine line : source.getLines()) {
+                lines.add(map(line));
+            }
+            destination.setLines(lines);
+        }
+        destination.setStatus(source.getStatus() == null ? null : OrderStatusDTO.valueOf(source.getStatus().name()));
+        return destination;
+    }
+
+    public static Order mapReverse(OrderDTO source) {
+        if (source == null) {
+            return null;
+        }
+        Order destination = new Order();
+        destination.setId(source.getId());
+        destination.setCustomer(mapReverse(source.getCustomer()));
+        destination.setShippingAddress(mapReverse(source.getShippingAddress()));
+        if (source.getLines() != null) {
+            List<OrderLine> lines = new ArrayList<OrderLine>(source.getLines().size());
+            for (OrderLineDTO line : source.getLines()) {
+                lines.add(mapReverse(line));
+            }
+            destination.setLines(lines);
+        }
+        destination.setStatus(source.getStatus() == null ? null : OrderStatus.valueOf(source.getStatus().name()));
+        return destination;
+    }
+
+    public static List<OrderDTO> mapAsList(List<Order> source) {
+        List<OrderDTO> destination = new ArrayList<OrderDTO>(source.size());
+        for (Order order : source) {
+            destination.add(map(order));
+        }
+        return destination;
+    }
+
+    public static Map<Long, OrderDTO> mapAsMap(Map<Long, Order> source) {
+        Map<Long, OrderDTO> destination = new LinkedHashMap<Long, OrderDTO>(source.size() * 2);
+        for (Entry<Long, Order> entry : source.entrySet()) {
+            destination.put(entry.getKey(), map(entry.getValue()));
+        }
+        return destination;
+    }
+
+    public static QuoteDTO map(Quote source) {
+        if (source == null) {
+            return null;
+        }
+        QuoteDTO destination = new QuoteDTO();
+        destination.setSymbol(source.getSymbol());
+        destination.setPrice(source.getPrice() == null ? null : Double.valueOf(source.getPrice().doubleValue()));
+        destination.setVolume(source.getVolume() == null ? null : Integer.valueOf(source.getVolume().intValue()));
+        if (source.getIssued() != null) {
+            Calendar issued = Calendar.getInstance();
+            issued.setTime(source.getIssued());
+            destination.setIssued(issued);
+        }
+        destination.setSide(source.getSide() == null ? null : SideDTO.valueOf(source.getSide().name()));
+        if (source.getSpread() != null) {
+            destination.setSpread(Double.parseDouble(source.getSpread()));
+        }
+        destination.setRevision(String.valueOf(source.getRevision()));
+        destination.setSequence(source.getSequence() == null ? null : Long.valueOf(source.getSequence().longValue()));
+        return destination;
+    }
+
+    /**
+     * Maps a department graph, preserving the identity of shared references
+     * (and therefore the cycles) in the same way that Orika's MappingContext
+     * does.
+     *
+     * @param source
+     *            the department to map
+     * @return the mapped department
+     */
+    public static DepartmentDTO map(Department source) {
+        return map(source, new IdentityHashMap<Object, Object>());
+    }
+
+    private static DepartmentDTO map(Department source, Map<Object, Object> mapped) {
+        if (source == null) {
+            return null;
+        }
+        DepartmentDTO destination = (DepartmentDTO) mapped.get(source);
+        if (destination != null) {
+            return destination;
+        }
+        destination = new DepartmentDTO();
+        mapped.put(source, destination);
+        destination.setName(source.getName());
+        destination.setManager(map(source.getManager(), mapped));
+        if (source.getEmployees() != null) {
+            List<EmployeeDTO> employees = new ArrayList<EmployeeDTO>(source.getEmployees().size());
+            for (Employee employee : source.getEmployees()) {
+                employees.add(map(employee, mapped));
+            }
+            destination.setEmployees(employees);
+        }
+        return destination;
+    }
+
+    private static EmployeeDTO map(Employee source, Map<Object, Object> mapped) {
+        if (source == null) {
+            return null;
+        }
+        EmployeeDTO destination = (EmployeeDTO) mapped.get(source);
+        if (destination != null) {
+            return destination;
+        }
+        destination = new EmployeeDTO();
+        mapped.put(source, destination);
+        destination.setName(source.getName());
+        destination.setDepartment(map(source.getDepartment(), mapped));
+        return destination;
+    }
+
+    public static NodeDTO map(Node source) {
+        if (source == null) {
+            return null;
+        }
+        NodeDTO destination = new NodeDTO();
+        destination.setName(source.getName());
+        if (source.getChildren() != null) {
+            List<NodeDTO> children = new ArrayList<NodeDTO>(source.getChildren().size());
+            for (Node child : source.getChildren()) {
+                children.add(map(child));
+            }
+            destination.setChildren(children);
+        }
+        if (source.getWeights() != null) {
+            destination.setWeights(new LinkedHashMap<String, Integer>(source.getWeights()));
+        }
+        return destination;
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Order;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderDTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of {@link MapperFacade#map(Object, Class)} for a
+ * moderately sized object graph, relative to a hand-written mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperFacadeBenchmark {
+    
+    @Param({ "1", "10" })
+    public int lineCount;
+    
+    private MapperFacade mapperFacade;
+    private Order order;
+    
+    @Setup
+    public void setUp() {
+        mapperFacade = BenchmarkFixtures.newMapperFactory().getMapperFacade();
+        order = BenchmarkFixtures.order(42, lineCount);
+        /*
+         * Resolve (and cache) the mapping strategy outside of the measurement
+         */
+        mapperFacade.map(order, OrderDTO.class);
+    }
+    
+    @Benchmark
+    public OrderDTO javaManual() {
+        return ManualMappers.map(order);
+    }
+    
+    @Benchmark
+    public OrderDTO orika() {
+        return mapperFacade.map(order, OrderDTO.class);
+    }
+}
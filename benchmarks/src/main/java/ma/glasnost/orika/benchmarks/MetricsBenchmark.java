@@ -0,0 +1,88 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Order;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.OrderDTO;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Quote;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.QuoteDTO;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metrics.DefaultMapperMetrics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of collecting per-mapper metrics, by mapping the
+ * same objects with metrics disabled and enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    
+    @Param({ "false", "true" })
+    public boolean collectMetrics;
+    
+    private MapperFacade mapperFacade;
+    private BoundMapperFacade<Quote, QuoteDTO> boundQuote;
+    private Order order;
+    private Quote quote;
+    
+    @Setup
+    public void setUp() {
+        MapperFactory mapperFactory = BenchmarkFixtures.configure(new DefaultMapperFactory.Builder()
+                .mapperMetrics(collectMetrics ? new DefaultMapperMetrics() : null)
+                .build());
+        mapperFacade = mapperFactory.getMapperFacade();
+        boundQuote = mapperFactory.getMapperFacade(Quote.class, QuoteDTO.class, false);
+        order = BenchmarkFixtures.order(7, 5);
+        quote = BenchmarkFixtures.quote(7);
+        
+        mapperFacade.map(order, OrderDTO.class);
+        boundQuote.map(quote);
+    }
+    
+    @Benchmark
+    public OrderDTO mapOrder() {
+        return mapperFacade.map(order, OrderDTO.class);
+    }
+    
+    @Benchmark
+    public QuoteDTO mapQuoteBound() {
+        return boundQuote.map(quote);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.Node;
+import ma.glasnost.orika.benchmarks.BenchmarkModel.NodeDTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the mapping of a recursive tree, where each level is a nested
+ * List (and Map) of the next, relative to a hand-written mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NestedCollectionBenchmark {
+    
+    @Param({ "3", "6" })
+    public int depth;
+    
+    @Param({ "4" })
+    public int fanOut;
+    
+    private MapperFacade mapperFacade;
+    private BoundMapperFacade<Node, NodeDTO> boundNoCycles;
+    private Node tree;
+    
+    @Setup
+    public void setUp() {
+        MapperFactory mapperFactory = BenchmarkFixtures.newMapperFactory();
+        mapperFacade = mapperFactory.getMapperFacade();
+        boundNoCycles = mapperFactory.getMapperFacade(Node.class, NodeDTO.class, false);
+        tree = BenchmarkFixtures.tree(depth, fanOut);
+        
+        mapperFacade.map(tree, NodeDTO.class);
+        boundNoCycles.map(tree);
+    }
+    
+    @Benchmark
+    public NodeDTO javaManual() {
+        return ManualMappers.map(tree);
+    }
+    
+    @Benchmark
+    public NodeDTO orika() {
+        return mapperFacade.map(tree, NodeDTO.class);
+    }
+    
+    @Benchmark
+    public NodeDTO orikaNoCycles() {
+        return boundNoCycles.map(tree);
+    }
+}
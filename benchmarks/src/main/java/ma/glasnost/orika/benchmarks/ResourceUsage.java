@@ -0,0 +1,89 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.benchmarks;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * ResourceUsage is a snapshot of the (JVM-wide) resources consumed in the
+ * generation of mappers: metaspace, classes loaded, and bytes allocated by
+ * the current thread.
+ */
+public final class ResourceUsage {
+    
+    private final long metaspaceBytes;
+    private final long loadedClasses;
+    private final long allocatedBytes;
+    
+    private ResourceUsage(long metaspaceBytes, long loadedClasses, long allocatedBytes) {
+        this.metaspaceBytes = metaspaceBytes;
+        this.loadedClasses = loadedClasses;
+        this.allocatedBytes = allocatedBytes;
+    }
+    
+    /**
+     * @return a snapshot of the current resource usage
+     */
+    public static ResourceUsage current() {
+        long metaspace = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                metaspace = pool.getUsage().getUsed();
+            }
+        }
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        return new ResourceUsage(metaspace, classLoading.getTotalLoadedClassCount(), allocatedBytes());
+    }
+    
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+    
+    /**
+     * @param before
+     *            an earlier snapshot
+     * @return the resources consumed since the <code>before</code> snapshot
+     */
+    public ResourceUsage since(ResourceUsage before) {
+        return new ResourceUsage(metaspaceBytes - before.metaspaceBytes, loadedClasses - before.loadedClasses,
+                allocatedBytes < 0 || before.allocatedBytes < 0 ? -1 : allocatedBytes - before.allocatedBytes);
+    }
+    
+    public long getMetaspaceBytes() {
+        return metaspaceBytes;
+    }
+    
+    public long getLoadedClasses() {
+        return loadedClasses;
+    }
+    
+    /**
+     * @return the bytes allocated, or -1 if the JVM does not support
+     *         measurement of thread allocation
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.OrikaSystemProperties;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.CompilerStrategy;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Measures cold-start cost: registration of class-maps followed by
+ * {@link MapperFactory#getMapperFacade()} (which builds the factory), and
+ * the auto-generation of mappers on first lookup, for each of the
+ * CompilerStrategy implementations and models of 10, 100 and 1000 classes.<br>
+ * <br>
+ * Every measurement runs in a fresh JVM against a freshly generated
+ * {@link SyntheticModel}; the {@link StartupProfiler} reports the
+ * wall-clock time, metaspace, loaded classes and allocation per mapper.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+    
+    private static final String COMPILER_STRATEGY_PACKAGE = "ma.glasnost.orika.impl.generator.";
+    
+    @Param({ "JavassistCompilerStrategy", "JaninoCompilerStrategy", "EclipseJdtCompilerStrategy" })
+    public String compilerStrategy;
+    
+    @Param({ "10", "100", "1000" })
+    public int classCount;
+    
+    private SyntheticModel model;
+    private MapperFactory mapperFactory;
+    private MapperKey[] mapperKeys;
+    private ClassLoader contextClassLoader;
+    private ResourceUsage usageAtStart;
+    
+    @Setup(Level.Iteration)
+    public void setUp(BenchmarkParams params) throws Exception {
+        System.setProperty(OrikaSystemProperties.WRITE_SOURCE_FILES, "false");
+        System.setProperty(OrikaSystemProperties.WRITE_CLASS_FILES, "false");
+        
+        model = SyntheticModel.generate(classCount);
+        /*
+         * The generated mappers are defined using the context class-loader,
+         * which must therefore be able to see the synthetic model
+         */
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(model.getClassLoader());
+        
+        CompilerStrategy strategy = (CompilerStrategy) Class.forName(COMPILER_STRATEGY_PACKAGE + compilerStrategy).newInstance();
+        mapperFactory = new DefaultMapperFactory.Builder().compilerStrategy(strategy).build();
+        mapperKeys = new MapperKey[classCount];
+        for (int i = 0; i < classCount; ++i) {
+            mapperKeys[i] = new MapperKey(TypeFactory.valueOf(model.getSourceClass(i)), TypeFactory.valueOf(model.getDestinationClass(i)));
+        }
+        if (params.getBenchmark().endsWith(".lookupMapper")) {
+            /*
+             * Mappers are only auto-generated once the factory is built
+             */
+            mapperFactory.getMapperFacade();
+        }
+        
+        System.gc();
+        usageAtStart = ResourceUsage.current();
+    }
+    
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        StartupProfiler.record(ResourceUsage.current().since(usageAtStart), classCount);
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+        mapperFactory = null;
+        mapperKeys = null;
+        model = null;
+    }
+    
+    @Benchmark
+    public MapperFacade build() {
+        for (int i = 0; i < classCount; ++i) {
+            mapperFactory.classMap(model.getSourceClass(i), model.getDestinationClass(i)).byDefault().register();
+        }
+        return mapperFactory.getMapperFacade();
+    }
+    
+    @Benchmark
+    public int lookupMapper() {
+        int found = 0;
+        for (MapperKey mapperKey : mapperKeys) {
+            if (mapperFactory.lookupMapper(mapperKey) != null) {
+                ++found;
+            }
+        }
+        return found;
+    }
+}
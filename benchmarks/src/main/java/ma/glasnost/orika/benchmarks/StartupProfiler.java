@@ -0,0 +1,90 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * StartupProfiler reports the resources consumed per generated mapper, as
+ * recorded by benchmarks (such as {@link StartupBenchmark}) which call
+ * {@link #record(ResourceUsage, int)} at the end of each iteration; it
+ * reports nothing for other benchmarks.<br>
+ * <br>
+ * Enabled by default by the {@link BenchmarkRunner}; otherwise use
+ * <code>-prof ma.glasnost.orika.benchmarks.StartupProfiler</code>.
+ */
+public class StartupProfiler implements InternalProfiler {
+    
+    private static volatile ResourceUsage lastUsage;
+    private static volatile int lastMapperCount;
+    
+    /**
+     * Records the resources consumed by the current iteration.
+     * 
+     * @param usage
+     *            the resources consumed
+     * @param mapperCount
+     *            the number of mappers generated
+     */
+    public static void record(ResourceUsage usage, int mapperCount) {
+        lastMapperCount = mapperCount;
+        lastUsage = usage;
+    }
+    
+    public String getDescription() {
+        return "Wall-clock time, metaspace, loaded classes and allocation per generated mapper";
+    }
+    
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        lastUsage = null;
+    }
+    
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+            IterationResult result) {
+        ResourceUsage usage = lastUsage;
+        int mappers = lastMapperCount;
+        if (usage == null || mappers <= 0) {
+            return Collections.emptyList();
+        }
+        List<Result> results = new ArrayList<Result>(4);
+        double nanosPerOp = result.getPrimaryResult().getScore() * benchmarkParams.getTimeUnit().toNanos(1);
+        results.add(new ScalarResult("startup.time.perMapper", nanosPerOp / TimeUnit.MICROSECONDS.toNanos(1) / mappers,
+                "us/mapper", AggregationPolicy.AVG));
+        results.add(new ScalarResult("startup.metaspace.perMapper", (double) usage.getMetaspaceBytes() / mappers, "B/mapper",
+                AggregationPolicy.AVG));
+        results.add(new ScalarResult("startup.classes.perMapper", (double) usage.getLoadedClasses() / mappers, "classes/mapper",
+                AggregationPolicy.AVG));
+        if (usage.getAllocatedBytes() >= 0) {
+            results.add(new ScalarResult("startup.alloc.perMapper", (double) usage.getAllocatedBytes() / mappers, "B/mapper",
+                    AggregationPolicy.AVG));
+        }
+        return results;
+    }
+}
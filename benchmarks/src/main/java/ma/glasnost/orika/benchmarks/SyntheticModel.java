@@ -0,0 +1,205 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.HashMap;
+import java.util.Map;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.Modifier;
+
+/**
+ * SyntheticModel generates an arbitrary number of (source, destination)
+ * JavaBean pairs, defined by a dedicated class-loader so that every model
+ * is "cold": none of its types have been seen by Orika (or the JIT) before.<br>
+ * <br>
+ * Each bean has a handful of properties of common types, plus a reference to
+ * the next bean of the same kind, so that the generated mappers also exercise
+ * the resolution of used mappers.
+ */
+public final class SyntheticModel {
+    
+    public static final String PACKAGE_NAME = "ma.glasnost.orika.benchmarks.synthetic";
+    
+    private final ClassLoader classLoader;
+    private final Class<?>[] sourceClasses;
+    private final Class<?>[] destinationClasses;
+    
+    private SyntheticModel(ClassLoader classLoader, Class<?>[] sourceClasses, Class<?>[] destinationClasses) {
+        this.classLoader = classLoader;
+        this.sourceClasses = sourceClasses;
+        this.destinationClasses = destinationClasses;
+    }
+    
+    /**
+     * @return the number of (source, destination) pairs in this model
+     */
+    public int size() {
+        return sourceClasses.length;
+    }
+    
+    /**
+     * @return the class-loader which defines the classes of this model
+     */
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+    
+    public Class<?> getSourceClass(int index) {
+        return sourceClasses[index];
+    }
+    
+    public Class<?> getDestinationClass(int index) {
+        return destinationClasses[index];
+    }
+    
+    /**
+     * Generates a new model.
+     * 
+     * @param pairCount
+     *            the number of (source, destination) pairs to generate
+     * @return the generated model
+     */
+    public static SyntheticModel generate(int pairCount) {
+        try {
+            ClassPool pool = new ClassPool(true);
+            CtClass[] sources = new CtClass[pairCount];
+            CtClass[] destinations = new CtClass[pairCount];
+            for (int i = 0; i < pairCount; ++i) {
+                sources[i] = makeClass(pool, "Source" + i);
+                destinations[i] = makeClass(pool, "Destination" + i);
+            }
+            
+            Map<String, byte[]> classData = new HashMap<String, byte[]>(pairCount * 4);
+            for (int i = 0; i < pairCount; ++i) {
+                addProperties(pool, sources[i], i + 1 < pairCount ? sources[i + 1] : null);
+                addProperties(pool, destinations[i], i + 1 < pairCount ? destinations[i + 1] : null);
+            }
+            for (int i = 0; i < pairCount; ++i) {
+                classData.put(sources[i].getName(), sources[i].toBytecode());
+                classData.put(destinations[i].getName(), destinations[i].toBytecode());
+                sources[i].detach();
+                destinations[i].detach();
+            }
+            
+            SyntheticClassLoader classLoader = new SyntheticClassLoader(SyntheticModel.class.getClassLoader(), classData);
+            Class<?>[] sourceClasses = new Class<?>[pairCount];
+            Class<?>[] destinationClasses = new Class<?>[pairCount];
+            for (int i = 0; i < pairCount; ++i) {
+                sourceClasses[i] = Class.forName(PACKAGE_NAME + ".Source" + i, true, classLoader);
+                destinationClasses[i] = Class.forName(PACKAGE_NAME + ".Destination" + i, true, classLoader);
+            }
+            return new SyntheticModel(classLoader, sourceClasses, destinationClasses);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not generate a synthetic model of " + pairCount + " classes", e);
+        }
+    }
+    
+    private static CtClass makeClass(ClassPool pool, String simpleName) {
+        CtClass type = pool.makeClass(PACKAGE_NAME + "." + simpleName);
+        type.setModifiers(Modifier.PUBLIC);
+        return type;
+    }
+    
+    private static void addProperties(ClassPool pool, CtClass type, CtClass next) throws Exception {
+        type.addConstructor(CtNewConstructor.defaultConstructor(type));
+        addProperty(type, CtClass.longType, "id");
+        addProperty(type, pool.get("java.lang.String"), "name");
+        addProperty(type, CtClass.intType, "count");
+        addProperty(type, CtClass.doubleType, "amount");
+        addProperty(type, pool.get("java.lang.Long"), "version");
+        addProperty(type, pool.get("java.util.Date"), "created");
+        if (next != null) {
+            addProperty(type, next, "next");
+        }
+    }
+    
+    private static void addProperty(CtClass type, CtClass propertyType, String name) throws Exception {
+        CtField field = new CtField(propertyType, name, type);
+        field.setModifiers(Modifier.PRIVATE);
+        type.addField(field);
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        type.addMethod(CtNewMethod.getter("get" + suffix, field));
+        type.addMethod(CtNewMethod.setter("set" + suffix, field));
+    }
+    
+    /**
+     * Defines the generated classes on demand, and also exposes their bytes
+     * as resources (as required by the Javassist and EclipseJdt compilers).
+     */
+    private static final class SyntheticClassLoader extends ClassLoader {
+        
+        private final Map<String, byte[]> classData;
+        
+        private SyntheticClassLoader(ClassLoader parent, Map<String, byte[]> classData) {
+            super(parent);
+            this.classData = classData;
+        }
+        
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] data = classData.get(name);
+            if (data == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, data, 0, data.length);
+        }
+        
+        @Override
+        protected URL findResource(String name) {
+            String resourceName = name.startsWith("/") ? name.substring(1) : name;
+            if (!resourceName.endsWith(".class")) {
+                return null;
+            }
+            final byte[] data = classData.get(resourceName.substring(0, resourceName.length() - 6).replace('/', '.'));
+            if (data == null) {
+                return null;
+            }
+            try {
+                return new URL(null, "synthetic:/" + resourceName, new URLStreamHandler() {
+                    @Override
+                    protected URLConnection openConnection(URL url) {
+                        return new URLConnection(url) {
+                            @Override
+                            public void connect() {
+                                connected = true;
+                            }
+                            
+                            @Override
+                            public InputStream getInputStream() {
+                                return new ByteArrayInputStream(data);
+                            }
+                        };
+                    }
+                });
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
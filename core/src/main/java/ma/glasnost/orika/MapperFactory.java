@@ -23,6 +23,7 @@ import ma.glasnost.orika.metadata.ClassMap;
 import ma.glasnost.orika.metadata.ClassMapBuilder;
 import ma.glasnost.orika.metadata.MapperKey;
 import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metrics.MapperMetrics;
 import ma.glasnost.orika.unenhance.UnenhanceStrategy;
 
 import java.util.Set;
@@ -351,6 +352,17 @@ public interface MapperFactory {
      */
     ConverterFactory getConverterFactory();
     
+    /**
+     * Get the MapperMetrics which collect runtime statistics for the mappings
+     * performed by this MapperFactory; by default, no metrics are collected.
+     * 
+     * @return the MapperMetrics associated with this MapperFactory, or
+     *         <code>null</code> if metrics are not collected
+     */
+    default MapperMetrics getMapperMetrics() {
+        return null;
+    }
+    
     /**
      * Builds this MapperFactory.
      * 
@@ -19,27 +19,46 @@
 package ma.glasnost.orika;
 
 import ma.glasnost.orika.cern.colt.map.OpenIntObjectHashMap;
+import ma.glasnost.orika.impl.util.StripedPool;
 import ma.glasnost.orika.metadata.ClassMap;
 import ma.glasnost.orika.metadata.MapperKey;
 import ma.glasnost.orika.metadata.Type;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * MappingContext provides storage for information shared among the various
- * mapping objects for a given mapping request.
+ * mapping objects for a given mapping request.<br>
+ * <br>
+ * Its registry of concrete classes, cycle cache and field context are only
+ * allocated once they are first used, and are kept flat: objects mapped
+ * while guarding against cycles are held in a single open-addressing
+ * identity table (keyed by the source object and the unique index of the
+ * destination type), and the field context in parallel arrays;
+ * {@link #reset()} only visits the entries actually used.
  * 
  */
 public class MappingContext {
     
-    protected final Map<Type<?>, Type<?>> mapping;
-    protected final OpenIntObjectHashMap typeCache;
+    /**
+     * The concrete classes registered for this mapping session; null until
+     * the first one is registered.
+     */
+    protected Map<Type<?>, Type<?>> mapping;
+    /**
+     * @deprecated mapped objects are no longer cached here, but in an
+     *             identity table private to this context; this field is no
+     *             longer used by MappingContext: it is always null (unless a
+     *             subclass assigns it), and is not cleared on
+     *             {@link #reset()}. It will be removed in a future release.
+     */
+    @Deprecated
+    protected OpenIntObjectHashMap typeCache;
     protected List<Map<MapperKey, ClassMap<?, ?>>> mappersSeen;
     protected Map<Object, Object> properties;
     protected Map<Object, Object> globalProperties;
@@ -49,23 +68,97 @@ public class MappingContext {
     protected Type<?> resolvedSourceType;
     protected Type<?> resolvedDestinationType;
     protected MappingStrategy resolvedStrategy;
+    /**
+     * @deprecated the field context is no longer held as a list of arrays;
+     *             this field is no longer used by MappingContext, and is
+     *             always null (unless a subclass assigns it), so it does not
+     *             reflect the current field context. Use
+     *             {@link #getSourceObjects()},
+     *             {@link #getDestinationObjects()} and the other accessors of
+     *             the field context instead. It will be removed in a future
+     *             release.
+     */
+    @Deprecated
     protected List<Object[]> fieldMappingStack;
     protected boolean capturesFieldContext;
     
+    /*
+     * The identity table of mapped objects: the source, the unique index of
+     * the destination type and the destination of each entry are held at the
+     * same position of the three arrays, and the positions in use are listed
+     * in usedSlots, so that the table can be cleared without scanning it
+     */
+    private Object[] mappedSources;
+    private int[] mappedTypeIndexes;
+    private Object[] mappedDestinations;
+    private int[] usedSlots;
+    private int mappedCount;
+    
+    /*
+     * The field context stack, as parallel arrays
+     */
+    private String[] fieldSourceNames;
+    private Type<?>[] fieldSourceTypes;
+    private Object[] fieldSources;
+    private String[] fieldDestinationNames;
+    private Type<?>[] fieldDestinationTypes;
+    private Object[] fieldDestinations;
+    private int fieldDepth;
+    
+    /*
+     * The stack of objects currently being mapped by mappers found to be
+     * acyclic, whose caching is deferred until a mapper or converter which
+     * could not be analyzed is reached; entries below cachedDeferredDepth
+     * have already been cached
+     */
+    private Object[] deferredSources;
+    private Type<?>[] deferredTypes;
+    private Object[] deferredDestinations;
+    private int deferredDepth;
+    private int cachedDeferredDepth;
+    
+    private static final int INITIAL_TABLE_CAPACITY = 16;
+    private static final int INITIAL_FIELD_STACK_CAPACITY = 8;
+    
+    /*
+     * Tables grown beyond this capacity by a large object graph are dropped
+     * on reset, rather than being retained by a pooled context
+     */
+    private static final int MAX_RETAINED_TABLE_CAPACITY = 4096;
+    
+    /**
+     * The elements of the field context; retained for compatibility, since
+     * the field context is no longer held as an array per field.
+     */
     public static enum StackElement {
         SOURCE_NAME, SOURCE_TYPE, SOURCE, DEST_NAME, DEST_TYPE, DEST
     }
     
     /**
-     * Factory constructs instances of the base MappingContext
+     * Factory constructs instances of the base MappingContext; released
+     * contexts are reused through a {@link StripedPool}, so that threads
+     * mapping concurrently do not contend on a single shared queue.
      */
     public static class Factory implements MappingContextFactory {
         
-        LinkedBlockingQueue<MappingContext> contextQueue = new LinkedBlockingQueue<>();
+        final StripedPool<MappingContext> contextPool;
         ConcurrentHashMap<Object, Object> globalProperties = new ConcurrentHashMap<>();
         
+        public Factory() {
+            this.contextPool = new StripedPool<>();
+        }
+        
+        /**
+         * @param stripes
+         *            the (minimum) number of stripes used to pool released
+         *            contexts
+         */
+        public Factory(int stripes) {
+            this.contextPool = new StripedPool<>(stripes);
+        }
+        
         public MappingContext getContext() {
-            MappingContext context = contextQueue.poll();
+            MappingContext context = contextPool.poll();
             if (context == null) {
                 context = new MappingContext(globalProperties);
             }
@@ -75,7 +168,7 @@ public class MappingContext {
         
         public void release(MappingContext context) {
             context.reset();
-            contextQueue.offer(context);
+            contextPool.offer(context);
         }
         
         /*
@@ -95,8 +188,6 @@ public class MappingContext {
      * @param globalProperties
      */
     public MappingContext(Map<Object, Object> globalProperties) {
-        this.mapping = new HashMap<>();
-        this.typeCache = new OpenIntObjectHashMap();
         this.globalProperties = globalProperties;
         Boolean capture = globalProperties != null ? (Boolean)globalProperties.get(Properties.CAPTURE_FIELD_CONTEXT) : null;
         this.capturesFieldContext = capture == null || capture;
@@ -139,7 +230,7 @@ public class MappingContext {
      */
     @SuppressWarnings("unchecked")
     public <S, D> Type<? extends D> getConcreteClass(Type<S> sourceType, Type<D> destinationType) {
-        if (isNew) {
+        if (isNew || mapping == null) {
             return null;
         }
         final Type<?> type = mapping.get(sourceType);
@@ -157,6 +248,9 @@ public class MappingContext {
      * @param concreteClass
      */
     public void registerConcreteClass(Type<?> subjectClass, Type<?> concreteClass) {
+        if (mapping == null) {
+            mapping = new HashMap<>();
+        }
         mapping.put(subjectClass, concreteClass);
         isNew = false;
     }
@@ -170,16 +264,27 @@ public class MappingContext {
      * @param destinationType
      * @param destination
      */
-    @SuppressWarnings("unchecked")
     public <S, D> void cacheMappedObject(S source, Type<Object> destinationType, D destination) {
-        if (containsCycle) {
-            Map<Object, Object> localCache = (Map<Object, Object>) typeCache.get(destinationType.getUniqueIndex());
-            if (localCache == null) {
-                localCache = new IdentityHashMap<>(2);
-                typeCache.put(destinationType.getUniqueIndex(), localCache);
-                
+        if (containsCycle && source != null) {
+            if (mappedSources == null) {
+                allocateTable(INITIAL_TABLE_CAPACITY);
+            } else if ((mappedCount + 1) * 2 > mappedSources.length) {
+                growTable();
+            }
+            int typeIndex = destinationType.getUniqueIndex();
+            int mask = mappedSources.length - 1;
+            int slot = slotOf(source, typeIndex, mask);
+            while (mappedSources[slot] != null) {
+                if (mappedSources[slot] == source && mappedTypeIndexes[slot] == typeIndex) {
+                    mappedDestinations[slot] = destination;
+                    return;
+                }
+                slot = (slot + 1) & mask;
             }
-            localCache.put(source, destination);
+            mappedSources[slot] = source;
+            mappedTypeIndexes[slot] = typeIndex;
+            mappedDestinations[slot] = destination;
+            usedSlots[mappedCount++] = slot;
             
             isNew = false;
         }
@@ -197,11 +302,115 @@ public class MappingContext {
     @SuppressWarnings("unchecked")
     public <D> D getMappedObject(Object source, Type<?> destinationType) {
         
-        if (isNew || !containsCycle) {
+        if (isNew || !containsCycle || mappedCount == 0 || source == null) {
             return null;
         }
-        Map<Object, Object> localCache = (Map<Object, Object>) typeCache.get(destinationType.getUniqueIndex());
-        return (D) (localCache == null ? null : localCache.get(source));
+        int typeIndex = destinationType.getUniqueIndex();
+        int mask = mappedSources.length - 1;
+        int slot = slotOf(source, typeIndex, mask);
+        Object candidate;
+        while ((candidate = mappedSources[slot]) != null) {
+            if (candidate == source && mappedTypeIndexes[slot] == typeIndex) {
+                return (D) mappedDestinations[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+    
+    /**
+     * Records an object which is being mapped for a particular source instance
+     * and destination type, without caching it; this is used in place of
+     * {@link #cacheMappedObject(Object, Type, Object)} by mappers which have
+     * been found not to be part of any cycle, so that the object need only be
+     * cached if a mapper or converter which could not be analyzed is invoked
+     * while it is being mapped (see {@link #cacheDeferredMappedObjects()}).
+     * <br>
+     * Each call must be matched by a call to {@link #endDeferredMappedObject()}
+     * once the object has been mapped.
+     * 
+     * @param source
+     * @param destinationType
+     * @param destination
+     */
+    public void deferMappedObject(Object source, Type<Object> destinationType, Object destination) {
+        if (deferredSources == null) {
+            deferredSources = new Object[INITIAL_FIELD_STACK_CAPACITY];
+            deferredTypes = new Type<?>[INITIAL_FIELD_STACK_CAPACITY];
+            deferredDestinations = new Object[INITIAL_FIELD_STACK_CAPACITY];
+        } else if (deferredDepth == deferredSources.length) {
+            int capacity = deferredDepth * 2;
+            deferredSources = Arrays.copyOf(deferredSources, capacity);
+            deferredTypes = Arrays.copyOf(deferredTypes, capacity);
+            deferredDestinations = Arrays.copyOf(deferredDestinations, capacity);
+        }
+        deferredSources[deferredDepth] = source;
+        deferredTypes[deferredDepth] = destinationType;
+        deferredDestinations[deferredDepth] = destination;
+        ++deferredDepth;
+    }
+    
+    /**
+     * Marks the end of the mapping of the object most recently recorded by
+     * {@link #deferMappedObject(Object, Type, Object)}
+     */
+    public void endDeferredMappedObject() {
+        --deferredDepth;
+        deferredSources[deferredDepth] = null;
+        deferredTypes[deferredDepth] = null;
+        deferredDestinations[deferredDepth] = null;
+        if (cachedDeferredDepth > deferredDepth) {
+            cachedDeferredDepth = deferredDepth;
+        }
+    }
+    
+    /**
+     * Caches the objects currently being mapped whose caching was deferred;
+     * this must be invoked before delegating to a mapper or converter which
+     * could map an object graph in ways which were not analyzed, since such a
+     * mapper or converter could reach the objects again.
+     */
+    @SuppressWarnings("unchecked")
+    public void cacheDeferredMappedObjects() {
+        if (containsCycle) {
+            for (int i = cachedDeferredDepth; i < deferredDepth; ++i) {
+                cacheMappedObject(deferredSources[i], (Type<Object>) deferredTypes[i], deferredDestinations[i]);
+            }
+            cachedDeferredDepth = deferredDepth;
+        }
+    }
+    
+    private static int slotOf(Object source, int typeIndex, int mask) {
+        int hash = (System.identityHashCode(source) * 31 + typeIndex) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+    
+    private void allocateTable(int capacity) {
+        mappedSources = new Object[capacity];
+        mappedTypeIndexes = new int[capacity];
+        mappedDestinations = new Object[capacity];
+        usedSlots = new int[capacity / 2];
+    }
+    
+    private void growTable() {
+        Object[] sources = mappedSources;
+        int[] typeIndexes = mappedTypeIndexes;
+        Object[] destinations = mappedDestinations;
+        int[] slots = usedSlots;
+        int count = mappedCount;
+        allocateTable(sources.length * 2);
+        int mask = mappedSources.length - 1;
+        for (int i = 0; i < count; ++i) {
+            int oldSlot = slots[i];
+            int slot = slotOf(sources[oldSlot], typeIndexes[oldSlot], mask);
+            while (mappedSources[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            mappedSources[slot] = sources[oldSlot];
+            mappedTypeIndexes[slot] = typeIndexes[oldSlot];
+            mappedDestinations[slot] = destinations[oldSlot];
+            usedSlots[i] = slot;
+        }
     }
     
     /**
@@ -286,21 +495,47 @@ public class MappingContext {
      *            the destination object being mapped into
      */
     public void beginMappingField(String sourceName, Type<?> sourceType, Object source, String destName, Type<?> destType, Object dest) {
-        if (fieldMappingStack == null) {
-            fieldMappingStack = new ArrayList<>();
+        if (fieldSourceNames == null) {
+            allocateFieldStack(INITIAL_FIELD_STACK_CAPACITY);
+        } else if (fieldDepth == fieldSourceNames.length) {
+            allocateFieldStack(fieldDepth * 2);
         }
-        Object[] stackElement = new Object[StackElement.values().length];
-        stackElement[StackElement.SOURCE_NAME.ordinal()] = sourceName;
-        stackElement[StackElement.SOURCE_TYPE.ordinal()] = sourceType;
-        stackElement[StackElement.SOURCE.ordinal()] = source;
-        stackElement[StackElement.DEST_NAME.ordinal()] = destName;
-        stackElement[StackElement.DEST_TYPE.ordinal()] = destType;
-        stackElement[StackElement.DEST.ordinal()] = dest;
-        fieldMappingStack.add(stackElement);
+        fieldSourceNames[fieldDepth] = sourceName;
+        fieldSourceTypes[fieldDepth] = sourceType;
+        fieldSources[fieldDepth] = source;
+        fieldDestinationNames[fieldDepth] = destName;
+        fieldDestinationTypes[fieldDepth] = destType;
+        fieldDestinations[fieldDepth] = dest;
+        ++fieldDepth;
     }
     
     public void endMappingField() {
-        fieldMappingStack.remove(fieldMappingStack.size() - 1);
+        clearField(--fieldDepth);
+    }
+    
+    private void allocateFieldStack(int capacity) {
+        fieldSourceNames = copyOf(fieldSourceNames, new String[capacity]);
+        fieldSourceTypes = copyOf(fieldSourceTypes, new Type<?>[capacity]);
+        fieldSources = copyOf(fieldSources, new Object[capacity]);
+        fieldDestinationNames = copyOf(fieldDestinationNames, new String[capacity]);
+        fieldDestinationTypes = copyOf(fieldDestinationTypes, new Type<?>[capacity]);
+        fieldDestinations = copyOf(fieldDestinations, new Object[capacity]);
+    }
+    
+    private <T> T[] copyOf(T[] elements, T[] target) {
+        if (elements != null) {
+            System.arraycopy(elements, 0, target, 0, fieldDepth);
+        }
+        return target;
+    }
+    
+    private void clearField(int index) {
+        fieldSourceNames[index] = null;
+        fieldSourceTypes[index] = null;
+        fieldSources[index] = null;
+        fieldDestinationNames[index] = null;
+        fieldDestinationTypes[index] = null;
+        fieldDestinations[index] = null;
     }
     
     /**
@@ -308,13 +543,13 @@ public class MappingContext {
      *         currently being mapped
      */
     public String getFullyQualifiedSourcePath() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!capturesFieldContext || fieldSourceNames == null) {
             return null;
         }
         StringBuilder path = new StringBuilder("source");
-        for (Object[] element : fieldMappingStack) {
+        for (int i = 0; i < fieldDepth; ++i) {
             path.append(".");
-            path.append(element[StackElement.SOURCE_NAME.ordinal()]);
+            path.append(fieldSourceNames[i]);
         }
         return path.toString();
     }
@@ -326,14 +561,11 @@ public class MappingContext {
      *         class-map.
      */
     public String[] getSourceExpressionPaths() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!capturesFieldContext || fieldSourceNames == null) {
             return null;
         }
-        String[] path = new String[fieldMappingStack.size()];
-        int idx = 0;
-        for (Object[] element : fieldMappingStack) {
-            path[idx++] = (String) element[StackElement.SOURCE_NAME.ordinal()];
-        }
+        String[] path = new String[fieldDepth];
+        System.arraycopy(fieldSourceNames, 0, path, 0, fieldDepth);
         return path;
     }
     
@@ -343,14 +575,11 @@ public class MappingContext {
      *         source field being currently mapped
      */
     public Object[] getSourceObjects() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!capturesFieldContext || fieldSources == null) {
             return null;
         }
-        Object[] path = new Object[fieldMappingStack.size()];
-        int idx = 0;
-        for (Object[] element : fieldMappingStack) {
-            path[idx++] = element[StackElement.SOURCE.ordinal()];
-        }
+        Object[] path = new Object[fieldDepth];
+        System.arraycopy(fieldSources, 0, path, 0, fieldDepth);
         return path;
     }
     
@@ -361,14 +590,11 @@ public class MappingContext {
      * 
      */
     public java.lang.reflect.Type[] getSourceTypePaths() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!capturesFieldContext || fieldSourceTypes == null) {
             return null;
         }
-        java.lang.reflect.Type[] path = new java.lang.reflect.Type[fieldMappingStack.size()];
-        int idx = 0;
-        for (Object[] element : fieldMappingStack) {
-            path[idx++] = (java.lang.reflect.Type) element[StackElement.SOURCE_TYPE.ordinal()];
-        }
+        java.lang.reflect.Type[] path = new java.lang.reflect.Type[fieldDepth];
+        System.arraycopy(fieldSourceTypes, 0, path, 0, fieldDepth);
         return path;
     }
     
@@ -377,13 +603,13 @@ public class MappingContext {
      *         field currently being mapped
      */
     public String getFullyQualifiedDestinationPath() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!capturesFieldContext || fieldDestinationNames == null) {
             return null;
         }
         StringBuilder path = new StringBuilder("destination");
-        for (Object[] element : fieldMappingStack) {
+        for (int i = 0; i < fieldDepth; ++i) {
             path.append(".");
-            path.append(element[StackElement.DEST_NAME.ordinal()]);
+            path.append(fieldDestinationNames[i]);
         }
         return path.toString();
     }
@@ -395,14 +621,11 @@ public class MappingContext {
      *         class-map.
      */
     public String[] getDestinationExpressionPaths() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!capturesFieldContext || fieldDestinationNames == null) {
             return null;
         }
-        String[] path = new String[fieldMappingStack.size()];
-        int idx = 0;
-        for (Object[] element : fieldMappingStack) {
-            path[idx++] = (String) element[StackElement.DEST_NAME.ordinal()];
-        }
+        String[] path = new String[fieldDepth];
+        System.arraycopy(fieldDestinationNames, 0, path, 0, fieldDepth);
         return path;
     }
     
@@ -412,14 +635,11 @@ public class MappingContext {
      *         destination field being currently mapped
      */
     public Object[] getDestinationObjects() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!capturesFieldContext || fieldDestinations == null) {
             return null;
         }
-        Object[] path = new Object[fieldMappingStack.size()];
-        int idx = 0;
-        for (Object[] element : fieldMappingStack) {
-            path[idx++] = element[StackElement.DEST.ordinal()];
-        }
+        Object[] path = new Object[fieldDepth];
+        System.arraycopy(fieldDestinations, 0, path, 0, fieldDepth);
         return path;
     }
     
@@ -429,14 +649,11 @@ public class MappingContext {
      *         type in the chain of mappers called to map the current field.
      */
     public java.lang.reflect.Type[] getDestinationTypePaths() {
-        if (!capturesFieldContext || fieldMappingStack == null) {
+        if (!capturesFieldContext || fieldDestinationTypes == null) {
             return null;
         }
-        java.lang.reflect.Type[] path = new java.lang.reflect.Type[fieldMappingStack.size()];
-        int idx = 0;
-        for (Object[] element : fieldMappingStack) {
-            path[idx++] = (java.lang.reflect.Type) element[StackElement.DEST_TYPE.ordinal()];
-        }
+        java.lang.reflect.Type[] path = new java.lang.reflect.Type[fieldDepth];
+        System.arraycopy(fieldDestinationTypes, 0, path, 0, fieldDepth);
         return path;
     }
     
@@ -452,16 +669,21 @@ public class MappingContext {
      * request
      */
     public void reset() {
-        mapping.clear();
-        typeCache.clear();
+        if (mapping != null) {
+            mapping.clear();
+        }
+        clearTable();
         if (properties != null) {
             properties.clear();
         }
         if (mappersSeen != null) {
             mappersSeen.clear();
         }
-        if (fieldMappingStack != null) {
-            fieldMappingStack.clear();
+        while (fieldDepth > 0) {
+            clearField(--fieldDepth);
+        }
+        while (deferredDepth > 0) {
+            endDeferredMappedObject();
         }
         resolvedSourceType = null;
         resolvedDestinationType = null;
@@ -470,6 +692,25 @@ public class MappingContext {
         depth = 0;
     }
     
+    private void clearTable() {
+        if (mappedSources == null) {
+            return;
+        }
+        if (mappedSources.length > MAX_RETAINED_TABLE_CAPACITY) {
+            mappedSources = null;
+            mappedTypeIndexes = null;
+            mappedDestinations = null;
+            usedSlots = null;
+        } else {
+            for (int i = 0; i < mappedCount; ++i) {
+                int slot = usedSlots[i];
+                mappedSources[slot] = null;
+                mappedDestinations[slot] = null;
+            }
+        }
+        mappedCount = 0;
+    }
+    
     /**
      * Sets an instance property on this MappingContext
      * 
@@ -177,4 +177,84 @@ public final class OrikaSystemProperties {
      * default value is <code>true</code>
      */
     public static final String GET_DESTINATION_ON_MAPPING = "ma.glasnost.orika.getDestinationOnMapping";
+
+    /**
+     * Specifies whether the default mapper factory should collect per-mapper metrics (invocation counts,
+     * latencies, object creations and conversions), available from {@link MapperFactory#getMapperMetrics()}.
+     * <p>
+     * Default value is <code>false</code>
+     */
+    public static final String COLLECT_METRICS = "ma.glasnost.orika.collectMetrics";
+
+    /**
+     * Specifies whether the default mapper factory should analyze the registered class-maps for cycles when it is
+     * built, so that the objects mapped by mappers which cannot be part of a cycle are not tracked in the
+     * MappingContext.
+     * <p>
+     * Note that objects shared by several references within an acyclic graph are then mapped once per reference.
+     * <p>
+     * Default value is <code>false</code>
+     */
+    public static final String ANALYZE_CYCLES = "ma.glasnost.orika.analyzeCycles";
+
+    /**
+     * Specifies whether generated mappers should map nested properties of a concrete type by calling the child
+     * mapper and object factory directly (for source objects of exactly that type), rather than through a
+     * BoundMapperFacade.
+     * <p>
+     * Default value is <code>false</code>
+     */
+    public static final String DIRECT_MAPPER_CALLS = "ma.glasnost.orika.directMapperCalls";
+
+    /**
+     * Specifies the depth of nested class-maps whose field mappings are fused into the generated mapper of their
+     * parent class-map, so that the nested objects of the graph are mapped without calling their own mappers; this
+     * requires direct mapper calls (see {@link #DIRECT_MAPPER_CALLS}).
+     * <p>
+     * Default value is <code>0</code> (no fused mapping)
+     */
+    public static final String FUSED_MAPPING_DEPTH = "ma.glasnost.orika.fusedMappingDepth";
+
+    /**
+     * Specifies the maximum number of field mappings of nested class-maps which may be fused into a single generated
+     * mapper (see {@link #FUSED_MAPPING_DEPTH}).
+     * <p>
+     * Default value is <code>256</code>
+     */
+    public static final String FUSED_MAPPING_BUDGET = "ma.glasnost.orika.fusedMappingBudget";
+
+    /**
+     * Specifies whether the default mapper factory should generate the mappers of the registered class-maps in
+     * parallel when it is built, provided that the compiler strategy supports concurrent compilation.
+     * <p>
+     * Default value is <code>false</code>
+     */
+    public static final String PARALLEL_BUILD = "ma.glasnost.orika.parallelBuild";
+
+    /**
+     * Specifies whether the default mapper factory should compile the mappers of the registered class-maps in a
+     * single invocation of the compiler strategy when it is built, followed by their object factories in a second
+     * invocation; this applies when the mappers are not generated in parallel.
+     * <p>
+     * Default value is <code>false</code>
+     */
+    public static final String BATCH_COMPILATION = "ma.glasnost.orika.batchCompilation";
+
+    /**
+     * Specifies the directory in which the CachingCompilerStrategy stores the generated classes, so that they may
+     * be reused by later runs (and other JVMs) rather than compiled again. The directory is created accessible by
+     * its owner only, and must not be writable by other users.
+     * <p>
+     * There is no default value; it must be specified when the CachingCompilerStrategy is used.
+     */
+    public static final String CLASS_CACHE_DIRECTORY = "ma.glasnost.orika.classCacheDirectory";
+
+    /**
+     * Specifies whether the default mapper factory should serve the first mapping requests for a type pair which
+     * has no mapper with a mapper which interprets the class-map, while the generated mapper is compiled in the
+     * background.
+     * <p>
+     * Default value is <code>false</code>
+     */
+    public static final String TIERED_MAPPING = "ma.glasnost.orika.tieredMapping";
 }
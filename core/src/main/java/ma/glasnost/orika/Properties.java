@@ -31,5 +31,9 @@ public enum Properties {
     UNENHANCE_STRATEGY,
     FILTERS,
     CAPTURE_FIELD_CONTEXT,
-    SHOULD_GET_DESTINATION_ON_MAPPING
+    SHOULD_GET_DESTINATION_ON_MAPPING,
+    CYCLE_ANALYSIS,
+    DIRECT_MAPPER_CALLS,
+    FUSED_MAPPING_DEPTH,
+    FUSED_MAPPING_BUDGET
 }
@@ -3,6 +3,7 @@ package ma.glasnost.orika;
 import com.carrotsearch.sizeof.RamUsageEstimator;
 
 import ma.glasnost.orika.converter.ConverterFactory;
+import ma.glasnost.orika.metrics.MapperMetrics;
 
 /**
  * A utility class for writing out the current state of Reportable
@@ -35,6 +36,10 @@ public final class StateReporter {
     	if (mapperFacade instanceof Reportable) {
     		((Reportable)mapperFacade).reportCurrentState(out);
     	}
+    	MapperMetrics mapperMetrics = mapperFactory.getMapperMetrics();
+    	if (mapperMetrics instanceof Reportable) {
+    		((Reportable)mapperMetrics).reportCurrentState(out);
+    	}
     }
 	
     /**
@@ -82,7 +82,7 @@ public abstract class BidirectionalConverter<S, D> extends CustomConverter<Objec
      * @param <S>
      * @param <D>
      */
-    public static class Reversed<S, D> extends BidirectionalConverter<S, D> {
+    public static class Reversed<S, D> extends BidirectionalConverter<S, D> implements IntrinsicConverter {
         
         private final BidirectionalConverter<D, S> delegate;
         
@@ -105,6 +105,21 @@ public abstract class BidirectionalConverter<S, D> extends CustomConverter<Objec
             return delegate;
         }
         
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            if (IntrinsicConverter.isInlined(delegate)) {
+                return ((IntrinsicConverter) delegate).generateConversionCode(sourceType, destinationType, source);
+            }
+            return null;
+        }
+        
         public boolean canConvert(Type<?> sourceType, Type<?> destinationType) {
             return delegate.canConvert(sourceType, destinationType);
         }
@@ -19,13 +19,16 @@ package ma.glasnost.orika.converter;
 
 import ma.glasnost.orika.Converter;
 import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MappingContext;
 import ma.glasnost.orika.StateReporter.Reportable;
 import ma.glasnost.orika.impl.util.ClassUtil;
+import ma.glasnost.orika.impl.util.ClassValueCache;
 import ma.glasnost.orika.metadata.ConverterKey;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.metadata.TypeFactory;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -44,8 +47,15 @@ import static ma.glasnost.orika.StateReporter.humanReadableSizeInMemory;
  */
 public class DefaultConverterFactory implements ConverterFactory, Reportable {
     
+    /**
+     * Cached in place of a converter to record that no converter exists for
+     * a given pair of types
+     */
+    private static final Converter<Object, Object> NO_CONVERTER = new NoConverter();
+    
     private final Map<ConverterKey, Converter<Object, Object>> converterCache;
-    private Collection<Converter<Object, Object>> converters;
+    private final ClassValueCache<ConcurrentHashMap<Class<?>, Converter<Object, Object>>> rawConverterCache;
+    private volatile Collection<Converter<Object, Object>> converters;
     private final Map<String, Converter<Object, Object>> convertersMap;
     private MapperFacade mapperFacade;
     
@@ -56,6 +66,12 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
     public DefaultConverterFactory(Map<ConverterKey, Converter<Object, Object>> converterCache, Set<Converter<Object, Object>> converters) {
         super();
         this.converterCache = converterCache;
+        this.rawConverterCache = new ClassValueCache<ConcurrentHashMap<Class<?>, Converter<Object, Object>>>() {
+            @Override
+            protected ConcurrentHashMap<Class<?>, Converter<Object, Object>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
         this.converters = new CopyOnWriteArrayList<>();
         this.convertersMap = new ConcurrentHashMap<>();
     }
@@ -77,7 +93,8 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
             converter.setMapperFacade(mapperFacade);
             orderedConverters.add(converter);
         }
-        converters = orderedConverters;
+        converters = new CopyOnWriteArrayList<>(orderedConverters);
+        clearCache();
         for (Converter<?, ?> converter : convertersMap.values()) {
             converter.setMapperFacade(mapperFacade);
         }
@@ -111,49 +128,81 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
      * @see
      * ma.glasnost.orika.converter.ConverterFactory#getConverter(java.lang.Class
      * , java.lang.Class)
+     * 
+     * The result of the lookup (including the absence of a converter) is
+     * cached; types which are not parameterized are indexed by their raw
+     * classes, so that the lookup requires neither locking nor allocation
+     * once the cache is warm (and the source classes may still be unloaded).
      */
-    public synchronized Converter<Object, Object> getConverter(Type<?> sourceClass, Type<?> destinationClass) {
+    public Converter<Object, Object> getConverter(Type<?> sourceType, Type<?> destinationType) {
         
-        // Step verify if converter exists for sourceClass and destination
-        Converter<Object, Object> converter = _converter(sourceClass, destinationClass);
+        Converter<Object, Object> converter;
+        if (!sourceType.isParameterized() && !destinationType.isParameterized()) {
+            ConcurrentHashMap<Class<?>, Converter<Object, Object>> convertersByDestination = rawConverterCache.get(sourceType.getRawType());
+            converter = convertersByDestination.get(destinationType.getRawType());
+            if (converter == null) {
+                converter = resolveConverter(sourceType, destinationType);
+                Converter<Object, Object> existing = convertersByDestination.putIfAbsent(destinationType.getRawType(), converter);
+                if (existing != null) {
+                    converter = existing;
+                }
+            }
+        } else {
+            ConverterKey key = new ConverterKey(sourceType, destinationType);
+            converter = converterCache.get(key);
+            if (converter == null) {
+                converter = resolveConverter(sourceType, destinationType);
+                converterCache.put(key, converter);
+            }
+        }
+        return converter == NO_CONVERTER ? null : converter;
+    }
+    
+    /**
+     * Resolves the converter for the specified types, applying auto-boxing
+     * if no converter is registered for the primitive type(s).
+     * 
+     * @param sourceType
+     * @param destinationType
+     * @return the resolved converter, or NO_CONVERTER if none applies
+     */
+    private Converter<Object, Object> resolveConverter(Type<?> sourceType, Type<?> destinationType) {
         
-        if (converter != null)
-            return converter;
+        // Step verify if converter exists for sourceClass and destination
+        Converter<Object, Object> converter = _converter(sourceType, destinationType);
         
         // Apply auto-boxing in converter lookup
-        if (sourceClass.isPrimitive()) {
-            sourceClass = TypeFactory.valueOf(ClassUtil.getWrapperType(sourceClass.getRawType()));
-            converter = _converter(sourceClass, destinationClass);
+        if (converter == null && sourceType.isPrimitive()) {
+            sourceType = TypeFactory.valueOf(ClassUtil.getWrapperType(sourceType.getRawType()));
+            converter = _converter(sourceType, destinationType);
         }
-        if (converter != null)
-            return converter;
         
         // Destination
-        if (destinationClass.isPrimitive()) {
-            destinationClass = TypeFactory.valueOf(ClassUtil.getWrapperType(destinationClass.getRawType()));
-            converter = _converter(sourceClass, destinationClass);
+        if (converter == null && destinationType.isPrimitive()) {
+            destinationType = TypeFactory.valueOf(ClassUtil.getWrapperType(destinationType.getRawType()));
+            converter = _converter(sourceType, destinationType);
         }
-        if (converter != null)
-            return converter;
-        return null;
+        return converter != null ? converter : NO_CONVERTER;
     }
     
     private Converter<Object, Object> _converter(Type<?> sourceClass, Type<?> destinationClass) {
-        ConverterKey key = new ConverterKey(sourceClass, destinationClass);
-        if (converterCache.containsKey(key)) {
-            return converterCache.get(key);
-        }
-        
         for (Converter<Object, Object> converter : converters) {
             if (converter.canConvert(sourceClass, destinationClass)) {
-                converterCache.put(key, converter);
                 return converter;
             }
         }
-        
         return null;
     }
     
+    /**
+     * Clears the cached results of converter lookup; called whenever the
+     * registered converters change.
+     */
+    private void clearCache() {
+        converterCache.clear();
+        rawConverterCache.clear();
+    }
+    
     /*
      * (non-Javadoc)
      * 
@@ -181,6 +230,7 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
         if (converter instanceof BidirectionalConverter && !converter.getAType().equals(converter.getBType())) {
             converters.add((Converter<Object, Object>) ((BidirectionalConverter<?, ?>) converter).reverse());
         }
+        clearCache();
     }
     
     /*
@@ -216,19 +266,70 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
         for (Converter<Object, Object> converter : converters) {
             out.append("\n  [").append(index++).append("]: ").append(converter);
         }
+        int negatives = 0;
+        Map<String, Converter<Object, Object>> cached = new LinkedHashMap<>();
+        Map<Class<?>, ConcurrentHashMap<Class<?>, Converter<Object, Object>>> rawConverters = rawConverterCache.asMap();
+        for (Entry<Class<?>, ConcurrentHashMap<Class<?>, Converter<Object, Object>>> bySource : rawConverters.entrySet()) {
+            for (Entry<Class<?>, Converter<Object, Object>> entry : bySource.getValue().entrySet()) {
+                if (entry.getValue() == NO_CONVERTER) {
+                    ++negatives;
+                } else {
+                    cached.put(bySource.getKey().getSimpleName() + " -> " + entry.getKey().getSimpleName(), entry.getValue());
+                }
+            }
+        }
+        for (Entry<ConverterKey, Converter<Object, Object>> entry : converterCache.entrySet()) {
+            if (entry.getValue() == NO_CONVERTER) {
+                ++negatives;
+            } else {
+                Type<?> srcType = TypeFactory.valueOf(entry.getKey().getSourceClass());
+                Type<?> dstType = TypeFactory.valueOf(entry.getKey().getDestinationClass());
+                String srcName = TypeFactory.nameOf(srcType, dstType);
+                String dstName = TypeFactory.nameOf(dstType, srcType);
+                cached.put(srcName + " -> " + dstName, entry.getValue());
+            }
+        }
         out.append(DIVIDER);
         out.append("\nConverter cache: ")
-                .append(converterCache.size())
-                .append(" (approximate size: ")
-                .append(humanReadableSizeInMemory(converterCache))
+                .append(cached.size())
+                .append(" (plus ")
+                .append(negatives)
+                .append(" without converter; approximate size: ")
+                .append(humanReadableSizeInMemory(converterCache, rawConverters))
                 .append(")");
-        for (Entry<ConverterKey, Converter<Object, Object>> entry : converterCache.entrySet()) {
-            Type<?> srcType = TypeFactory.valueOf(entry.getKey().getSourceClass());
-            Type<?> dstType = TypeFactory.valueOf(entry.getKey().getDestinationClass());
-            String srcName = TypeFactory.nameOf(srcType, dstType);
-            String dstName = TypeFactory.nameOf(dstType, srcType);
-            
-            out.append("\n  [").append(srcName).append(" -> ").append(dstName).append("] : ").append(entry.getValue());
+        for (Entry<String, Converter<Object, Object>> entry : cached.entrySet()) {
+            out.append("\n  [").append(entry.getKey()).append("] : ").append(entry.getValue());
+        }
+    }
+    
+    /**
+     * NoConverter is the marker cached for pairs of types which have no
+     * converter; it is never returned from the factory.
+     */
+    private static final class NoConverter implements Converter<Object, Object> {
+        
+        public boolean canConvert(Type<?> sourceType, Type<?> destinationType) {
+            return false;
+        }
+        
+        public Object convert(Object source, Type<? extends Object> destinationType, MappingContext mappingContext) {
+            throw new UnsupportedOperationException();
+        }
+        
+        public void setMapperFacade(MapperFacade mapper) {
+            // no-op
+        }
+        
+        public Type<Object> getAType() {
+            return null;
+        }
+        
+        public Type<Object> getBType() {
+            return null;
+        }
+        
+        public String toString() {
+            return "<none>";
         }
     }
 }
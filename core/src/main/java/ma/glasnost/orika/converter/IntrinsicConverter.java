@@ -0,0 +1,69 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.converter;
+
+import java.util.Arrays;
+
+import ma.glasnost.orika.metadata.Type;
+
+/**
+ * IntrinsicConverter may optionally be implemented by a Converter whose
+ * conversion can be expressed as a simple Java expression; generated mappers
+ * then evaluate the expression in place, rather than calling the converter
+ * (which, among other things, boxes primitive source values).<br>
+ * <br>
+ * The expression is compiled by the configured CompilerStrategy, and so
+ * should not rely on auto-boxing, generics or any other language feature
+ * which is not supported by all of them.<br>
+ * <br>
+ * Only a converter whose own class declares that it implements this interface
+ * is inlined (see {@link #isInlined(Object)}); a subclass of such a
+ * converter, which may override its conversion, is called instead, unless it
+ * declares the interface again.
+ */
+public interface IntrinsicConverter {
+    
+    /**
+     * Generates a Java expression which performs the conversion of the
+     * provided (non-null) source expression.
+     * 
+     * @param sourceType
+     *            the type of the source expression; this may be a primitive
+     *            type
+     * @param destinationType
+     *            the type to which the source is converted; this may be a
+     *            primitive type
+     * @param source
+     *            the Java expression which provides the source value
+     * @return a Java expression which evaluates to the converted value, of
+     *         exactly the destination type; or <code>null</code> if this
+     *         conversion should be performed by calling the converter
+     */
+    String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source);
+    
+    /**
+     * @param converter
+     *            the converter to test
+     * @return true if the conversion of the specified converter may be
+     *         inlined, that is, if its class itself declares that it
+     *         implements IntrinsicConverter
+     */
+    static boolean isInlined(Object converter) {
+        return converter != null && Arrays.asList(converter.getClass().getInterfaces()).contains(IntrinsicConverter.class);
+    }
+}
@@ -0,0 +1,481 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.converter;
+
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongFunction;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import ma.glasnost.orika.Converter;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+/**
+ * PrimitiveConverter is the base of the converters which convert from and/or
+ * to a primitive type without boxing: each of its subclasses implements one
+ * of the primitive-specialised functional interfaces of
+ * <code>java.util.function</code>, which generated mappers call directly with
+ * the primitive value (unboxing a non-null primitive wrapper source first).
+ * The {@link #convert(Object, Type, MappingContext)} method, which is used
+ * wherever the conversion is not generated, boxes the values as usual; it is
+ * final in each of the subclasses, so that it can't diverge from the method
+ * of the functional interface.<br>
+ * <br>
+ * A PrimitiveConverter is registered and resolved like any other Converter;
+ * it can convert from (and to) both the primitive type and its wrapper. For
+ * example:
+ * 
+ * <pre>
+ * converterFactory.registerConverter(PrimitiveConverter.fromDouble(BigDecimal.class, new DoubleFunction&lt;BigDecimal&gt;() {
+ *     public BigDecimal apply(double value) {
+ *         return BigDecimal.valueOf(value);
+ *     }
+ * }));
+ * </pre>
+ */
+public abstract class PrimitiveConverter implements Converter<Object, Object> {
+    
+    private final Type<Object> sourceType;
+    private final Type<Object> destinationType;
+    private final Class<?> functionType;
+    private final String functionMethod;
+    protected MapperFacade mapperFacade;
+    
+    @SuppressWarnings("unchecked")
+    PrimitiveConverter(Class<?> sourceType, Class<?> destinationType, Class<?> functionType, String functionMethod) {
+        this.sourceType = (Type<Object>) TypeFactory.valueOf(sourceType);
+        this.destinationType = (Type<Object>) TypeFactory.valueOf(destinationType);
+        this.functionType = functionType;
+        this.functionMethod = functionMethod;
+    }
+    
+    /**
+     * @return the primitive-specialised functional interface implemented by
+     *         this converter
+     */
+    public Class<?> getFunctionType() {
+        return functionType;
+    }
+    
+    /**
+     * @return the name of the method of the functional interface which
+     *         performs the conversion
+     */
+    public String getFunctionMethod() {
+        return functionMethod;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see ma.glasnost.orika.Converter#canConvert(ma.glasnost.orika.metadata.Type,
+     * ma.glasnost.orika.metadata.Type)
+     */
+    public boolean canConvert(Type<?> sourceType, Type<?> destinationType) {
+        boolean canConvertSource = this.sourceType.isPrimitive() ? this.sourceType.equals(sourceType) || sourceType.isWrapperFor(this.sourceType)
+                : this.sourceType.isAssignableFrom(sourceType);
+        boolean canConvertDestination = this.destinationType.isPrimitive() ? this.destinationType.equals(destinationType)
+                || destinationType.isWrapperFor(this.destinationType) : this.destinationType.equals(destinationType);
+        return canConvertSource && canConvertDestination;
+    }
+    
+    public void setMapperFacade(MapperFacade mapper) {
+        this.mapperFacade = mapper;
+    }
+    
+    public Type<Object> getAType() {
+        return sourceType;
+    }
+    
+    public Type<Object> getBType() {
+        return destinationType;
+    }
+    
+    public String toString() {
+        String subClass = getClass().isAnonymousClass() ? getClass().getSuperclass().getSimpleName() : getClass().getSimpleName();
+        return PrimitiveConverter.class.getSimpleName() + "(" + subClass + ")<" + sourceType + ", " + destinationType + ">";
+    }
+    
+    /**
+     * Converts from int to long
+     */
+    public abstract static class IntToLong extends PrimitiveConverter implements IntToLongFunction {
+        
+        protected IntToLong() {
+            super(int.class, long.class, IntToLongFunction.class, "applyAsLong");
+        }
+        
+        public final Object convert(Object source, Type<? extends Object> destinationType, MappingContext mappingContext) {
+            return applyAsLong((Integer) source);
+        }
+    }
+    
+    /**
+     * Converts from int to double
+     */
+    public abstract static class IntToDouble extends PrimitiveConverter implements IntToDoubleFunction {
+        
+        protected IntToDouble() {
+            super(int.class, double.class, IntToDoubleFunction.class, "applyAsDouble");
+        }
+        
+        public final Object convert(Object source, Type<? extends Object> destinationType, MappingContext mappingContext) {
+            return applyAsDouble((Integer) source);
+        }
+    }
+    
+    /**
+     * Converts from long to int
+     */
+    public abstract static class LongToInt extends PrimitiveConverter implements LongToIntFunction {
+        
+        protected LongToInt() {
+            super(long.class, int.class, LongToIntFunction.class, "applyAsInt");
+        }
+        
+        public final Object convert(Object source, Type<? extends Object> destinationType, MappingContext mappingContext) {
+            return applyAsInt((Long) source);
+        }
+    }
+    
+    /**
+     * Converts from long to double
+     */
+    public abstract static class LongToDouble extends PrimitiveConverter implements LongToDoubleFunction {
+        
+        protected LongToDouble() {
+            super(long.class, double.class, LongToDoubleFunction.class, "applyAsDouble");
+        }
+        
+        public final Object convert(Object source, Type<? extends Object> destinationType, MappingContext mappingContext) {
+            return applyAsDouble((Long) source);
+        }
+    }
+    
+    /**
+     * Converts from double to int
+     */
+    public abstract static class DoubleToInt extends PrimitiveConverter implements DoubleToIntFunction {
+        
+        protected DoubleToInt() {
+            super(double.class, int.class, DoubleToIntFunction.class, "applyAsInt");
+        }
+        
+        public final Object convert(Object source, Type<? extends Object> destinationType, MappingContext mappingContext) {
+            return applyAsInt((Double) source);
+        }
+    }
+    
+    /**
+     * Converts from double to long
+     */
+    public abstract static class DoubleToLong extends PrimitiveConverter implements DoubleToLongFunction {
+        
+        protected DoubleToLong() {
+            super(double.class, long.class, DoubleToLongFunction.class, "applyAsLong");
+        }
+        
+        public final Object convert(Object source, Type<? extends Object> destinationType, MappingContext mappingContext) {
+            return applyAsLong((Double) source);
+        }
+    }
+    
+    /**
+     * Converts from int to an object
+     * 
+     * @param <D>
+     *            the destination type
+     */
+    public abstract static class FromInt<D> extends PrimitiveConverter implements IntFunction<D> {
+        
+        protected FromInt(Class<D> destinationType) {
+            super(int.class, destinationType, IntFunction.class, "apply");
+        }
+        
+        public final Object convert(Object source, Type<? extends Object> destinationType, MappingContext mappingContext) {
+            return apply((Integer) source);
+        }
+    }
+    
+    /**
+     * Converts from long to an object
+     * 
+     * @param <D>
+     *            the destination type
+     */
+    public abstract static class FromLong<D> extends PrimitiveConverter implements LongFunction<D> {
+        
+        protected FromLong(Class<D> destinationType) {
+            super(long.class, destinationType, LongFunction.class, "apply");
+        }
+        
+        public final Object convert(Object source, Type<? extends Object> destinationType, MappingContext mappingContext) {
+            return apply((Long) source);
+        }
+    }
+    
+    /**
+     * Converts from double to an object
+     * 
+     * @param <D>
+     *            the destination type
+     */
+    public abstract static class FromDouble<D> extends PrimitiveConverter implements DoubleFunction<D> {
+        
+        protected FromDouble(Class<D> destinationType) {
+            super(double.class, destinationType, DoubleFunction.class, "apply");
+        }
+        
+        public final Object convert(Object source, Type<? extends Object> destinationType, MappingContext mappingContext) {
+            return apply((Double) source);
+        }
+    }
+    
+    /**
+     * Converts from an object to int
+     * 
+     * @param <S>
+     *            the source type
+     */
+    public abstract static class ToInt<S> extends PrimitiveConverter implements ToIntFunction<S> {
+        
+        protected ToInt(Class<S> sourceType) {
+            super(sourceType, int.class, ToIntFunction.class, "applyAsInt");
+        }
+        
+        @SuppressWarnings("unchecked")
+        public final Object convert(Object source, Type<? extends Object> destinationType, MappingContext mappingContext) {
+            return applyAsInt((S) source);
+        }
+    }
+    
+    /**
+     * Converts from an object to long
+     * 
+     * @param <S>
+     *            the source type
+     */
+    public abstract static class ToLong<S> extends PrimitiveConverter implements ToLongFunction<S> {
+        
+        protected ToLong(Class<S> sourceType) {
+            super(sourceType, long.class, ToLongFunction.class, "applyAsLong");
+        }
+        
+        @SuppressWarnings("unchecked")
+        public final Object convert(Object source, Type<? extends Object> destinationType, MappingContext mappingContext) {
+            return applyAsLong((S) source);
+        }
+    }
+    
+    /**
+     * Converts from an object to double
+     * 
+     * @param <S>
+     *            the source type
+     */
+    public abstract static class ToDouble<S> extends PrimitiveConverter implements ToDoubleFunction<S> {
+        
+        protected ToDouble(Class<S> sourceType) {
+            super(sourceType, double.class, ToDoubleFunction.class, "applyAsDouble");
+        }
+        
+        @SuppressWarnings("unchecked")
+        public final Object convert(Object source, Type<? extends Object> destinationType, MappingContext mappingContext) {
+            return applyAsDouble((S) source);
+        }
+    }
+    
+    /**
+     * @param function
+     *            the function which performs the conversion
+     * @return a converter from int to long
+     */
+    public static PrimitiveConverter intToLong(final IntToLongFunction function) {
+        return new IntToLong() {
+            public long applyAsLong(int value) {
+                return function.applyAsLong(value);
+            }
+        };
+    }
+    
+    /**
+     * @param function
+     *            the function which performs the conversion
+     * @return a converter from int to double
+     */
+    public static PrimitiveConverter intToDouble(final IntToDoubleFunction function) {
+        return new IntToDouble() {
+            public double applyAsDouble(int value) {
+                return function.applyAsDouble(value);
+            }
+        };
+    }
+    
+    /**
+     * @param function
+     *            the function which performs the conversion
+     * @return a converter from long to int
+     */
+    public static PrimitiveConverter longToInt(final LongToIntFunction function) {
+        return new LongToInt() {
+            public int applyAsInt(long value) {
+                return function.applyAsInt(value);
+            }
+        };
+    }
+    
+    /**
+     * @param function
+     *            the function which performs the conversion
+     * @return a converter from long to double
+     */
+    public static PrimitiveConverter longToDouble(final LongToDoubleFunction function) {
+        return new LongToDouble() {
+            public double applyAsDouble(long value) {
+                return function.applyAsDouble(value);
+            }
+        };
+    }
+    
+    /**
+     * @param function
+     *            the function which performs the conversion
+     * @return a converter from double to int
+     */
+    public static PrimitiveConverter doubleToInt(final DoubleToIntFunction function) {
+        return new DoubleToInt() {
+            public int applyAsInt(double value) {
+                return function.applyAsInt(value);
+            }
+        };
+    }
+    
+    /**
+     * @param function
+     *            the function which performs the conversion
+     * @return a converter from double to long
+     */
+    public static PrimitiveConverter doubleToLong(final DoubleToLongFunction function) {
+        return new DoubleToLong() {
+            public long applyAsLong(double value) {
+                return function.applyAsLong(value);
+            }
+        };
+    }
+    
+    /**
+     * @param destinationType
+     *            the type to which the converter converts
+     * @param function
+     *            the function which performs the conversion
+     * @return a converter from int to the destination type
+     */
+    public static <D> PrimitiveConverter fromInt(Class<D> destinationType, final IntFunction<D> function) {
+        return new FromInt<D>(destinationType) {
+            public D apply(int value) {
+                return function.apply(value);
+            }
+        };
+    }
+    
+    /**
+     * @param destinationType
+     *            the type to which the converter converts
+     * @param function
+     *            the function which performs the conversion
+     * @return a converter from long to the destination type
+     */
+    public static <D> PrimitiveConverter fromLong(Class<D> destinationType, final LongFunction<D> function) {
+        return new FromLong<D>(destinationType) {
+            public D apply(long value) {
+                return function.apply(value);
+            }
+        };
+    }
+    
+    /**
+     * @param destinationType
+     *            the type to which the converter converts
+     * @param function
+     *            the function which performs the conversion
+     * @return a converter from double to the destination type
+     */
+    public static <D> PrimitiveConverter fromDouble(Class<D> destinationType, final DoubleFunction<D> function) {
+        return new FromDouble<D>(destinationType) {
+            public D apply(double value) {
+                return function.apply(value);
+            }
+        };
+    }
+    
+    /**
+     * @param sourceType
+     *            the type from which the converter converts
+     * @param function
+     *            the function which performs the conversion
+     * @return a converter from the source type to int
+     */
+    public static <S> PrimitiveConverter toInt(Class<S> sourceType, final ToIntFunction<S> function) {
+        return new ToInt<S>(sourceType) {
+            public int applyAsInt(S value) {
+                return function.applyAsInt(value);
+            }
+        };
+    }
+    
+    /**
+     * @param sourceType
+     *            the type from which the converter converts
+     * @param function
+     *            the function which performs the conversion
+     * @return a converter from the source type to long
+     */
+    public static <S> PrimitiveConverter toLong(Class<S> sourceType, final ToLongFunction<S> function) {
+        return new ToLong<S>(sourceType) {
+            public long applyAsLong(S value) {
+                return function.applyAsLong(value);
+            }
+        };
+    }
+    
+    /**
+     * @param sourceType
+     *            the type from which the converter converts
+     * @param function
+     *            the function which performs the conversion
+     * @return a converter from the source type to double
+     */
+    public static <S> PrimitiveConverter toDouble(Class<S> sourceType, final ToDoubleFunction<S> function) {
+        return new ToDouble<S>(sourceType) {
+            public double applyAsDouble(S value) {
+                return function.applyAsDouble(value);
+            }
+        };
+    }
+}
@@ -17,17 +17,36 @@
  */
 package ma.glasnost.orika.converter.builtin;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.util.EnumTable;
 import ma.glasnost.orika.metadata.Type;
 
 /**
  * EnumConverter is used to convert from one enum to another, based on exact
- * name match
+ * name match; the constants are mapped through an {@link EnumTable}, which
+ * is built once for each pair of enum types.<br>
+ * Note that generated mappers do not call this converter, but map the
+ * constants through a table of their own (which also applies any overrides
+ * configured for the class-map).
  * 
  * @author elaatifi@gmail.com
  */
 public class EnumConverter extends BuiltinCustomConverter<Object, Object> {
     
+    /*
+     * The tables are attached to the source enum class, and refer to no more
+     * than the enum classes, so that they may be unloaded with their
+     * class-loader
+     */
+    private final ClassValue<ConcurrentHashMap<Class<?>, EnumTable>> tables = new ClassValue<ConcurrentHashMap<Class<?>, EnumTable>>() {
+        @Override
+        protected ConcurrentHashMap<Class<?>, EnumTable> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>(2);
+        }
+    };
+    
     public boolean canConvert(Type<?> sourceType, Type<?> destinationType) {
         return sourceType.isEnum() && destinationType.isEnum();
     }
@@ -39,8 +58,16 @@ public class EnumConverter extends BuiltinCustomConverter<Object, Object> {
      * ma.glasnost.orika.metadata.Type)
      */
     public Object convert(Object source, Type<?> destinationType, MappingContext context) {
-        @SuppressWarnings({ "unchecked", "rawtypes" })
-        Enum<?> result = (Enum<?>) Enum.valueOf((Class<Enum>) destinationType.getRawType(), ((Enum) source).name());
-        return result;
+        Enum<?> constant = (Enum<?>) source;
+        ConcurrentHashMap<Class<?>, EnumTable> tablesByDestination = tables.get(constant.getDeclaringClass());
+        EnumTable table = tablesByDestination.get(destinationType.getRawType());
+        if (table == null) {
+            table = EnumTable.of(constant.getDeclaringClass(), destinationType.getRawType());
+            EnumTable existing = tablesByDestination.putIfAbsent(destinationType.getRawType(), table);
+            if (existing != null) {
+                table = existing;
+            }
+        }
+        return table.map(constant);
     }
 }
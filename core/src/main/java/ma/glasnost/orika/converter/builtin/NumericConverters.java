@@ -18,10 +18,14 @@
 package ma.glasnost.orika.converter.builtin;
 
 import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.converter.IntrinsicConverter;
+import ma.glasnost.orika.impl.util.ClassUtil;
 import ma.glasnost.orika.metadata.Type;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * NumericConverters contains a set of common conversions between the "big"
@@ -33,6 +37,55 @@ import java.math.BigInteger;
  */
 public class NumericConverters {
     
+    /**
+     * The numeric types handled by these converters, from the narrowest to
+     * the widest
+     */
+    private static final List<Class<?>> NUMERIC_TYPES = Arrays.<Class<?>> asList(short.class, int.class, long.class, float.class,
+            double.class, BigInteger.class, BigDecimal.class);
+    
+    /**
+     * Generates the expression for the conversion between two of the numeric
+     * types; a narrowing conversion is only generated if it should truncate
+     * the value, since the overflow check is left to the converter.
+     * 
+     * @param sourceType
+     *            the type of the source expression
+     * @param destinationType
+     *            the type to which the source is converted
+     * @param source
+     *            the source expression
+     * @param truncate
+     *            whether a narrowing conversion truncates the value
+     * @return the expression which performs the conversion, or null
+     */
+    private static String generateNumericConversionCode(Type<?> sourceType, Type<?> destinationType, String source, boolean truncate) {
+        Class<?> sourceClass = sourceType.isPrimitiveWrapper() ? ClassUtil.getPrimitiveType(sourceType.getRawType()) : sourceType.getRawType();
+        Class<?> destinationClass = destinationType.isPrimitiveWrapper() ? ClassUtil.getPrimitiveType(destinationType.getRawType())
+                : destinationType.getRawType();
+        int sourceIndex = NUMERIC_TYPES.indexOf(sourceClass);
+        int destinationIndex = NUMERIC_TYPES.indexOf(destinationClass);
+        if (sourceIndex < 0 || destinationIndex < 0 || (destinationIndex < sourceIndex && !truncate)) {
+            return null;
+        } else if (destinationClass == BigDecimal.class) {
+            return "java.math.BigDecimal.valueOf(" + primitiveValue(sourceType, double.class, source) + ")";
+        } else if (destinationClass == BigInteger.class) {
+            return "java.math.BigInteger.valueOf(" + primitiveValue(sourceType, long.class, source) + ")";
+        } else if (destinationType.isPrimitive()) {
+            return primitiveValue(sourceType, destinationClass, source);
+        } else {
+            return destinationType.getCanonicalName() + ".valueOf(" + primitiveValue(sourceType, destinationClass, source) + ")";
+        }
+    }
+    
+    private static String primitiveValue(Type<?> sourceType, Class<?> primitiveType, String source) {
+        if (sourceType.isPrimitive()) {
+            return "((" + primitiveType.getName() + ") " + source + ")";
+        } else {
+            return source + "." + primitiveType.getName() + "Value()";
+        }
+    }
+    
     /**
      * Provides conversion between BigDecimal and Double.<br>
      * <br>
@@ -42,7 +95,7 @@ public class NumericConverters {
      * @see BigDecimal#doubleValue()
      * @author matt.deboer@gmail.com
      */
-    public static class BigDecimalToDoubleConverter extends BuiltinBidirectionalConverter<BigDecimal, Double> {
+    public static class BigDecimalToDoubleConverter extends BuiltinBidirectionalConverter<BigDecimal, Double> implements IntrinsicConverter {
         
         /*
          * (non-Javadoc)
@@ -67,6 +120,18 @@ public class NumericConverters {
         public BigDecimal convertFrom(Double source, Type<BigDecimal> destinationType, MappingContext context) {
             return BigDecimal.valueOf(source);
         }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            return generateNumericConversionCode(sourceType, destinationType, source, true);
+        }
     }
     
     /**
@@ -78,7 +143,7 @@ public class NumericConverters {
      * @see BigDecimal#floatValue()
      * @author matt.deboer@gmail.com
      */
-    public static class BigDecimalToFloatConverter extends BuiltinBidirectionalConverter<BigDecimal, Float> {
+    public static class BigDecimalToFloatConverter extends BuiltinBidirectionalConverter<BigDecimal, Float> implements IntrinsicConverter {
         
         /*
          * (non-Javadoc)
@@ -103,6 +168,18 @@ public class NumericConverters {
         public BigDecimal convertFrom(Float source, Type<BigDecimal> destinationType, MappingContext context) {
             return BigDecimal.valueOf(source.doubleValue());
         }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            return generateNumericConversionCode(sourceType, destinationType, source, true);
+        }
     }
     
     /**
@@ -111,7 +188,7 @@ public class NumericConverters {
      * @see BigInteger
      * @author matt.deboer@gmail.com
      */
-    public static class BigIntegerToLongConverter extends BuiltinBidirectionalConverter<BigInteger, Long> {
+    public static class BigIntegerToLongConverter extends BuiltinBidirectionalConverter<BigInteger, Long> implements IntrinsicConverter {
         
         private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
         private static final BigInteger MIN_LONG = BigInteger.valueOf(Long.MIN_VALUE);
@@ -157,6 +234,18 @@ public class NumericConverters {
         public BigInteger convertFrom(Long source, Type<BigInteger> destinationType, MappingContext context) {
             return BigInteger.valueOf(source);
         }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            return generateNumericConversionCode(sourceType, destinationType, source, truncate);
+        }
     }
     
     /**
@@ -164,7 +253,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class BigIntegerToIntegerConverter extends BuiltinBidirectionalConverter<BigInteger, Integer> {
+    public static class BigIntegerToIntegerConverter extends BuiltinBidirectionalConverter<BigInteger, Integer> implements IntrinsicConverter {
         
         private static final BigInteger MAX_INT = BigInteger.valueOf(Integer.MAX_VALUE);
         private static final BigInteger MIN_INT = BigInteger.valueOf(Integer.MIN_VALUE);
@@ -211,6 +300,18 @@ public class NumericConverters {
         public BigInteger convertFrom(Integer source, Type<BigInteger> destinationType, MappingContext context) {
             return BigInteger.valueOf(source.longValue());
         }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            return generateNumericConversionCode(sourceType, destinationType, source, truncate);
+        }
     }
     
     /**
@@ -218,7 +319,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class IntegerToShortConverter extends BuiltinBidirectionalConverter<Integer, Short> {
+    public static class IntegerToShortConverter extends BuiltinBidirectionalConverter<Integer, Short> implements IntrinsicConverter {
         
         private final boolean truncate;
         
@@ -262,6 +363,18 @@ public class NumericConverters {
         public Integer convertFrom(Short source, Type<Integer> destinationType, MappingContext context) {
             return source.intValue();
         }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            return generateNumericConversionCode(sourceType, destinationType, source, truncate);
+        }
     }
     
     /**
@@ -269,7 +382,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class LongToShortConverter extends BuiltinBidirectionalConverter<Long, Short> {
+    public static class LongToShortConverter extends BuiltinBidirectionalConverter<Long, Short> implements IntrinsicConverter {
         
         private final boolean truncate;
         
@@ -313,6 +426,18 @@ public class NumericConverters {
         public Long convertFrom(Short source, Type<Long> destinationType, MappingContext context) {
             return source.longValue();
         }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            return generateNumericConversionCode(sourceType, destinationType, source, truncate);
+        }
     }
     
     /**
@@ -320,7 +445,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class LongToIntegerConverter extends BuiltinBidirectionalConverter<Long, Integer> {
+    public static class LongToIntegerConverter extends BuiltinBidirectionalConverter<Long, Integer> implements IntrinsicConverter {
         
         private final boolean truncate;
         
@@ -364,6 +489,18 @@ public class NumericConverters {
         public Long convertFrom(Integer source, Type<Long> destinationType, MappingContext context) {
             return source.longValue();
         }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            return generateNumericConversionCode(sourceType, destinationType, source, truncate);
+        }
     }
     
     /**
@@ -371,7 +508,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class DoubleToLongConverter extends BuiltinBidirectionalConverter<Double, Long> {
+    public static class DoubleToLongConverter extends BuiltinBidirectionalConverter<Double, Long> implements IntrinsicConverter {
         
         private final boolean truncate;
         
@@ -415,6 +552,18 @@ public class NumericConverters {
         public Double convertFrom(Long source, Type<Double> destinationType, MappingContext context) {
             return source.doubleValue();
         }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            return generateNumericConversionCode(sourceType, destinationType, source, truncate);
+        }
     }
     
     /**
@@ -422,7 +571,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class DoubleToIntegerConverter extends BuiltinBidirectionalConverter<Double, Integer> {
+    public static class DoubleToIntegerConverter extends BuiltinBidirectionalConverter<Double, Integer> implements IntrinsicConverter {
         
         private final boolean truncate;
         
@@ -466,6 +615,18 @@ public class NumericConverters {
         public Double convertFrom(Integer source, Type<Double> destinationType, MappingContext context) {
             return source.doubleValue();
         }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            return generateNumericConversionCode(sourceType, destinationType, source, truncate);
+        }
     }
     
     /**
@@ -473,7 +634,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class DoubleToShortConverter extends BuiltinBidirectionalConverter<Double, Short> {
+    public static class DoubleToShortConverter extends BuiltinBidirectionalConverter<Double, Short> implements IntrinsicConverter {
         
         private final boolean truncate;
         
@@ -517,6 +678,18 @@ public class NumericConverters {
         public Double convertFrom(Short source, Type<Double> destinationType, MappingContext context) {
             return source.doubleValue();
         }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            return generateNumericConversionCode(sourceType, destinationType, source, truncate);
+        }
     }
     
     // ~
@@ -526,7 +699,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class FloatToLongConverter extends BuiltinBidirectionalConverter<Float, Long> {
+    public static class FloatToLongConverter extends BuiltinBidirectionalConverter<Float, Long> implements IntrinsicConverter {
         
         private final boolean truncate;
         
@@ -570,6 +743,18 @@ public class NumericConverters {
         public Float convertFrom(Long source, Type<Float> destinationType, MappingContext context) {
             return source.floatValue();
         }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            return generateNumericConversionCode(sourceType, destinationType, source, truncate);
+        }
     }
     
     /**
@@ -577,7 +762,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class FloatToIntegerConverter extends BuiltinBidirectionalConverter<Float, Integer> {
+    public static class FloatToIntegerConverter extends BuiltinBidirectionalConverter<Float, Integer> implements IntrinsicConverter {
         
         private final boolean truncate;
         
@@ -621,6 +806,18 @@ public class NumericConverters {
         public Float convertFrom(Integer source, Type<Float> destinationType, MappingContext context) {
             return source.floatValue();
         }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            return generateNumericConversionCode(sourceType, destinationType, source, truncate);
+        }
     }
     
     /**
@@ -628,7 +825,7 @@ public class NumericConverters {
      * 
      * @author matt.deboer@gmail.com
      */
-    public static class FloatToShortConverter extends BuiltinBidirectionalConverter<Float, Short> {
+    public static class FloatToShortConverter extends BuiltinBidirectionalConverter<Float, Short> implements IntrinsicConverter {
         
         private final boolean truncate;
         
@@ -672,6 +869,18 @@ public class NumericConverters {
         public Float convertFrom(Short source, Type<Float> destinationType, MappingContext context) {
             return source.floatValue();
         }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see
+         * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+         * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+         * java.lang.String)
+         */
+        public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+            return generateNumericConversionCode(sourceType, destinationType, source, truncate);
+        }
     }
     
 }
@@ -20,6 +20,7 @@ package ma.glasnost.orika.converter.builtin;
 
 import ma.glasnost.orika.CustomConverter;
 import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.converter.IntrinsicConverter;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.metadata.TypeFactory;
 
@@ -38,7 +39,7 @@ import java.util.Set;
  * @author elaatifi@gmail.com
  *
  */
-public class PassThroughConverter extends CustomConverter<Object, Object> {
+public class PassThroughConverter extends CustomConverter<Object, Object> implements IntrinsicConverter {
     
     private final Set<Type<?>> passThroughTypes = new HashSet<>();
     private final String description;
@@ -86,6 +87,18 @@ public class PassThroughConverter extends CustomConverter<Object, Object> {
     public Object convert(Object source, Type<?> destinationType, MappingContext context) {
         return source;
     }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+     * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+     * java.lang.String)
+     */
+    public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+        return source;
+    }
     
     public String toString() {
         return description;
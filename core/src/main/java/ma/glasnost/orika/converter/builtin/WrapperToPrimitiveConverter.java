@@ -19,6 +19,7 @@ package ma.glasnost.orika.converter.builtin;
 
 import ma.glasnost.orika.CustomConverter;
 import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.converter.IntrinsicConverter;
 import ma.glasnost.orika.metadata.Type;
 
 /**
@@ -28,7 +29,7 @@ import ma.glasnost.orika.metadata.Type;
  * @author matt.deboer@gmail.com
  *
  */
-public class WrapperToPrimitiveConverter extends CustomConverter<Object, Object> {
+public class WrapperToPrimitiveConverter extends CustomConverter<Object, Object> implements IntrinsicConverter {
     
     /*
      * (non-Javadoc)
@@ -68,5 +69,17 @@ public class WrapperToPrimitiveConverter extends CustomConverter<Object, Object>
         }
         return null;
     }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ma.glasnost.orika.converter.IntrinsicConverter#generateConversionCode
+     * (ma.glasnost.orika.metadata.Type, ma.glasnost.orika.metadata.Type,
+     * java.lang.String)
+     */
+    public String generateConversionCode(Type<?> sourceType, Type<?> destinationType, String source) {
+        return source + "." + destinationType.getRawType().getName() + "Value()";
+    }
     
 }
@@ -27,6 +27,7 @@ import ma.glasnost.orika.impl.generator.specification.ApplyRegisteredMapper;
 import ma.glasnost.orika.impl.generator.specification.ArrayOrCollectionToArray;
 import ma.glasnost.orika.impl.generator.specification.ArrayOrCollectionToCollection;
 import ma.glasnost.orika.impl.generator.specification.ArrayOrCollectionToMap;
+import ma.glasnost.orika.impl.generator.specification.ArrayOrCollectionToPrimitiveArray;
 import ma.glasnost.orika.impl.generator.specification.Convert;
 import ma.glasnost.orika.impl.generator.specification.ConvertArrayOrCollectionToArray;
 import ma.glasnost.orika.impl.generator.specification.ConvertArrayOrCollectionToCollection;
@@ -69,6 +70,7 @@ public class DefaultCodeGenerationStrategy implements CodeGenerationStrategy {
                         new EnumToEnum(),
                         new StringToEnum(),
                         new UnmappableEnum(),
+                        new ArrayOrCollectionToPrimitiveArray(),
                         new ArrayOrCollectionToArray(),
                         new ArrayOrCollectionToCollection(),
                         new MapToMap(),
@@ -38,6 +38,8 @@ import ma.glasnost.orika.converter.builtin.BuiltinConverters;
 import ma.glasnost.orika.impl.generator.CodeGenerationStrategy;
 import ma.glasnost.orika.impl.generator.CompilerStrategy;
 import ma.glasnost.orika.impl.generator.CompilerStrategy.SourceCodeGenerationException;
+import ma.glasnost.orika.impl.generator.CycleAnalysis;
+import ma.glasnost.orika.impl.generator.InterpretedMapper;
 import ma.glasnost.orika.impl.generator.MapperGenerator;
 import ma.glasnost.orika.impl.generator.ObjectFactoryGenerator;
 import ma.glasnost.orika.inheritance.DefaultSuperTypeResolverStrategy;
@@ -51,6 +53,9 @@ import ma.glasnost.orika.metadata.ClassMapBuilderForMaps;
 import ma.glasnost.orika.metadata.MapperKey;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.metadata.TypeFactory;
+import ma.glasnost.orika.metrics.DefaultMapperMetrics;
+import ma.glasnost.orika.metrics.InstrumentedObjectFactory;
+import ma.glasnost.orika.metrics.MapperMetrics;
 import ma.glasnost.orika.property.PropertyResolverStrategy;
 import ma.glasnost.orika.unenhance.BaseUnenhancer;
 import ma.glasnost.orika.unenhance.UnenhanceStrategy;
@@ -65,6 +70,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -73,14 +79,28 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.lang.Boolean.valueOf;
 import static java.lang.System.getProperty;
+import static ma.glasnost.orika.OrikaSystemProperties.ANALYZE_CYCLES;
+import static ma.glasnost.orika.OrikaSystemProperties.BATCH_COMPILATION;
 import static ma.glasnost.orika.OrikaSystemProperties.CAPTURE_FIELD_CONTEXT;
+import static ma.glasnost.orika.OrikaSystemProperties.COLLECT_METRICS;
+import static ma.glasnost.orika.OrikaSystemProperties.DIRECT_MAPPER_CALLS;
 import static ma.glasnost.orika.OrikaSystemProperties.DUMP_STATE_ON_EXCEPTION;
 import static ma.glasnost.orika.OrikaSystemProperties.FAVOR_EXTENSION;
+import static ma.glasnost.orika.OrikaSystemProperties.FUSED_MAPPING_BUDGET;
+import static ma.glasnost.orika.OrikaSystemProperties.FUSED_MAPPING_DEPTH;
 import static ma.glasnost.orika.OrikaSystemProperties.GET_DESTINATION_ON_MAPPING;
 import static ma.glasnost.orika.OrikaSystemProperties.MAP_NULLS;
+import static ma.glasnost.orika.OrikaSystemProperties.PARALLEL_BUILD;
+import static ma.glasnost.orika.OrikaSystemProperties.TIERED_MAPPING;
 import static ma.glasnost.orika.OrikaSystemProperties.USE_AUTO_MAPPING;
 import static ma.glasnost.orika.OrikaSystemProperties.USE_BUILTIN_CONVERTERS;
 import static ma.glasnost.orika.StateReporter.DIVIDER;
@@ -104,6 +124,8 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
 
     protected final ConcurrentHashMap<MapperKey, ClassMap<Object, Object>> classMapRegistry;
     protected final SortedCollection<Mapper<Object, Object>> mappersRegistry;
+    private final AtomicInteger mappersRegistryModifications = new AtomicInteger();
+    private volatile MapperIndex mapperIndex;
     protected final SortedCollection<Filter<Object, Object>> filtersRegistry;
     protected final MappingContextFactory contextFactory;
     protected final MappingContextFactory nonCyclicContextFactory;
@@ -126,10 +148,32 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
     protected final boolean useAutoMapping;
     protected final boolean useBuiltinConverters;
     protected final boolean favorExtension;
+    protected final boolean analyzeCycles;
     protected volatile boolean isBuilt = false;
     protected volatile boolean isBuilding = false;
+    /** the Executor used to generate mappers in parallel; null if mappers are generated sequentially */
+    protected final Executor buildExecutor;
+    /** whether the mappers generated by build() are compiled together */
+    protected final boolean batchCompilation;
+    /** the Executor used to generate mappers in the background; null unless tiered mapping is enabled */
+    protected final Executor tieredMappingExecutor;
+    
+    /*
+     * The thread running build(), and the threads generating mappers on its
+     * behalf
+     */
+    private Thread buildingThread;
+    private final Set<Thread> buildThreads = ConcurrentHashMap.newKeySet();
+    
+    /*
+     * The mappers currently being generated on demand, and the threads
+     * generating them
+     */
+    private final ConcurrentHashMap<MapperKey, MapperGeneration> mapperGenerations = new ConcurrentHashMap<>();
+    private final Set<Thread> generatingThreads = ConcurrentHashMap.newKeySet();
 
     protected final ExceptionUtility exceptionUtil;
+    protected final MapperMetrics mapperMetrics;
     
     /**
      * Constructs a new instance of DefaultMapperFactory
@@ -153,6 +197,7 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         this.contextFactory = builder.mappingContextFactory;
         this.nonCyclicContextFactory = new NonCyclicMappingContext.Factory(this.contextFactory.getGlobalProperties());
         this.exceptionUtil = new ExceptionUtility(this, builder.dumpStateOnException);
+        this.mapperMetrics = builder.mapperMetrics;
         this.mapperFacade = buildMapperFacade(contextFactory, unenhanceStrategy);
         this.concreteTypeRegistry = new ConcurrentHashMap<>();
         this.alwaysCreateMultipleMapperWrapper = builder.alwaysCreateMultipleMapperWrapper;
@@ -176,6 +221,10 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         this.useAutoMapping = builder.useAutoMapping;
         this.favorExtension = builder.favorExtension;
         this.useBuiltinConverters = builder.useBuiltinConverters;
+        this.analyzeCycles = builder.analyzeCycles;
+        this.buildExecutor = builder.parallelBuild ? builder.buildExecutor : null;
+        this.batchCompilation = builder.batchCompilation;
+        this.tieredMappingExecutor = builder.tieredMapping ? builder.buildExecutor : null;
         
         builder.codeGenerationStrategy.setMapperFactory(this);
         
@@ -189,6 +238,9 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         props.put(Properties.FILTERS, this.filtersRegistry);
         props.put(Properties.CAPTURE_FIELD_CONTEXT, builder.captureFieldContext);
         props.put(Properties.SHOULD_GET_DESTINATION_ON_MAPPING, builder.getDestinationOnMapping);
+        props.put(Properties.DIRECT_MAPPER_CALLS, builder.directMapperCalls);
+        props.put(Properties.FUSED_MAPPING_DEPTH, builder.fusedMappingDepth);
+        props.put(Properties.FUSED_MAPPING_BUDGET, builder.fusedMappingBudget);
 
 
         /*
@@ -320,6 +372,51 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
          * <p>
          */
         protected Boolean getDestinationOnMapping;
+        /**
+         * The configured MapperMetrics used to collect runtime statistics for
+         * the mappings performed; <code>null</code> if metrics should not be
+         * collected.
+         */
+        protected MapperMetrics mapperMetrics;
+        /**
+         * The configured value of whether the registered class-maps should be
+         * analyzed for cycles when the MapperFactory is built.
+         */
+        protected Boolean analyzeCycles;
+        /**
+         * The configured value of whether generated mappers should call the
+         * mappers of nested properties directly, where possible.
+         */
+        protected Boolean directMapperCalls;
+        /**
+         * The configured depth of nested class-maps whose field mappings are
+         * fused into the mappers generated for their parent class-maps.
+         */
+        protected Integer fusedMappingDepth;
+        /**
+         * The configured maximum number of nested field mappings fused into a
+         * single generated mapper.
+         */
+        protected Integer fusedMappingBudget;
+        /**
+         * The configured value of whether the mappers of the registered
+         * class-maps should be generated in parallel.
+         */
+        protected Boolean parallelBuild;
+        /**
+         * The configured Executor used to generate mappers in parallel.
+         */
+        protected Executor buildExecutor;
+        /**
+         * The configured value of whether the mappers of the registered
+         * class-maps should be compiled together.
+         */
+        protected Boolean batchCompilation;
+        /**
+         * The configured value of whether auto-generated mappers should be
+         * interpreted while they are generated in the background.
+         */
+        protected Boolean tieredMapping;
 
         /**
          * Instantiates a new MapperFactoryBuilder
@@ -342,6 +439,15 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
                     getProperty("ma.glasnost.orika.alwaysCreateMultipleMapperWrapper", "false"));
             codeGenerationStrategy = new DefaultCodeGenerationStrategy();
             getDestinationOnMapping = valueOf(getProperty(GET_DESTINATION_ON_MAPPING, "true"));
+            mapperMetrics = valueOf(getProperty(COLLECT_METRICS, "false")) ? new DefaultMapperMetrics() : null;
+            analyzeCycles = valueOf(getProperty(ANALYZE_CYCLES, "false"));
+            directMapperCalls = valueOf(getProperty(DIRECT_MAPPER_CALLS, "false"));
+            fusedMappingDepth = Integer.valueOf(getProperty(FUSED_MAPPING_DEPTH, "0"));
+            fusedMappingBudget = Integer.valueOf(getProperty(FUSED_MAPPING_BUDGET, "256"));
+            parallelBuild = valueOf(getProperty(PARALLEL_BUILD, "false"));
+            buildExecutor = ForkJoinPool.commonPool();
+            batchCompilation = valueOf(getProperty(BATCH_COMPILATION, "false"));
+            tieredMapping = valueOf(getProperty(TIERED_MAPPING, "false"));
         }
         
         /**
@@ -554,6 +660,188 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
             return self();
         }
         
+        /**
+         * Configure the MapperMetrics used to collect runtime statistics (invocation
+         * counts, latencies, object creations and conversions) for each of the mapped
+         * type pairs; these are available from {@link MapperFactory#getMapperMetrics()},
+         * and are included in the output of {@link ma.glasnost.orika.StateReporter#reportCurrentState}.<p>
+         * Specifying <code>null</code> disables the collection of metrics, in which
+         * case no instrumentation is applied at all.<p>
+         * Default value is <code>null</code>, unless the system property
+         * {@link ma.glasnost.orika.OrikaSystemProperties#COLLECT_METRICS} is <code>true</code>.
+         * 
+         * @param mapperMetrics
+         *            the MapperMetrics to use
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B mapperMetrics(MapperMetrics mapperMetrics) {
+            this.mapperMetrics = mapperMetrics;
+            return self();
+        }
+        
+        /**
+         * Configure whether the registered class-maps should be analyzed for
+         * cycles when the MapperFactory is built; objects mapped by a mapper
+         * which is found not to be part of any cycle are then not tracked in
+         * the MappingContext, which saves an identity lookup and insertion for
+         * each of them.<p>
+         * Note that an object referenced more than once within such an acyclic
+         * graph is then mapped once for each reference, rather than to a single
+         * shared instance; only enable the analysis if shared references need
+         * not be preserved.<p>
+         * Default value is <code>false</code>
+         * 
+         * @param analyzeCycles
+         *            whether to analyze the class-maps for cycles
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B analyzeCycles(boolean analyzeCycles) {
+            this.analyzeCycles = analyzeCycles;
+            return self();
+        }
+        
+        /**
+         * Configure whether generated mappers should map a nested property of
+         * a concrete (non-collection) type by calling the mapper and object
+         * factory resolved for that type directly, instead of dispatching
+         * through a BoundMapperFacade; the direct call is guarded by a check
+         * of the exact class of the source object, and other objects (or types
+         * which resolve to a converter, for instance) are still mapped through
+         * the BoundMapperFacade.<p>
+         * Direct calls are not generated when an UnenhanceStrategy or
+         * MapperMetrics have been configured.<p>
+         * Default value is <code>false</code>
+         * 
+         * @param useDirectMapperCalls
+         *            whether to generate direct calls to nested mappers
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B useDirectMapperCalls(boolean useDirectMapperCalls) {
+            this.directMapperCalls = useDirectMapperCalls;
+            return self();
+        }
+        
+        /**
+         * Configure the depth of nested class-maps whose field mappings are
+         * fused into the mapper generated for a class-map: a nested property
+         * which would be mapped by a direct mapper call (see
+         * {@link #useDirectMapperCalls(boolean)}) to the generated mapper of a
+         * registered class-map is instead mapped by a copy of that class-map's
+         * field mappings, generated as a method of the parent mapper; nested
+         * properties of the fused class-map may in turn be fused, up to the
+         * specified depth.<p>
+         * The fused copy is only used for source objects of exactly the
+         * property type, and when the mapper resolved at runtime is the plain
+         * generated mapper of the class-map; converters, filters and the
+         * tracking of mapped objects apply as they would otherwise.<p>
+         * Default value is <code>0</code>, which disables fused mapping.
+         * 
+         * @param fusedMappingDepth
+         *            the depth of nested class-maps to fuse
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B fusedMappingDepth(int fusedMappingDepth) {
+            this.fusedMappingDepth = fusedMappingDepth;
+            return self();
+        }
+        
+        /**
+         * Configure the maximum number of nested field mappings which may be
+         * fused into a single generated mapper (see
+         * {@link #fusedMappingDepth(int)}); this bounds the size of the
+         * generated code for large graphs.<p>
+         * Default value is <code>256</code>
+         * 
+         * @param fusedMappingBudget
+         *            the maximum number of fused field mappings per mapper
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B fusedMappingBudget(int fusedMappingBudget) {
+            this.fusedMappingBudget = fusedMappingBudget;
+            return self();
+        }
+        
+        /**
+         * Configure whether the mappers of the registered class-maps should
+         * be generated (and compiled) in parallel when the MapperFactory is
+         * built, using the executor configured by
+         * {@link #buildExecutor(Executor)}; the generated mappers are then
+         * registered, and their object factories and used mappers resolved,
+         * in the same order as by a sequential build.<p>
+         * Mappers are always generated sequentially when the compiler
+         * strategy does not support concurrent compilation (see
+         * {@link CompilerStrategy#isThreadSafe()}).<p>
+         * Default value is <code>false</code>
+         * 
+         * @param parallelBuild
+         *            whether to generate mappers in parallel
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B parallelBuild(boolean parallelBuild) {
+            this.parallelBuild = parallelBuild;
+            return self();
+        }
+        
+        /**
+         * Configure the Executor used to generate mappers in parallel (see
+         * {@link #parallelBuild(boolean)}); the thread which builds the
+         * MapperFactory also generates mappers, so that the build does not
+         * depend on the executor running the submitted tasks promptly.<p>
+         * The same Executor generates mappers in the background when tiered
+         * mapping is enabled (see {@link #tieredMapping(boolean)}).<p>
+         * Default value is {@link ForkJoinPool#commonPool()}
+         * 
+         * @param buildExecutor
+         *            the Executor to use
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B buildExecutor(Executor buildExecutor) {
+            this.buildExecutor = buildExecutor;
+            return self();
+        }
+        
+        /**
+         * Configure whether the mappers of the registered class-maps should
+         * be compiled in a single invocation of the compiler strategy (see
+         * {@link CompilerStrategy#compileClasses(List)}) when the
+         * MapperFactory is built, followed by their object factories in a
+         * second invocation; this applies whenever the mappers are not
+         * generated in parallel (see {@link #parallelBuild(boolean)}).<p>
+         * Default value is <code>false</code>
+         * 
+         * @param batchCompilation
+         *            whether to compile the mappers (and object factories)
+         *            together
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B batchCompilation(boolean batchCompilation) {
+            this.batchCompilation = batchCompilation;
+            return self();
+        }
+        
+        /**
+         * Configure whether a type pair for which a mapper must be generated
+         * after the MapperFactory is built should first be mapped by a mapper
+         * which interprets its class-map (see {@link InterpretedMapper}), so
+         * that the request which first maps the types does not wait for the
+         * mapper to be generated and compiled; the mapper is generated in the
+         * background instead, using the executor configured by
+         * {@link #buildExecutor(Executor)}, and replaces the interpreting
+         * mapper once it has been compiled.<p>
+         * Class-maps with field maps which cannot be interpreted (such as
+         * those of collections, or of filtered properties) are generated
+         * immediately, as usual.<p>
+         * Default value is <code>false</code>
+         * 
+         * @param tieredMapping
+         *            whether to interpret mappers while they are generated
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B tieredMapping(boolean tieredMapping) {
+            this.tieredMapping = tieredMapping;
+            return self();
+        }
+        
         /**
          * Get a reference to the CodeGenerationStrategy associated with this
          * MapperFactory, which may be used to configure/customize the
@@ -761,55 +1049,149 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
             mapper = null;
         }
         if (mapper == null && useAutoMapping) {
+            mapper = generateMapper(mapperKey, context);
+        }
+        return (Mapper<Object, Object>) mapper;
+    }
+    
+    /**
+     * Generates and registers the mapper for the specified type pair.<br>
+     * <br>
+     * Mappers for different type pairs are generated concurrently (when the
+     * compiler strategy is thread-safe), and only their registration is
+     * serialized. The generation of each type pair is tracked by its
+     * MapperKey, so that other threads requiring the same type pair wait for
+     * it rather than generating a duplicate; a thread which is generating a
+     * mapper itself, or which holds the lock of this factory, never waits
+     * (the generation it would wait for might depend upon it), but generates
+     * the mapper independently, and discards the result if the other thread
+     * registers its mapper first.
+     * 
+     * @param mapperKey
+     * @param context
+     * @return the registered mapper for the type pair
+     */
+    private Mapper<?, ?> generateMapper(MapperKey mapperKey, MappingContext context) {
+        
+        Thread thread = Thread.currentThread();
+        MapperGeneration generation = new MapperGeneration();
+        for (;;) {
+            MapperGeneration pending = mapperGenerations.putIfAbsent(mapperKey, generation);
+            if (pending == null) {
+                break;
+            }
+            if (generatingThreads.contains(thread) || buildThreads.contains(thread) || Thread.holdsLock(this) || !pending.await()) {
+                generation = null;
+                break;
+            }
+            Mapper<?, ?> mapper = getRegisteredMapper(mapperKey.getAType(), mapperKey.getBType(), false);
+            if (mapper != null && !internalMapperMustBeGenerated(mapper, mapperKey)) {
+                return mapper;
+            }
+            /*
+             * The other thread failed to generate the mapper; try again
+             */
+        }
+        
+        boolean added = generatingThreads.add(thread);
+        try {
+            Mapper<?, ?> mapper = getRegisteredMapper(mapperKey.getAType(), mapperKey.getBType(), false);
+            if (mapper != null && !internalMapperMustBeGenerated(mapper, mapperKey)) {
+                return mapper;
+            }
+            /*
+             * We shouldn't create a mapper for an immutable type; although it
+             * will succeed in generating an empty mapper, it won't actually
+             * result in a valid mapping, so it's better to throw an exception
+             * to indicate more clearly that something went wrong. However,
+             * there is a possibility that a custom ObjectFactory was
+             * registered for the immutable type, which would be valid.
+             */
+            if (mapperKey.getBType().isImmutable() && !objectFactoryRegistry.containsKey(mapperKey.getBType())) {
+                throw new MappingException("No converter registered for conversion from " + mapperKey.getAType() + " to "
+                        + mapperKey.getBType() + ", nor any ObjectFactory which can generate " + mapperKey.getBType() + " from "
+                        + mapperKey.getAType());
+            }
+            
+            LOGGER.debug("No mapper registered for {}: attempting to generate", mapperKey);
+            
+            ClassMapBuilder<?, ?> builder = classMap(mapperKey.getAType(), mapperKey.getBType()).byDefault();
+            for (MapperKey key : discoverUsedMappers(builder)) {
+                builder.use(key.getAType(), key.getBType());
+            }
+            final ClassMap<?, ?> classMap = builder.toClassMap();
+            
+            GeneratedMapperBase generatedMapper = null;
+            if (compilerStrategy.isThreadSafe()) {
+                generatedMapper = generateAutoMapper(classMap, context);
+            }
             synchronized (this) {
                 mapper = getRegisteredMapper(mapperKey.getAType(), mapperKey.getBType(), false);
                 boolean internalMapperMustBeGenerated = internalMapperMustBeGenerated(mapper, mapperKey);
-                if (internalMapperMustBeGenerated) {
-                    mapper = null;
+                if (mapper != null && !internalMapperMustBeGenerated) {
+                    LOGGER.debug("Mapper for {} was registered concurrently; discarding the generated mapper", mapperKey);
+                    return mapper;
                 }
-                if (mapper == null) {
-                    try {
-                        /*
-                         * We shouldn't create a mapper for an immutable type;
-                         * although it will succeed in generating an empty
-                         * mapper, it won't actually result in a valid mapping,
-                         * so it's better to throw an exception to indicate more
-                         * clearly that something went wrong. However, there is
-                         * a possibility that a custom ObjectFactory was
-                         * registered for the immutable type, which would be
-                         * valid.
-                         */
-                        if (mapperKey.getBType().isImmutable() && !objectFactoryRegistry.containsKey(mapperKey.getBType())) {
-                            throw new MappingException("No converter registered for conversion from " + mapperKey.getAType() + " to "
-                                    + mapperKey.getBType() + ", nor any ObjectFactory which can generate " + mapperKey.getBType()
-                                    + " from " + mapperKey.getAType());
-                        }
-                        
-                        LOGGER.debug("No mapper registered for {}: attempting to generate", mapperKey);
-                        
-                        ClassMapBuilder<?, ?> builder = classMap(mapperKey.getAType(), mapperKey.getBType()).byDefault();
-                        for (MapperKey key : discoverUsedMappers(builder)) {
-                            builder.use(key.getAType(), key.getBType());
-                        }
-                        final ClassMap<?, ?> classMap = builder.toClassMap();
-                        
-                        buildObjectFactories(classMap, context);
-                        mapper = buildMapper(classMap, true, context);
-                        initializeUsedMappers(mapper, classMap, context);
-                        if (internalMapperMustBeGenerated || alwaysCreateMultipleMapperWrapper) {
-                            // regenerate MultipleMapperWrapper.
-                            mapper = getRegisteredMapper(mapperKey.getAType(), mapperKey.getBType(), false);
-                        }
-                    } catch (MappingException e) {
-                        e.setSourceType(mapperKey.getAType());
-                        e.setDestinationType(mapperKey.getBType());
-                        throw exceptionUtil.decorate(e);
-                    }
+                if (generatedMapper == null) {
+                    generatedMapper = generateAutoMapper(classMap, context);
                 }
+                buildObjectFactories(classMap, context);
+                register(classMap.getAType(), classMap.getBType(), true);
+                register(classMap.getBType(), classMap.getAType(), true);
+                registerGeneratedMapper(classMap, generatedMapper, true);
+                if (generatedMapper instanceof InterpretedMapper) {
+                    compileInBackground(classMap, (InterpretedMapper) generatedMapper);
+                }
+                
+                initializeUsedMappers(generatedMapper, classMap, context);
+                mapper = generatedMapper;
+                if (internalMapperMustBeGenerated || alwaysCreateMultipleMapperWrapper) {
+                    // regenerate MultipleMapperWrapper.
+                    mapper = getRegisteredMapper(mapperKey.getAType(), mapperKey.getBType(), false);
+                }
+                return mapper;
+            }
+        } catch (MappingException e) {
+            e.setSourceType(mapperKey.getAType());
+            e.setDestinationType(mapperKey.getBType());
+            throw exceptionUtil.decorate(e);
+        } finally {
+            if (added) {
+                generatingThreads.remove(thread);
+            }
+            if (generation != null) {
+                mapperGenerations.remove(mapperKey, generation);
+                generation.complete();
+            }
+        }
+    }
+    
+    /**
+     * MapperGeneration tracks the on-demand generation of the mapper for a
+     * single type pair.
+     */
+    private static final class MapperGeneration {
+        
+        private final CountDownLatch completed = new CountDownLatch(1);
+        
+        private void complete() {
+            completed.countDown();
+        }
+        
+        /**
+         * Waits for the generation to complete, whether or not it succeeded.
+         * 
+         * @return false if the current thread was interrupted while waiting
+         */
+        private boolean await() {
+            try {
+                completed.await();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
             }
-            
         }
-        return (Mapper<Object, Object>) mapper;
     }
 
     private boolean internalMapperMustBeGenerated(Mapper<?, ?> mapper, MapperKey mapperKey) {
@@ -854,12 +1236,17 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
      */
     @SuppressWarnings("unchecked")
     private <A, B> Mapper<A, B> getRegisteredMapper(Type<A> typeA, Type<B> typeB, boolean includeAutoGeneratedMappers) {
+        List<Mapper<Object, Object>> candidates = getMapperIndex().getCandidates(typeA.getRawType());
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        
         List<Mapper<A, B>> foundMappers = new ArrayList<>();
         
         boolean objFactoryBExists = customObjectFactoryForDestinationExists(typeA, typeB);
         boolean objFactoryAExists = customObjectFactoryForDestinationExists(typeB, typeA);
         
-        for (Mapper<?, ?> mapper : mappersRegistry) {
+        for (Mapper<?, ?> mapper : candidates) {
             if ((mapper.getAType().equals(typeA) && mapper.getBType().equals(typeB))
                     || (mapper.getAType().equals(typeB) && mapper.getBType().equals(typeA))) {
                 foundMappers.add((Mapper<A, B>) mapper);
@@ -900,6 +1287,32 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         return null;
     }
     
+    /**
+     * @return the index over the current contents of the mappersRegistry
+     */
+    private MapperIndex getMapperIndex() {
+        /*
+         * The index is rebuilt without locking whenever it is older than the
+         * latest modification of the registry; racing threads may each build
+         * an index, and publishing a stale one only causes another rebuild.
+         */
+        int modifications = mappersRegistryModifications.get();
+        MapperIndex index = mapperIndex;
+        if (index == null || index.getModifications() != modifications) {
+            index = new MapperIndex(mappersRegistry, modifications);
+            mapperIndex = index;
+        }
+        return index;
+    }
+    
+    /**
+     * Invalidates the index over the mappersRegistry; must be called after
+     * every modification of the registry.
+     */
+    private void mappersRegistryModified() {
+        mappersRegistryModifications.incrementAndGet();
+    }
+    
     private boolean favorsExtension(Mapper<?, ?> mapper) {
         return mapper.favorsExtension() == null ? favorExtension : mapper.favorsExtension();
     }
@@ -931,10 +1344,12 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
      * 
      * Since getMapperFacade() triggers the build() process, it is important
      * that none of the methods called during the build() invoke
-     * getMapperFacade() again.
+     * getMapperFacade() again; the threads generating mappers in parallel on
+     * behalf of the build() may not trigger it at all, since the building
+     * thread may hold the lock on the mapper facade.
      */
     public MapperFacade getMapperFacade() {
-        if (!isBuilt) {
+        if (!isBuilt && !buildThreads.contains(Thread.currentThread())) {
             synchronized (mapperFacade) {
                 if (!isBuilt) {
                     build();
@@ -1161,6 +1576,9 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
                 
             }
         }
+        if (result != null && mapperMetrics != null) {
+            result = new InstrumentedObjectFactory<>(result, mapperMetrics.getRecorder(new MapperKey(sourceType, destinationType)));
+        }
         return result;
     }
     
@@ -1328,8 +1746,26 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
     
     public synchronized void build() {
         
+        /*
+         * Other threads may enter while the building thread waits for the
+         * mappers being generated in parallel; they must wait for the build to
+         * complete, as they would if the build had held the lock throughout
+         */
+        boolean interrupted = false;
+        while (buildingThread != null && buildingThread != Thread.currentThread() && !buildThreads.contains(Thread.currentThread())) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        
         if (!isBuilding && !isBuilt) {
             isBuilding = true;
+            buildingThread = Thread.currentThread();
             
             MappingContext context = contextFactory.getContext();
             try {
@@ -1346,24 +1782,252 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
                 }
 
                 buildClassMapRegistry();
+                
+                if (analyzeCycles) {
+                    contextFactory.getGlobalProperties().put(Properties.CYCLE_ANALYSIS,
+                            new CycleAnalysis(classMapRegistry.values(), converterFactory));
+                }
 
                 Map<ClassMap<?, ?>, GeneratedMapperBase> generatedMappers = new HashMap<>();
-                for (ClassMap<?, ?> classMap : classMapRegistry.values()) {
-                    generatedMappers.put(classMap, buildMapper(classMap, false, context));
+                boolean objectFactoriesBuilt = false;
+                if (buildExecutor != null && compilerStrategy.isThreadSafe() && classMapRegistry.size() > 1) {
+                    buildMappersInParallel(new ArrayList<ClassMap<?, ?>>(classMapRegistry.values()), generatedMappers, context);
+                } else if (batchCompilation && classMapRegistry.size() > 1) {
+                    List<ClassMap<?, ?>> classMaps = new ArrayList<ClassMap<?, ?>>(classMapRegistry.values());
+                    buildMappersInBatch(classMaps, generatedMappers, context);
+                    buildObjectFactoriesInBatch(classMaps, context);
+                    objectFactoriesBuilt = true;
+                } else {
+                    for (ClassMap<?, ?> classMap : classMapRegistry.values()) {
+                        generatedMappers.put(classMap, buildMapper(classMap, false, context));
+                    }
                 }
                 
                 Set<Entry<ClassMap<?, ?>, GeneratedMapperBase>> generatedMapperEntries = generatedMappers.entrySet();
                 for (Entry<ClassMap<?, ?>, GeneratedMapperBase> generatedMapperEntry : generatedMapperEntries) {
-                    buildObjectFactories(generatedMapperEntry.getKey(), context);
+                    if (!objectFactoriesBuilt) {
+                        buildObjectFactories(generatedMapperEntry.getKey(), context);
+                    }
                     initializeUsedMappers(generatedMapperEntry.getValue(), generatedMapperEntry.getKey(), context);
                 }
                 
+                isBuilt = true;
+                isBuilding = false;
             } finally {
                 contextFactory.release(context);
+                buildingThread = null;
+                notifyAll();
             }
-            
-            isBuilt = true;
-            isBuilding = false;
+        }
+    }
+    
+    /**
+     * Generates the mappers for the specified class-maps in parallel, using
+     * the build executor, and then registers them in the order of the
+     * class-maps, exactly as a sequential build would.<br>
+     * <br>
+     * Must be called from build(); the building thread releases the lock on
+     * this factory while it waits for the mappers to be generated, since the
+     * generation of a mapper may register further class-maps and mappers.
+     * 
+     * @param classMaps
+     *            the class-maps for which mappers should be generated
+     * @param generatedMappers
+     *            receives the generated mapper for each of the class-maps
+     * @param context
+     *            the current mapping context, used by the building thread
+     */
+    private void buildMappersInParallel(List<ClassMap<?, ?>> classMaps, Map<ClassMap<?, ?>, GeneratedMapperBase> generatedMappers,
+            MappingContext context) {
+        
+        for (ClassMap<?, ?> classMap : classMaps) {
+            register(classMap.getAType(), classMap.getBType(), false);
+            register(classMap.getBType(), classMap.getAType(), false);
+        }
+        
+        ParallelBuild parallelBuild = new ParallelBuild(classMaps);
+        int helpers = Math.min(classMaps.size(), Runtime.getRuntime().availableProcessors()) - 1;
+        try {
+            for (int i = 0; i < helpers; ++i) {
+                buildExecutor.execute(parallelBuild);
+            }
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Mapper generation rejected by build executor; continuing with fewer threads", e);
+        }
+        parallelBuild.generate(context);
+        parallelBuild.await();
+        
+        for (int i = 0; i < classMaps.size(); ++i) {
+            ClassMap<?, ?> classMap = classMaps.get(i);
+            generatedMappers.put(classMap, registerGeneratedMapper(classMap, parallelBuild.getMapper(i), false));
+        }
+    }
+    
+    /**
+     * Generates the mappers for the specified class-maps, compiling all of
+     * them in a single invocation of the compiler strategy, and then registers
+     * them in the order of the class-maps.
+     * 
+     * @param classMaps
+     *            the class-maps for which mappers should be generated
+     * @param generatedMappers
+     *            receives the generated mapper for each of the class-maps
+     * @param context
+     *            the current mapping context
+     */
+    private void buildMappersInBatch(List<ClassMap<?, ?>> classMaps, Map<ClassMap<?, ?>, GeneratedMapperBase> generatedMappers,
+            MappingContext context) {
+        
+        for (ClassMap<?, ?> classMap : classMaps) {
+            register(classMap.getAType(), classMap.getBType(), false);
+            register(classMap.getBType(), classMap.getAType(), false);
+        }
+        
+        List<GeneratedMapperBase> mappers = mapperGenerator.build(classMaps, context);
+        
+        for (int i = 0; i < classMaps.size(); ++i) {
+            ClassMap<?, ?> classMap = classMaps.get(i);
+            generatedMappers.put(classMap, registerGeneratedMapper(classMap, mappers.get(i), false));
+        }
+    }
+    
+    /**
+     * Generates the object factories required by the specified class-maps
+     * (as {@link #buildObjectFactories(ClassMap, MappingContext)} would),
+     * compiling all of them in a single invocation of the compiler strategy,
+     * and then registers them.<br>
+     * <br>
+     * They can't be compiled along with the mappers: the arguments of the
+     * constructor called by an object factory are mapped by the same code as
+     * the fields of a mapper, which may resolve (or call directly) the mappers
+     * of these class-maps, so they may only be generated once those mappers
+     * are registered.
+     * 
+     * @param classMaps
+     *            the class-maps whose object factories should be generated
+     * @param context
+     *            the current mapping context
+     */
+    @SuppressWarnings("unchecked")
+    private void buildObjectFactoriesInBatch(List<ClassMap<?, ?>> classMaps, MappingContext context) {
+        
+        List<MapperKey> typePairs = new ArrayList<>();
+        Set<Type<?>> types = new HashSet<>();
+        for (ClassMap<?, ?> classMap : classMaps) {
+            Type<?> aType = classMap.getAType();
+            Type<?> bType = classMap.getBType();
+            if (classMap.getConstructorA() != null && types.add(aType)
+                    && lookupExistingObjectFactory(aType, TypeFactory.TYPE_OF_OBJECT, context) == null) {
+                typePairs.add(new MapperKey(aType, bType));
+            }
+            if (classMap.getConstructorB() != null && types.add(bType)
+                    && lookupExistingObjectFactory(bType, TypeFactory.TYPE_OF_OBJECT, context) == null) {
+                typePairs.add(new MapperKey(bType, aType));
+            }
+        }
+        
+        List<GeneratedObjectFactory> objectFactories = objectFactoryGenerator.build(typePairs, context);
+        for (int i = 0; i < typePairs.size(); ++i) {
+            registerObjectFactory(objectFactories.get(i), (Type<Object>) typePairs.get(i).getAType());
+        }
+    }
+    
+    /**
+     * ParallelBuild generates the mappers for a list of class-maps; it is run
+     * by any number of threads, each of which generates the mappers for the
+     * next class-maps which have not yet been claimed by another.
+     */
+    private final class ParallelBuild implements Runnable {
+        
+        private final List<ClassMap<?, ?>> classMaps;
+        private final GeneratedMapperBase[] mappers;
+        private final Throwable[] failures;
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final ClassLoader contextClassLoader;
+        
+        private ParallelBuild(List<ClassMap<?, ?>> classMaps) {
+            this.classMaps = classMaps;
+            this.mappers = new GeneratedMapperBase[classMaps.size()];
+            this.failures = new Throwable[classMaps.size()];
+            this.contextClassLoader = Thread.currentThread().getContextClassLoader();
+        }
+        
+        public void run() {
+            Thread thread = Thread.currentThread();
+            ClassLoader threadContextClassLoader = thread.getContextClassLoader();
+            boolean added = buildThreads.add(thread);
+            /*
+             * Generated classes are defined by the context class-loader of the
+             * building thread
+             */
+            thread.setContextClassLoader(contextClassLoader);
+            MappingContext context = contextFactory.getContext();
+            try {
+                generate(context);
+            } finally {
+                contextFactory.release(context);
+                thread.setContextClassLoader(threadContextClassLoader);
+                if (added) {
+                    buildThreads.remove(thread);
+                }
+            }
+        }
+        
+        /**
+         * Generates the mappers for the class-maps which have not yet been
+         * claimed, using the supplied mapping context; the building thread
+         * calls this directly with the context it already holds, so that a
+         * MappingContextFactory sees no more contexts than for a sequential
+         * build.
+         * 
+         * @param context
+         *            the mapping context of the current thread
+         */
+        private void generate(MappingContext context) {
+            int index;
+            while ((index = nextIndex.getAndIncrement()) < classMaps.size()) {
+                try {
+                    mappers[index] = mapperGenerator.build(classMaps.get(index), context);
+                } catch (RuntimeException | Error e) {
+                    failures[index] = e;
+                }
+                if (completed.incrementAndGet() == classMaps.size()) {
+                    synchronized (DefaultMapperFactory.this) {
+                        DefaultMapperFactory.this.notifyAll();
+                    }
+                }
+            }
+        }
+        
+        /**
+         * Waits for all of the mappers to be generated, releasing the lock on
+         * the factory meanwhile; if any of the generations failed, the failure
+         * of the first class-map is thrown.
+         */
+        private void await() {
+            boolean interrupted = false;
+            while (completed.get() < classMaps.size()) {
+                try {
+                    DefaultMapperFactory.this.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            for (Throwable failure : failures) {
+                if (failure instanceof RuntimeException) {
+                    throw (RuntimeException) failure;
+                } else if (failure != null) {
+                    throw (Error) failure;
+                }
+            }
+        }
+        
+        private GeneratedMapperBase getMapper(int index) {
+            return mappers[index];
         }
     }
     
@@ -1527,14 +2191,111 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         }
     }
     
-    @SuppressWarnings("unchecked")
     private GeneratedMapperBase buildMapper(ClassMap<?, ?> classMap, boolean isAutoGenerated, MappingContext context) {
         
         register(classMap.getAType(), classMap.getBType(), isAutoGenerated);
         register(classMap.getBType(), classMap.getAType(), isAutoGenerated);
         
+        return registerGeneratedMapper(classMap, mapperGenerator.build(classMap, context), isAutoGenerated);
+    }
+    
+    /**
+     * Generates the (unregistered) mapper for an auto-generated class-map:
+     * when tiered mapping is enabled, this is a mapper which interprets the
+     * class-map, unless the class-map is not supported by interpretation.
+     * 
+     * @param classMap
+     *            the class-map for which a mapper is required
+     * @param context
+     *            the current mapping context
+     * @return the mapper for the class-map
+     */
+    private GeneratedMapperBase generateAutoMapper(ClassMap<?, ?> classMap, MappingContext context) {
+        
+        GeneratedMapperBase mapper = null;
+        if (tieredMappingExecutor != null && isBuilt) {
+            mapper = mapperGenerator.interpret(classMap, context);
+        }
+        if (mapper == null) {
+            mapper = mapperGenerator.build(classMap, context);
+        }
+        return mapper;
+    }
+    
+    /**
+     * Submits the generation of the mapper for a class-map which is
+     * (meanwhile) mapped by the specified interpreted mapper to the tiered
+     * mapping executor.
+     * 
+     * @param classMap
+     * @param mapper
+     *            the registered interpreted mapper
+     */
+    private void compileInBackground(ClassMap<?, ?> classMap, InterpretedMapper mapper) {
+        try {
+            tieredMappingExecutor.execute(new TieredCompilation(classMap, mapper));
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Mapper generation rejected by build executor; " + classMap.getMapperClassName() + " remains interpreted", e);
+        }
+    }
+    
+    /**
+     * TieredCompilation generates the mapper for a class-map which is mapped
+     * by an interpreted mapper in the meantime, and then replaces the
+     * interpreted mapper with the generated one: within the registry of
+     * mappers, and (since the interpreted mapper may already be referenced by
+     * resolved strategies and other mappers) as the delegate of the
+     * interpreted mapper itself.
+     */
+    private final class TieredCompilation implements Runnable {
+        
+        private final ClassMap<?, ?> classMap;
+        private final InterpretedMapper interpretedMapper;
+        private final ClassLoader contextClassLoader;
+        
+        private TieredCompilation(ClassMap<?, ?> classMap, InterpretedMapper interpretedMapper) {
+            this.classMap = classMap;
+            this.interpretedMapper = interpretedMapper;
+            this.contextClassLoader = Thread.currentThread().getContextClassLoader();
+        }
+        
+        public void run() {
+            Thread thread = Thread.currentThread();
+            ClassLoader threadContextClassLoader = thread.getContextClassLoader();
+            /*
+             * The generated class is defined by the context class-loader of
+             * the thread which requested the mapper
+             */
+            thread.setContextClassLoader(contextClassLoader);
+            MappingContext context = contextFactory.getContext();
+            try {
+                GeneratedMapperBase mapper;
+                if (compilerStrategy.isThreadSafe()) {
+                    mapper = mapperGenerator.build(classMap, context);
+                } else {
+                    synchronized (DefaultMapperFactory.this) {
+                        mapper = mapperGenerator.build(classMap, context);
+                    }
+                }
+                synchronized (DefaultMapperFactory.this) {
+                    mapper.setUsedMappers(interpretedMapper.getUsedMappers());
+                    mappersRegistry.remove(interpretedMapper);
+                    registerGeneratedMapper(classMap, mapper, true);
+                    interpretedMapper.setCompiledMapper(mapper);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.warn("Failed to generate " + classMap.getMapperClassName() + "; the class-map remains interpreted", e);
+            } finally {
+                contextFactory.release(context);
+                thread.setContextClassLoader(threadContextClassLoader);
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private GeneratedMapperBase registerGeneratedMapper(ClassMap<?, ?> classMap, GeneratedMapperBase mapper, boolean isAutoGenerated) {
+        
         final MapperKey mapperKey = new MapperKey(classMap.getAType(), classMap.getBType());
-        final GeneratedMapperBase mapper = mapperGenerator.build(classMap, context);
         mapper.setMapperFacade(mapperFacade);
         mapper.setFromAutoMapping(isAutoGenerated);
         if (classMap.getCustomizedMapper() != null) {
@@ -1543,6 +2304,7 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         }
         mappersRegistry.remove(mapper);
         mappersRegistry.add(mapper);
+        mappersRegistryModified();
         classMapRegistry.put(mapperKey, (ClassMap<Object, Object>) classMap);
         
         return mapper;
@@ -1561,7 +2323,11 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         
         Set<Type<?>> destinationSet = registry.get(sourceType);
         if (destinationSet == null) {
-            destinationSet = new TreeSet<>();
+            /*
+             * The destinations are iterated without locking, while mappers
+             * are generated and registered concurrently
+             */
+            destinationSet = new ConcurrentSkipListSet<>();
             Set<Type<?>> existing = registry.putIfAbsent(sourceType, destinationSet);
             if (existing != null) {
                 destinationSet = existing;
@@ -1597,6 +2363,15 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         return converterFactory;
     }
     
+    /*
+     * (non-Javadoc)
+     * 
+     * @see ma.glasnost.orika.MapperFactory#getMapperMetrics()
+     */
+    public MapperMetrics getMapperMetrics() {
+        return mapperMetrics;
+    }
+    
     public <T> void registerObjectFactory(ObjectFactory<T> objectFactory, Class<T> targetClass) {
         registerObjectFactory(objectFactory, TypeFactory.<T> valueOf(targetClass));
     }
@@ -1643,6 +2418,7 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
     @SuppressWarnings("unchecked")
     public synchronized <A, B> void registerMapper(Mapper<A, B> mapper) {
         this.mappersRegistry.add((Mapper<Object, Object>) mapper);
+        mappersRegistryModified();
         mapper.setMapperFacade(this.mapperFacade);
         register(mapper.getAType(), mapper.getBType(), false);
         register(mapper.getBType(), mapper.getAType(), false);
@@ -0,0 +1,303 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl;
+
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Map;
+
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingStrategy;
+import ma.glasnost.orika.ObjectFactory;
+import ma.glasnost.orika.impl.generator.CycleAnalysis;
+import ma.glasnost.orika.impl.mapping.strategy.InstantiateAndUseCustomMapperStrategy;
+import ma.glasnost.orika.metadata.Type;
+
+/**
+ * DirectMapperCall allows generated code to map a nested property by calling
+ * the child Mapper and ObjectFactory directly, rather than dispatching through
+ * a BoundMapperFacade and the MappingStrategy it resolves.<br>
+ * <br>
+ * A call only applies to source objects whose class is exactly the (concrete)
+ * class of the source property; the child Mapper and ObjectFactory are taken
+ * from the MappingStrategy resolved for the first such object, provided that
+ * it is a plain {@link InstantiateAndUseCustomMapperStrategy}, and that the
+ * MapperFactory provides the default BoundMapperFacade for the types. Any
+ * other source object or strategy is mapped through the BoundMapperFacade, as
+ * before.<br>
+ * <br>
+ * The generated code is expected to call the Mapper and ObjectFactory
+ * returned by this object from its own call-sites, so that each of them only
+ * ever sees a single receiver class. When the generated class also contains
+ * a fused copy of the field mappings of the child class-map, that copy may be
+ * used instead of the child Mapper, provided that the Mapper resolved is the
+ * plain generated mapper for the exact types of the call (see
+ * {@link #isFused()}); see
+ * {@link ma.glasnost.orika.impl.generator.SourceCodeContext#callMapper(ma.glasnost.orika.impl.generator.VariableRef, Type)}.
+ */
+public final class DirectMapperCall {
+    
+    private static final int UNRESOLVED = 0;
+    private static final int DIRECT = 1;
+    private static final int INDIRECT = 2;
+    
+    private final Type<Object> sourceType;
+    private final Type<Object> destinationType;
+    private final Class<?> sourceClass;
+    private final MapperFactory mapperFactory;
+    private final boolean fusable;
+    
+    /*
+     * The resolved fields are written before the (volatile) state is set to
+     * DIRECT, and are only read once it has been
+     */
+    private volatile int state;
+    private Mapper<Object, Object> mapper;
+    private boolean aToB;
+    private ObjectFactory<Object> objectFactory;
+    private Type<Object> resolvedSourceType;
+    private Type<Object> resolvedDestinationType;
+    private CycleAnalysis.Result cycles;
+    private boolean fused;
+    
+    /**
+     * Constructs a new DirectMapperCall
+     * 
+     * @param sourceType
+     *            the type of the source property
+     * @param destinationType
+     *            the type of the destination property
+     * @param mapperFactory
+     *            the MapperFactory used to resolve the mapping strategy
+     */
+    public DirectMapperCall(Type<Object> sourceType, Type<Object> destinationType, MapperFactory mapperFactory) {
+        this(sourceType, destinationType, mapperFactory, false);
+    }
+    
+    /**
+     * Constructs a new DirectMapperCall
+     * 
+     * @param sourceType
+     *            the type of the source property
+     * @param destinationType
+     *            the type of the destination property
+     * @param mapperFactory
+     *            the MapperFactory used to resolve the mapping strategy
+     * @param fusable
+     *            whether the generated code contains a fused copy of the
+     *            field mappings of the class-map for the types
+     */
+    public DirectMapperCall(Type<Object> sourceType, Type<Object> destinationType, MapperFactory mapperFactory, boolean fusable) {
+        this.sourceType = sourceType;
+        this.destinationType = destinationType;
+        this.sourceClass = sourceType.getRawType();
+        this.mapperFactory = mapperFactory;
+        this.fusable = fusable;
+    }
+    
+    /**
+     * Determines whether a nested property mapping between the specified types
+     * may be generated as a direct call; this requires a concrete source class,
+     * which is not mapped by reference or by one of the specialized
+     * specifications (collections, maps and arrays), and that no unenhance
+     * strategy has been configured.
+     * 
+     * @param sourceType
+     * @param destinationType
+     * @param mapperFactory
+     * @return true if a direct call may be generated for the types
+     */
+    public static boolean appliesTo(Type<?> sourceType, Type<?> destinationType, MapperFactory mapperFactory) {
+        Class<?> rawType = sourceType.getRawType();
+        return !sourceType.isImmutable() && !destinationType.isImmutable() && !rawType.isInterface() && !rawType.isArray()
+                && !Modifier.isAbstract(rawType.getModifiers()) && !Collection.class.isAssignableFrom(rawType)
+                && !Map.class.isAssignableFrom(rawType) && mapperFactory.getUserUnenhanceStrategy() == null
+                && mapperFactory.getMapperMetrics() == null;
+    }
+    
+    /**
+     * @return the type of the source property
+     */
+    public Type<Object> getSourceType() {
+        return sourceType;
+    }
+    
+    /**
+     * @return the type of the destination property
+     */
+    public Type<Object> getDestinationType() {
+        return destinationType;
+    }
+    
+    /**
+     * Determines whether the source object can be mapped directly; the mapping
+     * strategy is resolved the first time an object of the exact source class
+     * is encountered.
+     * 
+     * @param source
+     *            the (non-null) source object
+     * @param context
+     *            the current mapping context
+     * @return true if the source object may be mapped using the Mapper and
+     *         ObjectFactory of this call
+     */
+    public boolean accepts(Object source, MappingContext context) {
+        if (source.getClass() != sourceClass) {
+            return false;
+        }
+        int currentState = state;
+        return currentState == DIRECT || (currentState == UNRESOLVED && resolve(source, context));
+    }
+    
+    private boolean resolve(Object source, MappingContext context) {
+        if (!(mapperFactory.getMapperFacade(sourceType, destinationType) instanceof DefaultBoundMapperFacade)) {
+            state = INDIRECT;
+            return false;
+        }
+        MappingStrategy strategy = mapperFactory.getMapperFacade().resolveMappingStrategy(source, sourceType, destinationType, false,
+                context);
+        if (strategy.getClass() != InstantiateAndUseCustomMapperStrategy.class) {
+            state = INDIRECT;
+            return false;
+        }
+        InstantiateAndUseCustomMapperStrategy customStrategy = (InstantiateAndUseCustomMapperStrategy) strategy;
+        Mapper<Object, Object> customMapper = customStrategy.getCustomMapper();
+        if (customMapper instanceof ReversedMapper) {
+            this.mapper = ((ReversedMapper<Object, Object>) customMapper).getReversedMapper();
+            this.aToB = false;
+        } else {
+            this.mapper = customMapper;
+            this.aToB = true;
+        }
+        this.objectFactory = customStrategy.getObjectFactory();
+        this.resolvedSourceType = customStrategy.getAType();
+        this.resolvedDestinationType = customStrategy.getBType();
+        this.cycles = customStrategy.getCycleAnalysis();
+        this.fused = fusable && isPlainGeneratedMapper(this.mapper, aToB ? resolvedSourceType : resolvedDestinationType,
+                aToB ? resolvedDestinationType : resolvedSourceType);
+        state = DIRECT;
+        return true;
+    }
+    
+    /**
+     * @return true if the mapper is the generated mapper of a class-map between
+     *         the exact types of this call, which does not delegate to a
+     *         customized mapper or to the mappers of any parent class-maps
+     */
+    private boolean isPlainGeneratedMapper(Mapper<Object, Object> mapper, Type<?> aType, Type<?> bType) {
+        if (!(mapper instanceof GeneratedMapperBase) || !resolvedSourceType.equals(sourceType)
+                || !resolvedDestinationType.equals(destinationType)) {
+            return false;
+        }
+        GeneratedMapperBase generatedMapper = (GeneratedMapperBase) mapper;
+        return generatedMapper.customMapper == null
+                && (generatedMapper.getUsedMappers() == null || generatedMapper.getUsedMappers().length == 0)
+                && generatedMapper.getAType().equals(aType) && generatedMapper.getBType().equals(bType);
+    }
+    
+    /**
+     * @return true if the fused copy of the field mappings contained in the
+     *         generated code may be used in place of the Mapper
+     */
+    public boolean isFused() {
+        return fused;
+    }
+    
+    /**
+     * @return the Mapper to be called; in the A-to-B direction if
+     *         {@link #isAtoB()} is true, and B-to-A otherwise
+     */
+    public Mapper<Object, Object> getMapper() {
+        return mapper;
+    }
+    
+    /**
+     * @return the direction in which the Mapper should be called
+     */
+    public boolean isAtoB() {
+        return aToB;
+    }
+    
+    /**
+     * @return the ObjectFactory used to instantiate the destination
+     */
+    public ObjectFactory<Object> getObjectFactory() {
+        return objectFactory;
+    }
+    
+    /**
+     * @param source
+     * @param context
+     * @return the object already mapped from the source object in this
+     *         context, if any
+     */
+    public Object getMappedObject(Object source, MappingContext context) {
+        return context.getMappedObject(source, resolvedDestinationType);
+    }
+    
+    /**
+     * Sets the resolved types on the mapping context, as the BoundMapperFacade
+     * would, before the destination object is instantiated.
+     * 
+     * @param context
+     */
+    public void setResolvedTypes(MappingContext context) {
+        context.setResolvedSourceType(resolvedSourceType);
+        context.setResolvedDestinationType(resolvedDestinationType);
+    }
+    
+    /**
+     * Registers the destination object on the mapping context, as the
+     * resolved MappingStrategy would, before the Mapper is called.
+     * 
+     * @param source
+     * @param destination
+     * @param context
+     */
+    public void beginMapping(Object source, Object destination, MappingContext context) {
+        if (cycles == CycleAnalysis.Result.ACYCLIC) {
+            context.deferMappedObject(source, resolvedDestinationType, destination);
+        } else {
+            if (cycles == CycleAnalysis.Result.UNKNOWN) {
+                context.cacheDeferredMappedObjects();
+            }
+            context.cacheMappedObject(source, resolvedDestinationType, destination);
+        }
+        context.beginMapping(resolvedSourceType, source, resolvedDestinationType, destination);
+    }
+    
+    /**
+     * Marks the end of the mapping started by
+     * {@link #beginMapping(Object, Object, MappingContext)}.
+     * 
+     * @param context
+     */
+    public void endMapping(MappingContext context) {
+        context.endMapping();
+        if (cycles == CycleAnalysis.Result.ACYCLIC) {
+            context.endDeferredMappedObject();
+        }
+    }
+    
+    public String toString() {
+        return getClass().getSimpleName() + "<" + sourceType + ", " + destinationType + ">";
+    }
+}
@@ -24,6 +24,7 @@ import ma.glasnost.orika.BoundMapperFacade;
 import ma.glasnost.orika.Converter;
 import ma.glasnost.orika.Mapper;
 import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.generator.CycleAnalysis;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.metadata.TypeFactory;
 
@@ -51,11 +52,30 @@ public abstract class GeneratedMapperBase extends GeneratedObjectBase implements
         return (mapper instanceof GeneratedMapperBase && ((GeneratedMapperBase) mapper).getUsedMappers() != null);
     }
     
+    /**
+     * Returns the result of the cycle analysis for the direction mapped by
+     * <code>mapper</code>'s mapAtoB method.
+     * 
+     * @param mapper the mapper to check
+     * @return the result of the cycle analysis, or UNKNOWN if the mapper is
+     *         not a generated mapper whose class-map has been analyzed
+     */
+    public static CycleAnalysis.Result getCycleAnalysis(Mapper<?, ?> mapper) {
+        if (mapper instanceof GeneratedMapperBase) {
+            return ((GeneratedMapperBase) mapper).cyclesAtoB;
+        } else if (mapper instanceof ReversedMapper && ((ReversedMapper<?, ?>) mapper).getReversedMapper() instanceof GeneratedMapperBase) {
+            return ((GeneratedMapperBase) ((ReversedMapper<?, ?>) mapper).getReversedMapper()).cyclesBtoA;
+        }
+        return CycleAnalysis.Result.UNKNOWN;
+    }
+    
     protected Mapper<Object, Object> customMapper;
     private Mapper<Object, Object>[] usedMappers;
     private Type<Object> aType;
     private Type<Object> bType;
     private Boolean favorsExtension;
+    private CycleAnalysis.Result cyclesAtoB = CycleAnalysis.Result.UNKNOWN;
+    private CycleAnalysis.Result cyclesBtoA = CycleAnalysis.Result.UNKNOWN;
     
     public Type<Object> getAType() {
         return aType;
@@ -80,6 +100,11 @@ public abstract class GeneratedMapperBase extends GeneratedObjectBase implements
         this.customMapper.setMapperFacade(mapperFacade);
     }
     
+    public void setCycleAnalysis(CycleAnalysis.Result cyclesAtoB, CycleAnalysis.Result cyclesBtoA) {
+        this.cyclesAtoB = cyclesAtoB;
+        this.cyclesBtoA = cyclesBtoA;
+    }
+    
     public Mapper<Object, Object>[] getUsedMappers() {
         return usedMappers;
     }
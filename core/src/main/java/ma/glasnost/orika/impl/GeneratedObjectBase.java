@@ -39,6 +39,7 @@ public abstract class GeneratedObjectBase {
     protected Converter<Object, Object>[] usedConverters;
     protected BoundMapperFacade<Object, Object>[] usedMapperFacades;
     protected Filter<Object, Object>[] usedFilters;
+    protected DirectMapperCall[] usedDirectMapperCalls;
     protected MapperFacade mapperFacade;
     protected boolean fromAutoMapping;
     
@@ -62,6 +63,10 @@ public abstract class GeneratedObjectBase {
         this.usedFilters = usedFilters;
     }
     
+    public void setUsedDirectMapperCalls(DirectMapperCall[] usedDirectMapperCalls) {
+        this.usedDirectMapperCalls = usedDirectMapperCalls;
+    }
+    
     public boolean isFromAutoMapping() {
         return fromAutoMapping;
     }
@@ -94,7 +99,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(byte[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -102,7 +107,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(int[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -110,7 +115,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(char[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -118,7 +123,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(long[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -126,7 +131,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(float[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -134,7 +139,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(double[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -142,7 +147,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(boolean[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -150,7 +155,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(short[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
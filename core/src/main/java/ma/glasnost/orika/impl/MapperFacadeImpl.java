@@ -37,6 +37,9 @@ import ma.glasnost.orika.impl.util.ClassUtil;
 import ma.glasnost.orika.metadata.MapperKey;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.metadata.TypeFactory;
+import ma.glasnost.orika.metrics.InstrumentedConverter;
+import ma.glasnost.orika.metrics.InstrumentedMappingStrategy;
+import ma.glasnost.orika.metrics.MapperMetrics;
 import ma.glasnost.orika.unenhance.UnenhanceStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,7 +54,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static ma.glasnost.orika.StateReporter.DIVIDER;
 import static ma.glasnost.orika.StateReporter.humanReadableSizeInMemory;
@@ -65,9 +67,10 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     private final MappingContextFactory contextFactory;
     protected final UnenhanceStrategy unenhanceStrategy;
     private final UnenhanceStrategy userUnenhanceStrategy;
-    private final ConcurrentHashMap<Key, MappingStrategy> strategyCache = new ConcurrentHashMap<>();
+    private final MappingStrategyCache strategyCache = new MappingStrategyCache();
     private final Logger log = LoggerFactory.getLogger(getClass());
     private final ExceptionUtility exceptionUtil;
+    private final MapperMetrics mapperMetrics;
     
     /**
      * Constructs a new MapperFacadeImpl
@@ -83,6 +86,7 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
         this.unenhanceStrategy = unenhanceStrategy;
         this.userUnenhanceStrategy = mapperFactory.getUserUnenhanceStrategy();
         this.contextFactory = contextFactory;
+        this.mapperMetrics = mapperFactory.getMapperMetrics();
     }
 
     /**
@@ -160,11 +164,13 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     public <S, D> MappingStrategy resolveMappingStrategy(final S sourceObject, final java.lang.reflect.Type initialSourceType,
             final java.lang.reflect.Type initialDestinationType, final boolean mapInPlace, final MappingContext context) {
         
-        Key key = new Key(getClass(sourceObject), initialSourceType, initialDestinationType, mapInPlace);
-        MappingStrategy strategy = strategyCache.get(key);
+        Class<?> rawSourceType = getClass(sourceObject);
+        MappingStrategy strategy = strategyCache.get(rawSourceType, initialSourceType, initialDestinationType, mapInPlace);
         
         if (strategy == null) {
             
+            Key key = new Key(rawSourceType, initialSourceType, initialDestinationType, mapInPlace);
+            
             @SuppressWarnings("unchecked")
             Type<S> sourceType = (Type<S>) (initialSourceType != null ? TypeFactory.valueOf(initialSourceType)
                     : typeOf(sourceObject));
@@ -184,7 +190,11 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
                  */
                 strategyRecorder.setCopyByReference(true);
             } else if (!mapInPlace && canConvert(resolvedSourceType, destinationType)) {
-                strategyRecorder.setResolvedConverter(mapperFactory.getConverterFactory().getConverter(resolvedSourceType, destinationType));
+                Converter<Object, Object> converter = mapperFactory.getConverterFactory().getConverter(resolvedSourceType, destinationType);
+                if (mapperMetrics != null) {
+                    converter = new InstrumentedConverter<>(converter, mapperMetrics.getRecorder(new MapperKey(converter.getAType(), converter.getBType())));
+                }
+                strategyRecorder.setResolvedConverter(converter);
                 
             } else {
                 strategyRecorder.setInstantiate(true);
@@ -199,13 +209,13 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
                 }
             }
             strategy = strategyRecorder.playback();
+            if (mapperMetrics != null) {
+                strategy = new InstrumentedMappingStrategy(strategy, mapperMetrics.getRecorder(new MapperKey(strategy.getAType(), strategy.getBType())));
+            }
             if (log.isDebugEnabled()) {
                 log.debug(strategyRecorder.describeDetails());
             }
-            MappingStrategy existing = strategyCache.putIfAbsent(key, strategy);
-            if (existing != null) {
-            	strategy = existing;
-            }
+            strategy = strategyCache.putIfAbsent(key, strategy);
         }
         
         /*
@@ -1034,13 +1044,14 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
      * @param out
      */
     public void reportCurrentState(StringBuilder out) {
+        Map<Key, MappingStrategy> strategies = strategyCache.getStrategies();
         out.append(DIVIDER);
         out.append("\nResolved strategies: ")
-                .append(strategyCache.size())
+                .append(strategies.size())
                 .append(" (approximate size: ")
-                .append(humanReadableSizeInMemory(strategyCache))
+                .append(humanReadableSizeInMemory(strategies))
                 .append(")");
-        for (Entry<Key, MappingStrategy> entry : strategyCache.entrySet()) {
+        for (Entry<Key, MappingStrategy> entry : strategies.entrySet()) {
             out.append("\n").append(entry.getKey()).append(": ").append(entry.getValue());
         }
         out.append(DIVIDER);
@@ -0,0 +1,175 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl;
+
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.impl.util.ClassValueCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * MapperIndex is an immutable index over a (sorted) collection of mappers,
+ * which returns the mappers that may be able to map a given type, in their
+ * original priority order.<br>
+ * <br>
+ * A mapper can only be applied to a type if one of the mapper's types is
+ * assignable from it, so each mapper is indexed under the raw classes of its
+ * A and B types, and the candidates for a type are found by walking its
+ * superclasses and interfaces. The candidates for each class are computed
+ * once, and cached in a {@link ClassValueCache}, so that the class may still
+ * be unloaded.
+ */
+final class MapperIndex {
+    
+    private final Map<Class<?>, List<Entry>> entriesByRawType = new HashMap<>();
+    private final List<Entry> arrayEntries = new ArrayList<>();
+    private final ClassValueCache<List<Mapper<Object, Object>>> candidatesByRawType = new ClassValueCache<List<Mapper<Object, Object>>>() {
+        @Override
+        protected List<Mapper<Object, Object>> computeValue(Class<?> type) {
+            return findCandidates(type);
+        }
+    };
+    private final int modifications;
+    
+    /**
+     * @param mappers
+     *            the mappers to index, in priority order
+     */
+    MapperIndex(Collection<Mapper<Object, Object>> mappers) {
+        this(mappers, 0);
+    }
+    
+    /**
+     * @param mappers
+     *            the mappers to index, in priority order
+     * @param modifications
+     *            the number of modifications made to the collection of
+     *            mappers when the index was built
+     */
+    MapperIndex(Collection<Mapper<Object, Object>> mappers, int modifications) {
+        this.modifications = modifications;
+        int position = 0;
+        for (Mapper<Object, Object> mapper : mappers) {
+            Entry entry = new Entry(position++, mapper);
+            index(mapper.getAType().getRawType(), entry);
+            if (mapper.getBType().getRawType() != mapper.getAType().getRawType()) {
+                index(mapper.getBType().getRawType(), entry);
+            }
+        }
+    }
+    
+    private void index(Class<?> rawType, Entry entry) {
+        if (rawType.isArray()) {
+            /*
+             * Arrays are covariant, so they can't be resolved by walking the
+             * hierarchy; they're matched by assignability instead
+             */
+            arrayEntries.add(entry);
+        } else {
+            List<Entry> entries = entriesByRawType.get(rawType);
+            if (entries == null) {
+                entries = new ArrayList<>(2);
+                entriesByRawType.put(rawType, entries);
+            }
+            entries.add(entry);
+        }
+    }
+    
+    /**
+     * @return the number of modifications made to the collection of mappers
+     *         when the index was built
+     */
+    int getModifications() {
+        return modifications;
+    }
+    
+    /**
+     * @param rawType
+     *            the raw class of one of the types to be mapped
+     * @return the mappers for which the raw class of either the A or the B
+     *         type is assignable from <code>rawType</code>, in priority order
+     */
+    List<Mapper<Object, Object>> getCandidates(Class<?> rawType) {
+        return candidatesByRawType.get(rawType);
+    }
+    
+    private List<Mapper<Object, Object>> findCandidates(Class<?> rawType) {
+        TreeMap<Integer, Mapper<Object, Object>> found = new TreeMap<>();
+        for (Class<?> type : getHierarchy(rawType)) {
+            List<Entry> entries = entriesByRawType.get(type);
+            if (entries != null) {
+                for (Entry entry : entries) {
+                    found.put(entry.position, entry.mapper);
+                }
+            }
+        }
+        for (Entry entry : arrayEntries) {
+            if (entry.mapper.getAType().getRawType().isAssignableFrom(rawType)
+                    || entry.mapper.getBType().getRawType().isAssignableFrom(rawType)) {
+                found.put(entry.position, entry.mapper);
+            }
+        }
+        if (found.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(found.values()));
+    }
+    
+    /**
+     * @param rawType
+     * @return the class itself, along with all of its superclasses and
+     *         interfaces (and Object, to which every type is assignable)
+     */
+    private static Set<Class<?>> getHierarchy(Class<?> rawType) {
+        Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        collectHierarchy(rawType, hierarchy);
+        hierarchy.add(Object.class);
+        return hierarchy;
+    }
+    
+    private static void collectHierarchy(Class<?> type, Set<Class<?>> hierarchy) {
+        if (type != null && hierarchy.add(type)) {
+            collectHierarchy(type.getSuperclass(), hierarchy);
+            for (Class<?> anInterface : type.getInterfaces()) {
+                collectHierarchy(anInterface, hierarchy);
+            }
+        }
+    }
+    
+    /**
+     * Entry records the priority of an indexed mapper.
+     */
+    private static final class Entry {
+        private final int position;
+        private final Mapper<Object, Object> mapper;
+        
+        private Entry(int position, Mapper<Object, Object> mapper) {
+            this.position = position;
+            this.mapper = mapper;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl;
+
+import ma.glasnost.orika.MappingStrategy;
+import ma.glasnost.orika.MappingStrategy.Key;
+import ma.glasnost.orika.impl.util.ClassValueCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MappingStrategyCache caches resolved MappingStrategy instances in two
+ * levels: first by the raw class of the source object (using a
+ * {@link ClassValue}), then by the destination type and whether the mapping
+ * is in-place.<br>
+ * <br>
+ * Since the strategies for a class are attached to the class itself, a hit
+ * requires no allocation (unlike a lookup using {@link Key}). The strategies
+ * of a source class from another class-loader are held by the class itself
+ * (see {@link ClassValueCache}), so that the class, along with its
+ * class-loader, may be unloaded while the mapper facade is in use; a
+ * destination class is only released along with its source classes.
+ */
+final class MappingStrategyCache {
+    
+    private static final Object NULL_TYPE = new Object();
+    
+    private final ClassValueCache<SourceClassStrategies> strategiesByClass = new ClassValueCache<SourceClassStrategies>() {
+        @Override
+        protected SourceClassStrategies computeValue(Class<?> type) {
+            return new SourceClassStrategies();
+        }
+    };
+    
+    /**
+     * @param rawSourceType
+     *            the class of the source object
+     * @param sourceType
+     *            the source type specified for the mapping (may be null)
+     * @param destinationType
+     *            the destination type specified for the mapping
+     * @param inPlace
+     *            whether the mapping is into an existing destination
+     * @return the cached strategy, or <code>null</code> if none exists
+     */
+    MappingStrategy get(Class<?> rawSourceType, java.lang.reflect.Type sourceType, java.lang.reflect.Type destinationType,
+            boolean inPlace) {
+        return strategiesByClass.get(rawSourceType).get(sourceType, destinationType, inPlace);
+    }
+    
+    /**
+     * Caches the strategy for the specified key, unless one is already cached.
+     * 
+     * @param key
+     * @param strategy
+     * @return the strategy which is cached for the key
+     */
+    MappingStrategy putIfAbsent(Key key, MappingStrategy strategy) {
+        return strategiesByClass.get(key.getRawSourceType()).putIfAbsent(key.getSourceType(), key.getDestinationType(),
+                key.isDestinationProvided(), strategy);
+    }
+    
+    void clear() {
+        strategiesByClass.clear();
+    }
+    
+    /**
+     * @return a snapshot of the cached strategies
+     */
+    Map<Key, MappingStrategy> getStrategies() {
+        Map<Key, MappingStrategy> strategies = new LinkedHashMap<>();
+        for (Entry<Class<?>, SourceClassStrategies> entry : strategiesByClass.asMap().entrySet()) {
+            entry.getValue().collect(entry.getKey(), strategies);
+        }
+        return strategies;
+    }
+    
+    /**
+     * SourceClassStrategies holds the strategies resolved for a single source
+     * class; strategies are keyed by destination type, with the (rarely more
+     * than one) specified source types held in a small copy-on-write array.
+     */
+    private static final class SourceClassStrategies {
+        
+        private final ConcurrentHashMap<Object, StrategyEntry[]> strategies = new ConcurrentHashMap<>(4);
+        private final ConcurrentHashMap<Object, StrategyEntry[]> inPlaceStrategies = new ConcurrentHashMap<>(4);
+        
+        private MappingStrategy get(java.lang.reflect.Type sourceType, java.lang.reflect.Type destinationType, boolean inPlace) {
+            ConcurrentHashMap<Object, StrategyEntry[]> map = inPlace ? inPlaceStrategies : strategies;
+            return find(map.get(destinationType == null ? NULL_TYPE : destinationType), sourceType);
+        }
+        
+        private MappingStrategy putIfAbsent(java.lang.reflect.Type sourceType, java.lang.reflect.Type destinationType,
+                boolean inPlace, MappingStrategy strategy) {
+            ConcurrentHashMap<Object, StrategyEntry[]> map = inPlace ? inPlaceStrategies : strategies;
+            Object key = destinationType == null ? NULL_TYPE : destinationType;
+            for (;;) {
+                StrategyEntry[] entries = map.get(key);
+                MappingStrategy existing = find(entries, sourceType);
+                if (existing != null) {
+                    return existing;
+                }
+                StrategyEntry entry = new StrategyEntry(sourceType, strategy);
+                if (entries == null) {
+                    if (map.putIfAbsent(key, new StrategyEntry[] { entry }) == null) {
+                        return strategy;
+                    }
+                } else {
+                    StrategyEntry[] updated = new StrategyEntry[entries.length + 1];
+                    System.arraycopy(entries, 0, updated, 0, entries.length);
+                    updated[entries.length] = entry;
+                    if (map.replace(key, entries, updated)) {
+                        return strategy;
+                    }
+                }
+            }
+        }
+        
+        private static MappingStrategy find(StrategyEntry[] entries, java.lang.reflect.Type sourceType) {
+            if (entries != null) {
+                for (StrategyEntry entry : entries) {
+                    if (entry.sourceType == sourceType || (sourceType != null && sourceType.equals(entry.sourceType))) {
+                        return entry.strategy;
+                    }
+                }
+            }
+            return null;
+        }
+        
+        private void collect(Class<?> rawSourceType, Map<Key, MappingStrategy> out) {
+            collect(rawSourceType, out, strategies, false);
+            collect(rawSourceType, out, inPlaceStrategies, true);
+        }
+        
+        private void collect(Class<?> rawSourceType, Map<Key, MappingStrategy> out, ConcurrentHashMap<Object, StrategyEntry[]> map,
+                boolean inPlace) {
+            for (Entry<Object, StrategyEntry[]> entry : map.entrySet()) {
+                java.lang.reflect.Type destinationType = entry.getKey() == NULL_TYPE ? null : (java.lang.reflect.Type) entry.getKey();
+                for (StrategyEntry strategyEntry : entry.getValue()) {
+                    out.put(new Key(rawSourceType, strategyEntry.sourceType, destinationType, inPlace), strategyEntry.strategy);
+                }
+            }
+        }
+    }
+    
+    private static final class StrategyEntry {
+        private final java.lang.reflect.Type sourceType;
+        private final MappingStrategy strategy;
+        
+        private StrategyEntry(java.lang.reflect.Type sourceType, MappingStrategy strategy) {
+            this.sourceType = sourceType;
+            this.strategy = strategy;
+        }
+    }
+}
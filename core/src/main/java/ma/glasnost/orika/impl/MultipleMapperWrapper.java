@@ -19,6 +19,7 @@ package ma.glasnost.orika.impl;
 
 import ma.glasnost.orika.Mapper;
 import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.util.ClassValueCache;
 import ma.glasnost.orika.metadata.MapperKey;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.metadata.TypeFactory;
@@ -32,7 +33,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The MultipleMapperWrapper wraps multiple instances of {@link Mapper} and decide dynamically during Mapping which {@link Mapper} should be
@@ -43,14 +44,21 @@ import java.util.WeakHashMap;
  */
 public final class MultipleMapperWrapper extends GeneratedMapperBase {
     private final Collection<Mapper<Object, Object>> mappersRegistry;
-    private final Map<MapperKey, Mapper<Object, Object>> mappersCache;
+    private final MapperIndex mapperIndex;
+    private final ClassValueCache<ConcurrentHashMap<Class<?>, Mapper<Object, Object>>> mappersCache;
     
     public MultipleMapperWrapper(Type<Object> typeA, Type<Object> typeB, List<Mapper<Object, Object>> mappers) {
         super();
         setAType(typeA);
         setBType(typeB);
         mappersRegistry = new SortedCollection<>(mappers, Ordering.MAPPER);
-        mappersCache = new WeakHashMap<>();
+        mapperIndex = new MapperIndex(mappersRegistry);
+        mappersCache = new ClassValueCache<ConcurrentHashMap<Class<?>, Mapper<Object, Object>>>() {
+            @Override
+            protected ConcurrentHashMap<Class<?>, Mapper<Object, Object>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>(2);
+            }
+        };
     }
     
     @Override
@@ -75,12 +83,17 @@ public final class MultipleMapperWrapper extends GeneratedMapperBase {
         return new MapperKey(aType, bType);
     }
     
+    /*
+     * The resolved mapper depends only on the classes of the objects, so it
+     * is cached by those classes, and the MapperKey is only created on a miss
+     */
     private Mapper<Object, Object> getMapperFor(Object a, Object b) {
-        MapperKey mapperKey = createMapperKey(a, b);
-        Mapper<Object, Object> mapper = mappersCache.get(mapperKey);
+        Map<Class<?>, Mapper<Object, Object>> mappersByClassOfB = mappersCache.get(a.getClass());
+        Mapper<Object, Object> mapper = mappersByClassOfB.get(b.getClass());
         if (mapper != null) {
             return mapper;
         }
+        MapperKey mapperKey = createMapperKey(a, b);
         mapper = findMapperFor(mapperKey);
         if (mapper == null) {
             StringBuilder sb = new StringBuilder();
@@ -98,13 +111,18 @@ public final class MultipleMapperWrapper extends GeneratedMapperBase {
             }
             throw new IllegalStateException(sb.toString());
         }
-        mappersCache.put(mapperKey, mapper);
+        mappersByClassOfB.put(b.getClass(), mapper);
         return mapper;
     }
     
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public Mapper<Object, Object> findMapperFor(MapperKey mapperKey) {
-        for (Mapper mapper : mappersRegistry) {
+        /*
+         * Both passes below require one of the mapper's (raw) types to be
+         * assignable from the raw A type, so only those candidates are checked
+         */
+        List<Mapper<Object, Object>> candidates = mapperIndex.getCandidates(mapperKey.getAType().getRawType());
+        for (Mapper mapper : candidates) {
             if ((mapper.getAType().isAssignableFrom(mapperKey.getAType())
                     && mapper.getBType().isAssignableFrom(mapperKey.getBType()))) {
                 return mapper;
@@ -114,7 +132,7 @@ public final class MultipleMapperWrapper extends GeneratedMapperBase {
             }
         }
         // Generics could gone lost during mapping. So check again without generics
-        for (Mapper mapper : mappersRegistry) {
+        for (Mapper mapper : candidates) {
             if ((mapper.getAType().getRawType().isAssignableFrom(mapperKey.getAType().getRawType())
                     && mapper.getBType().getRawType().isAssignableFrom(mapperKey.getBType().getRawType()))) {
                 return mapper;
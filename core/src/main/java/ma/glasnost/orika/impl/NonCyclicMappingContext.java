@@ -20,10 +20,10 @@ package ma.glasnost.orika.impl;
 
 import ma.glasnost.orika.MappingContext;
 import ma.glasnost.orika.MappingContextFactory;
+import ma.glasnost.orika.impl.util.StripedPool;
 import ma.glasnost.orika.metadata.Type;
 
 import java.util.Map;
-import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * @author mattdeboer
@@ -36,7 +36,7 @@ public class NonCyclicMappingContext extends MappingContext {
      */
     public static class Factory implements MappingContextFactory {
         
-        final LinkedBlockingQueue<MappingContext> contextQueue = new LinkedBlockingQueue<>();
+        final StripedPool<MappingContext> contextPool;
         final Map<Object, Object> globalProperties;
         
         /**
@@ -44,10 +44,22 @@ public class NonCyclicMappingContext extends MappingContext {
          */
         public Factory(Map<Object, Object> globalProperties) {
             this.globalProperties = globalProperties;
+            this.contextPool = new StripedPool<>();
+        }
+        
+        /**
+         * @param globalProperties
+         * @param stripes
+         *            the (minimum) number of stripes used to pool released
+         *            contexts
+         */
+        public Factory(Map<Object, Object> globalProperties, int stripes) {
+            this.globalProperties = globalProperties;
+            this.contextPool = new StripedPool<>(stripes);
         }
         
         public MappingContext getContext() {
-            MappingContext context = contextQueue.poll();
+            MappingContext context = contextPool.poll();
             if (context == null) {
                 context = new NonCyclicMappingContext(globalProperties);
             }
@@ -57,7 +69,7 @@ public class NonCyclicMappingContext extends MappingContext {
         
         public void release(MappingContext context) {
             context.reset();
-            contextQueue.offer(context);
+            contextPool.offer(context);
         }
         
         /*
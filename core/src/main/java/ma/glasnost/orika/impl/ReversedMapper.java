@@ -111,4 +111,11 @@ public class ReversedMapper<A, B> implements Mapper<A, B> {
     public Type<B> getBType() {
         return reversedMapper.getAType();
     } 
+    
+    /**
+     * @return the mapper whose directions are reversed by this mapper
+     */
+    Mapper<B, A> getReversedMapper() {
+        return reversedMapper;
+    }
 }
@@ -0,0 +1,402 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javassist.CannotCompileException;
+import javassist.CtClass;
+import ma.glasnost.orika.OrikaSystemProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CachingCompilerStrategy stores the bytes of each class it compiles in a
+ * local directory, and defines the stored bytes rather than compiling the
+ * class again when the same class is next generated, by this or another JVM.
+ * <br>
+ * <br>
+ * A class is stored under a key which combines the fingerprint of its source
+ * (see {@link SourceCodeContext#getFingerprint()}) with a hash of the class
+ * files of the mapped classes (and their super-classes) and of the generated
+ * class's super-class. Along with the class, a hash of the class files of
+ * every class it references (such as the owners of nested properties, and
+ * the interfaces through which properties are accessed) is stored; a cached
+ * class is only loaded if that hash still matches, so that stale classes are
+ * never loaded. Classes which reference classes whose class files are not
+ * available (such as classes which were themselves generated) are not
+ * cached.<br>
+ * <br>
+ * The cache directory must be specified explicitly, since the cached classes
+ * are defined with the privileges of Orika; it is created readable and
+ * writable by its owner only, and an existing directory which is writable by
+ * other users is rejected. Each class is written to a temporary file which is
+ * then atomically moved into place, so that several JVMs run by the same user
+ * may share the same cache directory.
+ */
+public class CachingCompilerStrategy extends PrecompiledCompilerStrategy {
+    
+    private final static Logger LOG = LoggerFactory.getLogger(CachingCompilerStrategy.class);
+    
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    private static final String CACHED_CLASS_EXTENSION = ".cached";
+    
+    /*
+     * The length of the hex hash of the referenced classes which precedes the
+     * bytes of a cached class
+     */
+    private static final int HASH_LENGTH = 32;
+    
+    /*
+     * The hash of the class files of a class and its super-classes, or an
+     * empty string if any of them is not available
+     */
+    private static final ClassValue<String> CLASS_FILE_HASHES = new ClassValue<String>() {
+        protected String computeValue(Class<?> type) {
+            MessageDigest digest = newDigest();
+            for (Class<?> cls = type; cls != null && cls.getClassLoader() != null; cls = cls.getSuperclass()) {
+                try (InputStream in = cls.getClassLoader().getResourceAsStream(cls.getName().replace('.', '/') + CLASS_FILE_EXTENSION)) {
+                    if (in == null) {
+                        return "";
+                    }
+                    byte[] buffer = new byte[4096];
+                    for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                        digest.update(buffer, 0, read);
+                    }
+                } catch (IOException e) {
+                    return "";
+                }
+            }
+            return toHex(digest.digest());
+        }
+    };
+    
+    private final File cacheDirectory;
+    
+    /**
+     * Constructs a new CachingCompilerStrategy which stores classes in the
+     * directory specified by
+     * {@link OrikaSystemProperties#CLASS_CACHE_DIRECTORY}.
+     * 
+     * @throws IllegalStateException
+     *             if the system property is not set
+     * @throws IllegalArgumentException
+     *             if the directory cannot be created, or may be written by
+     *             other users
+     */
+    public CachingCompilerStrategy() {
+        this(configuredCacheDirectory());
+    }
+    
+    /**
+     * Constructs a new CachingCompilerStrategy which stores classes in the
+     * specified directory.
+     * 
+     * @param cacheDirectory
+     *            the directory in which to store the classes; it is created,
+     *            accessible by its owner only, if it does not exist
+     * @throws IllegalArgumentException
+     *             if the directory cannot be created, or may be written by
+     *             other users
+     */
+    public CachingCompilerStrategy(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+        prepareCacheDirectory(cacheDirectory.toPath());
+    }
+    
+    private static File configuredCacheDirectory() {
+        String cacheDirectory = System.getProperty(OrikaSystemProperties.CLASS_CACHE_DIRECTORY);
+        if (cacheDirectory == null || cacheDirectory.isEmpty()) {
+            throw new IllegalStateException("The directory in which " + CachingCompilerStrategy.class.getSimpleName()
+                    + " stores classes must be specified by the system property " + OrikaSystemProperties.CLASS_CACHE_DIRECTORY);
+        }
+        return new File(cacheDirectory);
+    }
+    
+    /**
+     * Creates the cache directory, accessible by its owner only, if it does
+     * not exist; otherwise, verifies that it may only be written by the
+     * current user.
+     */
+    private static void prepareCacheDirectory(Path directory) {
+        boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+        try {
+            if (!Files.isDirectory(directory)) {
+                if (posix) {
+                    Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+                } else {
+                    Files.createDirectories(directory);
+                }
+            }
+            if (!Files.isWritable(directory)) {
+                throw new IllegalArgumentException("The class cache directory " + directory + " is not writable");
+            }
+            if (posix) {
+                Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory);
+                if (permissions.contains(PosixFilePermission.GROUP_WRITE) || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+                    throw new IllegalArgumentException("The class cache directory " + directory
+                            + " must not be writable by other users, since the classes it contains are loaded by Orika");
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not create the class cache directory " + directory, e);
+        }
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ma.glasnost.orika.impl.generator.JavassistCompilerStrategy#compileClass
+     * (ma.glasnost.orika.impl.generator.SourceCodeContext, java.lang.String)
+     */
+    protected Class<?> compileClass(SourceCodeContext sourceCode, String name) throws SourceCodeGenerationException {
+        String key = getCacheKey(sourceCode);
+        if (key != null) {
+            Class<?> cachedClass = defineCachedClass(key, name);
+            if (cachedClass != null) {
+                return cachedClass;
+            }
+        }
+        return super.compileClass(sourceCode, name);
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ma.glasnost.orika.impl.generator.JavassistCompilerStrategy#writeClassFile
+     * (ma.glasnost.orika.impl.generator.SourceCodeContext, javassist.CtClass)
+     */
+    protected void writeClassFile(SourceCodeContext sourceCode, CtClass byteCodeClass) throws IOException {
+        super.writeClassFile(sourceCode, byteCodeClass);
+        
+        String key = getCacheKey(sourceCode);
+        if (key != null) {
+            String referencedClassesHash = getReferencedClassesHash(byteCodeClass);
+            if (referencedClassesHash != null) {
+                try {
+                    storeClass(key, referencedClassesHash, byteCodeClass.toBytecode());
+                } catch (CannotCompileException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * @param sourceCode
+     *            the source of the generated class
+     * @return the key under which the generated class is cached, or null if
+     *         it cannot be cached
+     */
+    protected String getCacheKey(SourceCodeContext sourceCode) {
+        MessageDigest digest = newDigest();
+        digest.update(sourceCode.getFingerprint().getBytes(StandardCharsets.UTF_8));
+        for (Class<?> mappedClass : sourceCode.getMappedClasses()) {
+            if (!update(digest, mappedClass)) {
+                return null;
+            }
+        }
+        if (!update(digest, sourceCode.getSuperClass())) {
+            return null;
+        }
+        return toHex(digest.digest());
+    }
+    
+    /**
+     * @param compiledClass
+     *            the compiled class
+     * @return a hash of the class files of all the classes referenced by the
+     *         compiled class, as they are currently visible to the context
+     *         class-loader, or null if any of them is not available
+     */
+    private static String getReferencedClassesHash(CtClass compiledClass) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        MessageDigest digest = newDigest();
+        for (String referencedName : new TreeSet<>(compiledClass.getRefClasses())) {
+            String className = toClassName(referencedName);
+            if (className == null || className.equals(compiledClass.getName())) {
+                continue;
+            }
+            Class<?> referencedClass;
+            try {
+                referencedClass = Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                return null;
+            }
+            if (!update(digest, referencedClass)) {
+                return null;
+            }
+        }
+        return toHex(digest.digest());
+    }
+    
+    /**
+     * @return the name of the class referenced by the specified constant pool
+     *         entry, or null if it refers to an array of primitives
+     */
+    private static String toClassName(String referencedName) {
+        String className = referencedName.replace('/', '.');
+        if (className.startsWith("[")) {
+            className = className.substring(className.lastIndexOf('[') + 1);
+            if (!className.startsWith("L") || !className.endsWith(";")) {
+                return null;
+            }
+            className = className.substring(1, className.length() - 1);
+        }
+        while (className.endsWith("[]")) {
+            className = className.substring(0, className.length() - 2);
+        }
+        return className;
+    }
+    
+    private static boolean update(MessageDigest digest, Class<?> type) {
+        if (type.getClassLoader() == null) {
+            digest.update(type.getName().getBytes(StandardCharsets.UTF_8));
+            return true;
+        }
+        String hash = CLASS_FILE_HASHES.get(type);
+        digest.update(type.getName().getBytes(StandardCharsets.UTF_8));
+        digest.update(hash.getBytes(StandardCharsets.UTF_8));
+        return !hash.isEmpty();
+    }
+    
+    /**
+     * Defines the cached class stored under the specified key, if any, and if
+     * none of the classes it references has changed since it was stored.
+     * 
+     * @return the cached class, or null if none is stored (or it could not be
+     *         defined)
+     */
+    private Class<?> defineCachedClass(String key, String name) {
+        Path cachedClassFile = new File(cacheDirectory, key + CACHED_CLASS_EXTENSION).toPath();
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(cachedClassFile);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOG.debug("Could not read cached class {}", cachedClassFile, e);
+            return null;
+        }
+        try {
+            CtClass cachedClass;
+            try {
+                if (bytes.length <= HASH_LENGTH) {
+                    throw new IOException("Truncated cached class");
+                }
+                cachedClass = classPool.makeClass(new ByteArrayInputStream(bytes, HASH_LENGTH, bytes.length - HASH_LENGTH));
+            } catch (IOException | RuntimeException e) {
+                /*
+                 * Not a valid class file; it will be replaced once the class
+                 * has been compiled
+                 */
+                LOG.debug("Could not read cached class {}; compiling it", cachedClassFile, e);
+                Files.deleteIfExists(cachedClassFile);
+                return null;
+            }
+            if (!cachedClass.getName().equals(name)) {
+                cachedClass.detach();
+                return null;
+            }
+            String storedHash = new String(bytes, 0, HASH_LENGTH, StandardCharsets.US_ASCII);
+            if (!storedHash.equals(getReferencedClassesHash(cachedClass))) {
+                /*
+                 * A referenced class has changed; the class will be replaced
+                 * once it has been compiled again
+                 */
+                cachedClass.detach();
+                return null;
+            }
+            return cachedClass.toClass(Thread.currentThread().getContextClassLoader(), this.getClass().getProtectionDomain());
+        } catch (IOException | RuntimeException | CannotCompileException e) {
+            LOG.debug("Could not define cached class {}; compiling it", cachedClassFile, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Stores the bytes of a compiled class under the specified key, preceded
+     * by the hash of the classes it references (replacing any stale class
+     * stored under the same key); the bytes are first written to a temporary
+     * file, which is then moved into place, so that other JVMs never read a
+     * partially written class.
+     */
+    private void storeClass(String key, String referencedClassesHash, byte[] bytes) {
+        Path cachedClassFile = new File(cacheDirectory, key + CACHED_CLASS_EXTENSION).toPath();
+        byte[] content = Arrays.copyOf(referencedClassesHash.getBytes(StandardCharsets.US_ASCII), HASH_LENGTH + bytes.length);
+        System.arraycopy(bytes, 0, content, HASH_LENGTH, bytes.length);
+        Path temporaryFile = null;
+        try {
+            temporaryFile = Files.createTempFile(cacheDirectory.toPath(), key, ".tmp");
+            Files.write(temporaryFile, content);
+            try {
+                Files.move(temporaryFile, cachedClassFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, cachedClassFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temporaryFile = null;
+        } catch (IOException e) {
+            LOG.debug("Could not store cached class {}", cachedClassFile, e);
+        } finally {
+            if (temporaryFile != null) {
+                try {
+                    Files.deleteIfExists(temporaryFile);
+                } catch (IOException e) {
+                    LOG.debug("Could not delete {}", temporaryFile, e);
+                }
+            }
+        }
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static String toHex(byte[] hash) {
+        StringBuilder hex = new StringBuilder();
+        for (int i = 0; i < 16; ++i) {
+            hex.append(Character.forDigit((hash[i] >> 4) & 0xf, 16)).append(Character.forDigit(hash[i] & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -22,6 +22,8 @@ import ma.glasnost.orika.OrikaSystemProperties;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Defines a standard compiler profile for use in generating mapping objects.
@@ -40,6 +42,27 @@ public abstract class CompilerStrategy {
      * @throws SourceCodeGenerationException
      */
     public abstract Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException;
+    
+    /**
+     * Compile and return the (generated) classes for several sources at once;
+     * used when a MapperFactory is built, so that strategies which can share
+     * the cost of type resolution and class loading between classes compile
+     * all of them in a single invocation.<br>
+     * <br>
+     * The default implementation compiles each of the sources in turn.
+     * 
+     * @param sourceCodes
+     *            the sources to compile
+     * @return the (generated) compiled classes, in the order of the sources
+     * @throws SourceCodeGenerationException
+     */
+    public List<Class<?>> compileClasses(List<SourceCodeContext> sourceCodes) throws SourceCodeGenerationException {
+        List<Class<?>> compiledClasses = new ArrayList<>(sourceCodes.size());
+        for (SourceCodeContext sourceCode : sourceCodes) {
+            compiledClasses.add(compileClass(sourceCode));
+        }
+        return compiledClasses;
+    }
 
     /**
      * Verify that the Class provided is accessible to the compiler/generator.
@@ -49,6 +72,18 @@ public abstract class CompilerStrategy {
      *             if the type is not accessible
      */
     public abstract void assureTypeIsAccessible(Class<?> type) throws SourceCodeGenerationException;
+    
+    /**
+     * Whether classes may be compiled (and types verified) by this strategy
+     * from several threads at once; the mappers of a MapperFactory are only
+     * generated in parallel (whether by build, or on demand by the threads
+     * which require them) by strategies which return true.
+     * 
+     * @return true if this strategy supports concurrent compilation
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
 
     protected final boolean writeSourceFiles;
     protected final boolean writeClassFiles;
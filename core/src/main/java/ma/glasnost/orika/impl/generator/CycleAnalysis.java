@@ -0,0 +1,408 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ma.glasnost.orika.Converter;
+import ma.glasnost.orika.converter.BidirectionalConverter;
+import ma.glasnost.orika.converter.ConverterFactory;
+import ma.glasnost.orika.converter.builtin.BuiltinConverters;
+import ma.glasnost.orika.metadata.ClassMap;
+import ma.glasnost.orika.metadata.FieldMap;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metrics.InstrumentedConverter;
+
+/**
+ * CycleAnalysis determines, for each direction of a set of class-maps,
+ * whether an object mapped in that direction could be reached again while
+ * mapping its own properties; only such objects need to be tracked by the
+ * MappingContext in order to preserve identity and avoid infinite recursion.<br>
+ * <br>
+ * The analysis builds a graph with a node for each direction of each
+ * class-map, with an edge to every node whose source type is related
+ * (assignable in either direction) to the type of a mapped source property,
+ * or to one of its element/component types; a node is cyclic if it belongs
+ * to a cycle of this graph.<br>
+ * <br>
+ * The result only holds for the class-maps which were analyzed; a node whose
+ * mapping is opaque to the analysis (a customized mapper, or a field mapped
+ * by a custom converter) is reported as {@link Result#UNKNOWN}, as are
+ * class-maps which were not part of the analysis.
+ */
+public final class CycleAnalysis {
+    
+    /**
+     * The result of the analysis for one direction of a class-map
+     */
+    public enum Result {
+        /**
+         * An object mapped in this direction cannot be reached again through
+         * the mapped properties of the analyzed class-maps
+         */
+        ACYCLIC,
+        /**
+         * An object mapped in this direction may be reached again through the
+         * mapped properties of the analyzed class-maps
+         */
+        CYCLIC,
+        /**
+         * The mapping in this direction was not analyzed, or may map objects
+         * in ways which cannot be analyzed
+         */
+        UNKNOWN
+    }
+    
+    private static final String BUILTIN_CONVERTERS_PACKAGE = BuiltinConverters.class.getPackage().getName() + ".";
+    
+    private final Map<ClassMap<?, ?>, Result[]> results = new IdentityHashMap<>();
+    
+    /**
+     * Analyzes the specified class-maps.
+     * 
+     * @param classMaps
+     *            the class-maps to analyze
+     * @param converterFactory
+     *            the converter factory, used to detect the fields which are
+     *            mapped using a custom converter
+     */
+    public CycleAnalysis(Collection<? extends ClassMap<?, ?>> classMaps, ConverterFactory converterFactory) {
+        
+        Map<MapperKey, ClassMap<?, ?>> classMapsByKey = new HashMap<>();
+        for (ClassMap<?, ?> classMap : classMaps) {
+            classMapsByKey.put(classMap.getMapperKey(), classMap);
+        }
+        
+        List<Node> nodes = new ArrayList<>(classMaps.size() * 2);
+        for (ClassMap<?, ?> classMap : classMaps) {
+            nodes.add(new Node(classMap, true));
+            nodes.add(new Node(classMap, false));
+        }
+        
+        NodeIndex index = new NodeIndex(nodes);
+        for (Node node : nodes) {
+            Set<FieldMap> fields = new LinkedHashSet<>();
+            collectFields(node.classMap, node.aToB, classMapsByKey, fields, new LinkedHashSet<ClassMap<?, ?>>());
+            for (FieldMap fieldMap : fields) {
+                if (fieldMap.getConverterId() != null
+                        || usesCustomConverter(fieldMap.getSource().getType(), fieldMap.getDestination().getType(), converterFactory)) {
+                    node.opaque = true;
+                }
+                Set<Type<?>> components = new LinkedHashSet<>();
+                collectComponents(fieldMap.getSource().getType(), components);
+                for (Type<?> component : components) {
+                    node.edges.or(index.getRelatedNodes(component.getRawType()));
+                }
+            }
+            if (node.classMap.getCustomizedMapper() != null) {
+                node.opaque = true;
+            }
+        }
+        
+        boolean[] cyclic = findCyclicNodes(nodes);
+        for (int i = 0; i < nodes.size(); ++i) {
+            Node node = nodes.get(i);
+            Result result = node.opaque ? Result.UNKNOWN : cyclic[i] ? Result.CYCLIC : Result.ACYCLIC;
+            Result[] classMapResults = results.get(node.classMap);
+            if (classMapResults == null) {
+                classMapResults = new Result[2];
+                results.put(node.classMap, classMapResults);
+            }
+            classMapResults[node.aToB ? 0 : 1] = result;
+        }
+    }
+    
+    /**
+     * @param classMap
+     *            the class-map
+     * @param aToB
+     *            the direction of the mapping
+     * @return the result of the analysis for the specified direction of the
+     *         class-map
+     */
+    public Result getResult(ClassMap<?, ?> classMap, boolean aToB) {
+        Result[] classMapResults = results.get(classMap);
+        return classMapResults == null ? Result.UNKNOWN : classMapResults[aToB ? 0 : 1];
+    }
+    
+    /**
+     * @param converter
+     * @return true if the converter is <code>null</code>, or one of the
+     *         built-in converters, which never map objects through the
+     *         MapperFacade
+     */
+    public static boolean isBuiltin(Converter<?, ?> converter) {
+        if (converter instanceof InstrumentedConverter) {
+            converter = ((InstrumentedConverter<?, ?>) converter).getDelegate();
+        }
+        if (converter instanceof BidirectionalConverter.Reversed) {
+            converter = ((BidirectionalConverter<?, ?>) converter).reverse();
+        }
+        return converter == null || converter.getClass().getName().startsWith(BUILTIN_CONVERTERS_PACKAGE);
+    }
+    
+    /**
+     * @return true if a converter which is not built-in may be used to map the
+     *         types, or their element/component types
+     */
+    private static boolean usesCustomConverter(Type<?> sourceType, Type<?> destinationType, ConverterFactory converterFactory) {
+        if (sourceType == null || destinationType == null) {
+            return false;
+        }
+        if (!isBuiltin(converterFactory.getConverter(sourceType, destinationType))) {
+            return true;
+        }
+        Type<?> sourceComponent = sourceType.isArray() ? sourceType.getComponentType() : null;
+        Type<?> destinationComponent = destinationType.isArray() ? destinationType.getComponentType() : null;
+        for (int i = 0; i < sourceType.getActualTypeArguments().length; ++i) {
+            for (int j = 0; j < destinationType.getActualTypeArguments().length; ++j) {
+                if (usesCustomConverter(sourceType.getNestedType(i), destinationType.getNestedType(j), converterFactory)) {
+                    return true;
+                }
+            }
+            if (usesCustomConverter(sourceType.getNestedType(i), destinationComponent, converterFactory)) {
+                return true;
+            }
+        }
+        for (int j = 0; j < destinationType.getActualTypeArguments().length; ++j) {
+            if (usesCustomConverter(sourceComponent, destinationType.getNestedType(j), converterFactory)) {
+                return true;
+            }
+        }
+        return usesCustomConverter(sourceComponent, destinationComponent, converterFactory);
+    }
+    
+    /**
+     * Collects the fields mapped in the specified direction by a class-map and
+     * by the class-maps of the mappers it uses, which are invoked on the same
+     * source object.
+     */
+    private static void collectFields(ClassMap<?, ?> classMap, boolean aToB, Map<MapperKey, ClassMap<?, ?>> classMapsByKey,
+            Set<FieldMap> fields, Set<ClassMap<?, ?>> visited) {
+        if (!visited.add(classMap)) {
+            return;
+        }
+        for (FieldMap fieldMap : classMap.getFieldsMapping()) {
+            if (fieldMap.isExcluded()) {
+                continue;
+            }
+            FieldMap directedFieldMap = aToB ? fieldMap : fieldMap.flip();
+            if (!directedFieldMap.isIgnored()) {
+                fields.add(directedFieldMap);
+            }
+        }
+        for (MapperKey usedMapperKey : classMap.getUsedMappers()) {
+            ClassMap<?, ?> usedClassMap = classMapsByKey.get(usedMapperKey);
+            if (usedClassMap != null) {
+                boolean sameDirection = usedClassMap.getAType().getRawType().isAssignableFrom(classMap.getAType().getRawType())
+                        && usedClassMap.getBType().getRawType().isAssignableFrom(classMap.getBType().getRawType());
+                collectFields(usedClassMap, sameDirection == aToB, classMapsByKey, fields, visited);
+            }
+        }
+    }
+    
+    /**
+     * Collects the type, and its nested and component types, which are not
+     * immutable (and so may be mapped through a mapper).
+     */
+    private static void collectComponents(Type<?> type, Set<Type<?>> components) {
+        if (type == null || type.isImmutable() || !components.add(type)) {
+            return;
+        }
+        if (type.isArray()) {
+            collectComponents(type.getComponentType(), components);
+        }
+        for (int i = 0; i < type.getActualTypeArguments().length; ++i) {
+            collectComponents(type.getNestedType(i), components);
+        }
+    }
+    
+    /**
+     * Finds the nodes which belong to a cycle, using an iterative version of
+     * Tarjan's strongly connected components algorithm.
+     */
+    private static boolean[] findCyclicNodes(List<Node> nodes) {
+        int count = nodes.size();
+        int[] order = new int[count];
+        int[] lowLink = new int[count];
+        boolean[] onStack = new boolean[count];
+        boolean[] cyclic = new boolean[count];
+        int[] stack = new int[count];
+        int stackSize = 0;
+        int[] callStack = new int[count];
+        int[] nextEdge = new int[count];
+        int nextOrder = 1;
+        
+        for (int root = 0; root < count; ++root) {
+            if (order[root] != 0) {
+                continue;
+            }
+            int depth = 0;
+            callStack[depth] = root;
+            nextEdge[root] = 0;
+            order[root] = lowLink[root] = nextOrder++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            
+            while (depth >= 0) {
+                int node = callStack[depth];
+                BitSet edges = nodes.get(node).edges;
+                int target = edges.nextSetBit(nextEdge[node]);
+                if (target >= 0) {
+                    nextEdge[node] = target + 1;
+                    if (order[target] == 0) {
+                        order[target] = lowLink[target] = nextOrder++;
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                        nextEdge[target] = 0;
+                        callStack[++depth] = target;
+                    } else if (onStack[target]) {
+                        lowLink[node] = Math.min(lowLink[node], order[target]);
+                    }
+                } else {
+                    if (lowLink[node] == order[node]) {
+                        int member;
+                        int size = 0;
+                        int first = stackSize;
+                        do {
+                            member = stack[--stackSize];
+                            onStack[member] = false;
+                            ++size;
+                        } while (member != node);
+                        boolean isCycle = size > 1 || edges.get(node);
+                        for (int i = stackSize; i < first; ++i) {
+                            cyclic[stack[i]] = isCycle;
+                        }
+                    }
+                    --depth;
+                    if (depth >= 0) {
+                        int parent = callStack[depth];
+                        lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+                    }
+                }
+            }
+        }
+        return cyclic;
+    }
+    
+    /**
+     * Node represents one direction of a class-map.
+     */
+    private static final class Node {
+        private final ClassMap<?, ?> classMap;
+        private final boolean aToB;
+        private final Class<?> sourceClass;
+        private final BitSet edges = new BitSet();
+        private boolean opaque;
+        
+        private Node(ClassMap<?, ?> classMap, boolean aToB) {
+            this.classMap = classMap;
+            this.aToB = aToB;
+            this.sourceClass = (aToB ? classMap.getAType() : classMap.getBType()).getRawType();
+        }
+    }
+    
+    /**
+     * NodeIndex finds the nodes whose source class is related to a given
+     * class: either a super-type or a sub-type of it.
+     */
+    private static final class NodeIndex {
+        
+        private final Map<Class<?>, BitSet> nodesByClass = new HashMap<>();
+        private final Map<Class<?>, BitSet> nodesBySuperType = new HashMap<>();
+        private final BitSet arrayNodes = new BitSet();
+        private final Map<Class<?>, BitSet> relatedNodes = new HashMap<>();
+        
+        private NodeIndex(List<Node> nodes) {
+            for (int i = 0; i < nodes.size(); ++i) {
+                Class<?> sourceClass = nodes.get(i).sourceClass;
+                bitSetFor(nodesByClass, sourceClass).set(i);
+                for (Class<?> superType : superTypesOf(sourceClass)) {
+                    bitSetFor(nodesBySuperType, superType).set(i);
+                }
+                if (sourceClass.isArray()) {
+                    arrayNodes.set(i);
+                }
+            }
+        }
+        
+        private BitSet getRelatedNodes(Class<?> type) {
+            BitSet related = relatedNodes.get(type);
+            if (related == null) {
+                related = new BitSet();
+                BitSet subTypeNodes = nodesBySuperType.get(type);
+                if (subTypeNodes != null) {
+                    related.or(subTypeNodes);
+                }
+                for (Class<?> superType : superTypesOf(type)) {
+                    BitSet superTypeNodes = nodesByClass.get(superType);
+                    if (superTypeNodes != null) {
+                        related.or(superTypeNodes);
+                    }
+                }
+                if (type.isArray()) {
+                    related.or(arrayNodes);
+                }
+                relatedNodes.put(type, related);
+            }
+            return related;
+        }
+        
+        private static BitSet bitSetFor(Map<Class<?>, BitSet> map, Class<?> type) {
+            BitSet bitSet = map.get(type);
+            if (bitSet == null) {
+                bitSet = new BitSet();
+                map.put(type, bitSet);
+            }
+            return bitSet;
+        }
+        
+        /**
+         * @return the class itself, and all of its super-classes and
+         *         interfaces (including Object)
+         */
+        private static Set<Class<?>> superTypesOf(Class<?> type) {
+            Set<Class<?>> superTypes = new LinkedHashSet<>();
+            List<Class<?>> pending = new ArrayList<>();
+            pending.add(type);
+            while (!pending.isEmpty()) {
+                Class<?> current = pending.remove(pending.size() - 1);
+                if (current != null && superTypes.add(current)) {
+                    pending.add(current.getSuperclass());
+                    for (Class<?> anInterface : current.getInterfaces()) {
+                        pending.add(anInterface);
+                    }
+                }
+            }
+            if (!type.isPrimitive()) {
+                superTypes.add(Object.class);
+            }
+            return superTypes;
+        }
+    }
+}
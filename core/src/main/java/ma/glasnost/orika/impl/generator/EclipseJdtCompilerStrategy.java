@@ -26,6 +26,9 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Uses Eclipse JDT to format and compile the source for the specified
@@ -46,6 +49,7 @@ public class EclipseJdtCompilerStrategy extends CompilerStrategy {
     private final Object compiler;
     private final Method formatSource;
     private final Method compile;
+    private final Method compileAll;
     private final Method assertTypeAccessible;
     private final Method load;
     
@@ -57,6 +61,7 @@ public class EclipseJdtCompilerStrategy extends CompilerStrategy {
             this.compiler = compilerClass.newInstance();
             this.formatSource = compilerClass.getMethod("formatSource", String.class);
             this.compile = compilerClass.getMethod("compile", String.class, String.class, String.class);
+            this.compileAll = compilerClass.getMethod("compile", String[].class, String[].class, String[].class);
             this.assertTypeAccessible = compilerClass.getMethod("assertTypeAccessible", Class.class);
             this.load = compilerClass.getMethod("load", String.class, byte[].class);
             
@@ -140,6 +145,18 @@ public class EclipseJdtCompilerStrategy extends CompilerStrategy {
         }
     }
     
+    @SuppressWarnings("unchecked")
+    private Map<String, byte[]> compileAll(String[] sources, String[] packageNames, String[] classSimpleNames)
+            throws SourceCodeGenerationException {
+        try {
+            return (Map<String, byte[]>) compileAll.invoke(compiler, sources, packageNames, classSimpleNames);
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+            throw new SourceCodeGenerationException("Error compiling " + classSimpleNames.length + " classes", e);
+        } catch (InvocationTargetException e) {
+            throw new SourceCodeGenerationException("Error compiling " + classSimpleNames.length + " classes", e.getTargetException());
+        }
+    }
+    
     private Class<?> load(String className, byte[] data) throws ClassNotFoundException {
         try {
             return (Class<?>) load.invoke(compiler, className, data);
@@ -168,7 +185,49 @@ public class EclipseJdtCompilerStrategy extends CompilerStrategy {
      */
     public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
         
-        Class<?> compiledClass = null;
+        String sourceText = prepareSource(sourceCode);
+        return load(sourceCode, compile(sourceText, sourceCode.getPackageName(), sourceCode.getClassSimpleName()));
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see ma.glasnost.orika.impl.generator.CompilerStrategy#compileClasses(java.util.List)
+     * 
+     * All of the sources are passed to the compiler as separate compilation
+     * units of a single compilation, which shares the resolution of the
+     * referenced types between them.
+     */
+    public List<Class<?>> compileClasses(List<SourceCodeContext> sourceCodes) throws SourceCodeGenerationException {
+        
+        String[] sourceTexts = new String[sourceCodes.size()];
+        String[] packageNames = new String[sourceCodes.size()];
+        String[] classSimpleNames = new String[sourceCodes.size()];
+        for (int i = 0; i < sourceTexts.length; ++i) {
+            SourceCodeContext sourceCode = sourceCodes.get(i);
+            sourceTexts[i] = prepareSource(sourceCode);
+            packageNames[i] = sourceCode.getPackageName();
+            classSimpleNames[i] = sourceCode.getClassSimpleName();
+        }
+        
+        Map<String, byte[]> data = compileAll(sourceTexts, packageNames, classSimpleNames);
+        
+        List<Class<?>> compiledClasses = new ArrayList<>(sourceCodes.size());
+        for (SourceCodeContext sourceCode : sourceCodes) {
+            compiledClasses.add(load(sourceCode, data.get(sourceCode.getClassName())));
+        }
+        return compiledClasses;
+    }
+    
+    /**
+     * Formats the source of the generated class, and writes the source file
+     * (if requested); the source file is written before compilation in case
+     * of failure.
+     * 
+     * @return the (formatted) source text
+     */
+    private String prepareSource(SourceCodeContext sourceCode) {
+        
         String sourceText = sourceCode.toSourceFile();
         try {
             sourceText = formatSource(sourceCode.toSourceFile());
@@ -179,34 +238,38 @@ public class EclipseJdtCompilerStrategy extends CompilerStrategy {
              * the real error was
              */
         }
-        String packageName = sourceCode.getPackageName();
-        String classSimpleName = sourceCode.getClassSimpleName();
-        String className = sourceCode.getClassName();
-        byte[] data = null;
-        try {
-            
-            // Write source file before compilation in case of failure
-            if (writeSourceFiles) {
-                writeSourceFile(sourceText, packageName, classSimpleName);
+        if (writeSourceFiles) {
+            try {
+                writeSourceFile(sourceText, sourceCode.getPackageName(), sourceCode.getClassSimpleName());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write files for " + sourceCode.getClassName(), e);
             }
-            
-            data = compile(sourceText, packageName, classSimpleName);
-            
-            if (writeClassFiles) {
-                writeClassFile(packageName, classSimpleName, data);
+        }
+        return sourceText;
+    }
+    
+    /**
+     * Writes the class file of the generated class (if requested), and loads
+     * the class.
+     * 
+     * @return the (generated) compiled class
+     */
+    private Class<?> load(SourceCodeContext sourceCode, byte[] data) {
+        
+        String className = sourceCode.getClassName();
+        if (writeClassFiles) {
+            try {
+                writeClassFile(sourceCode.getPackageName(), sourceCode.getClassSimpleName(), data);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write files for " + className, e);
             }
-            
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to write files for " + className, e);
         }
         
         try {
-            compiledClass = load(className, data);
+            return load(className, data);
         } catch (ClassNotFoundException e) {
             throw new RuntimeException(e);
         }
-        
-        return compiledClass;
     }
     
 }
\ No newline at end of file
@@ -0,0 +1,373 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.Converter;
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingException;
+import ma.glasnost.orika.impl.GeneratedMapperBase;
+import ma.glasnost.orika.metadata.FieldMap;
+import ma.glasnost.orika.metadata.Property;
+import ma.glasnost.orika.metadata.Type;
+
+/**
+ * InterpretedMapper maps the properties of a class-map by interpreting its
+ * field maps, invoking the accessors of the properties through
+ * MethodHandles, rather than by generated code; it is used to serve the
+ * first mapping requests for a type pair while the generated mapper is
+ * compiled in the background, after which it delegates to the compiled
+ * mapper (see {@link #setCompiledMapper(Mapper)}).<br>
+ * <br>
+ * Only field maps between plain accessors which are copied by reference,
+ * converted, or mapped as nested objects are supported; their mapping is
+ * equivalent to the source generated by the CopyByReference, Convert and
+ * ObjectToObject specifications.
+ * 
+ * @see MapperGenerator#interpret(ma.glasnost.orika.metadata.ClassMap, MappingContext)
+ */
+public final class InterpretedMapper extends GeneratedMapperBase {
+    
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    
+    private static final Pattern GETTER_METHOD = Pattern.compile("(\\w+)\\(\\)");
+    private static final Pattern SETTER_METHOD = Pattern.compile("(\\w+)\\(%s\\)");
+    private static final Pattern FIELD = Pattern.compile("(\\w+)");
+    private static final Pattern FIELD_ASSIGNMENT = Pattern.compile("(\\w+) = %s");
+    
+    private final Class<?> aType;
+    private final Class<?> bType;
+    private final List<FieldMapping> fieldMappingsAtoB = new ArrayList<>();
+    private final List<FieldMapping> fieldMappingsBtoA = new ArrayList<>();
+    private volatile Mapper<Object, Object> compiledMapper;
+    
+    /**
+     * @param aType
+     *            the raw A type of the class-map
+     * @param bType
+     *            the raw B type of the class-map
+     */
+    InterpretedMapper(Class<?> aType, Class<?> bType) {
+        this.aType = aType;
+        this.bType = bType;
+    }
+    
+    /**
+     * Adds a copy by reference of the source property of a field map to its
+     * destination property.
+     * 
+     * @param aToB
+     *            whether the field map is mapped by the mapAtoB method
+     * @param fieldMap
+     *            the field map, oriented in the direction of the mapping
+     * @param mapNulls
+     *            whether a null source value should be assigned to the
+     *            destination
+     * @return true if the copy was added; false if the accessors of the
+     *         properties are not supported
+     */
+    boolean addCopy(boolean aToB, FieldMap fieldMap, boolean mapNulls) {
+        Member getter = getter(aToB, fieldMap.getSource());
+        Member setter = setter(aToB, fieldMap.getDestination());
+        if (getter == null || setter == null) {
+            return false;
+        }
+        /*
+         * Primitive values are not widened, nor boxed
+         */
+        Class<?> valueType = getter instanceof Method ? ((Method) getter).getReturnType() : ((Field) getter).getType();
+        Class<?> assignedType = setter instanceof Method ? ((Method) setter).getParameterTypes()[0] : ((Field) setter).getType();
+        if (valueType.isPrimitive() ? valueType != assignedType : assignedType.isPrimitive() || !assignedType.isAssignableFrom(valueType)) {
+            return false;
+        }
+        return add(aToB, new FieldMapping(getter, setter, null, null, null, null, mapNulls));
+    }
+    
+    /**
+     * Adds a conversion of the source property of a field map to its
+     * destination property.
+     * 
+     * @param aToB
+     *            whether the field map is mapped by the mapAtoB method
+     * @param fieldMap
+     *            the field map, oriented in the direction of the mapping
+     * @param converter
+     *            the converter which applies to the field map
+     * @param mapNulls
+     *            whether a null source value should be assigned to the
+     *            destination
+     * @return true if the conversion was added; false if the accessors of the
+     *         properties are not supported
+     */
+    boolean addConversion(boolean aToB, FieldMap fieldMap, Converter<Object, Object> converter, boolean mapNulls) {
+        Member getter = getter(aToB, fieldMap.getSource());
+        Member setter = setter(aToB, fieldMap.getDestination());
+        if (getter == null || setter == null || converter == null) {
+            return false;
+        }
+        return add(aToB, new FieldMapping(getter, setter, null, converter, fieldMap.getDestination().getType(), null,
+                mapNulls && !fieldMap.getDestination().isPrimitive()));
+    }
+    
+    /**
+     * Adds the mapping of the source property of a field map, as a nested
+     * object, onto its destination property.
+     * 
+     * @param aToB
+     *            whether the field map is mapped by the mapAtoB method
+     * @param fieldMap
+     *            the field map, oriented in the direction of the mapping
+     * @param mapperFacade
+     *            the BoundMapperFacade for the types of the properties
+     * @param mapNulls
+     *            whether a null source value should be assigned to the
+     *            destination
+     * @return true if the mapping was added; false if the accessors of the
+     *         properties are not supported
+     */
+    boolean addObjectMapping(boolean aToB, FieldMap fieldMap, BoundMapperFacade<Object, Object> mapperFacade, boolean mapNulls) {
+        if (fieldMap.getSource().isPrimitive() || fieldMap.getDestination().isPrimitive()) {
+            return false;
+        }
+        Member getter = getter(aToB, fieldMap.getSource());
+        Member setter = setter(aToB, fieldMap.getDestination());
+        Member destinationGetter = plainGetter(aToB ? bType : aType, fieldMap.getDestination());
+        if (getter == null || setter == null || destinationGetter == null) {
+            return false;
+        }
+        return add(aToB, new FieldMapping(getter, setter, destinationGetter, null, null, mapperFacade, mapNulls));
+    }
+    
+    private Member getter(boolean aToB, Property source) {
+        return isPlainProperty(source) ? plainGetter(aToB ? aType : bType, source) : null;
+    }
+    
+    private Member setter(boolean aToB, Property destination) {
+        return isPlainProperty(destination) ? plainSetter(aToB ? bType : aType, destination) : null;
+    }
+    
+    private static boolean isPlainProperty(Property property) {
+        return !property.hasPath() && property.getContainer() == null && !property.isArrayElement() && !property.isListElement()
+                && !property.isMapKey() && property.getGetter() != null && property.getSetter() != null;
+    }
+    
+    /**
+     * @return the public method or field read by the getter expression of the
+     *         property, or null if it is not a plain accessor
+     */
+    private static Member plainGetter(Class<?> owner, Property property) {
+        try {
+            Matcher matcher = GETTER_METHOD.matcher(property.getGetter());
+            if (matcher.matches()) {
+                return accessible(owner.getMethod(matcher.group(1)));
+            }
+            matcher = FIELD.matcher(property.getGetter());
+            if (matcher.matches()) {
+                return accessible(owner.getField(matcher.group(1)));
+            }
+        } catch (NoSuchMethodException | NoSuchFieldException e) {
+            // not a plain accessor
+        }
+        return null;
+    }
+    
+    /**
+     * @return the public method or field written by the setter expression of
+     *         the property, or null if it is not a plain accessor
+     */
+    private static Member plainSetter(Class<?> owner, Property property) {
+        try {
+            Matcher matcher = SETTER_METHOD.matcher(property.getSetter());
+            if (matcher.matches()) {
+                Method setter = null;
+                for (Method method : owner.getMethods()) {
+                    if (method.getName().equals(matcher.group(1)) && method.getParameterTypes().length == 1
+                            && !Modifier.isStatic(method.getModifiers())) {
+                        if (setter != null) {
+                            // overloaded; resolved by the source compiler
+                            return null;
+                        }
+                        setter = method;
+                    }
+                }
+                return accessible(setter);
+            }
+            matcher = FIELD_ASSIGNMENT.matcher(property.getSetter());
+            if (matcher.matches()) {
+                Field field = owner.getField(matcher.group(1));
+                return Modifier.isFinal(field.getModifiers()) ? null : accessible(field);
+            }
+        } catch (NoSuchFieldException e) {
+            // not a plain accessor
+        }
+        return null;
+    }
+    
+    private static Member accessible(Member member) {
+        if (member == null || Modifier.isStatic(member.getModifiers()) || !Modifier.isPublic(member.getDeclaringClass().getModifiers())) {
+            return null;
+        }
+        return member;
+    }
+    
+    private boolean add(boolean aToB, FieldMapping fieldMapping) {
+        if (fieldMapping.getter == null || fieldMapping.setter == null) {
+            return false;
+        }
+        (aToB ? fieldMappingsAtoB : fieldMappingsBtoA).add(fieldMapping);
+        return true;
+    }
+    
+    /**
+     * Replaces the interpretation of the class-map by the compiled mapper for
+     * it; any requests made through this mapper from then on are delegated to
+     * the compiled mapper.
+     * 
+     * @param compiledMapper
+     *            the mapper generated for the same class-map
+     */
+    public void setCompiledMapper(Mapper<Object, Object> compiledMapper) {
+        this.compiledMapper = compiledMapper;
+    }
+    
+    /**
+     * @return the compiled mapper, or null if it is not yet available
+     */
+    public Mapper<Object, Object> getCompiledMapper() {
+        return compiledMapper;
+    }
+    
+    public void mapAtoB(Object a, Object b, MappingContext context) {
+        Mapper<Object, Object> compiled = compiledMapper;
+        if (compiled != null) {
+            compiled.mapAtoB(a, b, context);
+            return;
+        }
+        super.mapAtoB(a, b, context);
+        map(fieldMappingsAtoB, a, b, context);
+        if (customMapper != null) {
+            customMapper.mapAtoB(a, b, context);
+        }
+    }
+    
+    public void mapBtoA(Object b, Object a, MappingContext context) {
+        Mapper<Object, Object> compiled = compiledMapper;
+        if (compiled != null) {
+            compiled.mapBtoA(b, a, context);
+            return;
+        }
+        super.mapBtoA(b, a, context);
+        map(fieldMappingsBtoA, b, a, context);
+        if (customMapper != null) {
+            customMapper.mapBtoA(b, a, context);
+        }
+    }
+    
+    private static void map(List<FieldMapping> fieldMappings, Object source, Object destination, MappingContext context) {
+        try {
+            for (int i = 0, len = fieldMappings.size(); i < len; ++i) {
+                fieldMappings.get(i).map(source, destination, context);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new MappingException(e);
+        }
+    }
+    
+    public String toString() {
+        Mapper<Object, Object> compiled = compiledMapper;
+        return compiled != null ? compiled.toString() : "Interpreted" + super.toString();
+    }
+    
+    /**
+     * FieldMapping maps the value of a single property.
+     */
+    private static final class FieldMapping {
+        
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final MethodHandle destinationGetter;
+        private final Converter<Object, Object> converter;
+        private final Type<?> destinationType;
+        private final BoundMapperFacade<Object, Object> mapperFacade;
+        private final boolean mapNulls;
+        
+        private FieldMapping(Member getter, Member setter, Member destinationGetter, Converter<Object, Object> converter,
+                Type<?> destinationType, BoundMapperFacade<Object, Object> mapperFacade, boolean mapNulls) {
+            this.getter = getter(getter);
+            this.setter = setter(setter);
+            this.destinationGetter = destinationGetter == null ? null : getter(destinationGetter);
+            this.converter = converter;
+            this.destinationType = destinationType;
+            this.mapperFacade = mapperFacade;
+            this.mapNulls = mapNulls;
+        }
+        
+        private void map(Object source, Object destination, MappingContext context) throws Throwable {
+            Object value = getter.invokeExact(source);
+            if (value == null) {
+                if (mapNulls) {
+                    setter.invokeExact(destination, (Object) null);
+                }
+            } else if (converter != null) {
+                setter.invokeExact(destination, converter.convert(value, destinationType, context));
+            } else if (mapperFacade != null) {
+                Object existing = destinationGetter.invokeExact(destination);
+                setter.invokeExact(destination, existing == null ? mapperFacade.map(value, context) : mapperFacade.map(value, existing, context));
+            } else {
+                setter.invokeExact(destination, value);
+            }
+        }
+        
+        private static MethodHandle getter(Member member) {
+            try {
+                MethodHandle handle = member instanceof Method ? MethodHandles.publicLookup().unreflect((Method) member)
+                        : MethodHandles.publicLookup().unreflectGetter((Field) member);
+                return handle.asType(GETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+        
+        private static MethodHandle setter(Member member) {
+            try {
+                MethodHandle handle = member instanceof Method ? MethodHandles.publicLookup().unreflect((Method) member)
+                        : MethodHandles.publicLookup().unreflectSetter((Field) member);
+                return handle.asType(SETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+    }
+}
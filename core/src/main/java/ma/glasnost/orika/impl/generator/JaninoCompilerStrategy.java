@@ -30,6 +30,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 
 public class JaninoCompilerStrategy extends CompilerStrategy {
     
@@ -51,18 +53,63 @@ public class JaninoCompilerStrategy extends CompilerStrategy {
     @Override
     public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
         
-        Scanner scanner;
         try {
-            scanner = new Scanner(sourceCode.getClassName(), new StringReader(sourceCode.toSourceFile()));
+            return classLoader.loadClass(compileUnit(sourceCode));
+        } catch (ClassNotFoundException e) {
+            LOG.error("Can not compile {0}", sourceCode.getClassName(), e);
+            throw new MappingException("Can not compile the generated mapper", e);
+        }
+        
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see ma.glasnost.orika.impl.generator.CompilerStrategy#compileClasses(java.util.List)
+     * 
+     * All of the sources are compiled (resolving types through the same
+     * IClassLoader) before any of the compiled classes is loaded.
+     */
+    @Override
+    public List<Class<?>> compileClasses(List<SourceCodeContext> sourceCodes) throws SourceCodeGenerationException {
+        
+        List<String> classNames = new ArrayList<>(sourceCodes.size());
+        for (SourceCodeContext sourceCode : sourceCodes) {
+            classNames.add(compileUnit(sourceCode));
+        }
+        
+        List<Class<?>> compiledClasses = new ArrayList<>(sourceCodes.size());
+        for (int i = 0; i < classNames.size(); ++i) {
+            try {
+                compiledClasses.add(classLoader.loadClass(classNames.get(i)));
+            } catch (ClassNotFoundException e) {
+                LOG.error("Can not compile {0}", sourceCodes.get(i).getClassName(), e);
+                throw new MappingException("Can not compile the generated mapper", e);
+            }
+        }
+        return compiledClasses;
+    }
+    
+    /**
+     * Compiles the source of a generated class, registering the resulting
+     * class files with the class-loader.
+     * 
+     * @return the name of the compiled class
+     */
+    private String compileUnit(SourceCodeContext sourceCode) {
+        try {
+            Scanner scanner = new Scanner(sourceCode.getClassName(), new StringReader(sourceCode.toSourceFile()));
             Java.CompilationUnit localCompilationUnit = new Parser(scanner).parseCompilationUnit();
             UnitCompiler unitCompile = new UnitCompiler(localCompilationUnit, iClassLoader);
             ClassFile[] classes = unitCompile.compileUnit(false, false, false);
-            return classLoader.findClass(classes[0].getThisClassName());
+            for (ClassFile classFile : classes) {
+                classLoader.putClassData(classFile.getThisClassName(), classFile.toByteArray());
+            }
+            return classes[0].getThisClassName();
         } catch (Exception e) {
             LOG.error("Can not compile {0}", sourceCode.getClassName(), e);
             throw new MappingException("Can not compile the generated mapper", e);
         }
-        
     }
     
     public void assureTypeIsAccessible(Class<?> type) throws SourceCodeGenerationException {
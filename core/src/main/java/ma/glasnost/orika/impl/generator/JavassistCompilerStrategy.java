@@ -23,6 +23,7 @@ import javassist.ClassClassPath;
 import javassist.ClassPool;
 import javassist.CtClass;
 import javassist.CtField;
+import javassist.CtNewConstructor;
 import javassist.CtNewMethod;
 import javassist.LoaderClassPath;
 import javassist.NotFoundException;
@@ -56,7 +57,7 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
     private final static Logger LOG = LoggerFactory.getLogger(JavassistCompilerStrategy.class);
     private final static Map<Class<?>, Boolean> superClasses = new ConcurrentHashMap<>(3);
     
-    private final ClassPool classPool;
+    protected final ClassPool classPool;
     
     /**
      * Keep a set of class-loaders that have already been added to the javassist
@@ -124,19 +125,29 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
      *         false if the class-loader was already registered
      */
     private boolean registerClassLoader(ClassLoader cl) {
-        Boolean found = referencedLoaders.get(cl);
-        if (found == null) {
-            synchronized (cl) {
-                found = referencedLoaders.get(cl);
-                if (found == null) {
-                    referencedLoaders.put(cl, Boolean.TRUE);
-                    classPool.insertClassPath(new LoaderClassPath(cl));
-                }
+        Boolean found;
+        synchronized (referencedLoaders) {
+            found = referencedLoaders.get(cl);
+            if (found == null) {
+                referencedLoaders.put(cl, Boolean.TRUE);
+                classPool.insertClassPath(new LoaderClassPath(cl));
             }
         }
         return found == null || !found;
     }
     
+    /*
+     * (non-Javadoc)
+     * 
+     * @see ma.glasnost.orika.impl.generator.CompilerStrategy#isThreadSafe()
+     * 
+     * The class-pool synchronizes its own lookups, and each class is compiled
+     * into a CtClass of its own.
+     */
+    public boolean isThreadSafe() {
+        return true;
+    }
+    
     /*
      * (non-Javadoc)
      * 
@@ -182,8 +193,22 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
      * (ma.glasnost.orika.impl.GeneratedSourceCode)
      */
     public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
+        return compileClass(sourceCode, sourceCode.getClassName());
+    }
+    
+    /**
+     * Compile and return the (generated) class, under the specified name.
+     * 
+     * @param sourceCode
+     *            the source of the generated class
+     * @param name
+     *            the name of the compiled class
+     * @return the (generated) compiled class
+     * @throws SourceCodeGenerationException
+     */
+    protected Class<?> compileClass(SourceCodeContext sourceCode, String name) throws SourceCodeGenerationException {
         
-        StringBuilder className = new StringBuilder(sourceCode.getClassName());
+        StringBuilder className = new StringBuilder(name);
         CtClass byteCodeClass = null;
         int attempts = 0;
         Random rand = RANDOM;
@@ -222,26 +247,8 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
             abstractMapperClass = classPool.get(sourceCode.getSuperClass().getCanonicalName());
             byteCodeClass.setSuperclass(abstractMapperClass);
             
-            for (String fieldDef : sourceCode.getFields()) {
-                try {
-                    byteCodeClass.addField(CtField.make(fieldDef, byteCodeClass));
-                } catch (CannotCompileException e) {
-                    LOG.error("An exception occurred while compiling: " + fieldDef + " for " + sourceCode.getClassName(), e);
-                    throw e;
-                }
-            }
+            addMembers(sourceCode, byteCodeClass);
             
-            for (String methodDef : sourceCode.getMethods()) {
-                try {
-                    byteCodeClass.addMethod(CtNewMethod.make(methodDef, byteCodeClass));
-                } catch (CannotCompileException e) {
-                    LOG.error(
-                            "An exception occured while compiling the following method:\n\n " + methodDef + "\n\n for "
-                                    + sourceCode.getClassName() + "\n", e);
-                    throw e;
-                }
-                
-            }
             compiledClass = byteCodeClass.toClass(Thread.currentThread().getContextClassLoader(), this.getClass().getProtectionDomain());
             
             writeClassFile(sourceCode, byteCodeClass);
@@ -257,4 +264,45 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
         return compiledClass;
     }
     
+    /**
+     * Compiles the fields, constructor and methods of the generated source
+     * into the generated class.
+     * 
+     * @param sourceCode
+     *            the source of the generated class
+     * @param byteCodeClass
+     *            the generated class
+     * @throws CannotCompileException
+     */
+    protected void addMembers(SourceCodeContext sourceCode, CtClass byteCodeClass) throws CannotCompileException {
+        for (String fieldDef : sourceCode.getFields()) {
+            try {
+                byteCodeClass.addField(CtField.make(fieldDef, byteCodeClass));
+            } catch (CannotCompileException e) {
+                LOG.error("An exception occurred while compiling: " + fieldDef + " for " + sourceCode.getClassName(), e);
+                throw e;
+            }
+        }
+        
+        String constructorDef = sourceCode.getConstructor(byteCodeClass.getSimpleName());
+        try {
+            byteCodeClass.addConstructor(CtNewConstructor.make(constructorDef, byteCodeClass));
+        } catch (CannotCompileException e) {
+            LOG.error("An exception occurred while compiling: " + constructorDef + " for " + sourceCode.getClassName(), e);
+            throw e;
+        }
+        
+        for (String methodDef : sourceCode.getMethods()) {
+            try {
+                byteCodeClass.addMethod(CtNewMethod.make(methodDef, byteCodeClass));
+            } catch (CannotCompileException e) {
+                LOG.error(
+                        "An exception occured while compiling the following method:\n\n " + methodDef + "\n\n for "
+                                + sourceCode.getClassName() + "\n", e);
+                throw e;
+            }
+            
+        }
+    }
+    
 }
@@ -18,10 +18,20 @@
 
 package ma.glasnost.orika.impl.generator;
 
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.Converter;
+import ma.glasnost.orika.Filter;
 import ma.glasnost.orika.MapperFactory;
 import ma.glasnost.orika.MappingContext;
 import ma.glasnost.orika.MappingException;
+import ma.glasnost.orika.Properties;
+import ma.glasnost.orika.converter.ConverterFactory;
+import ma.glasnost.orika.converter.builtin.CopyByReferenceConverter;
 import ma.glasnost.orika.impl.GeneratedMapperBase;
+import ma.glasnost.orika.impl.generator.CompilerStrategy.SourceCodeGenerationException;
+import ma.glasnost.orika.impl.generator.specification.Convert;
+import ma.glasnost.orika.impl.generator.specification.CopyByReference;
+import ma.glasnost.orika.impl.generator.specification.ObjectToObject;
 import ma.glasnost.orika.metadata.ClassMap;
 import ma.glasnost.orika.metadata.FieldMap;
 import ma.glasnost.orika.metadata.MapperKey;
@@ -30,7 +40,10 @@ import ma.glasnost.orika.metadata.TypeFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import static java.lang.String.format;
@@ -50,6 +63,169 @@ public final class MapperGenerator {
     
     public GeneratedMapperBase build(ClassMap<?, ?> classMap, MappingContext context) {
         
+        MapperSource source = generate(classMap, context);
+        return instantiate(source, null, context);
+    }
+    
+    /**
+     * Generates the mappers for several class-maps, compiling their sources
+     * in a single invocation of the compiler strategy (see
+     * {@link CompilerStrategy#compileClasses(List)}).
+     * 
+     * @param classMaps
+     *            the class-maps for which mappers should be generated
+     * @param context
+     *            the current mapping context
+     * @return the generated mappers, in the order of the class-maps
+     */
+    public List<GeneratedMapperBase> build(List<ClassMap<?, ?>> classMaps, MappingContext context) {
+        
+        List<MapperSource> sources = new ArrayList<>(classMaps.size());
+        List<SourceCodeContext> sourceCodes = new ArrayList<>(classMaps.size());
+        for (ClassMap<?, ?> classMap : classMaps) {
+            MapperSource source = generate(classMap, context);
+            sources.add(source);
+            sourceCodes.add(source.code);
+        }
+        
+        List<Class<?>> compiledClasses;
+        try {
+            compiledClasses = compilerStrategy.compileClasses(sourceCodes);
+        } catch (SourceCodeGenerationException e) {
+            throw new MappingException(e);
+        }
+        
+        List<GeneratedMapperBase> mappers = new ArrayList<>(classMaps.size());
+        for (int i = 0; i < sources.size(); ++i) {
+            mappers.add(instantiate(sources.get(i), compiledClasses.get(i), context));
+        }
+        return mappers;
+    }
+    
+    /**
+     * Creates a mapper for a class-map which interprets its field maps, rather
+     * than generating and compiling a mapper class, provided that each of the
+     * field maps is supported by {@link InterpretedMapper} (the same field
+     * maps are considered, in the same order, as by
+     * {@link #generateFieldsMapCode}).
+     * 
+     * @param classMap
+     *            the class-map for which a mapper should be created
+     * @param context
+     *            the current mapping context
+     * @return the interpreted mapper, or null if the mapper for the class-map
+     *         must be generated
+     */
+    @SuppressWarnings("unchecked")
+    public InterpretedMapper interpret(ClassMap<?, ?> classMap, MappingContext context) {
+        
+        if (Boolean.TRUE.equals(context.getProperty(Properties.CAPTURE_FIELD_CONTEXT))) {
+            return null;
+        }
+        if (!classMap.getEnumConstants().isEmpty()) {
+            // the enum constants of the class-map are applied by generated mappers only
+            return null;
+        }
+        CodeGenerationStrategy codeGenerationStrategy = (CodeGenerationStrategy) context.getProperty(Properties.CODE_GENERATION_STRATEGY);
+        Collection<Filter<Object, Object>> filters = (Collection<Filter<Object, Object>>) context.getProperty(Properties.FILTERS);
+        boolean shouldMapNulls = Boolean.TRUE.equals(context.getProperty(Properties.SHOULD_MAP_NULLS));
+        
+        InterpretedMapper mapper = new InterpretedMapper(classMap.getAType().getRawType(), classMap.getBType().getRawType());
+        for (boolean aToB : new boolean[] { true, false }) {
+            for (FieldMap currentFieldMap : classMap.getFieldsMapping()) {
+                if (currentFieldMap.isExcluded() || isAlreadyExistsInUsedMappers(currentFieldMap, classMap)) {
+                    continue;
+                }
+                FieldMap fieldMap = aToB ? currentFieldMap : currentFieldMap.flip();
+                if (fieldMap.isIgnored()) {
+                    continue;
+                }
+                if (fieldMap.getSource().getGetter() == null
+                        || (fieldMap.getDestination().getSetter() == null && fieldMap.getDestination().getType().isImmutable())) {
+                    // not mapped by a generated mapper either
+                    continue;
+                }
+                for (AggregateSpecification spec : codeGenerationStrategy.getAggregateSpecifications()) {
+                    if (spec.appliesTo(fieldMap)) {
+                        return null;
+                    }
+                }
+                for (Filter<Object, Object> filter : filters) {
+                    if (filter.appliesTo(fieldMap.getSource(), fieldMap.getDestination())) {
+                        return null;
+                    }
+                }
+                Specification applicableSpec = null;
+                for (Specification spec : codeGenerationStrategy.getSpecifications()) {
+                    if (spec.appliesTo(fieldMap)) {
+                        applicableSpec = spec;
+                        break;
+                    }
+                }
+                Boolean mapNulls = fieldMap.isDestinationMappedOnNull();
+                if (!addFieldMapping(mapper, aToB, applicableSpec, fieldMap, mapNulls != null ? mapNulls : shouldMapNulls)) {
+                    return null;
+                }
+            }
+        }
+        
+        mapper.setAType(classMap.getAType());
+        mapper.setBType(classMap.getBType());
+        mapper.setFavorsExtension(classMap.favorsExtension());
+        CycleAnalysis cycleAnalysis = (CycleAnalysis) context.getProperty(Properties.CYCLE_ANALYSIS);
+        if (cycleAnalysis != null) {
+            mapper.setCycleAnalysis(cycleAnalysis.getResult(classMap, true), cycleAnalysis.getResult(classMap, false));
+        }
+        return mapper;
+    }
+    
+    /**
+     * Adds the interpretation of a field map, by the specification which
+     * applies to it, to an interpreted mapper.
+     * 
+     * @return true if the field map could be added
+     */
+    @SuppressWarnings("unchecked")
+    private boolean addFieldMapping(InterpretedMapper mapper, boolean aToB, Specification spec, FieldMap fieldMap, boolean mapNulls) {
+        if (spec == null) {
+            return false;
+        } else if (spec.getClass() == CopyByReference.class) {
+            return mapper.addCopy(aToB, fieldMap, mapNulls);
+        } else if (spec.getClass() == Convert.class) {
+            ConverterFactory converterFactory = mapperFactory.getConverterFactory();
+            Converter<Object, Object> converter = fieldMap.getConverterId() != null ? converterFactory.getConverter(fieldMap.getConverterId())
+                    : converterFactory.getConverter(fieldMap.getSource().getType(), fieldMap.getDestination().getType());
+            return converter instanceof CopyByReferenceConverter ? mapper.addCopy(aToB, fieldMap, mapNulls)
+                    : mapper.addConversion(aToB, fieldMap, converter, mapNulls);
+        } else if (spec.getClass() == ObjectToObject.class && fieldMap.getInverse() == null) {
+            BoundMapperFacade<Object, Object> mapperFacade = (BoundMapperFacade<Object, Object>) mapperFactory.getMapperFacade(
+                    fieldMap.getSource().getType(), fieldMap.getDestination().getType());
+            return mapper.addObjectMapping(aToB, fieldMap, mapperFacade, mapNulls);
+        }
+        return false;
+    }
+    
+    /**
+     * MapperSource holds the generated (but not yet compiled) source of the
+     * mapper for a class-map.
+     */
+    private static final class MapperSource {
+        
+        private final ClassMap<?, ?> classMap;
+        private final SourceCodeContext code;
+        private final Set<FieldMap> mappedFields;
+        private final StringBuilder logDetails;
+        
+        private MapperSource(ClassMap<?, ?> classMap, SourceCodeContext code, Set<FieldMap> mappedFields, StringBuilder logDetails) {
+            this.classMap = classMap;
+            this.code = code;
+            this.mappedFields = mappedFields;
+            this.logDetails = logDetails;
+        }
+    }
+    
+    private MapperSource generate(ClassMap<?, ?> classMap, MappingContext context) {
+        
         StringBuilder logDetails = null;
         try {
             compilerStrategy.assureTypeIsAccessible(classMap.getAType().getRawType());
@@ -64,16 +240,62 @@ public final class MapperGenerator {
             
             final SourceCodeContext mapperCode = new SourceCodeContext(classMap.getMapperClassName(), GeneratedMapperBase.class, context,
                     logDetails);
+            mapperCode.addMappedClass(classMap.getAType());
+            mapperCode.addMappedClass(classMap.getBType());
+            
+            Integer fusedMappingDepth = (Integer) context.getProperty(Properties.FUSED_MAPPING_DEPTH);
+            if (fusedMappingDepth != null && fusedMappingDepth > 0) {
+                mapperCode.fuseNestedMappers(this, classMap, fusedMappingDepth,
+                        (Integer) context.getProperty(Properties.FUSED_MAPPING_BUDGET));
+            }
             
             Set<FieldMap> mappedFields = new LinkedHashSet<>();
             mappedFields.addAll(addMapMethod(mapperCode, true, classMap, logDetails));
             mappedFields.addAll(addMapMethod(mapperCode, false, classMap, logDetails));
             
-            GeneratedMapperBase instance = mapperCode.getInstance();
+            return new MapperSource(classMap, mapperCode, mappedFields, logDetails);
+            
+        } catch (final Exception e) {
+            if (logDetails != null) {
+                /*
+                 * Print out the partial progress of the code generation, as it
+                 * can help to pinpoint the location of the internal error
+                 */
+                logDetails.append("\n<---- ERROR occurred here");
+                LOGGER.debug(logDetails.toString());
+            }
+            throw new MappingException(e);
+        }
+    }
+    
+    /**
+     * Instantiates the mapper compiled from the specified source.
+     * 
+     * @param source
+     *            the generated source of the mapper
+     * @param compiledClass
+     *            the class compiled from the source, or null if the source
+     *            should be compiled now
+     * @param context
+     *            the current mapping context
+     * @return the new mapper instance
+     */
+    private GeneratedMapperBase instantiate(MapperSource source, Class<?> compiledClass, MappingContext context) {
+        
+        ClassMap<?, ?> classMap = source.classMap;
+        StringBuilder logDetails = source.logDetails;
+        try {
+            GeneratedMapperBase instance = compiledClass == null ? source.code.<GeneratedMapperBase> getInstance()
+                    : source.code.<GeneratedMapperBase> getInstance(compiledClass);
             instance.setAType(classMap.getAType());
             instance.setBType(classMap.getBType());
             instance.setFavorsExtension(classMap.favorsExtension());
             
+            CycleAnalysis cycleAnalysis = (CycleAnalysis) context.getProperty(Properties.CYCLE_ANALYSIS);
+            if (cycleAnalysis != null) {
+                instance.setCycleAnalysis(cycleAnalysis.getResult(classMap, true), cycleAnalysis.getResult(classMap, false));
+            }
+            
             if (logDetails != null) {
                 LOGGER.debug(logDetails.toString());
                 logDetails = null;
@@ -86,7 +308,7 @@ public final class MapperGenerator {
              * when selecting a constructor -- since we only need a constructor
              * which handles the fields not mapped by the generated mapper
              */
-            classMap = classMap.copy(mappedFields);
+            classMap = classMap.copy(source.mappedFields);
             context.registerMapperGeneration(classMap);
             
             return instance;
@@ -134,6 +356,44 @@ public final class MapperGenerator {
         append(out, format("super.%s(a, b, mappingContext);", mapMethod), "\n\n", "// sourceType: " + source.type() + source.declare("a"),
                 "// destinationType: " + destination.type() + destination.declare("b"), "\n\n");
         
+        code.setClassMap(classMap);
+        out.append(generateFieldsMapCode(code, aToB, classMap, source, destination, mappedFields, logDetails));
+        
+        out.append("\n\t\tif(customMapper != null) { \n\t\t\t customMapper.")
+                .append(mapMethod)
+                .append("(source, destination, mappingContext);\n\t\t}");
+        
+        out.append("\n\t}");
+        
+        if (logDetails != null) {
+            logDetails.append("\n\t}");
+        }
+        
+        code.addMethod(out.toString());
+        
+        return mappedFields;
+    }
+    
+    /**
+     * Generates the code which maps the fields of a class-map in the specified
+     * direction, from the <code>source</code> to the <code>destination</code>
+     * variable; this is also used to generate the fused mapping methods of
+     * nested class-maps (see {@link SourceCodeContext#callMapper(VariableRef, Type)}).
+     * 
+     * @param code
+     * @param aToB
+     * @param classMap
+     * @param source
+     * @param destination
+     * @param mappedFields
+     *            receives the field maps which were processed
+     * @param logDetails
+     * @return the generated code
+     */
+    String generateFieldsMapCode(SourceCodeContext code, boolean aToB, ClassMap<?, ?> classMap, VariableRef source,
+            VariableRef destination, Set<FieldMap> mappedFields, StringBuilder logDetails) {
+        
+        StringBuilder out = new StringBuilder();
         for (FieldMap currentFieldMap : classMap.getFieldsMapping()) {
             
             if (currentFieldMap.isExcluded()) {
@@ -178,19 +438,7 @@ public final class MapperGenerator {
         
         out.append(code.mapAggregateFields());
         
-        out.append("\n\t\tif(customMapper != null) { \n\t\t\t customMapper.")
-                .append(mapMethod)
-                .append("(source, destination, mappingContext);\n\t\t}");
-        
-        out.append("\n\t}");
-        
-        if (logDetails != null) {
-            logDetails.append("\n\t}");
-        }
-        
-        code.addMethod(out.toString());
-        
-        return mappedFields;
+        return out.toString();
     }
     
     private boolean isAlreadyExistsInUsedMappers(FieldMap fieldMap, ClassMap<?, ?> classMap) {
@@ -0,0 +1,130 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import ma.glasnost.orika.OrikaSystemProperties;
+import ma.glasnost.orika.impl.ConfigurableMapper;
+
+/**
+ * MapperPrecompiler generates, at build time, the class files of the mappers
+ * and object factories for one or more mapping configurations, so that they
+ * may be packaged with the application and loaded by the
+ * {@link PrecompiledCompilerStrategy} at runtime.<br>
+ * <br>
+ * Each configuration is a {@link ConfigurableMapper} (with a public no-arg
+ * constructor which initializes it), which is instantiated using the
+ * PrecompiledCompilerStrategy; the classes generated while its MapperFactory
+ * is built are written to the output directory. Mappers which are only
+ * generated on first use (for types without a registered class-map) are not
+ * precompiled, nor are any classes of a configuration which chooses its own
+ * compiler strategy.<br>
+ * <br>
+ * For example, using the exec-maven-plugin:
+ * 
+ * <pre>
+ * &lt;plugin&gt;
+ *   &lt;groupId&gt;org.codehaus.mojo&lt;/groupId&gt;
+ *   &lt;artifactId&gt;exec-maven-plugin&lt;/artifactId&gt;
+ *   &lt;executions&gt;
+ *     &lt;execution&gt;
+ *       &lt;phase&gt;process-classes&lt;/phase&gt;
+ *       &lt;goals&gt;&lt;goal&gt;java&lt;/goal&gt;&lt;/goals&gt;
+ *       &lt;configuration&gt;
+ *         &lt;mainClass&gt;ma.glasnost.orika.impl.generator.MapperPrecompiler&lt;/mainClass&gt;
+ *         &lt;arguments&gt;
+ *           &lt;argument&gt;${project.build.outputDirectory}&lt;/argument&gt;
+ *           &lt;argument&gt;com.example.MyMapper&lt;/argument&gt;
+ *         &lt;/arguments&gt;
+ *       &lt;/configuration&gt;
+ *     &lt;/execution&gt;
+ *   &lt;/executions&gt;
+ * &lt;/plugin&gt;
+ * </pre>
+ * 
+ * and, at runtime, the system property
+ * <code>-Dma.glasnost.orika.compilerStrategy=ma.glasnost.orika.impl.generator.PrecompiledCompilerStrategy</code>
+ * (or the equivalent MapperFactory builder setting).
+ */
+public final class MapperPrecompiler {
+    
+    private MapperPrecompiler() {
+        
+    }
+    
+    /**
+     * Precompiles the mappers of the specified configurations.
+     * 
+     * @param args
+     *            the output directory, followed by the class names of the
+     *            ConfigurableMapper configurations
+     * @throws ClassNotFoundException
+     */
+    public static void main(String[] args) throws ClassNotFoundException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: MapperPrecompiler <output directory> <ConfigurableMapper class>...");
+        }
+        List<Class<? extends ConfigurableMapper>> configurations = new ArrayList<>();
+        for (int i = 1; i < args.length; ++i) {
+            configurations.add(Class.forName(args[i], true, Thread.currentThread().getContextClassLoader())
+                    .asSubclass(ConfigurableMapper.class));
+        }
+        precompile(new File(args[0]), configurations);
+    }
+    
+    /**
+     * Precompiles the mappers of the specified configurations, writing their
+     * class files to the output directory.
+     * 
+     * @param outputDirectory
+     *            the root directory to which the class files are written
+     * @param configurations
+     *            the ConfigurableMapper configurations to precompile
+     */
+    public static void precompile(File outputDirectory, List<Class<? extends ConfigurableMapper>> configurations) {
+        
+        String[] properties = { OrikaSystemProperties.COMPILER_STRATEGY, OrikaSystemProperties.WRITE_CLASS_FILES,
+                OrikaSystemProperties.WRITE_CLASS_FILES_TO_PATH };
+        String[] values = { PrecompiledCompilerStrategy.class.getName(), "true", outputDirectory.getAbsolutePath() };
+        String[] previousValues = new String[properties.length];
+        for (int i = 0; i < properties.length; ++i) {
+            previousValues[i] = System.setProperty(properties[i], values[i]);
+        }
+        try {
+            for (Class<? extends ConfigurableMapper> configuration : configurations) {
+                try {
+                    configuration.newInstance();
+                } catch (InstantiationException | IllegalAccessException e) {
+                    throw new IllegalArgumentException("Could not instantiate " + configuration.getName(), e);
+                }
+            }
+        } finally {
+            for (int i = 0; i < properties.length; ++i) {
+                if (previousValues[i] == null) {
+                    System.clearProperty(properties[i]);
+                } else {
+                    System.setProperty(properties[i], previousValues[i]);
+                }
+            }
+        }
+    }
+}
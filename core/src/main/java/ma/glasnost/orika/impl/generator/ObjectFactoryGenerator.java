@@ -23,6 +23,7 @@ import ma.glasnost.orika.MappingException;
 import ma.glasnost.orika.constructor.ConstructorResolverStrategy;
 import ma.glasnost.orika.constructor.ConstructorResolverStrategy.ConstructorMapping;
 import ma.glasnost.orika.impl.GeneratedObjectFactory;
+import ma.glasnost.orika.impl.generator.CompilerStrategy.SourceCodeGenerationException;
 import ma.glasnost.orika.metadata.ClassMap;
 import ma.glasnost.orika.metadata.FieldMap;
 import ma.glasnost.orika.metadata.MapperKey;
@@ -33,6 +34,7 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.List;
 
 import static java.lang.String.format;
@@ -49,6 +51,7 @@ public class ObjectFactoryGenerator {
     
     private final ConstructorResolverStrategy constructorResolverStrategy;
     private final MapperFactory mapperFactory;
+    private final CompilerStrategy compilerStrategy;
     private final String nameSuffix;
     
     /**
@@ -61,6 +64,7 @@ public class ObjectFactoryGenerator {
     public ObjectFactoryGenerator(MapperFactory mapperFactory, ConstructorResolverStrategy constructorResolverStrategy,
             CompilerStrategy compilerStrategy) {
         this.mapperFactory = mapperFactory;
+        this.compilerStrategy = compilerStrategy;
         this.nameSuffix = String.valueOf(System.nanoTime());
         this.constructorResolverStrategy = constructorResolverStrategy;
     }
@@ -73,6 +77,65 @@ public class ObjectFactoryGenerator {
      */
     public GeneratedObjectFactory build(Type<?> type, Type<?> sourceType, MappingContext context) {
         
+        return instantiate(generate(type, sourceType, context), null);
+    }
+    
+    /**
+     * Generates the object factories for several pairs of types, compiling
+     * their sources in a single invocation of the compiler strategy (see
+     * {@link CompilerStrategy#compileClasses(List)}).
+     * 
+     * @param typePairs
+     *            the pairs of types for which object factories should be
+     *            generated, each from its B type (the source type) to its A
+     *            type (the type to instantiate)
+     * @param context
+     *            the current mapping context
+     * @return the generated object factories, in the order of the type pairs
+     */
+    public List<GeneratedObjectFactory> build(List<MapperKey> typePairs, MappingContext context) {
+        
+        List<ObjectFactorySource> sources = new ArrayList<>(typePairs.size());
+        List<SourceCodeContext> sourceCodes = new ArrayList<>(typePairs.size());
+        for (MapperKey typePair : typePairs) {
+            ObjectFactorySource source = generate(typePair.getAType(), typePair.getBType(), context);
+            sources.add(source);
+            sourceCodes.add(source.code);
+        }
+        
+        List<Class<?>> compiledClasses;
+        try {
+            compiledClasses = compilerStrategy.compileClasses(sourceCodes);
+        } catch (SourceCodeGenerationException e) {
+            throw new MappingException(e);
+        }
+        
+        List<GeneratedObjectFactory> objectFactories = new ArrayList<>(typePairs.size());
+        for (int i = 0; i < sources.size(); ++i) {
+            objectFactories.add(instantiate(sources.get(i), compiledClasses.get(i)));
+        }
+        return objectFactories;
+    }
+    
+    /**
+     * ObjectFactorySource holds the generated source of an object factory
+     * until it is compiled.
+     */
+    private static final class ObjectFactorySource {
+        
+        private final Type<?> type;
+        private final SourceCodeContext code;
+        private final StringBuilder logDetails;
+        
+        private ObjectFactorySource(Type<?> type, SourceCodeContext code, StringBuilder logDetails) {
+            this.type = type;
+            this.code = code;
+            this.logDetails = logDetails;
+        }
+    }
+    
+    private ObjectFactorySource generate(Type<?> type, Type<?> sourceType, MappingContext context) {
+        
         String className = type.getSimpleName() + "_" + sourceType.getSimpleName() + "_ObjectFactory" + nameSuffix;
         className = prependPackageName(getPackageName(type), className);
         try {
@@ -85,6 +148,8 @@ public class ObjectFactoryGenerator {
             }
             
             final SourceCodeContext factoryCode = new SourceCodeContext(className, GeneratedObjectFactory.class, context, logDetails);
+            factoryCode.addMappedClass(type);
+            factoryCode.addMappedClass(sourceType);
             
             UsedTypesContext usedTypes = new UsedTypesContext();
             UsedConvertersContext usedConverters = new UsedConvertersContext();
@@ -92,11 +157,34 @@ public class ObjectFactoryGenerator {
             
             addCreateMethod(factoryCode, usedTypes, usedConverters, usedMapperFacades, type, sourceType, context, logDetails);
             
-            GeneratedObjectFactory objectFactory = (GeneratedObjectFactory) factoryCode.getInstance();
+            return new ObjectFactorySource(type, factoryCode, logDetails);
+            
+        } catch (final Exception e) {
+            if (e instanceof MappingException) {
+                throw (MappingException) e;
+            } else {
+                throw new MappingException("exception while creating object factory for " + type.getName(), e);
+            }
+        }
+    }
+    
+    /**
+     * @param source
+     *            the generated source of the object factory
+     * @param compiledClass
+     *            the class already compiled from the source, or null if it
+     *            must be compiled
+     * @return an instance of the generated object factory
+     */
+    private GeneratedObjectFactory instantiate(ObjectFactorySource source, Class<?> compiledClass) {
+        
+        try {
+            GeneratedObjectFactory objectFactory = compiledClass == null ? source.code.<GeneratedObjectFactory> getInstance()
+                    : source.code.<GeneratedObjectFactory> getInstance(compiledClass);
             objectFactory.setMapperFacade(mapperFactory.getMapperFacade());
             
-            if (logDetails != null) {
-                LOGGER.debug(logDetails.toString());
+            if (source.logDetails != null) {
+                LOGGER.debug(source.logDetails.toString());
             }
             
             return objectFactory;
@@ -105,7 +193,7 @@ public class ObjectFactoryGenerator {
             if (e instanceof MappingException) {
                 throw (MappingException) e;
             } else {
-                throw new MappingException("exception while creating object factory for " + type.getName(), e);
+                throw new MappingException("exception while creating object factory for " + source.type.getName(), e);
             }
         }
     }
@@ -0,0 +1,80 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PrecompiledCompilerStrategy names each generated class after the
+ * fingerprint of its source (see {@link SourceCodeContext#getFingerprint()}),
+ * and loads a class of that name from the context class-loader, when one
+ * exists, rather than compiling it again.<br>
+ * <br>
+ * Combined with {@link ma.glasnost.orika.OrikaSystemProperties#WRITE_CLASS_FILES},
+ * this allows the mappers and object factories to be generated at build
+ * time (see {@link MapperPrecompiler}) and packaged with the application,
+ * so that they are not compiled at runtime; any class for which no
+ * precompiled class is found (because the mapping configuration has changed
+ * since, for instance) is compiled with Javassist as usual.
+ */
+public class PrecompiledCompilerStrategy extends JavassistCompilerStrategy {
+    
+    private final static Logger LOG = LoggerFactory.getLogger(PrecompiledCompilerStrategy.class);
+    
+    private static final String PRECOMPILED_CLASS_PREFIX = "Orika_";
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ma.glasnost.orika.impl.generator.JavassistCompilerStrategy#compileClass
+     * (ma.glasnost.orika.impl.generator.SourceCodeContext)
+     */
+    public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
+        
+        String className = getPrecompiledClassName(sourceCode);
+        Class<?> precompiledClass = loadPrecompiledClass(className, sourceCode.getSuperClass());
+        if (precompiledClass != null) {
+            return precompiledClass;
+        }
+        
+        LOG.debug("No precompiled class {} found for {}; compiling it", className, sourceCode.getClassName());
+        return compileClass(sourceCode, className);
+    }
+    
+    /**
+     * @param sourceCode
+     *            the source of the generated class
+     * @return the name of the precompiled class for the source
+     */
+    protected String getPrecompiledClassName(SourceCodeContext sourceCode) {
+        return sourceCode.getPackageName() + "." + PRECOMPILED_CLASS_PREFIX + sourceCode.getSuperClass().getSimpleName() + "_"
+                + sourceCode.getFingerprint();
+    }
+    
+    private Class<?> loadPrecompiledClass(String className, Class<?> superClass) {
+        try {
+            Class<?> precompiledClass = Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+            return superClass.isAssignableFrom(precompiledClass) ? precompiledClass : null;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -23,27 +23,41 @@ import ma.glasnost.orika.Converter;
 import ma.glasnost.orika.Filter;
 import ma.glasnost.orika.MapEntry;
 import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.Mapper;
 import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingException;
+import ma.glasnost.orika.ObjectFactory;
 import ma.glasnost.orika.Properties;
 import ma.glasnost.orika.converter.ConverterFactory;
 import ma.glasnost.orika.impl.AggregateFilter;
+import ma.glasnost.orika.impl.DirectMapperCall;
 import ma.glasnost.orika.impl.GeneratedObjectBase;
 import ma.glasnost.orika.impl.generator.CompilerStrategy.SourceCodeGenerationException;
 import ma.glasnost.orika.impl.generator.Node.NodeList;
 import ma.glasnost.orika.impl.generator.UsedMapperFacadesContext.UsedMapperFacadesIndex;
 import ma.glasnost.orika.impl.generator.specification.AbstractSpecification;
 import ma.glasnost.orika.impl.util.ClassUtil;
+import ma.glasnost.orika.impl.util.EnumTable;
+import ma.glasnost.orika.metadata.ClassMap;
 import ma.glasnost.orika.metadata.FieldMap;
+import ma.glasnost.orika.metadata.MapperKey;
 import ma.glasnost.orika.metadata.NestedProperty;
 import ma.glasnost.orika.metadata.Property;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.metadata.TypeFactory;
+import ma.glasnost.orika.metrics.InstrumentedConverter;
+import ma.glasnost.orika.metrics.MapperMetrics;
 import ma.glasnost.orika.property.PropertyResolverStrategy;
 
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -76,10 +90,19 @@ public class SourceCodeContext {
     private final List<String> fields;
     private final Class<?> superClass;
     
+    /*
+     * The final fields through which the generated code references the used
+     * types, converters, mapper facades, filters and direct mapper calls, and
+     * their assignment within the generated constructor
+     */
+    private final Set<String> dependencyFields = new HashSet<>();
+    private final StringBuilder dependencyAssignments = new StringBuilder();
+    
     private final UsedTypesContext usedTypes;
     private final UsedConvertersContext usedConverters;
     private final UsedFiltersContext usedFilters;
     private final UsedMapperFacadesContext usedMapperFacades;
+    private final List<DirectMapperCall> usedDirectMapperCalls;
     private final MapperFactory mapperFactory;
     private final CodeGenerationStrategy codeGenerationStrategy;
     private final StringBuilder logDetails;
@@ -88,6 +111,28 @@ public class SourceCodeContext {
     private final MappingContext mappingContext;
     private final Collection<Filter<Object, Object>> filters;
     private final boolean shouldCaptureFieldContext;
+    private final boolean useDirectMapperCalls;
+    
+    /*
+     * The state of fused mapping generation, which is only enabled (by the
+     * MapperGenerator) for the generation of mappers
+     */
+    private MapperGenerator fusingGenerator;
+    private int maxFusedDepth;
+    private int fusedBudget;
+    private int fusedDepth;
+    private int fusedMethodCount;
+    private final Set<ClassMap<?, ?>> fusedClassMaps = new HashSet<>();
+    
+    /*
+     * The class-map whose field mappings are currently being generated, and
+     * the fields holding the enum tables used by the generated code, by the
+     * expression which initializes them
+     */
+    private ClassMap<?, ?> classMap;
+    private final Map<String, String> enumTables = new HashMap<>();
+    
+    private final Set<Class<?>> mappedClasses = new LinkedHashSet<>();
     
     /**
      * Constructs a new instance of SourceCodeContext
@@ -106,6 +151,7 @@ public class SourceCodeContext {
         this.propertyResolver = (PropertyResolverStrategy) mappingContext.getProperty(Properties.PROPERTY_RESOLVER_STRATEGY);
         this.filters = (Collection<Filter<Object, Object>>) mappingContext.getProperty(Properties.FILTERS);
         this.shouldCaptureFieldContext = (Boolean) mappingContext.getProperty(Properties.CAPTURE_FIELD_CONTEXT);
+        this.useDirectMapperCalls = Boolean.TRUE.equals(mappingContext.getProperty(Properties.DIRECT_MAPPER_CALLS));
         
         String safeBaseClassName = baseClassName.replace("[]", "$Array");
         this.sourceBuilder = new StringBuilder();
@@ -134,6 +180,7 @@ public class SourceCodeContext {
         
         this.mappingContext = mappingContext;
         this.usedMapperFacades = new UsedMapperFacadesContext();
+        this.usedDirectMapperCalls = new ArrayList<>();
         this.logDetails = logDetails;
         
         this.aggregateFieldMaps = new LinkedHashMap<>();
@@ -197,6 +244,36 @@ public class SourceCodeContext {
     List<String> getMethods() {
         return methods;
     }
+    
+    /**
+     * @return the classes whose properties are mapped by the generated code;
+     *         the generated class must be regenerated when they change
+     */
+    public Set<Class<?>> getMappedClasses() {
+        return mappedClasses;
+    }
+    
+    /**
+     * @return the class-map whose field mappings are currently being
+     *         generated, or null if there is none
+     */
+    public ClassMap<?, ?> getClassMap() {
+        return classMap;
+    }
+    
+    void setClassMap(ClassMap<?, ?> classMap) {
+        this.classMap = classMap;
+    }
+    
+    void addMappedClass(Type<?> type) {
+        Class<?> mappedClass = type.getRawType();
+        while (mappedClass.isArray()) {
+            mappedClass = mappedClass.getComponentType();
+        }
+        if (!mappedClass.isPrimitive()) {
+            mappedClasses.add(mappedClass);
+        }
+    }
 
     public boolean shouldMapNulls() {
         return (Boolean) mappingContext.getProperty(Properties.SHOULD_MAP_NULLS);
@@ -235,7 +312,75 @@ public class SourceCodeContext {
      * @return the completed generated java source for the class.
      */
     public String toSourceFile() {
-        return sourceBuilder.toString() + "\n}";
+        return sourceBuilder.toString() + "\n" + getConstructor(classSimpleName) + "\n}";
+    }
+    
+    /**
+     * Generates the source of the constructor of the generated class, which
+     * receives the used types, converters, mapper facades, filters and direct
+     * mapper calls (see {@link #getInstance(Class)}), and assigns each of
+     * them which is referenced by the generated code to a final field of its
+     * own, of the exact type, so that each use is a single field load rather
+     * than an array load, bounds check and cast.
+     * 
+     * @param simpleName
+     *            the simple name of the class being compiled
+     * @return the source of the constructor
+     */
+    String getConstructor(String simpleName) {
+        StringBuilder out = new StringBuilder();
+        out.append("public ").append(simpleName).append("(")
+                .append(Type.class.getCanonicalName()).append("[] usedTypes, ")
+                .append(Converter.class.getCanonicalName()).append("[] usedConverters, ")
+                .append(BoundMapperFacade.class.getCanonicalName()).append("[] usedMapperFacades, ")
+                .append(Filter.class.getCanonicalName()).append("[] usedFilters, ")
+                .append(DirectMapperCall.class.getCanonicalName()).append("[] usedDirectMapperCalls) {\n");
+        out.append("super();\n");
+        out.append(dependencyAssignments);
+        out.append("}\n");
+        return out.toString();
+    }
+    
+    /**
+     * Declares the final field through which the generated code references
+     * the element of one of the arrays of used dependencies, the first time
+     * it is referenced.
+     * 
+     * @param array
+     *            the name of the array (and of the constructor parameter)
+     * @param type
+     *            the component type of the array
+     * @param index
+     *            the index of the element
+     * @return the name of the field: the singular of the name of the array,
+     *         followed by the index
+     */
+    private String dependencyField(String array, Class<?> type, int index) {
+        String field = array.substring(0, array.length() - 1) + index;
+        if (dependencyFields.add(field)) {
+            addField("private final " + type.getCanonicalName() + " " + field + ";");
+            dependencyAssignments.append("this.").append(field).append(" = ").append(array).append("[").append(index).append("];\n");
+        }
+        return field;
+    }
+    
+    /**
+     * @return a fingerprint of the generated source, which does not depend on
+     *         the (unique) name of the generated class; classes generated
+     *         with the same fingerprint are interchangeable
+     */
+    public String getFingerprint() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(toSourceFile().replace(classSimpleName, "$").getBytes(StandardCharsets.UTF_8));
+            StringBuilder fingerprint = new StringBuilder();
+            for (int i = 0; i < 16; ++i) {
+                fingerprint.append(Character.forDigit((hash[i] >> 4) & 0xf, 16)).append(Character.forDigit(hash[i] & 0xf, 16));
+            }
+            return fingerprint.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
     
     /**
@@ -260,16 +405,39 @@ public class SourceCodeContext {
      * @throws InstantiationException
      * @throws IllegalAccessException
      */
-    @SuppressWarnings("unchecked")
     public <T extends GeneratedObjectBase> T getInstance() throws SourceCodeGenerationException, InstantiationException,
             IllegalAccessException {
-        
-        T instance = (T) compileClass().newInstance();
+        return getInstance(compileClass());
+    }
+    
+    /**
+     * @param compiledClass
+     *            the class compiled from this source, when it has already
+     *            been compiled (together with others) by the compiler strategy
+     * @return a new instance of the (generated) compiled class
+     * @throws InstantiationException
+     * @throws IllegalAccessException
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends GeneratedObjectBase> T getInstance(Class<?> compiledClass) throws InstantiationException, IllegalAccessException {
         
         Type<Object>[] usedTypesArray = usedTypes.toArray();
         Converter[] usedConvertersArray = usedConverters.toArray();
+        MapperMetrics mapperMetrics = mapperFactory.getMapperMetrics();
+        if (mapperMetrics != null) {
+            /*
+             * Wrapped only now that the code has been generated, since code
+             * generation may depend on the actual type of the converter
+             */
+            for (int i = 0; i < usedConvertersArray.length; ++i) {
+                Converter converter = usedConvertersArray[i];
+                usedConvertersArray[i] = new InstrumentedConverter(converter,
+                        mapperMetrics.getRecorder(new MapperKey(converter.getAType(), converter.getBType())));
+            }
+        }
         BoundMapperFacade<Object, Object>[] usedMapperFacadesArray = usedMapperFacades.toArray();
         Filter<Object, Object>[] usedFiltersArray = usedFilters.toArray();
+        DirectMapperCall[] usedDirectMapperCallsArray = usedDirectMapperCalls.toArray(new DirectMapperCall[0]);
         if (logDetails != null) {
             if (usedTypesArray.length > 0) {
                 logDetails.append("\n\t").append(Type.class.getSimpleName()).append("s used: ").append(Arrays.toString(usedTypesArray));
@@ -283,34 +451,96 @@ public class SourceCodeContext {
             if (usedFiltersArray.length > 0) {
                 logDetails.append("\n\t").append(Filter.class.getSimpleName()).append("s used: ").append(Arrays.toString(usedFiltersArray));
             }
+            if (usedDirectMapperCallsArray.length > 0) {
+                logDetails.append("\n\t").append(DirectMapperCall.class.getSimpleName()).append("s used: ").append(Arrays.toString(usedDirectMapperCallsArray));
+            }
+        }
+        T instance;
+        try {
+            instance = (T) compiledClass.getConstructor(Type[].class, Converter[].class, BoundMapperFacade[].class, Filter[].class,
+                    DirectMapperCall[].class).newInstance(usedTypesArray, usedConvertersArray, usedMapperFacadesArray, usedFiltersArray,
+                    usedDirectMapperCallsArray);
+        } catch (NoSuchMethodException e) {
+            /*
+             * A class compiled by an earlier version (precompiled, or cached),
+             * which references the dependencies through the arrays
+             */
+            instance = (T) compiledClass.newInstance();
+        } catch (InvocationTargetException e) {
+            throw new MappingException("Could not instantiate " + compiledClass.getName(), e.getCause());
         }
         instance.setUsedTypes(usedTypesArray);
         instance.setUsedConverters(usedConvertersArray);
         instance.setUsedMapperFacades(usedMapperFacadesArray);
         instance.setUsedFilters(usedFiltersArray);
+        instance.setUsedDirectMapperCalls(usedDirectMapperCallsArray);
         
         return instance;
     }
     
     public String usedFilter(Filter<?, ?> filter) {
-        int index = usedFilters.getIndex(filter);
-        return "((" + Filter.class.getCanonicalName() + ")usedFilters[" + index + "])";
+        return dependencyField("usedFilters", Filter.class, usedFilters.getIndex(filter));
     }
     
     public String usedConverter(Converter<?, ?> converter) {
-        int index = usedConverters.getIndex(converter);
-        return "((" + Converter.class.getCanonicalName() + ")usedConverters[" + index + "])";
+        return dependencyField("usedConverters", Converter.class, usedConverters.getIndex(converter));
     }
     
     public String usedType(Type<?> type) {
-        int index = usedTypes.getIndex(type);
-        return "((" + Type.class.getCanonicalName() + ")usedTypes[" + index + "])";
+        return dependencyField("usedTypes", Type.class, usedTypes.getIndex(type));
+    }
+    
+    /**
+     * @param sourceType
+     *            the enum type mapped from
+     * @param destinationType
+     *            the enum type mapped to
+     * @return the names of the enum constants which are mapped to a
+     *         differently named constant by the current class-map, as pairs of
+     *         source and destination constant names
+     */
+    public String[] enumNameOverrides(Type<?> sourceType, Type<?> destinationType) {
+        return classMap == null ? new String[0] : classMap.getEnumNameOverrides(sourceType.getRawType(), destinationType.getRawType());
+    }
+    
+    /**
+     * Declares the field holding the {@link EnumTable} which maps the
+     * constants of the source enum type to those of the destination enum
+     * type (applying the overrides of the current class-map); the table is
+     * built once, when the generated class is instantiated.
+     * 
+     * @param sourceType
+     *            the enum type mapped from
+     * @param destinationType
+     *            the enum type mapped to
+     * @return the name of the field
+     */
+    public String usedEnumTable(Type<?> sourceType, Type<?> destinationType) {
+        StringBuilder table = new StringBuilder();
+        table.append(EnumTable.class.getCanonicalName()).append(".of(").append(sourceType.getCanonicalName()).append(".class, ")
+                .append(destinationType.getCanonicalName()).append(".class");
+        String[] overrides = enumNameOverrides(sourceType, destinationType);
+        if (overrides.length > 0) {
+            table.append(", new java.lang.String[] {");
+            for (int i = 0; i < overrides.length; ++i) {
+                table.append(i > 0 ? ", \"" : "\"").append(overrides[i]).append("\"");
+            }
+            table.append("}");
+        }
+        table.append(")");
+        String field = enumTables.get(table.toString());
+        if (field == null) {
+            field = "enumTable" + enumTables.size();
+            enumTables.put(table.toString(), field);
+            addField("private final " + EnumTable.class.getCanonicalName() + " " + field + " = " + table + ";");
+        }
+        return field;
     }
     
     private String usedMapperFacadeCall(Type<?> sourceType, Type<?> destinationType) {
         UsedMapperFacadesIndex usedFacade = usedMapperFacades.getIndex(sourceType, destinationType, mapperFactory);
         String mapInDirection = usedFacade.isReversed ? "mapReverse" : "map";
-        return "((" + BoundMapperFacade.class.getCanonicalName() + ")usedMapperFacades[" + usedFacade.index + "])." + mapInDirection + "";
+        return dependencyField("usedMapperFacades", BoundMapperFacade.class, usedFacade.index) + "." + mapInDirection;
     }
     
     /**
@@ -344,14 +574,181 @@ public class SourceCodeContext {
     }
     
     /**
+     * Enables the generation of fused mapping methods: the field mappings of
+     * the class-maps of nested properties which can be mapped directly (see
+     * {@link #callMapper(VariableRef, Type)}) are generated as methods of the
+     * class being generated, up to the specified depth of nested class-maps,
+     * and the specified total number of fused field mappings.
+     * 
+     * @param generator
+     *            the MapperGenerator used to generate the field mappings
+     * @param rootClassMap
+     *            the class-map of the mapper being generated
+     * @param maxDepth
+     *            the maximum depth of fused class-maps
+     * @param budget
+     *            the maximum number of fused field mappings
+     */
+    void fuseNestedMappers(MapperGenerator generator, ClassMap<?, ?> rootClassMap, int maxDepth, int budget) {
+        this.fusingGenerator = generator;
+        this.maxFusedDepth = maxDepth;
+        this.fusedBudget = budget;
+        this.fusedClassMaps.add(rootClassMap);
+    }
+    
+    /**
+     * Generates a call which maps the source to a new instance of the
+     * destination type; when direct mapper calls are enabled, nested
+     * properties of a concrete type are mapped by a generated method which
+     * calls the child Mapper and ObjectFactory directly (or, when fused
+     * mapping is enabled, maps the fields of the child class-map itself).
+     * 
      * @param source
      * @param destination
      * @return
      */
     public String callMapper(VariableRef source, Type<?> destination) {
+        if (useDirectMapperCalls && DirectMapperCall.appliesTo(source.type(), destination, mapperFactory)) {
+            return directMapperCall(source.type(), destination) + "(" + source + ", mappingContext)";
+        }
         return callMapper(source.type(), destination, "" + source);
     }
     
+    /**
+     * Returns the name of a method, generated on first use, which maps a
+     * source object to a new instance of the destination type by calling the
+     * child Mapper and ObjectFactory directly, when the source object is of
+     * exactly the source class; other objects are mapped through the
+     * BoundMapperFacade for the types.
+     * 
+     * @param sourceType
+     * @param destinationType
+     * @return the name of the generated method
+     * @see DirectMapperCall
+     */
+    @SuppressWarnings("unchecked")
+    private String directMapperCall(Type<?> sourceType, Type<?> destinationType) {
+        for (int i = 0, len = usedDirectMapperCalls.size(); i < len; ++i) {
+            DirectMapperCall call = usedDirectMapperCalls.get(i);
+            if (call.getSourceType().equals(sourceType) && call.getDestinationType().equals(destinationType)) {
+                return "directMap" + i;
+            }
+        }
+        int index = usedDirectMapperCalls.size();
+        ClassMap<?, ?> fusedClassMap = fusableClassMap(sourceType, destinationType);
+        usedDirectMapperCalls.add(new DirectMapperCall((Type<Object>) sourceType, (Type<Object>) destinationType, mapperFactory,
+                fusedClassMap != null));
+        String fusedMethod = fusedClassMap != null ? addFusedMapMethod(fusedClassMap, sourceType, destinationType) : null;
+        
+        String mapperType = Mapper.class.getCanonicalName();
+        String objectFactoryType = ObjectFactory.class.getCanonicalName();
+        StringBuilder out = new StringBuilder();
+        out.append("\nprivate Object directMap").append(index).append("(Object source, ")
+                .append(MappingContext.class.getCanonicalName()).append(" mappingContext) {\n");
+        out.append(DirectMapperCall.class.getCanonicalName()).append(" call = ")
+                .append(dependencyField("usedDirectMapperCalls", DirectMapperCall.class, index)).append(";\n");
+        out.append("if (source == null || !call.accepts(source, mappingContext)) {\n");
+        out.append("\treturn ").append(callMapper(sourceType, destinationType, "source")).append(";\n");
+        out.append("}\n");
+        out.append("Object destination = call.getMappedObject(source, mappingContext);\n");
+        out.append("if (destination == null) {\n");
+        out.append("\tcall.setResolvedTypes(mappingContext);\n");
+        out.append("\t").append(objectFactoryType).append(" objectFactory = call.getObjectFactory();\n");
+        out.append("\tdestination = objectFactory.create(source, mappingContext);\n");
+        out.append("\tcall.beginMapping(source, destination, mappingContext);\n");
+        out.append("\ttry {\n");
+        if (fusedMethod != null) {
+            out.append("\t\tif (call.isFused()) {\n");
+            out.append("\t\t\t").append(fusedMethod).append("(source, destination, mappingContext);\n");
+            out.append("\t\t} else {\n");
+        } else {
+            out.append("\t\t{\n");
+        }
+        out.append("\t\t\t").append(mapperType).append(" mapper = call.getMapper();\n");
+        out.append("\t\t\tif (call.isAtoB()) {\n");
+        out.append("\t\t\t\tmapper.mapAtoB(source, destination, mappingContext);\n");
+        out.append("\t\t\t} else {\n");
+        out.append("\t\t\t\tmapper.mapBtoA(source, destination, mappingContext);\n");
+        out.append("\t\t\t}\n");
+        out.append("\t\t}\n");
+        out.append("\t} finally {\n");
+        out.append("\t\tcall.endMapping(mappingContext);\n");
+        out.append("\t}\n");
+        out.append("}\n");
+        out.append("return destination;\n");
+        out.append("}\n");
+        addMethod(out.toString());
+        
+        return "directMap" + index;
+    }
+    
+    /**
+     * @return the class-map whose field mappings may be fused into the class
+     *         being generated, to map between the specified types, or
+     *         <code>null</code> if there is none
+     */
+    private ClassMap<?, ?> fusableClassMap(Type<?> sourceType, Type<?> destinationType) {
+        if (fusingGenerator == null || fusedDepth >= maxFusedDepth) {
+            return null;
+        }
+        ClassMap<?, ?> classMap = mapperFactory.getClassMap(new MapperKey(sourceType, destinationType));
+        if (classMap == null || classMap.getCustomizedMapper() != null || !classMap.getUsedMappers().isEmpty()
+                || fusedClassMaps.contains(classMap) || classMap.getFieldsMapping().size() > fusedBudget) {
+            return null;
+        }
+        if ((classMap.getAType().equals(sourceType) && classMap.getBType().equals(destinationType))
+                || (classMap.getAType().equals(destinationType) && classMap.getBType().equals(sourceType))) {
+            return classMap;
+        }
+        return null;
+    }
+    
+    /**
+     * Adds a method which maps the fields of the specified class-map, in the
+     * direction from sourceType to destinationType.
+     * 
+     * @return the name of the generated method
+     */
+    private String addFusedMapMethod(ClassMap<?, ?> classMap, Type<?> sourceType, Type<?> destinationType) {
+        String methodName = "fusedMap" + fusedMethodCount++;
+        boolean aToB = classMap.getAType().equals(sourceType) && classMap.getBType().equals(destinationType);
+        
+        fusedBudget -= classMap.getFieldsMapping().size();
+        fusedClassMaps.add(classMap);
+        addMappedClass(classMap.getAType());
+        addMappedClass(classMap.getBType());
+        ++fusedDepth;
+        /*
+         * Field maps accumulated by aggregate specifications for the enclosing
+         * method must not be generated within the fused method
+         */
+        Map<AggregateSpecification, List<FieldMap>> enclosingAggregateFieldMaps = new LinkedHashMap<>(aggregateFieldMaps);
+        aggregateFieldMaps.clear();
+        ClassMap<?, ?> enclosingClassMap = this.classMap;
+        this.classMap = classMap;
+        try {
+            VariableRef source = new VariableRef(sourceType, "source");
+            VariableRef destination = new VariableRef(destinationType, "destination");
+            
+            StringBuilder out = new StringBuilder();
+            out.append("\nprivate void ").append(methodName).append("(java.lang.Object a, java.lang.Object b, ")
+                    .append(MappingContext.class.getCanonicalName()).append(" mappingContext) {\n");
+            append(out, "// sourceType: " + source.type() + source.declare("a"), "// destinationType: " + destination.type()
+                    + destination.declare("b"), "\n\n");
+            out.append(fusingGenerator.generateFieldsMapCode(this, aToB, classMap, source, destination, new LinkedHashSet<FieldMap>(),
+                    logDetails));
+            out.append("\n}\n");
+            addMethod(out.toString());
+        } finally {
+            --fusedDepth;
+            fusedClassMaps.remove(classMap);
+            this.classMap = enclosingClassMap;
+            aggregateFieldMaps.clear();
+            aggregateFieldMaps.putAll(enclosingAggregateFieldMaps);
+        }
+        return methodName;
+    }
+    
     public String usedMapperFacadeNewObjectCall(VariableRef source, VariableRef destination) {
         return newObjectFromMapper(source.type(), destination.type());
     }
@@ -359,8 +756,7 @@ public class SourceCodeContext {
     public String newObjectFromMapper(Type<?> sourceType, Type<?> destinationType) {
         UsedMapperFacadesIndex usedFacade = usedMapperFacades.getIndex(sourceType, destinationType, mapperFactory);
         String instantiateMethod = usedFacade.isReversed ? "newObjectReverse" : "newObject";
-        return "((" + BoundMapperFacade.class.getCanonicalName() + ")usedMapperFacades[" + usedFacade.index + "])." + instantiateMethod
-                + "";
+        return dependencyField("usedMapperFacades", BoundMapperFacade.class, usedFacade.index) + "." + instantiateMethod;
     }
     
     /**
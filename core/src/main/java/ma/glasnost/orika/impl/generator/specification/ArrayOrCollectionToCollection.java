@@ -74,21 +74,14 @@ public class ArrayOrCollectionToCollection extends AbstractSpecification {
                 code.debugField(fieldMap, "mapping " + s.elementTypeName() + "[] to Collection<" + d.elementTypeName() + ">");
             }
             
-            if (s.elementType().isPrimitive()) {
-                out.append("\n");
-                out.append(statement("%s.addAll(asList(%s));", newDest, s));
-            } else {
-                out.append("\n");
-                out.append(statement("%s.addAll(mapperFacade.mapAsList(asList(%s), %s.class, mappingContext));", newDest, s, d.elementTypeName()));
-            }
+            out.append("\n");
+            out.append(mapElements(s, d, newDest, code));
         } else {
             if (code.isDebugEnabled()) {
                 code.debugField(fieldMap, "mapping Collection<" + s.elementTypeName() + "> to Collection<" + d.elementTypeName() + ">");
             }
-            append(out,
-                    "\n",
-                    format("%s.addAll(mapperFacade.mapAs%s(%s, %s, %s, mappingContext))", newDest, d.collectionType(), s,
-                            code.usedType(s.elementType()), code.usedType(d.elementType())));
+            out.append("\n");
+            out.append(mapElements(s, d, newDest, code));
         }
         if (fieldMap.getInverse() != null) {
             final MultiOccurrenceVariableRef inverse = new MultiOccurrenceVariableRef(fieldMap.getInverse(), "orikaCollectionItem");
@@ -125,4 +118,44 @@ public class ArrayOrCollectionToCollection extends AbstractSpecification {
         return out.toString();
     }
     
+    /**
+     * Generates a loop which maps each (non-null) element of the source
+     * straight into the new destination collection, through the mapper
+     * bound to the element types; this avoids building an intermediate
+     * list of the mapped elements, which is then copied into the destination.
+     * The elements of a primitive array are simply boxed.
+     * 
+     * @param s
+     *            the source array or collection
+     * @param d
+     *            the destination collection
+     * @param newDest
+     *            the new destination collection being filled
+     * @param code
+     *            the current source code context
+     * @return the code which maps the elements
+     */
+    private String mapElements(MultiOccurrenceVariableRef s, MultiOccurrenceVariableRef d, MultiOccurrenceVariableRef newDest,
+            SourceCodeContext code) {
+        
+        MultiOccurrenceVariableRef items = new MultiOccurrenceVariableRef(s.type(), "source_" + d.validVariableName());
+        VariableRef item = new VariableRef(s.elementType(), "sourceItem_" + d.validVariableName());
+        
+        StringBuilder out = new StringBuilder();
+        out.append(statement(items.declare(s)));
+        out.append(statement("for (%s; %s;) {", items.declareIterator(), items.iteratorHasNext()));
+        if (s.elementType().isPrimitive()) {
+            append(out,
+                    format("%s.add(%s.valueOf(%s))", newDest, s.elementType().getWrapperType().getCanonicalName(), items.nextElement()),
+                    "}");
+        } else {
+            append(out,
+                    item.declare(items.nextElement()),
+                    format("if (%s != null) {", item),
+                    format("%s.add((%s) %s)", newDest, d.elementTypeName(), code.callMapper(item, d.elementType())),
+                    "}",
+                    "}");
+        }
+        return out.toString();
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator.specification;
+
+import static java.lang.String.format;
+import static ma.glasnost.orika.impl.generator.SourceCodeContext.append;
+import static ma.glasnost.orika.impl.generator.SourceCodeContext.statement;
+
+import java.util.Arrays;
+import java.util.List;
+
+import ma.glasnost.orika.impl.generator.MultiOccurrenceVariableRef;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+import ma.glasnost.orika.impl.generator.VariableRef;
+import ma.glasnost.orika.metadata.FieldMap;
+import ma.glasnost.orika.metadata.Property;
+import ma.glasnost.orika.metadata.Type;
+
+/**
+ * ArrayOrCollectionToPrimitiveArray handles mapping of a primitive array, or
+ * an array or collection of the corresponding primitive wrapper, to a
+ * primitive array, without boxing the elements or resolving a mapping
+ * strategy for each of them:
+ * <ul>
+ * <li>an array of the same primitive type is copied with Arrays.copyOf
+ * <li>an array of a primitive type which can be widened to the destination
+ * type is copied by a loop which widens each element
+ * <li>an array or collection of the primitive wrapper type is copied by a
+ * loop which unboxes each element
+ * </ul>
+ * Any other array or collection is mapped by {@link ArrayOrCollectionToArray}.
+ */
+public class ArrayOrCollectionToPrimitiveArray extends AbstractSpecification {
+    
+    /**
+     * The numeric primitive types, in the order in which they may be widened
+     */
+    private static final List<Class<?>> NUMERIC_TYPES = Arrays.<Class<?>> asList(byte.class, short.class, int.class, long.class,
+            float.class, double.class);
+    
+    public boolean appliesTo(FieldMap fieldMap) {
+        if (!fieldMap.getDestination().isArray() || !(fieldMap.getSource().isArray() || fieldMap.getSource().isCollection())) {
+            return false;
+        }
+        Type<?> destinationElementType = fieldMap.getDestination().getType().getComponentType();
+        Type<?> sourceElementType = elementTypeOf(fieldMap.getSource());
+        if (destinationElementType == null || sourceElementType == null || !destinationElementType.isPrimitive()) {
+            return false;
+        } else if (sourceElementType.isPrimitive()) {
+            return fieldMap.getSource().isArray()
+                    && isWidening(sourceElementType.getRawType(), destinationElementType.getRawType());
+        } else {
+            return sourceElementType.equals(destinationElementType.getWrapperType());
+        }
+    }
+    
+    /**
+     * @param property
+     *            an array or collection property
+     * @return the element type of the property
+     */
+    private static Type<?> elementTypeOf(Property property) {
+        return property.isArray() ? property.getType().getComponentType() : property.getElementType();
+    }
+    
+    /**
+     * @param sourceType
+     *            the source primitive type
+     * @param destinationType
+     *            the destination primitive type
+     * @return true if the source type is the same as, or can be widened to,
+     *         the destination type
+     */
+    private static boolean isWidening(Class<?> sourceType, Class<?> destinationType) {
+        if (sourceType == destinationType) {
+            return true;
+        } else if (sourceType == char.class) {
+            return NUMERIC_TYPES.indexOf(destinationType) >= NUMERIC_TYPES.indexOf(int.class);
+        } else {
+            int sourceIndex = NUMERIC_TYPES.indexOf(sourceType);
+            return sourceIndex >= 0 && NUMERIC_TYPES.indexOf(destinationType) > sourceIndex;
+        }
+    }
+    
+    public String generateMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, SourceCodeContext code) {
+        
+        MultiOccurrenceVariableRef s = MultiOccurrenceVariableRef.from(source);
+        MultiOccurrenceVariableRef d = MultiOccurrenceVariableRef.from(destination);
+        
+        VariableRef arrayVar = new VariableRef(d.type(), d.validVariableName() + "Array__");
+        
+        StringBuilder out = new StringBuilder();
+        out.append(s.ifNotNull()).append(" {");
+        
+        if (s.elementType().equals(d.elementType())) {
+            if (code.isDebugEnabled()) {
+                code.debugField(fieldMap, "copying " + s.elementTypeName() + "[]");
+            }
+            out.append(statement(arrayVar.declare("java.util.Arrays.copyOf(%s, %s.length)", s, s)));
+        } else {
+            if (code.isDebugEnabled()) {
+                code.debugField(fieldMap, "copying elements of " + s.typeName() + " to " + d.elementTypeName() + "[]");
+            }
+            MultiOccurrenceVariableRef items = new MultiOccurrenceVariableRef(s.type(), "source_" + d.validVariableName());
+            String index = d.validVariableName() + "Index__";
+            String declareSource = items.declare(s);
+            String loop = format("for (%s; %s;) {", items.declareIterator(), items.iteratorHasNext());
+            String element = s.elementType().isPrimitive() ? format("(%s) %s", d.elementTypeName(), items.nextElement())
+                    : format("((%s) %s).%sValue()", s.elementTypeName(), items.nextElement(), d.elementTypeName());
+            append(out,
+                    declareSource,
+                    arrayVar.declare(format("new %s[%s]", d.elementTypeName(), items.size())),
+                    format("int %s = 0", index),
+                    loop,
+                    format("%s[%s++] = %s", arrayVar, index, element),
+                    "}");
+        }
+        out.append(statement(d.assign(arrayVar)));
+        out.append("\n}");
+        if (shouldMapNulls(fieldMap, code)) {
+            append(out,
+                    " else {",
+                    d.assignIfPossible("null"),
+                    "\n}");
+        }
+        return out.toString();
+    }
+}
@@ -18,10 +18,14 @@
 
 package ma.glasnost.orika.impl.generator.specification;
 
+import ma.glasnost.orika.converter.IntrinsicConverter;
+import ma.glasnost.orika.converter.PrimitiveConverter;
 import ma.glasnost.orika.converter.builtin.CopyByReferenceConverter;
+import ma.glasnost.orika.converter.builtin.EnumConverter;
 import ma.glasnost.orika.impl.generator.SourceCodeContext;
 import ma.glasnost.orika.impl.generator.VariableRef;
 import ma.glasnost.orika.metadata.FieldMap;
+import ma.glasnost.orika.metadata.Type;
 
 import static java.lang.String.format;
 import static ma.glasnost.orika.impl.generator.SourceCodeContext.statement;
@@ -30,7 +34,8 @@ import static ma.glasnost.orika.impl.generator.SourceCodeContext.statement;
  * Convert applies the conversion operation between two properties. There is a
  * special shortcut case applied when the converter is a
  * CopyByReferenceConverter -- we applied the code to assign the reference
- * directly rather than making an extra method call.
+ * directly rather than making an extra method call; likewise, enums
+ * converted by the EnumConverter are mapped through a lookup table.
  * 
  * @author elaatifi@gmail.com
  * @author matt.deboer@gmail.com
@@ -85,12 +90,34 @@ public class Convert extends AbstractSpecification {
 
         String statement;
         boolean canHandleNulls;
+        String intrinsic;
         if (source.getConverter() instanceof CopyByReferenceConverter) {
             if (code.isDebugEnabled()) {
                 code.debugField(fieldMap, "copying " + source.type() + " by reference");
             }
             statement = destination.assignIfPossible(source);
             canHandleNulls = true;
+        } else if (isMappedByEnumTable(source, destination, code)) {
+            if (code.isDebugEnabled()) {
+                code.debugField(fieldMap, "converting enum " + source.typeName() + " to enum " + destination.typeName()
+                        + " through lookup table");
+            }
+            statement = destination.assignIfPossible(new VariableRef(destination.type(), EnumToEnum.generateLookupCode(source,
+                    destination, code)));
+            canHandleNulls = false;
+        } else if ((intrinsic = generateIntrinsicConversionCode(source, destination)) != null) {
+            if (code.isDebugEnabled()) {
+                code.debugField(fieldMap, "converting inline using " + source.getConverter());
+            }
+            statement = destination.assignIfPossible(new VariableRef(destination.type(), intrinsic));
+            canHandleNulls = false;
+        } else if (source.getConverter() instanceof PrimitiveConverter && mapperFactory.getMapperMetrics() == null) {
+            if (code.isDebugEnabled()) {
+                code.debugField(fieldMap, "converting without boxing using " + source.getConverter());
+            }
+            statement = destination.assignIfPossible(new VariableRef(destination.type(), generatePrimitiveConversionCode(source,
+                    destination, code)));
+            canHandleNulls = false;
         } else {
             if (code.isDebugEnabled()) {
                 code.debugField(fieldMap, "converting using " + source.getConverter());
@@ -111,4 +138,67 @@ public class Convert extends AbstractSpecification {
             return statement(source.ifNotNull() + "{ \n" + statement) + "\n}" + elseSetNull;
         }
     }
+    
+    /**
+     * Enums converted by the built-in EnumConverter (but not by a subclass,
+     * which may override its conversion) are mapped through an enum table
+     * of the generated class instead; while mapper metrics are
+     * collected, this is only the case if the current class-map overrides
+     * the mapping of some of the constants, since the EnumConverter cannot
+     * apply those.
+     * 
+     * @param source
+     * @param destination
+     * @param code
+     * @return true if the source should be mapped through an enum table
+     */
+    private boolean isMappedByEnumTable(VariableRef source, VariableRef destination, SourceCodeContext code) {
+        return source.getConverter() != null && source.getConverter().getClass() == EnumConverter.class
+                && (mapperFactory.getMapperMetrics() == null || code.enumNameOverrides(source.type(), destination.type()).length > 0);
+    }
+    
+    /**
+     * Generates the expression of the conversion of the source, if the
+     * converter is an {@link IntrinsicConverter} which may be inlined (see
+     * {@link IntrinsicConverter#isInlined(Object)}); conversions are not inlined
+     * while mapper metrics are collected, since they would not be counted.
+     * 
+     * @param source
+     * @param destination
+     * @return the expression which converts the source, or null if the
+     *         converter should be called
+     */
+    private String generateIntrinsicConversionCode(VariableRef source, VariableRef destination) {
+        if (IntrinsicConverter.isInlined(source.getConverter()) && mapperFactory.getMapperMetrics() == null) {
+            return ((IntrinsicConverter) source.getConverter()).generateConversionCode(source.type(), destination.type(), "" + source);
+        }
+        return null;
+    }
+    
+    /**
+     * Generates the call of the primitive-specialised functional interface
+     * implemented by a {@link PrimitiveConverter}, unboxing a primitive
+     * wrapper source, and boxing the result for a primitive wrapper
+     * destination.
+     * 
+     * @param source
+     * @param destination
+     * @param code
+     * @return the expression which converts the source
+     */
+    private String generatePrimitiveConversionCode(VariableRef source, VariableRef destination, SourceCodeContext code) {
+        PrimitiveConverter converter = (PrimitiveConverter) source.getConverter();
+        Type<?> argumentType = converter.getAType();
+        String argument = "" + source;
+        if (argumentType.isPrimitive() && !source.isPrimitive()) {
+            argument = format("%s.%sValue()", argument, argumentType.getName());
+        }
+        String call = format("((%s) %s).%s(%s)", converter.getFunctionType().getCanonicalName(), code.usedConverter(converter),
+                converter.getFunctionMethod(), argument);
+        Type<?> resultType = converter.getBType();
+        if (resultType.isPrimitive() && !destination.isPrimitive()) {
+            call = format("%s.valueOf(%s)", resultType.getWrapperType().getCanonicalName(), call);
+        }
+        return call;
+    }
 }
@@ -25,7 +25,8 @@ import ma.glasnost.orika.impl.generator.VariableRef;
 import ma.glasnost.orika.metadata.FieldMap;
 
 /**
- * EnumToEnum handles conversion of one enumeration to another
+ * EnumToEnum handles conversion of one enumeration to another, through an
+ * {@link ma.glasnost.orika.impl.util.EnumTable} held by the generated class
  */
 public class EnumToEnum extends AbstractSpecification {
     
@@ -34,7 +35,7 @@ public class EnumToEnum extends AbstractSpecification {
     }
     
     public String generateEqualityTestCode(FieldMap fieldMap, VariableRef source, VariableRef destination, SourceCodeContext code) {
-        return "(Enum.valueOf(%s.class, %s.name()) == " + destination + ")";
+        return format("(%s == %s)", generateLookupCode(source, destination, code), destination);
     }
     
     public String generateMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, SourceCodeContext code) {
@@ -43,10 +44,25 @@ public class EnumToEnum extends AbstractSpecification {
             code.debugField(fieldMap, "converting enum " + source.typeName() + " to enum " + destination.typeName());
         }
         
-        String assignEnum = destination.assign("Enum.valueOf(%s.class, %s.name())", destination.typeName(), source);
+        String assignEnum = destination.assign(generateLookupCode(source, destination, code));
         String mapNull = shouldMapNulls(fieldMap, code) ? format(" else {\n %s;\n}", destination.assignIfPossible("null")): "";
         return statement("%s { %s; } %s", source.ifNotNull(), assignEnum, mapNull);
     }
+    
+    /**
+     * Generates the lookup of the (non-null) source constant in the enum
+     * table of the generated class; the table maps the source constants by
+     * ordinal, applying the enum constants configured for the current
+     * class-map.
+     * 
+     * @param source
+     * @param destination
+     * @param code
+     * @return the expression which maps the source constant
+     */
+    static String generateLookupCode(VariableRef source, VariableRef destination, SourceCodeContext code) {
+        return format("((%s) %s.map(%s))", destination.typeName(), code.usedEnumTable(source.type(), destination.type()), source);
+    }
 }
 
 
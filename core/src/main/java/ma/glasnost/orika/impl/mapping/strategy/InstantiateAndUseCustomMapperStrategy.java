@@ -51,6 +51,13 @@ public class InstantiateAndUseCustomMapperStrategy extends UseCustomMapperStrate
         this.objectFactory = objectFactory;
     }
 
+    /**
+     * @return the custom ObjectFactory used by this strategy
+     */
+    public ObjectFactory<Object> getObjectFactory() {
+        return objectFactory;
+    }
+
     protected Object getInstance(Object sourceObject, Object destinationObject, MappingContext context) {
     	return objectFactory.create(sourceObject, context);
     }
@@ -22,6 +22,7 @@ import java.util.Map;
 
 import ma.glasnost.orika.Converter;
 import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.generator.CycleAnalysis;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.unenhance.UnenhanceStrategy;
 
@@ -34,6 +35,7 @@ public class UseConverterStrategy extends AbstractMappingStrategy {
     
     private final Converter<Object, Object> converter;
     private final UnenhanceStrategy unenhancer;
+    private final boolean isBuiltin;
     
     /**
      * Creates a new instance of UseConverterStrategy
@@ -48,9 +50,16 @@ public class UseConverterStrategy extends AbstractMappingStrategy {
         super(sourceType, destinationType);
         this.converter = converter;
         this.unenhancer = unenhancer;
+        this.isBuiltin = CycleAnalysis.isBuiltin(converter);
     }
     
     public Object map(Object sourceObject, Object destinationObject, MappingContext context) {
+        if (!isBuiltin) {
+            /*
+             * A custom converter may map the graph through the MapperFacade
+             */
+            context.cacheDeferredMappedObjects();
+        }
         context.beginMapping(sourceType, sourceObject, destinationType, destinationObject);
         try {
             return converter.convert(unenhancer.unenhanceObject(sourceObject, sourceType), destinationType, context);
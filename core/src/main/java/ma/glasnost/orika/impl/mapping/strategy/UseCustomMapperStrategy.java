@@ -22,6 +22,8 @@ import java.util.Map;
 
 import ma.glasnost.orika.Mapper;
 import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.GeneratedMapperBase;
+import ma.glasnost.orika.impl.generator.CycleAnalysis;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.unenhance.UnenhanceStrategy;
 
@@ -38,6 +40,10 @@ public abstract class UseCustomMapperStrategy extends AbstractMappingStrategy {
      * The Unenhancer to be used for this strategy
      */
     protected final UnenhanceStrategy unenhancer;
+    /**
+     * The result of the cycle analysis for the custom mapper
+     */
+    protected final CycleAnalysis.Result cycles;
     
     /**
      * Creates a new instance of UseCustomMapperStrategy
@@ -52,6 +58,7 @@ public abstract class UseCustomMapperStrategy extends AbstractMappingStrategy {
         super(sourceType, destinationType);
         this.customMapper = customMapper;
         this.unenhancer = unenhancer;
+        this.cycles = GeneratedMapperBase.getCycleAnalysis(customMapper);
     }
     
     public Object map(final Object sourceObject, final Object destinationObject, final MappingContext context) {
@@ -68,6 +75,27 @@ public abstract class UseCustomMapperStrategy extends AbstractMappingStrategy {
             return cachedObject;
         }
         
+        if (cycles == CycleAnalysis.Result.ACYCLIC) {
+            /*
+             * The source cannot be reached again through the mapped graph,
+             * so it only needs to be cached if a mapper or converter which
+             * could not be analyzed is reached while mapping it
+             */
+            Object newInstance = getInstance(resolvedSourceObject, destinationObject, context);
+            
+            context.deferMappedObject(sourceObject, destinationType, newInstance);
+            context.beginMapping(sourceType, resolvedSourceObject, destinationType, newInstance);
+            try {
+                customMapper.mapAtoB(resolvedSourceObject, newInstance, context);
+            } finally {
+                context.endMapping();
+                context.endDeferredMappedObject();
+            }
+            return newInstance;
+        } else if (cycles == CycleAnalysis.Result.UNKNOWN) {
+            context.cacheDeferredMappedObjects();
+        }
+        
         Object newInstance = getInstance(resolvedSourceObject, destinationObject, context);
         
         context.cacheMappedObject(sourceObject, destinationType, newInstance);
@@ -82,6 +110,20 @@ public abstract class UseCustomMapperStrategy extends AbstractMappingStrategy {
         return newInstance;
     }
     
+    /**
+     * @return the custom mapper resolved for this strategy
+     */
+    public Mapper<Object, Object> getCustomMapper() {
+        return customMapper;
+    }
+    
+    /**
+     * @return the result of the cycle analysis for the custom mapper
+     */
+    public CycleAnalysis.Result getCycleAnalysis() {
+        return cycles;
+    }
+    
     /**
      * Gets an instance of the destination object to be mapped; may return the
      * provided destinationObject for map-in-place scenarios
@@ -96,5 +138,6 @@ public abstract class UseCustomMapperStrategy extends AbstractMappingStrategy {
     protected void describeMembers(Map<String, Object> members) {
     	members.put("customMapper", customMapper);
     	members.put("unenhancer", unenhancer);
+    	members.put("cycles", cycles);
     }
 }
@@ -0,0 +1,169 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * ClassValueCache associates a lazily computed value with a class, using a
+ * {@link ClassValue} so that a lookup requires neither hashing nor
+ * allocation.<br>
+ * <br>
+ * Where a value is held depends upon the class-loader of its class:
+ * <ul>
+ * <li>a class loaded by the class-loader of this cache (or one of its
+ * parents) can't be unloaded before the cache itself, so its value is held
+ * strongly by the cache, and only weakly by the ClassValue; this avoids the
+ * usual pitfall of ClassValue, where a value which (indirectly) refers back
+ * to its owner would keep that owner reachable for as long as the class is
+ * loaded
+ * <li>any other class holds its own value strongly, and the cache only keeps
+ * a weak reference to the class itself; the value may refer to the class, so
+ * that the class (along with its class-loader) may be unloaded while the
+ * cache is still in use, and its value is then discarded along with it
+ * </ul>
+ * As a consequence, a discarded cache remains reachable from the classes of
+ * other class-loaders for which it computed a value, until they are unloaded
+ * or the cache is cleared.
+ * 
+ * @param <V>
+ *            the type of the cached values
+ */
+public abstract class ClassValueCache<V> {
+    
+    private final Map<Class<?>, V> localValues = new HashMap<>();
+    private final Map<Class<?>, Boolean> foreignClasses = new WeakHashMap<>();
+    private volatile ClassValue<Holder<V>> classValue = newClassValue();
+    
+    private ClassValue<Holder<V>> newClassValue() {
+        return new ClassValue<Holder<V>>() {
+            @Override
+            protected Holder<V> computeValue(Class<?> type) {
+                synchronized (localValues) {
+                    if (isLocal(type)) {
+                        V value = localValues.get(type);
+                        if (value == null) {
+                            value = ClassValueCache.this.computeValue(type);
+                            localValues.put(type, value);
+                        }
+                        return new Holder<>(null, new WeakReference<>(value));
+                    } else {
+                        foreignClasses.put(type, Boolean.TRUE);
+                        return new Holder<>(ClassValueCache.this.computeValue(type), null);
+                    }
+                }
+            }
+        };
+    }
+    
+    /**
+     * @param type
+     * @return true if the class is loaded by the class-loader of this cache,
+     *         or by one of its parents
+     */
+    private static boolean isLocal(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        if (loader == null) {
+            return true;
+        }
+        for (ClassLoader local = ClassValueCache.class.getClassLoader(); local != null; local = local.getParent()) {
+            if (local == loader) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Computes the value to be associated with the specified class.
+     * 
+     * @param type
+     * @return the computed value
+     */
+    protected abstract V computeValue(Class<?> type);
+    
+    /**
+     * @param type
+     * @return the value associated with the specified class, computing it if
+     *         necessary
+     */
+    public V get(Class<?> type) {
+        ClassValue<Holder<V>> current = classValue;
+        V value = current.get(type).get();
+        if (value == null) {
+            /*
+             * Only possible for a value discarded by clear() while it was
+             * being looked up; compute it again
+             */
+            current.remove(type);
+            value = current.get(type).get();
+        }
+        return value;
+    }
+    
+    /**
+     * Discards all of the cached values
+     */
+    public void clear() {
+        synchronized (localValues) {
+            ClassValue<Holder<V>> previous = classValue;
+            classValue = newClassValue();
+            for (Class<?> type : foreignClasses.keySet()) {
+                previous.remove(type);
+            }
+            foreignClasses.clear();
+            localValues.clear();
+        }
+    }
+    
+    /**
+     * @return an unmodifiable snapshot of the cached values, by class
+     */
+    public Map<Class<?>, V> asMap() {
+        synchronized (localValues) {
+            Map<Class<?>, V> values = new HashMap<>(localValues);
+            ClassValue<Holder<V>> current = classValue;
+            for (Class<?> type : foreignClasses.keySet()) {
+                values.put(type, current.get(type).get());
+            }
+            return Collections.unmodifiableMap(values);
+        }
+    }
+    
+    /**
+     * Holder refers to the value of a class either strongly or weakly.
+     */
+    private static final class Holder<V> {
+        private final V value;
+        private final WeakReference<V> reference;
+        
+        private Holder(V value, WeakReference<V> reference) {
+            this.value = value;
+            this.reference = reference;
+        }
+        
+        private V get() {
+            return reference != null ? reference.get() : value;
+        }
+    }
+}
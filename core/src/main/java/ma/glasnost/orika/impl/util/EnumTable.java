@@ -0,0 +1,119 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.util;
+
+import ma.glasnost.orika.MappingException;
+
+/**
+ * EnumTable maps the constants of one enum to those of another, through an
+ * array indexed by the ordinal of the source constant, so that mapping a
+ * constant is an array load, rather than a lookup of its name.<br>
+ * <br>
+ * Each source constant maps to the destination constant with the same name,
+ * unless its name is overridden; a source constant for which there is no
+ * destination constant is marked as unmappable (by a <code>null</code> entry),
+ * and mapping it results in a {@link MappingException}.
+ */
+public final class EnumTable {
+    
+    private final Class<?> sourceType;
+    private final Class<?> destinationType;
+    private final Enum<?>[] values;
+    
+    private EnumTable(Class<?> sourceType, Class<?> destinationType, Enum<?>[] values) {
+        this.sourceType = sourceType;
+        this.destinationType = destinationType;
+        this.values = values;
+    }
+    
+    /**
+     * @param sourceType
+     *            the enum type mapped from
+     * @param destinationType
+     *            the enum type mapped to
+     * @return a table which maps each source constant to the destination
+     *         constant of the same name
+     */
+    public static EnumTable of(Class<?> sourceType, Class<?> destinationType) {
+        return of(sourceType, destinationType, new String[0]);
+    }
+    
+    /**
+     * @param sourceType
+     *            the enum type mapped from
+     * @param destinationType
+     *            the enum type mapped to
+     * @param nameOverrides
+     *            pairs of names of a source constant, followed by the name of
+     *            the destination constant to which it should be mapped
+     * @return a table which maps each source constant to the destination
+     *         constant named by the overrides, or otherwise to the one of the
+     *         same name
+     */
+    public static EnumTable of(Class<?> sourceType, Class<?> destinationType, String[] nameOverrides) {
+        if (!sourceType.isEnum() || !destinationType.isEnum()) {
+            throw new IllegalArgumentException(sourceType + " and " + destinationType + " must both be enums");
+        }
+        Enum<?>[] sourceConstants = (Enum<?>[]) sourceType.getEnumConstants();
+        Enum<?>[] destinationConstants = (Enum<?>[]) destinationType.getEnumConstants();
+        Enum<?>[] values = new Enum<?>[sourceConstants.length];
+        for (Enum<?> source : sourceConstants) {
+            values[source.ordinal()] = constantNamed(destinationConstants, source.name());
+        }
+        for (int i = 0; i + 1 < nameOverrides.length; i += 2) {
+            Enum<?> source = constantNamed(sourceConstants, nameOverrides[i]);
+            Enum<?> destination = constantNamed(destinationConstants, nameOverrides[i + 1]);
+            if (source == null || destination == null) {
+                throw new MappingException("Cannot map " + sourceType.getName() + "." + nameOverrides[i] + " to "
+                        + destinationType.getName() + "." + nameOverrides[i + 1] + "; no such enum constant");
+            }
+            values[source.ordinal()] = destination;
+        }
+        return new EnumTable(sourceType, destinationType, values);
+    }
+    
+    private static Enum<?> constantNamed(Enum<?>[] constants, String name) {
+        for (Enum<?> constant : constants) {
+            if (constant.name().equals(name)) {
+                return constant;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * @param source
+     *            the (non-null) constant to map
+     * @return the destination constant to which the source constant maps
+     * @throws MappingException
+     *             if the source constant is unmappable
+     */
+    public Enum<?> map(Enum<?> source) {
+        Enum<?> value = values[source.ordinal()];
+        if (value == null) {
+            throw new MappingException("Encountered mapping of unmappable enum constant; sourceType=" + sourceType.getName()
+                    + ", constant=" + source.name() + ", destinationType=" + destinationType.getName());
+        }
+        return value;
+    }
+    
+    public String toString() {
+        return getClass().getSimpleName() + "(" + sourceType.getName() + " -> " + destinationType.getName() + ")";
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * StripedPool is a bounded, lock-free pool of reusable objects, divided into
+ * stripes which are selected by the identity of the current thread; a
+ * thread therefore usually takes back the same instance it released, and
+ * threads on different stripes never touch the same cache line.<br>
+ * <br>
+ * Each stripe holds at most a few instances; an instance released to a full
+ * stripe is simply discarded, so the pool never grows beyond
+ * <code>stripes * SLOTS_PER_STRIPE</code> instances, however many threads
+ * have used it.<br>
+ * <br>
+ * No state is held per thread (there are no ThreadLocals), and no locks are
+ * taken, so the pool is equally suited to virtual threads: a large number of
+ * short-lived virtual threads simply share the available stripes.
+ * 
+ * @param <T>
+ *            the type of the pooled objects
+ */
+public final class StripedPool<T> {
+    
+    /**
+     * The number of instances held by each stripe
+     */
+    public static final int SLOTS_PER_STRIPE = 4;
+    
+    /*
+     * The distance between the first slots of adjacent stripes; 32 references
+     * span at least 128 bytes, which keeps each stripe on its own (pair of)
+     * cache lines
+     */
+    private static final int STRIPE_WIDTH = 32;
+    
+    private final AtomicReferenceArray<T> slots;
+    private final int stripeShift;
+    
+    /**
+     * Constructs a new StripedPool with a number of stripes proportional to
+     * the number of available processors.
+     */
+    public StripedPool() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+    
+    /**
+     * Constructs a new StripedPool with (at least) the specified number of
+     * stripes, rounded up to a power of two.
+     * 
+     * @param stripes
+     *            the minimum number of stripes
+     */
+    public StripedPool(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be greater than 0: " + stripes);
+        }
+        int bits = 32 - Integer.numberOfLeadingZeros(stripes - 1);
+        this.stripeShift = 32 - bits;
+        this.slots = new AtomicReferenceArray<T>((1 << bits) * STRIPE_WIDTH);
+    }
+    
+    /**
+     * @return the number of stripes in this pool
+     */
+    public int getStripes() {
+        return slots.length() / STRIPE_WIDTH;
+    }
+    
+    /**
+     * Takes an instance from the stripe of the current thread.
+     * 
+     * @return a pooled instance, or <code>null</code> if the stripe is empty
+     */
+    public T poll() {
+        int start = firstSlotOfCurrentThread();
+        for (int i = start, end = start + SLOTS_PER_STRIPE; i < end; ++i) {
+            T value = slots.get(i);
+            if (value != null && slots.compareAndSet(i, value, null)) {
+                return value;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Returns an instance to the stripe of the current thread.
+     * 
+     * @param value
+     *            the instance to return
+     * @return true if the instance was pooled, false if the stripe was full
+     *         and the instance was discarded
+     */
+    public boolean offer(T value) {
+        int start = firstSlotOfCurrentThread();
+        for (int i = start, end = start + SLOTS_PER_STRIPE; i < end; ++i) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private int firstSlotOfCurrentThread() {
+        long id = Thread.currentThread().getId();
+        /*
+         * Fibonacci hashing spreads the (usually sequential) thread ids
+         * evenly across the stripes
+         */
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return stripeShift == 32 ? 0 : (hash >>> stripeShift) * STRIPE_WIDTH;
+    }
+}
@@ -22,8 +22,12 @@ import ma.glasnost.orika.MappedTypePair;
 import ma.glasnost.orika.Mapper;
 
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -48,6 +52,7 @@ public class ClassMap<A, B> implements MappedTypePair<A, B>{
     private final Boolean sourcesMappedOnNull;
     private final Boolean destinationsMappedOnNull;
     private final Boolean favorsExtension;
+    private final Map<Enum<?>, Enum<?>> enumConstants;
     
     /**
      * Constructs a new ClassMap
@@ -65,6 +70,28 @@ public class ClassMap<A, B> implements MappedTypePair<A, B>{
      */
     public ClassMap(Type<A> aType, Type<B> bType, Set<FieldMap> fieldsMapping, Mapper<A, B> customizedMapper, Set<MapperKey> usedMappers,
             String[] constructorA, String[] constructorB, Boolean sourcesMappedOnNull, Boolean destinationsMappedOnNull, Boolean favorsExtension) {
+        this(aType, bType, fieldsMapping, customizedMapper, usedMappers, constructorA, constructorB, sourcesMappedOnNull,
+                destinationsMappedOnNull, favorsExtension, Collections.<Enum<?>, Enum<?>> emptyMap());
+    }
+    
+    /**
+     * Constructs a new ClassMap
+     * 
+     * @param aType the 'A' type
+     * @param bType the 'B' type
+     * @param fieldsMapping the specific mapping of the fields from type 'A' to type 'B' and vise-versa
+     * @param customizedMapper the customized mapper that should be used
+     * @param usedMappers the set of mappers used by this mapper to map ancestors' fields
+     * @param constructorA a description of the parameter names of the constructor to use for type 'A'
+     * @param constructorB a description of the parameter names of the constructor to use for type 'B'
+     * @param sourcesMappedOnNull
+     * @param destinationsMappedOnNull
+     * @param favorsExtension
+     * @param enumConstants the enum constants of the 'A' side mapped to a differently named enum constant of the 'B' side
+     */
+    public ClassMap(Type<A> aType, Type<B> bType, Set<FieldMap> fieldsMapping, Mapper<A, B> customizedMapper, Set<MapperKey> usedMappers,
+            String[] constructorA, String[] constructorB, Boolean sourcesMappedOnNull, Boolean destinationsMappedOnNull, Boolean favorsExtension,
+            Map<Enum<?>, Enum<?>> enumConstants) {
         this.aType = aType;
         this.bType = bType;
         
@@ -78,6 +105,7 @@ public class ClassMap<A, B> implements MappedTypePair<A, B>{
         this.sourcesMappedOnNull = sourcesMappedOnNull;
         this.destinationsMappedOnNull = destinationsMappedOnNull;
         this.favorsExtension = favorsExtension;
+        this.enumConstants = Collections.unmodifiableMap(new LinkedHashMap<>(enumConstants));
         
         if (constructorA != null) {
             this.constructorA = constructorA.clone();
@@ -97,11 +125,11 @@ public class ClassMap<A, B> implements MappedTypePair<A, B>{
         String[] constructorA = this.constructorA == null ? null : this.constructorA.clone();
         String[] constructorB = this.constructorB == null ? null : this.constructorB.clone();
         
-        return new ClassMap<>(aType, bType, fieldsMapping, customizedMapper, usedMappers, constructorA, constructorB, sourcesMappedOnNull, destinationsMappedOnNull, favorsExtension);
+        return new ClassMap<>(aType, bType, fieldsMapping, customizedMapper, usedMappers, constructorA, constructorB, sourcesMappedOnNull, destinationsMappedOnNull, favorsExtension, enumConstants);
     }
     
     public ClassMap<A,B> copyWithUsedMappers(Set<MapperKey> usedMappers) {
-        return new ClassMap<>(aType, bType, fieldsMapping, customizedMapper, usedMappers, constructorA, constructorB, sourcesMappedOnNull, destinationsMappedOnNull, favorsExtension);
+        return new ClassMap<>(aType, bType, fieldsMapping, customizedMapper, usedMappers, constructorA, constructorB, sourcesMappedOnNull, destinationsMappedOnNull, favorsExtension, enumConstants);
     }
     
     public MapperKey getMapperKey() {
@@ -213,6 +241,45 @@ public class ClassMap<A, B> implements MappedTypePair<A, B>{
         return constructorB;
     }
     
+    /**
+     * @return the enum constants of the 'A' side which are mapped to a
+     *         (differently named) enum constant of the 'B' side
+     */
+    public Map<Enum<?>, Enum<?>> getEnumConstants() {
+        return enumConstants;
+    }
+    
+    /**
+     * Resolves the enum constant names which are overridden when mapping from
+     * one enum type to another, in either direction; where several constants
+     * are mapped to the same one, the reverse mapping uses the first of them.
+     * 
+     * @param sourceType the enum type mapped from
+     * @param destinationType the enum type mapped to
+     * @return pairs of the name of a source constant, followed by the name of
+     *         the destination constant to which it is mapped
+     */
+    public String[] getEnumNameOverrides(Class<?> sourceType, Class<?> destinationType) {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (Map.Entry<Enum<?>, Enum<?>> entry : enumConstants.entrySet()) {
+            if (entry.getKey().getDeclaringClass() == sourceType && entry.getValue().getDeclaringClass() == destinationType) {
+                overrides.put(entry.getKey().name(), entry.getValue().name());
+            }
+        }
+        for (Map.Entry<Enum<?>, Enum<?>> entry : enumConstants.entrySet()) {
+            if (entry.getValue().getDeclaringClass() == sourceType && entry.getKey().getDeclaringClass() == destinationType
+                    && !overrides.containsKey(entry.getValue().name())) {
+                overrides.put(entry.getValue().name(), entry.getKey().name());
+            }
+        }
+        List<String> names = new ArrayList<>(overrides.size() * 2);
+        for (Map.Entry<String, String> override : overrides.entrySet()) {
+            names.add(override.getKey());
+            names.add(override.getValue());
+        }
+        return names.toArray(new String[0]);
+    }
+    
     
     
     /**
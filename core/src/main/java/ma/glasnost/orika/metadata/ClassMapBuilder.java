@@ -89,6 +89,7 @@ public class ClassMapBuilder<A, B> implements MappedTypePair<A, B> {
     private Boolean destinationsMappedOnNull;
     private Boolean favorsExtension;
     private Boolean destinationValueRetrievedOnMapping;
+    private final Map<Enum<?>, Enum<?>> enumConstants = new LinkedHashMap<>();
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ClassMapBuilder.class);
     
@@ -521,6 +522,27 @@ public class ClassMapBuilder<A, B> implements MappedTypePair<A, B> {
         return this;
     }
     
+    /**
+     * Map an enum constant, used by the properties of type A, to a constant
+     * (with a different name) of the enum used by the properties of type B;
+     * the mapping applies in both directions, to all of the properties of
+     * this class-map between the two enum types. Constants which are not
+     * mapped explicitly are mapped to the constant of the same name.
+     * 
+     * @param aConstant
+     *            the enum constant on the A side
+     * @param bConstant
+     *            the enum constant on the B side
+     * @return this ClassMapBuilder
+     */
+    public ClassMapBuilder<A, B> enumConstant(Enum<?> aConstant, Enum<?> bConstant) {
+        if (aConstant == null || bConstant == null) {
+            throw new MappingException("Both enum constants must be specified");
+        }
+        enumConstants.put(aConstant, bConstant);
+        return this;
+    }
+    
     /**
      * Configure this ClassMapBuilder to use an existing mapping (for parent
      * classes) defined from <code>aParentClass</code> to
@@ -711,7 +733,7 @@ public class ClassMapBuilder<A, B> implements MappedTypePair<A, B> {
         }
         
         return new ClassMap<>(aType, bType, fieldsMapping, customizedMapper, usedMappers, constructorA, constructorB,
-                sourcesMappedOnNull, destinationsMappedOnNull, favorsExtension);
+                sourcesMappedOnNull, destinationsMappedOnNull, favorsExtension, enumConstants);
     }
     
     /**
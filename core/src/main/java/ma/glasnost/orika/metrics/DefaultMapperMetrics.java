@@ -0,0 +1,160 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.metrics;
+
+import static ma.glasnost.orika.StateReporter.DIVIDER;
+import static ma.glasnost.orika.StateReporter.humanReadableSizeInMemory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import ma.glasnost.orika.StateReporter.Reportable;
+import ma.glasnost.orika.metadata.MapperKey;
+
+/**
+ * DefaultMapperMetrics records statistics using striped counters
+ * ({@link LongAdder}), so that recording costs only a few nanoseconds, and
+ * does not become a point of contention when mapping from many threads.
+ */
+public class DefaultMapperMetrics implements MapperMetrics, Reportable {
+
+    private final ConcurrentHashMap<MapperKey, StripedRecorder> recorders = new ConcurrentHashMap<>();
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see ma.glasnost.orika.metrics.MapperMetrics#getRecorder(ma.glasnost.orika.metadata.MapperKey)
+     */
+    public Recorder getRecorder(MapperKey key) {
+        StripedRecorder recorder = recorders.get(key);
+        if (recorder == null) {
+            recorder = new StripedRecorder();
+            StripedRecorder existing = recorders.putIfAbsent(key, recorder);
+            if (existing != null) {
+                recorder = existing;
+            }
+        }
+        return recorder;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see ma.glasnost.orika.metrics.MapperMetrics#getStatistics()
+     */
+    public Collection<MapperStatistics> getStatistics() {
+        List<MapperStatistics> statistics = new ArrayList<>(recorders.size());
+        for (Entry<MapperKey, StripedRecorder> entry : recorders.entrySet()) {
+            statistics.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        return statistics;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see ma.glasnost.orika.metrics.MapperMetrics#getStatistics(ma.glasnost.orika.metadata.MapperKey)
+     */
+    public MapperStatistics getStatistics(MapperKey key) {
+        StripedRecorder recorder = recorders.get(key);
+        return recorder == null ? null : recorder.snapshot(key);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see ma.glasnost.orika.metrics.MapperMetrics#reset()
+     *
+     * The recorders themselves are retained, since they are referenced by the
+     * already-resolved strategies, object factories and converters.
+     */
+    public void reset() {
+        for (StripedRecorder recorder : recorders.values()) {
+            recorder.reset();
+        }
+    }
+
+    /**
+     * Prints the recorded statistics to the supplied StringBuilder, ordered by
+     * the cumulative time spent mapping each type pair.
+     *
+     * @param out
+     */
+    public void reportCurrentState(StringBuilder out) {
+        List<MapperStatistics> statistics = new ArrayList<>(getStatistics());
+        Collections.sort(statistics, new Comparator<MapperStatistics>() {
+            public int compare(MapperStatistics s1, MapperStatistics s2) {
+                return Long.compare(s2.getTotalNanos(), s1.getTotalNanos());
+            }
+        });
+        out.append(DIVIDER);
+        out.append("\nMapper metrics: ")
+                .append(statistics.size())
+                .append(" type pairs (approximate size: ")
+                .append(humanReadableSizeInMemory(recorders))
+                .append(")");
+        for (MapperStatistics entry : statistics) {
+            out.append("\n  ").append(entry);
+        }
+    }
+
+    /**
+     * StripedRecorder records the statistics for a single type pair; the
+     * invocation count is derived from the latency histogram, so that a
+     * mapping updates only two striped counters.
+     */
+    private static final class StripedRecorder implements Recorder {
+
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder objectsCreated = new LongAdder();
+        private final LongAdder conversions = new LongAdder();
+        private final LatencyHistogram latencies = new LatencyHistogram();
+
+        public void recordMapping(long elapsedNanos) {
+            totalNanos.add(elapsedNanos);
+            latencies.record(elapsedNanos);
+        }
+
+        public void recordObjectCreated() {
+            objectsCreated.increment();
+        }
+
+        public void recordConversion() {
+            conversions.increment();
+        }
+
+        private MapperStatistics snapshot(MapperKey key) {
+            return new MapperStatistics(key, totalNanos.sum(), objectsCreated.sum(), conversions.sum(),
+                    latencies.snapshot());
+        }
+
+        private void reset() {
+            totalNanos.reset();
+            objectsCreated.reset();
+            conversions.reset();
+            latencies.reset();
+        }
+    }
+}
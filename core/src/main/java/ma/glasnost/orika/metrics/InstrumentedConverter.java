@@ -0,0 +1,80 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.metrics;
+
+import ma.glasnost.orika.Converter;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metrics.MapperMetrics.Recorder;
+
+/**
+ * InstrumentedConverter records the number of invocations of the Converter
+ * it wraps.<br>
+ * Note that converters are only wrapped once code generation which depends
+ * on them has completed, since the generated code may depend on the actual
+ * type of the converter.
+ */
+public class InstrumentedConverter<S, D> implements Converter<S, D> {
+
+    private final Converter<S, D> delegate;
+    private final Recorder recorder;
+
+    public InstrumentedConverter(Converter<S, D> delegate, Recorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see ma.glasnost.orika.Converter#convert(java.lang.Object, ma.glasnost.orika.metadata.Type, ma.glasnost.orika.MappingContext)
+     */
+    public D convert(S source, Type<? extends D> destinationType, MappingContext mappingContext) {
+        recorder.recordConversion();
+        return delegate.convert(source, destinationType, mappingContext);
+    }
+
+    public boolean canConvert(Type<?> sourceType, Type<?> destinationType) {
+        return delegate.canConvert(sourceType, destinationType);
+    }
+
+    public void setMapperFacade(MapperFacade mapper) {
+        delegate.setMapperFacade(mapper);
+    }
+
+    public Type<S> getAType() {
+        return delegate.getAType();
+    }
+
+    public Type<D> getBType() {
+        return delegate.getBType();
+    }
+
+    /**
+     * @return the Converter wrapped by this InstrumentedConverter
+     */
+    public Converter<S, D> getDelegate() {
+        return delegate;
+    }
+
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.metrics;
+
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingStrategy;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metrics.MapperMetrics.Recorder;
+
+/**
+ * InstrumentedMappingStrategy records the invocation count and latency of
+ * the MappingStrategy it wraps.
+ */
+public class InstrumentedMappingStrategy implements MappingStrategy {
+
+    private final MappingStrategy delegate;
+    private final Recorder recorder;
+
+    public InstrumentedMappingStrategy(MappingStrategy delegate, Recorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see ma.glasnost.orika.MappingStrategy#map(java.lang.Object, java.lang.Object, ma.glasnost.orika.MappingContext)
+     */
+    public Object map(Object sourceObject, Object destinationObject, MappingContext context) {
+        long start = System.nanoTime();
+        try {
+            return delegate.map(sourceObject, destinationObject, context);
+        } finally {
+            recorder.recordMapping(System.nanoTime() - start);
+        }
+    }
+
+    public Type<Object> getAType() {
+        return delegate.getAType();
+    }
+
+    public Type<Object> getBType() {
+        return delegate.getBType();
+    }
+
+    public String toString() {
+        return delegate.toString();
+    }
+}
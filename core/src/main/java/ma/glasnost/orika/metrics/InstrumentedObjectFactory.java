@@ -0,0 +1,52 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.metrics;
+
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.ObjectFactory;
+import ma.glasnost.orika.metrics.MapperMetrics.Recorder;
+
+/**
+ * InstrumentedObjectFactory records the number of objects created by the
+ * ObjectFactory it wraps.
+ */
+public class InstrumentedObjectFactory<T> implements ObjectFactory<T> {
+
+    private final ObjectFactory<T> delegate;
+    private final Recorder recorder;
+
+    public InstrumentedObjectFactory(ObjectFactory<T> delegate, Recorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see ma.glasnost.orika.ObjectFactory#create(java.lang.Object, ma.glasnost.orika.MappingContext)
+     */
+    public T create(Object source, MappingContext mappingContext) {
+        recorder.recordObjectCreated();
+        return delegate.create(source, mappingContext);
+    }
+
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram is a concurrent, log-linear histogram of nanosecond
+ * latencies: values below 16 are counted exactly, and every power of two
+ * above that is divided into 8 buckets, giving a relative error of at most
+ * 12.5%. Values of 2<sup>40</sup> ns (about 18 minutes) and above are
+ * counted in the last bucket.<br>
+ * <br>
+ * Each bucket is a striped counter which is only allocated once it is first
+ * used, since most latencies fall within a handful of adjacent buckets.
+ */
+final class LatencyHistogram {
+
+    private static final int EXACT_VALUES = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = 4;
+    private static final int MAX_EXPONENT = 39;
+
+    static final int BUCKETS = EXACT_VALUES + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<LongAdder>(BUCKETS);
+
+    void record(long nanos) {
+        int index = bucketOf(nanos);
+        LongAdder bucket = buckets.get(index);
+        if (bucket == null) {
+            buckets.compareAndSet(index, null, new LongAdder());
+            bucket = buckets.get(index);
+        }
+        bucket.increment();
+    }
+
+    /**
+     * @return the current count of each bucket
+     */
+    long[] snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; ++i) {
+            LongAdder bucket = buckets.get(i);
+            if (bucket != null) {
+                counts[i] = bucket.sum();
+            }
+        }
+        return counts;
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; ++i) {
+            LongAdder bucket = buckets.get(i);
+            if (bucket != null) {
+                bucket.reset();
+            }
+        }
+    }
+
+    /**
+     * @param nanos
+     *            the latency value
+     * @return the index of the bucket in which the value is counted
+     */
+    static int bucketOf(long nanos) {
+        if (nanos < EXACT_VALUES) {
+            return nanos < 0 ? 0 : (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT_VALUES + (exponent - MIN_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @param index
+     *            the index of a bucket
+     * @return the value which represents the bucket (its mid-point)
+     */
+    static long valueOf(int index) {
+        if (index < EXACT_VALUES) {
+            return index;
+        }
+        int exponent = (index - EXACT_VALUES) / SUB_BUCKETS + MIN_EXPONENT;
+        int subBucket = (index - EXACT_VALUES) % SUB_BUCKETS;
+        long lowerBound = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + width / 2;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.metrics;
+
+import java.util.Collection;
+
+import ma.glasnost.orika.metadata.MapperKey;
+
+/**
+ * MapperMetrics collects runtime statistics about the mapping performed
+ * by a MapperFactory, keyed by the {@link MapperKey} of the mapped types.<br>
+ * <br>
+ * A Recorder is resolved once for a given type pair (at the time a mapping
+ * strategy, object factory or converter is resolved), and is then invoked
+ * on every call; implementations should therefore make the Recorder methods
+ * as cheap as possible, and safe for concurrent use.<br>
+ * <br>
+ * Note that, like the registered mappers, the MapperKey does not distinguish
+ * between the two directions of a type pair.
+ *
+ * @see DefaultMapperMetrics
+ */
+public interface MapperMetrics {
+
+    /**
+     * Get the Recorder used to record statistics for the specified type pair.
+     *
+     * @param key
+     *            the type pair for which statistics are recorded
+     * @return the Recorder for the type pair
+     */
+    Recorder getRecorder(MapperKey key);
+
+    /**
+     * @return a snapshot of the statistics recorded so far, for all of the
+     *         type pairs which have been resolved
+     */
+    Collection<MapperStatistics> getStatistics();
+
+    /**
+     * @param key
+     *            the type pair for which statistics should be returned
+     * @return a snapshot of the statistics recorded so far for the specified
+     *         type pair, or <code>null</code> if none have been recorded
+     */
+    MapperStatistics getStatistics(MapperKey key);
+
+    /**
+     * Resets all of the statistics recorded so far.
+     */
+    void reset();
+
+    /**
+     * Recorder receives the events measured for a single type pair.
+     */
+    interface Recorder {
+
+        /**
+         * Records a single invocation of a mapping strategy.
+         *
+         * @param elapsedNanos
+         *            the elapsed time of the invocation, in nanoseconds;
+         *            this includes the time spent mapping nested properties
+         */
+        void recordMapping(long elapsedNanos);
+
+        /**
+         * Records the creation of an object through an ObjectFactory.
+         */
+        void recordObjectCreated();
+
+        /**
+         * Records a single invocation of a Converter.
+         */
+        void recordConversion();
+    }
+}
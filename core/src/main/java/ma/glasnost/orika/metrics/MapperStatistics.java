@@ -0,0 +1,131 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.metrics;
+
+import ma.glasnost.orika.metadata.MapperKey;
+
+/**
+ * MapperStatistics is an immutable snapshot of the statistics recorded for a
+ * single type pair.
+ */
+public final class MapperStatistics {
+
+    private final MapperKey key;
+    private final long invocations;
+    private final long totalNanos;
+    private final long objectsCreated;
+    private final long conversions;
+    private final long[] latencyCounts;
+
+    MapperStatistics(MapperKey key, long totalNanos, long objectsCreated, long conversions, long[] latencyCounts) {
+        this.key = key;
+        this.totalNanos = totalNanos;
+        this.objectsCreated = objectsCreated;
+        this.conversions = conversions;
+        this.latencyCounts = latencyCounts;
+        long total = 0;
+        for (long count : latencyCounts) {
+            total += count;
+        }
+        this.invocations = total;
+    }
+
+    /**
+     * @return the type pair to which these statistics apply
+     */
+    public MapperKey getKey() {
+        return key;
+    }
+
+    /**
+     * @return the number of times a mapping strategy was invoked for the type
+     *         pair
+     */
+    public long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * @return the cumulative time spent in the mapping strategies for the
+     *         type pair, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return the mean time of a single invocation, in nanoseconds
+     */
+    public double getMeanNanos() {
+        return invocations == 0 ? 0.0 : (double) totalNanos / invocations;
+    }
+
+    /**
+     * Get the (approximate) latency below which the specified percentage of
+     * the invocations completed.
+     *
+     * @param percentile
+     *            the percentile, between 0 and 100
+     * @return the latency at the specified percentile, in nanoseconds; or 0
+     *         if no invocations were recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        if (invocations == 0) {
+            return 0;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(invocations * (percentile / 100.0)));
+        long cumulative = 0;
+        for (int i = 0; i < latencyCounts.length; ++i) {
+            cumulative += latencyCounts[i];
+            if (cumulative >= rank) {
+                return LatencyHistogram.valueOf(i);
+            }
+        }
+        return LatencyHistogram.valueOf(latencyCounts.length - 1);
+    }
+
+    /**
+     * @return the number of objects created through an ObjectFactory for the
+     *         type pair
+     */
+    public long getObjectsCreated() {
+        return objectsCreated;
+    }
+
+    /**
+     * @return the number of times a Converter was invoked for the type pair
+     */
+    public long getConversions() {
+        return conversions;
+    }
+
+    public String toString() {
+        return key + ": invocations=" + invocations
+                + ", total=" + String.format("%,.3f ms", totalNanos / 1000000.0)
+                + ", mean=" + String.format("%,.0f ns", getMeanNanos())
+                + ", p50=" + getPercentileNanos(50) + " ns"
+                + ", p99=" + getPercentileNanos(99) + " ns"
+                + ", p99.9=" + getPercentileNanos(99.9) + " ns"
+                + ", objectsCreated=" + objectsCreated
+                + ", conversions=" + conversions;
+    }
+}
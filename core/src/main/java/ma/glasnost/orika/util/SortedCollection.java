@@ -117,7 +117,11 @@ public class SortedCollection<V> implements Collection<V> {
 	    if (contains(o)) {
     	    try {
                 rwl.writeLock().lock();
-                List<V> sorted = getSortedItems();
+                /*
+                 * The sorted items may still be iterated by readers, so they
+                 * must not be modified in place
+                 */
+                List<V> sorted = new ArrayList<>(getSortedItems());
                 nodes.clear();
                 items.clear();
                 sortedItems = null;
@@ -228,6 +228,27 @@ public class EclipseJdtCompiler {
 		return data;
 	}
 
+	/**
+	 * Compile several classes in a single invocation of the compiler, and
+	 * return the raw bytes of their class files.
+	 * 
+	 * @param sources
+	 * @param packageNames
+	 * @param classSimpleNames
+	 * 
+	 * @return the raw bytes of the class files, keyed by class name
+	 */
+	public Map<String, byte[]> compile(String[] sources, String[] packageNames,
+			String[] classSimpleNames) {
+
+		ICompilationUnit[] compilationUnits = new ICompilationUnit[sources.length];
+		for (int i = 0; i < sources.length; ++i) {
+			compilationUnits[i] = new CompilationUnit(sources[i], packageNames[i],
+					classSimpleNames[i]);
+		}
+		return compile(compilationUnits);
+	}
+
 	/**
 	 * Compiles a set of files contained in source directory directly to bytes in memory,
 	 * returning a ClassLoader which is able to access them.
@@ -23,6 +23,7 @@ import org.eclipse.jdt.internal.compiler.ClassFile;
 import org.eclipse.jdt.internal.compiler.CompilationResult;
 import org.eclipse.jdt.internal.compiler.ICompilerRequestor;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -53,7 +54,17 @@ public class CompilerRequestor implements ICompilerRequestor {
 		boolean hasErrors = false;
 
 		if (result.hasProblems()) {
-			problems = result.getProblems();
+			/*
+			 * Several compilation units may be compiled together; retain the
+			 * problems of all of them
+			 */
+			if (problems == null) {
+				problems = result.getProblems();
+			} else {
+				IProblem[] allProblems = Arrays.copyOf(problems, problems.length + result.getProblems().length);
+				System.arraycopy(result.getProblems(), 0, allProblems, problems.length, result.getProblems().length);
+				problems = allProblems;
+			}
 		}
 
 		if (!hasErrors) {
@@ -0,0 +1,159 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.capturefieldcontext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MappingContextTestCase {
+
+    private static final Type<Object> STRING_TYPE = cast(TypeFactory.valueOf(String.class));
+    private static final Type<Object> INTEGER_TYPE = cast(TypeFactory.valueOf(Integer.class));
+
+    @SuppressWarnings("unchecked")
+    private static Type<Object> cast(Type<?> type) {
+        return (Type<Object>) type;
+    }
+
+    private static MappingContext newContext() {
+        return new MappingContext.Factory().getContext();
+    }
+
+    @Test
+    public void mappedObjectsAreKeyedByIdentityAndDestinationType() {
+        MappingContext context = newContext();
+        Object source = new Object();
+        Assert.assertNull(context.getMappedObject(source, STRING_TYPE));
+
+        context.cacheMappedObject(source, STRING_TYPE, "string");
+        context.cacheMappedObject(source, INTEGER_TYPE, 1);
+        Assert.assertEquals("string", context.getMappedObject(source, STRING_TYPE));
+        Assert.assertEquals(1, (int) context.<Integer> getMappedObject(source, INTEGER_TYPE));
+        Assert.assertNull(context.getMappedObject(new Object(), STRING_TYPE));
+
+        context.cacheMappedObject(source, STRING_TYPE, "replaced");
+        Assert.assertEquals("replaced", context.getMappedObject(source, STRING_TYPE));
+    }
+
+    @Test
+    public void mappedObjectsSurviveGrowthAndAreClearedOnReset() {
+        MappingContext context = newContext();
+        List<Object> sources = new ArrayList<>();
+        for (int i = 0; i < 10000; ++i) {
+            Object source = new Object();
+            sources.add(source);
+            context.cacheMappedObject(source, STRING_TYPE, "#" + i);
+        }
+        for (int i = 0; i < sources.size(); ++i) {
+            Assert.assertEquals("#" + i, context.getMappedObject(sources.get(i), STRING_TYPE));
+        }
+
+        context.reset();
+        for (Object source : sources) {
+            Assert.assertNull(context.getMappedObject(source, STRING_TYPE));
+        }
+        context.cacheMappedObject(sources.get(0), STRING_TYPE, "again");
+        Assert.assertEquals("again", context.getMappedObject(sources.get(0), STRING_TYPE));
+        Assert.assertNull(context.getMappedObject(sources.get(1), STRING_TYPE));
+    }
+
+    @Test
+    public void nullSourcesAreNotCached() {
+        MappingContext context = newContext();
+        for (int i = 0; i < 100; ++i) {
+            context.cacheMappedObject(null, STRING_TYPE, "null" + i);
+        }
+        Assert.assertNull(context.getMappedObject(null, STRING_TYPE));
+
+        Object source = new Object();
+        context.cacheMappedObject(source, STRING_TYPE, "string");
+        Assert.assertEquals("string", context.getMappedObject(source, STRING_TYPE));
+    }
+
+    /**
+     * Exposes the protected fields of MappingContext
+     */
+    private static class InspectableContext extends MappingContext {
+        InspectableContext() {
+            super(null);
+        }
+
+        Map<Type<?>, Type<?>> mapping() {
+            return mapping;
+        }
+
+        @SuppressWarnings("deprecation")
+        Object typeCache() {
+            return typeCache;
+        }
+
+        @SuppressWarnings("deprecation")
+        Object fieldMappingStack() {
+            return fieldMappingStack;
+        }
+    }
+
+    @Test
+    public void concreteClassesAreRegisteredLazily() {
+        InspectableContext context = new InspectableContext();
+        Assert.assertNull(context.mapping());
+        Assert.assertNull(context.typeCache());
+        Assert.assertNull(context.fieldMappingStack());
+        Assert.assertNull(context.getConcreteClass(STRING_TYPE, STRING_TYPE));
+        context.reset();
+
+        context.registerConcreteClass(STRING_TYPE, STRING_TYPE);
+        Assert.assertEquals(STRING_TYPE, context.getConcreteClass(STRING_TYPE, STRING_TYPE));
+        context.reset();
+        Assert.assertNull(context.getConcreteClass(STRING_TYPE, STRING_TYPE));
+        Assert.assertTrue(context.mapping().isEmpty());
+        Assert.assertNull(context.typeCache());
+    }
+
+    @Test
+    public void fieldContextIsTrackedAsAStack() {
+        MappingContext context = newContext();
+        Type<?> stringType = TypeFactory.valueOf(String.class);
+        for (int i = 0; i < 20; ++i) {
+            context.beginMappingField("s" + i, stringType, "source" + i, "d" + i, stringType, "dest" + i);
+        }
+        Assert.assertEquals(20, context.getSourceExpressionPaths().length);
+        Assert.assertEquals("s19", context.getSourceExpressionPaths()[19]);
+        Assert.assertEquals("dest19", context.getDestinationObjects()[19]);
+        Assert.assertEquals(stringType, context.getSourceTypePaths()[0]);
+
+        for (int i = 0; i < 18; ++i) {
+            context.endMappingField();
+        }
+        Assert.assertEquals("source.s0.s1", context.getFullyQualifiedSourcePath());
+        Assert.assertEquals("destination.d0.d1", context.getFullyQualifiedDestinationPath());
+        Assert.assertArrayEquals(new Object[] { "source0", "source1" }, context.getSourceObjects());
+
+        context.reset();
+        Assert.assertEquals("source", context.getFullyQualifiedSourcePath());
+        Assert.assertEquals(0, context.getDestinationTypePaths().length);
+    }
+}
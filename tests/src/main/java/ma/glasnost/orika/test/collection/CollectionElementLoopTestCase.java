@@ -0,0 +1,128 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies the mapping of array and collection properties to collection
+ * properties, whose elements are mapped directly into the destination.
+ */
+public class CollectionElementLoopTestCase {
+    
+    public static class Item {
+        public String name;
+        
+        public Item() {
+        }
+        
+        public Item(String name) {
+            this.name = name;
+        }
+    }
+    
+    public static class SpecialItem extends Item {
+        public int rank;
+        
+        public SpecialItem() {
+        }
+        
+        public SpecialItem(String name, int rank) {
+            super(name);
+            this.rank = rank;
+        }
+    }
+    
+    public static class ItemDto {
+        public String name;
+    }
+    
+    public static class SpecialItemDto extends ItemDto {
+        public int rank;
+    }
+    
+    public static class Source {
+        public List<Item> items;
+        public Item[] itemArray;
+        public List<String> names;
+    }
+    
+    public static class Destination {
+        public List<ItemDto> items;
+        public Set<ItemDto> itemArray;
+        public Set<String> names;
+    }
+    
+    @Test
+    public void testElementsAreMappedIntoDestination() {
+        Source source = new Source();
+        source.items = Arrays.asList(new Item("first"), null, new Item("second"));
+        source.itemArray = new Item[] { new Item("third"), null };
+        source.names = Arrays.asList("a", "b", null, "a");
+        
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Item.class, ItemDto.class).byDefault().register();
+        factory.classMap(SpecialItem.class, SpecialItemDto.class).byDefault().register();
+        factory.classMap(Source.class, Destination.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Destination result = mapper.map(source, Destination.class);
+        
+        Assert.assertEquals(2, result.items.size());
+        Assert.assertEquals("first", result.items.get(0).name);
+        Assert.assertEquals("second", result.items.get(1).name);
+        Assert.assertEquals(1, result.itemArray.size());
+        Assert.assertEquals("third", result.itemArray.iterator().next().name);
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("a", "b")), result.names);
+    }
+    
+    @Test
+    public void testElementSubclassesAreMappedToTheirOwnTypes() {
+        Source source = new Source();
+        source.items = new ArrayList<>();
+        source.items.add(new Item("plain"));
+        source.items.add(new SpecialItem("special", 3));
+        source.items.add(new Item("plain again"));
+        
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Item.class, ItemDto.class).byDefault().register();
+        factory.classMap(SpecialItem.class, SpecialItemDto.class).byDefault().register();
+        factory.classMap(Source.class, Destination.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Destination result = mapper.map(source, Destination.class);
+        
+        Assert.assertEquals(3, result.items.size());
+        Assert.assertEquals(ItemDto.class, result.items.get(0).getClass());
+        Assert.assertEquals(SpecialItemDto.class, result.items.get(1).getClass());
+        Assert.assertEquals(3, ((SpecialItemDto) result.items.get(1)).rank);
+        Assert.assertEquals(ItemDto.class, result.items.get(2).getClass());
+        Assert.assertEquals("plain again", result.items.get(2).name);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.collection;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies the mapping of primitive arrays to primitive arrays and
+ * collections of the primitive wrappers, and back.
+ */
+public class PrimitiveArrayMappingTestCase {
+    
+    public static class Source {
+        public int[] ints;
+        public char[] chars;
+        public short[] shorts;
+        public long[] longs;
+        public List<Integer> integerList;
+        public Integer[] integerArray;
+    }
+    
+    public static class Destination {
+        public int[] ints;
+        public long[] chars;
+        public double[] shorts;
+        public List<Long> longs;
+        public int[] integerList;
+        public int[] integerArray;
+    }
+    
+    public static class Numbers {
+        public Set<Integer> ints;
+    }
+    
+    @Test
+    public void testPrimitiveArrays() {
+        Source source = new Source();
+        source.ints = new int[] { 1, 2, 3 };
+        source.chars = new char[] { 'a', 'b' };
+        source.shorts = new short[] { -1, 1000 };
+        
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Source.class, Destination.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Destination result = mapper.map(source, Destination.class);
+        
+        Assert.assertArrayEquals(source.ints, result.ints);
+        Assert.assertNotSame(source.ints, result.ints);
+        Assert.assertArrayEquals(new long[] { 'a', 'b' }, result.chars);
+        Assert.assertArrayEquals(new double[] { -1.0, 1000.0 }, result.shorts, 0.0);
+    }
+    
+    @Test
+    public void testPrimitiveArrayToAndFromWrapperCollection() {
+        Source source = new Source();
+        source.longs = new long[] { Long.MAX_VALUE, 0L, Long.MIN_VALUE };
+        source.integerList = Arrays.asList(4, 5, 6);
+        source.integerArray = new Integer[] { 7, 8 };
+        
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Source.class, Destination.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        Destination result = mapper.map(source, Destination.class);
+        
+        Assert.assertEquals(Arrays.asList(Long.MAX_VALUE, 0L, Long.MIN_VALUE), result.longs);
+        Assert.assertArrayEquals(new int[] { 4, 5, 6 }, result.integerList);
+        Assert.assertArrayEquals(new int[] { 7, 8 }, result.integerArray);
+        
+        Source reverse = mapper.map(result, Source.class);
+        Assert.assertArrayEquals(source.longs, reverse.longs);
+        Assert.assertEquals(source.integerList, reverse.integerList);
+        Assert.assertArrayEquals(source.integerArray, reverse.integerArray);
+    }
+    
+    @Test
+    public void testPrimitiveArrayToWrapperSet() {
+        Destination destination = new Destination();
+        destination.ints = new int[] { 3, 1, 2, 1 };
+        
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Numbers.class, Destination.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Numbers result = mapper.map(destination, Numbers.class);
+        
+        Assert.assertEquals(new TreeSet<>(Arrays.asList(1, 2, 3)), new TreeSet<>(result.ints));
+    }
+}
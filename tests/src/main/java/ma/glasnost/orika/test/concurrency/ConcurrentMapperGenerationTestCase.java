@@ -0,0 +1,138 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.JavassistCompilerStrategy;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConcurrentMapperGenerationTestCase {
+    
+    public static class Slow {
+        public String name;
+    }
+    
+    public static class SlowDto {
+        public String name;
+    }
+    
+    public static class Fast {
+        public String name;
+    }
+    
+    public static class FastDto {
+        public String name;
+    }
+    
+    /**
+     * Blocks the compilation of the mapper for Slow until released, counting
+     * the number of times it is compiled
+     */
+    private static class BlockingCompilerStrategy extends JavassistCompilerStrategy {
+        
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final AtomicInteger compiled = new AtomicInteger();
+        
+        public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
+            if (sourceCode.getMappedClasses().contains(Slow.class)) {
+                compiled.incrementAndGet();
+                started.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    throw new SourceCodeGenerationException(e);
+                }
+            }
+            return super.compileClass(sourceCode);
+        }
+    }
+    
+    private static Thread mapInNewThread(final MapperFacade mapper, final List<Throwable> failures) {
+        Thread thread = new Thread() {
+            public void run() {
+                try {
+                    Slow source = new Slow();
+                    source.name = "slow";
+                    Assert.assertEquals("slow", mapper.map(source, SlowDto.class).name);
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }
+        };
+        thread.start();
+        return thread;
+    }
+    
+    @Test
+    public void testIndependentMappersAreGeneratedConcurrently() throws InterruptedException {
+        BlockingCompilerStrategy compilerStrategy = new BlockingCompilerStrategy();
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+        final MapperFacade mapper = factory.getMapperFacade();
+        
+        List<Throwable> failures = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        threads.add(mapInNewThread(mapper, failures));
+        Assert.assertTrue(compilerStrategy.started.await(10, TimeUnit.SECONDS));
+        
+        /*
+         * The mapper for Slow is being compiled; further threads requiring it
+         * should wait, while the mapper for Fast is generated regardless
+         */
+        threads.add(mapInNewThread(mapper, failures));
+        threads.add(mapInNewThread(mapper, failures));
+        final List<Throwable> fastFailures = new ArrayList<>();
+        Thread fast = new Thread() {
+            public void run() {
+                try {
+                    Fast source = new Fast();
+                    source.name = "fast";
+                    Assert.assertEquals("fast", mapper.map(source, FastDto.class).name);
+                } catch (Throwable e) {
+                    fastFailures.add(e);
+                }
+            }
+        };
+        fast.start();
+        try {
+            fast.join(10000);
+            Assert.assertFalse("mapper for Fast was blocked by the generation of the mapper for Slow", fast.isAlive());
+            Assert.assertEquals(fastFailures.toString(), 0, fastFailures.size());
+        } finally {
+            compilerStrategy.released.countDown();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(failures.toString(), 0, failures.size());
+        Assert.assertEquals(1, compilerStrategy.compiled.get());
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.concurrency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelBuildTestCase {
+    
+    public static class Order {
+        public String number;
+        public Customer customer;
+        public List<Line> lines;
+    }
+    
+    public static class OrderDto {
+        public String number;
+        public CustomerDto customer;
+        public List<LineDto> lines;
+    }
+    
+    public static class Customer {
+        public String name;
+        public Address address;
+    }
+    
+    public static class CustomerDto {
+        public String name;
+        public AddressDto address;
+    }
+    
+    public static class Address {
+        public String street;
+        public String city;
+    }
+    
+    public static class AddressDto {
+        public String street;
+        public String city;
+    }
+    
+    public static class Line {
+        public Product product;
+        public int quantity;
+    }
+    
+    public static class LineDto {
+        public ProductDto product;
+        public int quantity;
+    }
+    
+    public static class Product {
+        public String name;
+        public Address origin;
+    }
+    
+    public static class ProductDto {
+        public String name;
+        public AddressDto origin;
+    }
+    
+    /**
+     * Runs each of the submitted tasks in a new thread, counting them
+     */
+    private static class CountingExecutor implements Executor {
+        
+        private final AtomicInteger executed = new AtomicInteger();
+        
+        public void execute(Runnable command) {
+            executed.incrementAndGet();
+            new Thread(command).start();
+        }
+    }
+    
+    private static Order newOrder() {
+        Address address = new Address();
+        address.street = "1 Main Street";
+        address.city = "Springfield";
+        
+        Customer customer = new Customer();
+        customer.name = "Homer";
+        customer.address = address;
+        
+        Product product = new Product();
+        product.name = "Donut";
+        product.origin = address;
+        
+        Line line = new Line();
+        line.product = product;
+        line.quantity = 12;
+        
+        Order order = new Order();
+        order.number = "A-1";
+        order.customer = customer;
+        order.lines = new ArrayList<>(Arrays.asList(line, line));
+        return order;
+    }
+    
+    private static void assertMapped(OrderDto result) {
+        Assert.assertEquals("A-1", result.number);
+        Assert.assertEquals("Homer", result.customer.name);
+        Assert.assertEquals("Springfield", result.customer.address.city);
+        Assert.assertEquals(2, result.lines.size());
+        Assert.assertEquals("Donut", result.lines.get(0).product.name);
+        Assert.assertEquals(12, result.lines.get(0).quantity);
+        Assert.assertEquals("1 Main Street", result.lines.get(1).product.origin.street);
+    }
+    
+    @Test
+    public void testParallelBuild() {
+        CountingExecutor executor = new CountingExecutor();
+        MapperFactory factory = new DefaultMapperFactory.Builder().parallelBuild(true).buildExecutor(executor).build();
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        factory.classMap(Line.class, LineDto.class).byDefault().register();
+        factory.classMap(Product.class, ProductDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        assertMapped(mapper.map(newOrder(), OrderDto.class));
+        
+        Order order = mapper.map(mapper.map(newOrder(), OrderDto.class), Order.class);
+        Assert.assertEquals("Donut", order.lines.get(1).product.name);
+        
+        if (Runtime.getRuntime().availableProcessors() > 1) {
+            Assert.assertTrue(executor.executed.get() > 0);
+        }
+    }
+    
+    @Test
+    public void testParallelBuildIsDisabledByDefault() {
+        CountingExecutor executor = new CountingExecutor();
+        MapperFactory factory = new DefaultMapperFactory.Builder().buildExecutor(executor).build();
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        factory.classMap(Line.class, LineDto.class).byDefault().register();
+        factory.classMap(Product.class, ProductDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        assertMapped(mapper.map(newOrder(), OrderDto.class));
+        Assert.assertEquals(0, executor.executed.get());
+    }
+    
+    @Test
+    public void testRejectingExecutor() {
+        Executor executor = new Executor() {
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        MapperFactory factory = new DefaultMapperFactory.Builder().parallelBuild(true).buildExecutor(executor).build();
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        factory.classMap(Line.class, LineDto.class).byDefault().register();
+        factory.classMap(Product.class, ProductDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        assertMapped(mapper.map(newOrder(), OrderDto.class));
+    }
+    
+    @Test
+    public void testConcurrentCallersWaitForBuild() throws InterruptedException {
+        /*
+         * Delay the helper tasks, so that the building thread is waiting for
+         * them while the other callers arrive
+         */
+        Executor executor = new Executor() {
+            public void execute(final Runnable command) {
+                new Thread() {
+                    public void run() {
+                        try {
+                            Thread.sleep(50);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        command.run();
+                    }
+                }.start();
+            }
+        };
+        final MapperFactory factory = new DefaultMapperFactory.Builder().parallelBuild(true).buildExecutor(executor).build();
+        final List<Throwable> failures = new ArrayList<>();
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < 4; ++i) {
+            callers.add(new Thread() {
+                public void run() {
+                    try {
+                        assertMapped(factory.getMapperFacade().map(newOrder(), OrderDto.class));
+                    } catch (Throwable e) {
+                        synchronized (failures) {
+                            failures.add(e);
+                        }
+                    }
+                }
+            });
+        }
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        factory.classMap(Line.class, LineDto.class).byDefault().register();
+        factory.classMap(Product.class, ProductDto.class).byDefault().register();
+        for (Thread caller : callers) {
+            caller.start();
+        }
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        Assert.assertEquals(failures.toString(), 0, failures.size());
+    }
+}
@@ -131,4 +131,45 @@ public class ConverterResolutionTestCase {
         BuiltinConverters.register(factory.getConverterFactory());
         Assert.assertSame(cc, factory.getConverterFactory().getConverter(TypeFactory.valueOf(Date.class), TypeFactory.valueOf(Date.class)));
     }
+    
+    @Test
+    public void testResolveAfterCachedMissingConverter() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        ConverterFactory converterFactory = factory.getConverterFactory();
+        
+        Assert.assertNull(converterFactory.getConverter(TypeFactory.valueOf(Name.class), TypeFactory.valueOf(Long.class)));
+        Assert.assertFalse(converterFactory.canConvert(TypeFactory.valueOf(Name.class), TypeFactory.valueOf(Long.class)));
+        
+        converterFactory.registerConverter(new NameToLongConverter());
+        
+        Converter<?, ?> converter = converterFactory.getConverter(TypeFactory.valueOf(Name.class), TypeFactory.valueOf(Long.class));
+        Assert.assertEquals(NameToLongConverter.class, converter.getClass());
+    }
+    
+    @Test
+    public void testResolveConverterForPrimitiveSource() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        ConverterFactory converterFactory = factory.getConverterFactory();
+        converterFactory.registerConverter(new IntegerToNameConverter());
+        
+        Converter<?, ?> converter = converterFactory.getConverter(TypeFactory.valueOf(int.class), TypeFactory.valueOf(Name.class));
+        Assert.assertEquals(IntegerToNameConverter.class, converter.getClass());
+        Assert.assertSame(converter, converterFactory.getConverter(TypeFactory.valueOf(int.class), TypeFactory.valueOf(Name.class)));
+    }
+    
+    public static class NameToLongConverter extends CustomConverter<Name, Long> {
+        
+        public Long convert(Name source, Type<? extends Long> destinationType, MappingContext context) {
+            return Long.valueOf(source.first.length());
+        }
+    }
+    
+    public static class IntegerToNameConverter extends CustomConverter<Integer, Name> {
+        
+        public Name convert(Integer source, Type<? extends Name> destinationType, MappingContext context) {
+            Name name = new Name();
+            name.first = String.valueOf(source);
+            return name;
+        }
+    }
 }
@@ -0,0 +1,188 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.converter;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+
+import ma.glasnost.orika.Converter;
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingException;
+import ma.glasnost.orika.converter.builtin.PassThroughConverter;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.MappingDirection;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that the conversions of the built-in intrinsic converters are
+ * generated inline, instead of calling the converters.
+ */
+public class IntrinsicConverterTestCase {
+    
+    public static class Immutable {
+        private final String value;
+        
+        public Immutable(String value) {
+            this.value = value;
+        }
+        
+        public String getValue() {
+            return value;
+        }
+    }
+    
+    public static class Source {
+        public int count;
+        public Short rank;
+        public Long total;
+        public Double price;
+        public BigDecimal amount;
+        public int code;
+        public Immutable immutable;
+    }
+    
+    public static class Destination {
+        public Long count;
+        public long rank;
+        public Double total;
+        public BigDecimal price;
+        public double amount;
+        public String code;
+        public Immutable immutable;
+    }
+    
+    public static class Narrowing {
+        public Integer total;
+    }
+    
+    /**
+     * Overrides the conversion of a built-in intrinsic converter, which must
+     * therefore not be inlined.
+     */
+    public static class CopyingConverter extends PassThroughConverter {
+        
+        public CopyingConverter() {
+            super(Immutable.class);
+        }
+        
+        @Override
+        public Object convert(Object source, Type<?> destinationType, MappingContext context) {
+            return new Immutable(((Immutable) source).getValue());
+        }
+    }
+    
+    private static int converterFields(MapperFactory factory, Class<?> aType, Class<?> bType) {
+        Mapper<Object, Object> mapper = factory.lookupMapper(new MapperKey(TypeFactory.valueOf(aType), TypeFactory.valueOf(bType)));
+        int converters = 0;
+        for (Field field : mapper.getClass().getDeclaredFields()) {
+            if (field.getType() == Converter.class) {
+                ++converters;
+            }
+        }
+        return converters;
+    }
+    
+    @Test
+    public void testIntrinsicConversions() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.getConverterFactory().registerConverter(new PassThroughConverter(Immutable.class));
+        factory.classMap(Source.class, Destination.class).byDefault(MappingDirection.A_TO_B).register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Source source = new Source();
+        source.count = 42;
+        source.rank = 7;
+        source.total = 1234567890123L;
+        source.price = 9.99;
+        source.amount = new BigDecimal("12.5");
+        source.code = 1001;
+        source.immutable = new Immutable("value");
+        
+        Destination result = mapper.map(source, Destination.class);
+        
+        Assert.assertEquals(Long.valueOf(42), result.count);
+        Assert.assertEquals(7L, result.rank);
+        Assert.assertEquals(Double.valueOf(1234567890123.0), result.total);
+        Assert.assertEquals(BigDecimal.valueOf(9.99), result.price);
+        Assert.assertEquals(12.5, result.amount, 0.0);
+        Assert.assertEquals("1001", result.code);
+        Assert.assertSame(source.immutable, result.immutable);
+        
+        Assert.assertEquals(0, converterFields(factory, Source.class, Destination.class));
+    }
+    
+    @Test
+    public void testNullSourcesAreNotConverted() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.getConverterFactory().registerConverter(new PassThroughConverter(Immutable.class));
+        factory.classMap(Source.class, Destination.class).byDefault(MappingDirection.A_TO_B).register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Destination result = mapper.map(new Source(), Destination.class);
+        
+        Assert.assertEquals(Long.valueOf(0), result.count);
+        Assert.assertEquals(0L, result.rank);
+        Assert.assertNull(result.total);
+        Assert.assertNull(result.price);
+        Assert.assertNull(result.immutable);
+    }
+    
+    @Test
+    public void testOverriddenConversionIsNotInlined() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.getConverterFactory().registerConverter(new CopyingConverter());
+        factory.classMap(Source.class, Destination.class).byDefault(MappingDirection.A_TO_B).register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Source source = new Source();
+        source.immutable = new Immutable("value");
+        Destination result = mapper.map(source, Destination.class);
+        
+        Assert.assertNotSame(source.immutable, result.immutable);
+        Assert.assertEquals("value", result.immutable.getValue());
+        Assert.assertEquals(1, converterFields(factory, Source.class, Destination.class));
+    }
+    
+    @Test
+    public void testCheckedNarrowingIsNotInlined() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Source.class, Narrowing.class).byDefault(MappingDirection.A_TO_B).register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Source source = new Source();
+        source.total = 12L;
+        Assert.assertEquals(Integer.valueOf(12), mapper.map(source, Narrowing.class).total);
+        Assert.assertEquals(1, converterFields(factory, Source.class, Narrowing.class));
+        
+        source.total = Long.MAX_VALUE;
+        try {
+            mapper.map(source, Narrowing.class);
+            Assert.fail("overflow should not be truncated");
+        } catch (MappingException e) {
+            Assert.assertTrue(e.getCause() instanceof ArithmeticException);
+        }
+    }
+}
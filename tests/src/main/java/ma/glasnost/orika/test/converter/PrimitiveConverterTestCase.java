@@ -0,0 +1,158 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.converter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.function.DoubleFunction;
+import java.util.function.ToLongFunction;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.converter.PrimitiveConverter;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.MappingDirection;
+import ma.glasnost.orika.metadata.Type;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that generated mappers call primitive-specialised converters with
+ * primitive values.
+ */
+public class PrimitiveConverterTestCase {
+    
+    public static class Price {
+        public final long cents;
+        
+        public Price(long cents) {
+            this.cents = cents;
+        }
+    }
+    
+    public static class Quote {
+        public int volume;
+        public Integer bidSize;
+        public double last;
+        public Price price;
+    }
+    
+    public static class QuoteDto {
+        public long volume;
+        public Long bidSize;
+        public BigDecimal last;
+        public long price;
+    }
+    
+    /**
+     * Fails if the boxing conversion is used
+     */
+    public static class IntToLongConverter extends PrimitiveConverter.IntToLong {
+        
+        public long applyAsLong(int value) {
+            for (StackTraceElement element : new Throwable().getStackTrace()) {
+                if (element.getClassName().startsWith(PrimitiveConverter.class.getName()) && "convert".equals(element.getMethodName())) {
+                    throw new AssertionError("the primitive conversion should be called");
+                }
+            }
+            return value * 100L;
+        }
+    }
+    
+    public static class DoubleToBigDecimal implements DoubleFunction<BigDecimal> {
+        
+        public BigDecimal apply(double value) {
+            return BigDecimal.valueOf(value);
+        }
+    }
+    
+    public static class PriceToLong implements ToLongFunction<Price> {
+        
+        public long applyAsLong(Price value) {
+            return value.cents;
+        }
+    }
+    
+    @Test
+    public void testPrimitiveConversions() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.getConverterFactory().registerConverter(new IntToLongConverter());
+        factory.getConverterFactory().registerConverter(PrimitiveConverter.fromDouble(BigDecimal.class, new DoubleToBigDecimal()));
+        factory.getConverterFactory().registerConverter(PrimitiveConverter.toLong(Price.class, new PriceToLong()));
+        factory.classMap(Quote.class, QuoteDto.class).byDefault(MappingDirection.A_TO_B).register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Quote quote = new Quote();
+        quote.volume = 12;
+        quote.bidSize = 3;
+        quote.last = 101.25;
+        quote.price = new Price(10125L);
+        
+        QuoteDto result = mapper.map(quote, QuoteDto.class);
+        
+        Assert.assertEquals(1200L, result.volume);
+        Assert.assertEquals(Long.valueOf(300L), result.bidSize);
+        Assert.assertEquals(new BigDecimal("101.25"), result.last);
+        Assert.assertEquals(10125L, result.price);
+    }
+    
+    @Test
+    public void testNullWrapperIsNotConverted() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.getConverterFactory().registerConverter(new IntToLongConverter());
+        factory.getConverterFactory().registerConverter(PrimitiveConverter.fromDouble(BigDecimal.class, new DoubleToBigDecimal()));
+        factory.getConverterFactory().registerConverter(PrimitiveConverter.toLong(Price.class, new PriceToLong()));
+        factory.classMap(Quote.class, QuoteDto.class).byDefault(MappingDirection.A_TO_B).register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Quote quote = new Quote();
+        
+        QuoteDto result = mapper.map(quote, QuoteDto.class);
+        
+        Assert.assertNull(result.bidSize);
+        Assert.assertEquals(0L, result.price);
+    }
+    
+    @Test
+    public void testBoxingConversion() {
+        PrimitiveConverter converter = PrimitiveConverter.toLong(Price.class, new PriceToLong());
+        Assert.assertTrue(converter.canConvert(converter.getAType(), converter.getBType()));
+        Assert.assertEquals(42L, converter.convert(new Price(42L), converter.getBType(), null));
+    }
+    
+    /**
+     * Generated mappers call the method of the functional interface, so an
+     * override of convert() would be bypassed
+     */
+    @Test
+    public void testBoxingConversionCannotBeOverridden() throws NoSuchMethodException {
+        int converterClasses = 0;
+        for (Class<?> nestedClass : PrimitiveConverter.class.getClasses()) {
+            if (PrimitiveConverter.class.isAssignableFrom(nestedClass)) {
+                Method convert = nestedClass.getMethod("convert", Object.class, Type.class, MappingContext.class);
+                Assert.assertEquals(nestedClass, convert.getDeclaringClass());
+                Assert.assertTrue(nestedClass.getSimpleName() + ".convert should be final", Modifier.isFinal(convert.getModifiers()));
+                ++converterClasses;
+            }
+        }
+        Assert.assertEquals(12, converterClasses);
+    }
+}
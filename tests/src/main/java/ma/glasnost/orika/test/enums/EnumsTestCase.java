@@ -22,6 +22,8 @@ import ma.glasnost.orika.CustomConverter;
 import ma.glasnost.orika.MapperFacade;
 import ma.glasnost.orika.MapperFactory;
 import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingException;
+import ma.glasnost.orika.converter.builtin.EnumConverter;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.test.MappingUtil;
 import ma.glasnost.orika.test.enums.EnumsTestCaseClasses.Book;
@@ -31,6 +33,7 @@ import ma.glasnost.orika.test.enums.EnumsTestCaseClasses.BookDTOWithParallelEnum
 import ma.glasnost.orika.test.enums.EnumsTestCaseClasses.BookDTOWithSameEnum;
 import ma.glasnost.orika.test.enums.EnumsTestCaseClasses.BookImpl;
 import ma.glasnost.orika.test.enums.EnumsTestCaseClasses.PublicationFormat;
+import ma.glasnost.orika.test.enums.EnumsTestCaseClasses.PublicationFormatDTO;
 import ma.glasnost.orika.test.enums.EnumsTestCaseClasses.PublicationFormatDTOAltCase;
 import ma.glasnost.orika.test.enums.EnumsTestCaseClasses.PublicationFormatDTOAlternate;
 
@@ -129,4 +132,88 @@ public class EnumsTestCase {
         Assert.assertEquals("PUB_" + book.getFormat().toString(), mappedBook.getFormat().toString());
     }
     
+    @Test
+    public void testMapAlternateEnumWithEnumConstants() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.classMap(BookImpl.class, BookDTOWithAlternateEnum.class)
+                .enumConstant(PublicationFormat.HARDBACK, PublicationFormatDTOAlternate.PUB_HARDBACK)
+                .enumConstant(PublicationFormat.SOFTBACK, PublicationFormatDTOAlternate.PUB_SOFTBACK)
+                .enumConstant(PublicationFormat.EBOOK, PublicationFormatDTOAlternate.PUB_EBOOK)
+                .byDefault()
+                .register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        for (PublicationFormat format : PublicationFormat.values()) {
+            BookImpl book = new BookImpl();
+            book.setFormat(format);
+            BookDTOWithAlternateEnum mappedBook = mapper.map(book, BookDTOWithAlternateEnum.class);
+            Assert.assertEquals("PUB_" + format, mappedBook.getFormat().toString());
+            
+            BookImpl mappedBack = mapper.map(mappedBook, BookImpl.class);
+            Assert.assertEquals(format, mappedBack.getFormat());
+        }
+    }
+    
+    @Test
+    public void testMapEnumWithEnumConstantsOverridingName() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.classMap(BookImpl.class, BookDTOWithParallelEnum.class)
+                .enumConstant(PublicationFormat.EBOOK, PublicationFormatDTO.SOFTBACK)
+                .byDefault()
+                .register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Book book = createBook();
+        Assert.assertEquals(PublicationFormatDTO.SOFTBACK, mapper.map(book, BookDTOWithParallelEnum.class).getFormat());
+        book.setFormat(PublicationFormat.HARDBACK);
+        Assert.assertEquals(PublicationFormatDTO.HARDBACK, mapper.map(book, BookDTOWithParallelEnum.class).getFormat());
+        
+        /*
+         * In reverse, SOFTBACK maps to EBOOK, and EBOOK still maps by name
+         */
+        BookDTOWithParallelEnum dto = new BookDTOWithParallelEnum();
+        dto.setFormat(PublicationFormatDTO.SOFTBACK);
+        Assert.assertEquals(PublicationFormat.EBOOK, mapper.map(dto, BookImpl.class).getFormat());
+        dto.setFormat(PublicationFormatDTO.EBOOK);
+        Assert.assertEquals(PublicationFormat.EBOOK, mapper.map(dto, BookImpl.class).getFormat());
+    }
+    
+    @Test
+    public void testMapEnumWithEnumConverterSubclass() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.getConverterFactory().registerConverter(new EnumConverter() {
+            
+            public Object convert(Object source, Type<?> destinationType, MappingContext context) {
+                return PublicationFormatDTO.SOFTBACK;
+            }
+        });
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Book book = createBook();
+        BookDTOWithParallelEnum mappedBook = mapper.map(book, BookDTOWithParallelEnum.class);
+        
+        Assert.assertEquals(PublicationFormatDTO.SOFTBACK, mappedBook.getFormat());
+    }
+    
+    @Test
+    public void testMapUnmappableEnumConstant() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.classMap(BookImpl.class, BookDTOWithAlternateEnum.class)
+                .enumConstant(PublicationFormat.EBOOK, PublicationFormatDTOAlternate.PUB_EBOOK)
+                .byDefault()
+                .register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Book book = createBook();
+        Assert.assertEquals(PublicationFormatDTOAlternate.PUB_EBOOK, mapper.map(book, BookDTOWithAlternateEnum.class).getFormat());
+        
+        book.setFormat(PublicationFormat.HARDBACK);
+        try {
+            mapper.map(book, BookDTOWithAlternateEnum.class);
+            Assert.fail("HARDBACK should not be mappable");
+        } catch (MappingException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("HARDBACK"));
+        }
+    }
+    
 }
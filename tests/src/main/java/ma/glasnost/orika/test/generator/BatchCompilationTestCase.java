@@ -0,0 +1,155 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.CompilerStrategy;
+import ma.glasnost.orika.impl.generator.EclipseJdtCompilerStrategy;
+import ma.glasnost.orika.impl.generator.JaninoCompilerStrategy;
+import ma.glasnost.orika.impl.generator.JavassistCompilerStrategy;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchCompilationTestCase {
+    
+    public static class Order {
+        public String number;
+        public Customer customer;
+    }
+    
+    public static class OrderDto {
+        public String number;
+        public CustomerDto customer;
+    }
+    
+    public static class Customer {
+        public String name;
+        public Address address;
+    }
+    
+    public static class CustomerDto {
+        public String name;
+        public AddressDto address;
+    }
+    
+    public static class Address {
+        public String city;
+    }
+    
+    public static class AddressDto {
+        public String city;
+    }
+    
+    /**
+     * Delegates to another compiler strategy, recording the size of each batch
+     * of classes compiled together
+     */
+    public static class RecordingCompilerStrategy extends CompilerStrategy {
+        
+        private final CompilerStrategy delegate;
+        private final List<Integer> batches = new ArrayList<>();
+        
+        public RecordingCompilerStrategy(CompilerStrategy delegate) {
+            super("false", "false");
+            this.delegate = delegate;
+        }
+        
+        public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
+            return delegate.compileClass(sourceCode);
+        }
+        
+        public List<Class<?>> compileClasses(List<SourceCodeContext> sourceCodes) throws SourceCodeGenerationException {
+            batches.add(sourceCodes.size());
+            return delegate.compileClasses(sourceCodes);
+        }
+        
+        public void assureTypeIsAccessible(Class<?> type) throws SourceCodeGenerationException {
+            delegate.assureTypeIsAccessible(type);
+        }
+    }
+    
+    private static void assertMapped(MapperFacade mapper) {
+        Order order = new Order();
+        order.number = "A-1";
+        order.customer = new Customer();
+        order.customer.name = "Homer";
+        order.customer.address = new Address();
+        order.customer.address.city = "Springfield";
+        
+        OrderDto result = mapper.map(order, OrderDto.class);
+        Assert.assertEquals("A-1", result.number);
+        Assert.assertEquals("Homer", result.customer.name);
+        Assert.assertEquals("Springfield", result.customer.address.city);
+        
+        Order back = mapper.map(result, Order.class);
+        Assert.assertEquals("Springfield", back.customer.address.city);
+    }
+    
+    private static void testBatchCompilation(CompilerStrategy compilerStrategy) {
+        RecordingCompilerStrategy recorder = new RecordingCompilerStrategy(compilerStrategy);
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(recorder).batchCompilation(true).build();
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).constructorB().byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).constructorB().byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        /*
+         * The mappers are compiled together, followed by the object factories
+         * of the class-maps which specify a constructor
+         */
+        Assert.assertEquals(2, recorder.batches.size());
+        Assert.assertEquals(Integer.valueOf(3), recorder.batches.get(0));
+        Assert.assertEquals(Integer.valueOf(2), recorder.batches.get(1));
+        assertMapped(mapper);
+    }
+    
+    @Test
+    public void testJavassistBatchCompilation() {
+        testBatchCompilation(new JavassistCompilerStrategy());
+    }
+    
+    @Test
+    public void testJaninoBatchCompilation() {
+        testBatchCompilation(new JaninoCompilerStrategy());
+    }
+    
+    @Test
+    public void testEclipseJdtBatchCompilation() {
+        testBatchCompilation(new EclipseJdtCompilerStrategy());
+    }
+    
+    @Test
+    public void testBatchCompilationIsDisabledByDefault() {
+        RecordingCompilerStrategy recorder = new RecordingCompilerStrategy(new JavassistCompilerStrategy());
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(recorder).build();
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).constructorB().byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).constructorB().byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Assert.assertTrue(recorder.batches.isEmpty());
+        assertMapped(mapper);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javassist.CannotCompileException;
+import javassist.CtClass;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.OrikaSystemProperties;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.CachingCompilerStrategy;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingCompilerStrategyTestCase {
+    
+    public static class Person {
+        public String name;
+        public Address address;
+    }
+    
+    public static class PersonDto {
+        public String name;
+        public AddressDto address;
+    }
+    
+    public static class Address {
+        public String city;
+    }
+    
+    public static class AddressDto {
+        public String city;
+    }
+    
+    /**
+     * Counts the classes which had to be compiled from source
+     */
+    public static class CountingCompilerStrategy extends CachingCompilerStrategy {
+        
+        private final AtomicInteger compiled = new AtomicInteger();
+        
+        public CountingCompilerStrategy(File cacheDirectory) {
+            super(cacheDirectory);
+        }
+        
+        protected void addMembers(SourceCodeContext sourceCode, CtClass byteCodeClass) throws CannotCompileException {
+            compiled.incrementAndGet();
+            super.addMembers(sourceCode, byteCodeClass);
+        }
+    }
+    
+    private File cacheDirectory;
+    private String writeClassFiles;
+    
+    @Before
+    public void setUp() throws IOException {
+        cacheDirectory = Files.createTempDirectory("orika-class-cache").toFile();
+        /*
+         * Class files written to the class-path would be found by the next
+         * class-loader
+         */
+        writeClassFiles = System.clearProperty(OrikaSystemProperties.WRITE_CLASS_FILES);
+    }
+    
+    @After
+    public void tearDown() {
+        if (writeClassFiles != null) {
+            System.setProperty(OrikaSystemProperties.WRITE_CLASS_FILES, writeClassFiles);
+        }
+    }
+    
+    /**
+     * Builds a mapper using a new CountingCompilerStrategy; the classes are
+     * defined by a new class-loader each time, as if by a new JVM
+     * 
+     * @return the number of classes compiled from source
+     */
+    private int buildAndMap(boolean excludeName) {
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(new URLClassLoader(new URL[0], contextClassLoader));
+        try {
+            CountingCompilerStrategy compilerStrategy = new CountingCompilerStrategy(cacheDirectory);
+            MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+            if (excludeName) {
+                factory.classMap(Person.class, PersonDto.class).exclude("name").byDefault().register();
+            } else {
+                factory.classMap(Person.class, PersonDto.class).byDefault().register();
+            }
+            factory.classMap(Address.class, AddressDto.class).byDefault().register();
+            MapperFacade mapper = factory.getMapperFacade();
+            
+            Person person = new Person();
+            person.name = "Homer";
+            person.address = new Address();
+            person.address.city = "Springfield";
+            PersonDto result = mapper.map(person, PersonDto.class);
+            Assert.assertEquals(excludeName ? null : "Homer", result.name);
+            Assert.assertEquals("Springfield", result.address.city);
+            
+            return compilerStrategy.compiled.get();
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+    
+    private File[] cachedClassFiles() {
+        File[] files = cacheDirectory.listFiles();
+        return files == null ? new File[0] : files;
+    }
+    
+    @Test
+    public void testCachedClassesAreReused() {
+        Assert.assertEquals(2, buildAndMap(false));
+        Assert.assertEquals(2, cachedClassFiles().length);
+        
+        Assert.assertEquals(0, buildAndMap(false));
+        Assert.assertEquals(2, cachedClassFiles().length);
+    }
+    
+    @Test
+    public void testChangedConfigurationIsCompiled() {
+        Assert.assertEquals(2, buildAndMap(false));
+        Assert.assertEquals(1, buildAndMap(true));
+        Assert.assertEquals(3, cachedClassFiles().length);
+    }
+    
+    @Test
+    public void testCorruptCachedClassesAreCompiled() throws IOException {
+        Assert.assertEquals(2, buildAndMap(false));
+        for (File cachedClassFile : cachedClassFiles()) {
+            Files.write(cachedClassFile.toPath(), new byte[] { 1, 2, 3 });
+        }
+        Assert.assertEquals(2, buildAndMap(false));
+        /*
+         * The corrupt classes have been replaced
+         */
+        Assert.assertEquals(0, buildAndMap(false));
+    }
+    
+    @Test
+    public void testClassesWithChangedReferencedClassesAreCompiled() throws IOException {
+        Assert.assertEquals(2, buildAndMap(false));
+        /*
+         * As if a class referenced by the cached classes had changed since
+         * they were stored
+         */
+        for (File cachedClassFile : cachedClassFiles()) {
+            byte[] content = Files.readAllBytes(cachedClassFile.toPath());
+            Arrays.fill(content, 0, 32, (byte) '0');
+            Files.write(cachedClassFile.toPath(), content);
+        }
+        Assert.assertEquals(2, buildAndMap(false));
+        Assert.assertEquals(0, buildAndMap(false));
+        for (File cachedClassFile : cachedClassFiles()) {
+            Assert.assertNotEquals("00000000000000000000000000000000",
+                    new String(Files.readAllBytes(cachedClassFile.toPath()), 0, 32, StandardCharsets.US_ASCII));
+        }
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testCacheDirectoryIsRequired() {
+        String cacheDirectory = System.clearProperty(OrikaSystemProperties.CLASS_CACHE_DIRECTORY);
+        try {
+            new CachingCompilerStrategy();
+        } finally {
+            if (cacheDirectory != null) {
+                System.setProperty(OrikaSystemProperties.CLASS_CACHE_DIRECTORY, cacheDirectory);
+            }
+        }
+    }
+    
+    @Test
+    public void testCacheDirectoryIsCreatedForOwnerOnly() throws IOException {
+        Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        File directory = new File(cacheDirectory, "classes");
+        new CachingCompilerStrategy(directory);
+        Assert.assertEquals(PosixFilePermissions.fromString("rwx------"), Files.getPosixFilePermissions(directory.toPath()));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testSharedCacheDirectoryIsRejected() throws IOException {
+        Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Files.setPosixFilePermissions(cacheDirectory.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+        new CachingCompilerStrategy(cacheDirectory);
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ma.glasnost.orika.CustomConverter;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.GeneratedMapperBase;
+import ma.glasnost.orika.impl.generator.CycleAnalysis;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CycleAnalysisTestCase {
+    
+    public static class Order {
+        public String number;
+        public Customer customer;
+        public List<Line> lines = new ArrayList<>();
+    }
+    
+    public static class OrderDto {
+        public String number;
+        public CustomerDto customer;
+        public List<LineDto> lines = new ArrayList<>();
+    }
+    
+    public static class Customer {
+        public String name;
+    }
+    
+    public static class CustomerDto {
+        public String name;
+    }
+    
+    public static class Line {
+        public String product;
+        public int quantity;
+    }
+    
+    public static class LineDto {
+        public String product;
+        public int quantity;
+    }
+    
+    public static class Invoice {
+        public Customer buyer;
+        public Customer payer;
+    }
+    
+    public static class InvoiceDto {
+        public CustomerDto buyer;
+        public CustomerDto payer;
+    }
+    
+    public static class Parent {
+        public String name;
+        public List<Child> children = new ArrayList<>();
+    }
+    
+    public static class ParentDto {
+        public String name;
+        public List<ChildDto> children = new ArrayList<>();
+    }
+    
+    public static class Child {
+        public String name;
+        public Parent parent;
+    }
+    
+    public static class ChildDto {
+        public String name;
+        public ParentDto parent;
+    }
+    
+    public interface Content {
+    }
+    
+    public static class Attachment implements Content {
+        public String text;
+        public Holder owner;
+    }
+    
+    public static class Holder {
+        public String name;
+        public Content content;
+    }
+    
+    public static class ContentDto {
+        public String text;
+        public HolderDto owner;
+    }
+    
+    public static class HolderDto {
+        public String name;
+        public ContentDto content;
+    }
+    
+    /**
+     * Maps the owner of the attachment back through the MapperFacade, which the
+     * cycle analysis cannot see.
+     */
+    public static class AttachmentConverter extends CustomConverter<Attachment, ContentDto> {
+        public ContentDto convert(Attachment source, Type<? extends ContentDto> destinationType, MappingContext mappingContext) {
+            ContentDto result = new ContentDto();
+            result.text = source.text;
+            result.owner = mapperFacade.map(source.owner, HolderDto.class, mappingContext);
+            return result;
+        }
+    }
+    
+    private static CycleAnalysis.Result resultOf(MapperFactory factory, Class<?> aType, Class<?> bType) {
+        MapperKey key = new MapperKey(TypeFactory.valueOf(aType), TypeFactory.valueOf(bType));
+        return GeneratedMapperBase.getCycleAnalysis(factory.lookupMapper(key));
+    }
+    
+    private static Order newOrder() {
+        Order order = new Order();
+        order.number = "42";
+        order.customer = new Customer();
+        order.customer.name = "Joe";
+        for (int i = 0; i < 3; ++i) {
+            Line line = new Line();
+            line.product = "Product #" + i;
+            line.quantity = i;
+            order.lines.add(line);
+        }
+        return order;
+    }
+    
+    @Test
+    public void acyclicGraph() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().analyzeCycles(true).build();
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).byDefault().register();
+        factory.classMap(Line.class, LineDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        Assert.assertEquals(CycleAnalysis.Result.ACYCLIC, resultOf(factory, Order.class, OrderDto.class));
+        Assert.assertEquals(CycleAnalysis.Result.ACYCLIC, resultOf(factory, Line.class, LineDto.class));
+        Assert.assertEquals(CycleAnalysis.Result.ACYCLIC, resultOf(factory, CustomerDto.class, Customer.class));
+        
+        OrderDto result = mapper.map(newOrder(), OrderDto.class);
+        Assert.assertEquals("42", result.number);
+        Assert.assertEquals("Joe", result.customer.name);
+        Assert.assertEquals(3, result.lines.size());
+        Assert.assertEquals("Product #2", result.lines.get(2).product);
+        Assert.assertEquals(2, result.lines.get(2).quantity);
+        
+        Order reversed = mapper.map(result, Order.class);
+        Assert.assertEquals("Joe", reversed.customer.name);
+        Assert.assertEquals("Product #1", reversed.lines.get(1).product);
+    }
+    
+    @Test
+    public void cyclicGraphPreservesIdentity() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().analyzeCycles(true).build();
+        factory.classMap(Parent.class, ParentDto.class).byDefault().register();
+        factory.classMap(Child.class, ChildDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        Assert.assertEquals(CycleAnalysis.Result.CYCLIC, resultOf(factory, Parent.class, ParentDto.class));
+        Assert.assertEquals(CycleAnalysis.Result.CYCLIC, resultOf(factory, ChildDto.class, Child.class));
+        
+        Parent parent = new Parent();
+        parent.name = "parent";
+        for (int i = 0; i < 2; ++i) {
+            Child child = new Child();
+            child.name = "child #" + i;
+            child.parent = parent;
+            parent.children.add(child);
+        }
+        
+        ParentDto result = mapper.map(parent, ParentDto.class);
+        Assert.assertEquals(2, result.children.size());
+        for (ChildDto child : result.children) {
+            Assert.assertSame(result, child.parent);
+        }
+    }
+    
+    @Test
+    public void cycleThroughCustomConverterPreservesIdentity() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().analyzeCycles(true).build();
+        factory.classMap(Holder.class, HolderDto.class).byDefault().register();
+        factory.getConverterFactory().registerConverter(new AttachmentConverter());
+        MapperFacade mapper = factory.getMapperFacade();
+        /*
+         * No class-map relates to Content, so Holder appears to be acyclic;
+         * the custom converter used for the Attachment at runtime must
+         * therefore cache the Holder before it maps its owner
+         */
+        Assert.assertEquals(CycleAnalysis.Result.ACYCLIC, resultOf(factory, Holder.class, HolderDto.class));
+        
+        Holder holder = new Holder();
+        holder.name = "holder";
+        Attachment attachment = new Attachment();
+        attachment.text = "text";
+        attachment.owner = holder;
+        holder.content = attachment;
+        
+        HolderDto result = mapper.map(holder, HolderDto.class);
+        Assert.assertEquals("text", result.content.text);
+        Assert.assertSame(result, result.content.owner);
+    }
+    
+    @Test
+    public void sharedNodeOfAcyclicGraphIsMappedOnceByDefault() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Invoice.class, InvoiceDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        Assert.assertEquals(CycleAnalysis.Result.UNKNOWN, resultOf(factory, Invoice.class, InvoiceDto.class));
+        
+        Invoice invoice = new Invoice();
+        invoice.buyer = new Customer();
+        invoice.buyer.name = "Joe";
+        invoice.payer = invoice.buyer;
+        
+        InvoiceDto result = mapper.map(invoice, InvoiceDto.class);
+        Assert.assertEquals("Joe", result.buyer.name);
+        Assert.assertSame(result.buyer, result.payer);
+    }
+    
+    @Test
+    public void sharedReferencesPreservedWithoutAnalysis() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).byDefault().register();
+        factory.classMap(Line.class, LineDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        Assert.assertEquals(CycleAnalysis.Result.UNKNOWN, resultOf(factory, Order.class, OrderDto.class));
+        
+        Order order = newOrder();
+        Customer customer = order.customer;
+        Order other = newOrder();
+        other.customer = customer;
+        List<Order> orders = new ArrayList<>();
+        orders.add(order);
+        orders.add(other);
+        
+        List<OrderDto> result = mapper.mapAsList(orders, OrderDto.class);
+        Assert.assertSame(result.get(0).customer, result.get(1).customer);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Calendar;
+import java.util.Date;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.Converter;
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that generated mappers reference the converters, types and mapper
+ * facades they use through final fields of their own.
+ */
+public class DependencyFieldsTestCase {
+    
+    public static class Person {
+        public String name;
+        public Date birthDate;
+        public Address address;
+    }
+    
+    public static class PersonDto {
+        public String name;
+        public Calendar birthDate;
+        public AddressDto address;
+    }
+    
+    public static class Address {
+        public String city;
+    }
+    
+    public static class AddressDto {
+        public String city;
+    }
+    
+    @Test
+    public void testDependenciesAreReferencedThroughFinalFields() throws IllegalAccessException {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Person.class, PersonDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        MapperFacade mapperFacade = factory.getMapperFacade();
+        
+        Person person = new Person();
+        person.name = "Marge";
+        person.birthDate = new Date(123456789L);
+        person.address = new Address();
+        person.address.city = "Springfield";
+        PersonDto result = mapperFacade.map(person, PersonDto.class);
+        Assert.assertEquals("Marge", result.name);
+        Assert.assertEquals(123456789L, result.birthDate.getTimeInMillis());
+        Assert.assertEquals("Springfield", result.address.city);
+        
+        Mapper<Object, Object> mapper = factory.lookupMapper(new MapperKey(TypeFactory.valueOf(Person.class),
+                TypeFactory.valueOf(PersonDto.class)));
+        int converters = 0;
+        int types = 0;
+        int mapperFacades = 0;
+        for (Field field : mapper.getClass().getDeclaredFields()) {
+            if (field.getType() == Converter.class) {
+                ++converters;
+            } else if (field.getType() == Type.class) {
+                ++types;
+            } else if (field.getType() == BoundMapperFacade.class) {
+                ++mapperFacades;
+            } else {
+                continue;
+            }
+            Assert.assertTrue(field + " should be final", Modifier.isFinal(field.getModifiers()));
+            field.setAccessible(true);
+            Assert.assertNotNull(field + " should be assigned", field.get(mapper));
+        }
+        Assert.assertEquals(1, converters);
+        Assert.assertEquals(2, types);
+        Assert.assertEquals(1, mapperFacades);
+    }
+}
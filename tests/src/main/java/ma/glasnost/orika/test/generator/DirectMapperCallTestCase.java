@@ -0,0 +1,165 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.ObjectFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DirectMapperCallTestCase {
+    
+    public static class Person {
+        public String name;
+        public Address address;
+        public Person partner;
+    }
+    
+    public static class PersonDto {
+        public String name;
+        public AddressDto address;
+        public PersonDto partner;
+    }
+    
+    public static class Address {
+        public String city;
+    }
+    
+    public static class PostalAddress extends Address {
+        public String postCode;
+    }
+    
+    public static class AddressDto {
+        public String city;
+    }
+    
+    public static class PostalAddressDto extends AddressDto {
+        public String postCode;
+    }
+    
+    /**
+     * Records whether each AddressDto was instantiated through a
+     * BoundMapperFacade, or called directly from the generated mapper
+     */
+    public static class RecordingObjectFactory implements ObjectFactory<AddressDto> {
+        private final List<Boolean> viaBoundMapperFacade = new ArrayList<>();
+        
+        public AddressDto create(Object source, MappingContext mappingContext) {
+            boolean viaFacade = false;
+            for (StackTraceElement element : new Throwable().getStackTrace()) {
+                if (element.getClassName().contains("BoundMapperFacade")) {
+                    viaFacade = true;
+                }
+            }
+            viaBoundMapperFacade.add(viaFacade);
+            return new AddressDto();
+        }
+    }
+    
+    private static Person newPerson(String name, Address address) {
+        Person person = new Person();
+        person.name = name;
+        person.address = address;
+        address.city = name + "'s city";
+        return person;
+    }
+    
+    @Test
+    public void exactClassIsMappedDirectly() {
+        RecordingObjectFactory objectFactory = new RecordingObjectFactory();
+        MapperFactory factory = new DefaultMapperFactory.Builder().useDirectMapperCalls(true).build();
+        factory.classMap(Person.class, PersonDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        factory.classMap(PostalAddress.class, PostalAddressDto.class).byDefault().register();
+        factory.registerObjectFactory(objectFactory, TypeFactory.valueOf(AddressDto.class), TypeFactory.valueOf(Address.class));
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        for (int i = 0; i < 3; ++i) {
+            PersonDto result = mapper.map(newPerson("Joe", new Address()), PersonDto.class);
+            Assert.assertEquals("Joe", result.name);
+            Assert.assertEquals(AddressDto.class, result.address.getClass());
+            Assert.assertEquals("Joe's city", result.address.city);
+        }
+        Assert.assertEquals(3, objectFactory.viaBoundMapperFacade.size());
+        Assert.assertFalse(objectFactory.viaBoundMapperFacade.contains(Boolean.TRUE));
+    }
+    
+    @Test
+    public void otherClassesFallBackToBoundMapperFacade() {
+        RecordingObjectFactory objectFactory = new RecordingObjectFactory();
+        MapperFactory factory = new DefaultMapperFactory.Builder().useDirectMapperCalls(true).build();
+        factory.classMap(Person.class, PersonDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        factory.classMap(PostalAddress.class, PostalAddressDto.class).byDefault().register();
+        factory.registerObjectFactory(objectFactory, TypeFactory.valueOf(AddressDto.class), TypeFactory.valueOf(Address.class));
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        PostalAddress postalAddress = new PostalAddress();
+        postalAddress.postCode = "12345";
+        PersonDto result = mapper.map(newPerson("Joe", postalAddress), PersonDto.class);
+        Assert.assertEquals(PostalAddressDto.class, result.address.getClass());
+        Assert.assertEquals("12345", ((PostalAddressDto) result.address).postCode);
+        Assert.assertEquals("Joe's city", result.address.city);
+        
+        result = mapper.map(newPerson("Jane", new Address()), PersonDto.class);
+        Assert.assertEquals(AddressDto.class, result.address.getClass());
+        Assert.assertEquals("Jane's city", result.address.city);
+    }
+    
+    @Test
+    public void cyclesArePreserved() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().useDirectMapperCalls(true).build();
+        factory.classMap(Person.class, PersonDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Person joe = newPerson("Joe", new Address());
+        Person jane = newPerson("Jane", new Address());
+        joe.partner = jane;
+        jane.partner = joe;
+        
+        PersonDto result = mapper.map(joe, PersonDto.class);
+        Assert.assertEquals("Jane", result.partner.name);
+        Assert.assertSame(result, result.partner.partner);
+        Assert.assertEquals("Jane's city", result.partner.address.city);
+    }
+    
+    @Test
+    public void directCallsAreDisabledByDefault() {
+        RecordingObjectFactory objectFactory = new RecordingObjectFactory();
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Person.class, PersonDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        factory.classMap(PostalAddress.class, PostalAddressDto.class).byDefault().register();
+        factory.registerObjectFactory(objectFactory, TypeFactory.valueOf(AddressDto.class), TypeFactory.valueOf(Address.class));
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        PersonDto result = mapper.map(newPerson("Joe", new Address()), PersonDto.class);
+        Assert.assertEquals("Joe's city", result.address.city);
+        Assert.assertEquals(1, objectFactory.viaBoundMapperFacade.size());
+        Assert.assertTrue(objectFactory.viaBoundMapperFacade.get(0));
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ma.glasnost.orika.CustomConverter;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.Type;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FusedMappingTestCase {
+    
+    public static class Order {
+        public String number;
+        public Customer customer;
+    }
+    
+    public static class OrderDto {
+        public String number;
+        public CustomerDto customer;
+    }
+    
+    public static class Customer {
+        public String name;
+        public Address address;
+        public Order lastOrder;
+    }
+    
+    public static class CustomerDto {
+        public String name;
+        public AddressDto address;
+        public OrderDto lastOrder;
+    }
+    
+    public static class Address {
+        public PostCode postCode;
+    }
+    
+    public static class AddressDto {
+        public String postCode;
+    }
+    
+    public static class PostCode {
+        public String value;
+        
+        public PostCode(String value) {
+            this.value = value;
+        }
+    }
+    
+    /**
+     * Records the number of generated mapper methods on the stack each time a
+     * post code is converted
+     */
+    public static class PostCodeConverter extends CustomConverter<PostCode, String> {
+        private final List<Integer> mapperDepths = new ArrayList<>();
+        
+        public String convert(PostCode source, Type<? extends String> destinationType, MappingContext mappingContext) {
+            int depth = 0;
+            for (StackTraceElement element : new Throwable().getStackTrace()) {
+                if (element.getClassName().contains("_Mapper") && element.getMethodName().startsWith("map")) {
+                    ++depth;
+                }
+            }
+            mapperDepths.add(depth);
+            return source.value;
+        }
+    }
+    
+    private static Order newOrder() {
+        Order order = new Order();
+        order.number = "42";
+        order.customer = new Customer();
+        order.customer.name = "Joe";
+        order.customer.address = new Address();
+        order.customer.address.postCode = new PostCode("12345");
+        return order;
+    }
+    
+    private static void assertMapped(Order order, OrderDto result) {
+        Assert.assertEquals(order.number, result.number);
+        Assert.assertEquals(order.customer.name, result.customer.name);
+        Assert.assertEquals(order.customer.address.postCode.value, result.customer.address.postCode);
+    }
+    
+    @Test
+    public void nestedClassMapsAreFused() {
+        PostCodeConverter converter = new PostCodeConverter();
+        MapperFactory factory = new DefaultMapperFactory.Builder().useDirectMapperCalls(true).fusedMappingDepth(2).build();
+        factory.getConverterFactory().registerConverter(converter);
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Order order = newOrder();
+        assertMapped(order, mapper.map(order, OrderDto.class));
+        /*
+         * Customer and Address are mapped within the mapper of Order
+         */
+        Assert.assertEquals(1, converter.mapperDepths.get(0).intValue());
+    }
+    
+    @Test
+    public void fusionIsLimitedByDepth() {
+        PostCodeConverter converter = new PostCodeConverter();
+        MapperFactory factory = new DefaultMapperFactory.Builder().useDirectMapperCalls(true).fusedMappingDepth(1).build();
+        factory.getConverterFactory().registerConverter(converter);
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Order order = newOrder();
+        assertMapped(order, mapper.map(order, OrderDto.class));
+        /*
+         * Customer is fused into the mapper of Order, which calls the mapper
+         * of Address
+         */
+        Assert.assertEquals(2, converter.mapperDepths.get(0).intValue());
+    }
+    
+    @Test
+    public void fusionIsDisabledByDefault() {
+        PostCodeConverter converter = new PostCodeConverter();
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.getConverterFactory().registerConverter(converter);
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Order order = newOrder();
+        assertMapped(order, mapper.map(order, OrderDto.class));
+        Assert.assertEquals(3, converter.mapperDepths.get(0).intValue());
+    }
+    
+    @Test
+    public void fusedMappingPreservesCycles() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().useDirectMapperCalls(true).fusedMappingDepth(4).build();
+        factory.getConverterFactory().registerConverter(new PostCodeConverter());
+        factory.classMap(Order.class, OrderDto.class).byDefault().register();
+        factory.classMap(Customer.class, CustomerDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Order order = newOrder();
+        order.customer.lastOrder = order;
+        
+        OrderDto result = mapper.map(order, OrderDto.class);
+        assertMapped(order, result);
+        Assert.assertSame(result, result.customer.lastOrder);
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.OrikaSystemProperties;
+import ma.glasnost.orika.impl.ConfigurableMapper;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.CompilerStrategy.SourceCodeGenerationException;
+import ma.glasnost.orika.impl.generator.MapperPrecompiler;
+import ma.glasnost.orika.impl.generator.PrecompiledCompilerStrategy;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrecompiledCompilerStrategyTestCase {
+    
+    public static class Person {
+        public String name;
+        public Address address;
+    }
+    
+    public static class PersonDto {
+        public String name;
+        public AddressDto address;
+    }
+    
+    public static class Address {
+        public String city;
+    }
+    
+    public static class AddressDto {
+        public String city;
+    }
+    
+    public static class PersonMapper extends ConfigurableMapper {
+        protected void configure(MapperFactory factory) {
+            PrecompiledCompilerStrategyTestCase.configure(factory);
+        }
+    }
+    
+    private static void configure(MapperFactory factory) {
+        factory.classMap(Person.class, PersonDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+    }
+    
+    /**
+     * Records the names of the classes which had to be compiled
+     */
+    public static class RecordingCompilerStrategy extends PrecompiledCompilerStrategy {
+        
+        private final List<String> compiled = Collections.synchronizedList(new ArrayList<String>());
+        
+        protected Class<?> compileClass(SourceCodeContext sourceCode, String name) throws SourceCodeGenerationException {
+            compiled.add(name);
+            return super.compileClass(sourceCode, name);
+        }
+    }
+    
+    private String writeClassFiles;
+    
+    @Before
+    public void setUp() {
+        /*
+         * Class files written to the class-path would be found in place of
+         * those written to the output directory
+         */
+        writeClassFiles = System.clearProperty(OrikaSystemProperties.WRITE_CLASS_FILES);
+    }
+    
+    @After
+    public void tearDown() {
+        if (writeClassFiles != null) {
+            System.setProperty(OrikaSystemProperties.WRITE_CLASS_FILES, writeClassFiles);
+        }
+    }
+    
+    private static File precompile() throws IOException {
+        File outputDirectory = Files.createTempDirectory("orika-precompiled").toFile();
+        /*
+         * The classes compiled during precompilation are defined by a
+         * throw-away class-loader, so that only those written to the output
+         * directory can be found afterwards
+         */
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(new URLClassLoader(new URL[0], contextClassLoader));
+        try {
+            MapperPrecompiler.precompile(outputDirectory, Collections.<Class<? extends ConfigurableMapper>> singletonList(PersonMapper.class));
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+        return outputDirectory;
+    }
+    
+    private static List<File> findClassFiles(File directory) {
+        List<File> classFiles = new ArrayList<>();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    classFiles.addAll(findClassFiles(file));
+                } else if (file.getName().endsWith(".class")) {
+                    classFiles.add(file);
+                }
+            }
+        }
+        return classFiles;
+    }
+    
+    private static Person newPerson() {
+        Person person = new Person();
+        person.name = "Homer";
+        person.address = new Address();
+        person.address.city = "Springfield";
+        return person;
+    }
+    
+    @Test
+    public void testPrecompiledClassesAreWritten() throws IOException {
+        List<File> classFiles = findClassFiles(precompile());
+        Assert.assertEquals(classFiles.toString(), 2, classFiles.size());
+        for (File classFile : classFiles) {
+            Assert.assertTrue(classFile.getName(), classFile.getName().startsWith("Orika_GeneratedMapperBase_"));
+        }
+    }
+    
+    @Test
+    public void testPrecompiledClassesAreLoaded() throws IOException {
+        File outputDirectory = precompile();
+        
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        URLClassLoader precompiledClassLoader = new URLClassLoader(new URL[] { outputDirectory.toURI().toURL() }, contextClassLoader);
+        thread.setContextClassLoader(precompiledClassLoader);
+        try {
+            RecordingCompilerStrategy compilerStrategy = new RecordingCompilerStrategy();
+            MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+            configure(factory);
+            MapperFacade mapper = factory.getMapperFacade();
+            
+            Assert.assertEquals(Collections.emptyList(), compilerStrategy.compiled);
+            
+            PersonDto result = mapper.map(newPerson(), PersonDto.class);
+            Assert.assertEquals("Homer", result.name);
+            Assert.assertEquals("Springfield", result.address.city);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+    
+    @Test
+    public void testChangedConfigurationIsCompiled() throws IOException {
+        File outputDirectory = precompile();
+        
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        URLClassLoader precompiledClassLoader = new URLClassLoader(new URL[] { outputDirectory.toURI().toURL() }, contextClassLoader);
+        thread.setContextClassLoader(precompiledClassLoader);
+        try {
+            RecordingCompilerStrategy compilerStrategy = new RecordingCompilerStrategy();
+            MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+            factory.classMap(Person.class, PersonDto.class).exclude("name").byDefault().register();
+            factory.classMap(Address.class, AddressDto.class).byDefault().register();
+            MapperFacade mapper = factory.getMapperFacade();
+            
+            /*
+             * Only the mapper whose class-map has changed is compiled
+             */
+            Assert.assertEquals(compilerStrategy.compiled.toString(), 1, compilerStrategy.compiled.size());
+            
+            PersonDto result = mapper.map(newPerson(), PersonDto.class);
+            Assert.assertNull(result.name);
+            Assert.assertEquals("Springfield", result.address.city);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.generator;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.InterpretedMapper;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TieredMappingTestCase {
+    
+    public static class Person {
+        public String name;
+        public int age;
+        public Date birthDate;
+        public Long id;
+        public Address address;
+    }
+    
+    public static class PersonDto {
+        private String name;
+        private int age;
+        private Date birthDate;
+        private String id;
+        private AddressDto address;
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public int getAge() {
+            return age;
+        }
+        
+        public void setAge(int age) {
+            this.age = age;
+        }
+        
+        public Date getBirthDate() {
+            return birthDate;
+        }
+        
+        public void setBirthDate(Date birthDate) {
+            this.birthDate = birthDate;
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        public void setId(String id) {
+            this.id = id;
+        }
+        
+        public AddressDto getAddress() {
+            return address;
+        }
+        
+        public void setAddress(AddressDto address) {
+            this.address = address;
+        }
+    }
+    
+    public static class Address {
+        public String street;
+        public String city;
+    }
+    
+    public static class AddressDto {
+        public String street;
+        public String city;
+    }
+    
+    public static class Team {
+        public List<Person> members;
+    }
+    
+    public static class TeamDto {
+        public List<PersonDto> members;
+    }
+    
+    /**
+     * Runs the submitted tasks only when asked to
+     */
+    private static class QueueingExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+        
+        public synchronized void execute(Runnable task) {
+            tasks.add(task);
+        }
+        
+        private void runAll() {
+            List<Runnable> pending;
+            while (true) {
+                synchronized (this) {
+                    if (tasks.isEmpty()) {
+                        return;
+                    }
+                    pending = new ArrayList<>(tasks);
+                    tasks.clear();
+                }
+                for (Runnable task : pending) {
+                    task.run();
+                }
+            }
+        }
+        
+        private synchronized int size() {
+            return tasks.size();
+        }
+    }
+    
+    private static Person newPerson() {
+        Person person = new Person();
+        person.name = "Joe";
+        person.age = 42;
+        person.birthDate = new Date(1000000L);
+        person.id = 7L;
+        person.address = new Address();
+        person.address.street = "1 Main Street";
+        person.address.city = "Springfield";
+        return person;
+    }
+    
+    private static void assertMapped(Person person, PersonDto result) {
+        Assert.assertEquals(person.name, result.getName());
+        Assert.assertEquals(person.age, result.getAge());
+        Assert.assertEquals(person.birthDate, result.getBirthDate());
+        Assert.assertEquals("" + person.id, result.getId());
+        Assert.assertEquals(person.address.street, result.getAddress().street);
+        Assert.assertEquals(person.address.city, result.getAddress().city);
+    }
+    
+    private static Mapper<Object, Object> lookupMapper(MapperFactory factory, Class<?> aType, Class<?> bType) {
+        return factory.lookupMapper(new MapperKey(TypeFactory.valueOf(aType), TypeFactory.valueOf(bType)));
+    }
+    
+    @Test
+    public void testMappersAreInterpretedUntilCompiled() {
+        QueueingExecutor executor = new QueueingExecutor();
+        MapperFactory factory = new DefaultMapperFactory.Builder().tieredMapping(true).buildExecutor(executor).build();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Person person = newPerson();
+        assertMapped(person, mapper.map(person, PersonDto.class));
+        
+        Mapper<Object, Object> personMapper = lookupMapper(factory, Person.class, PersonDto.class);
+        Assert.assertTrue(personMapper instanceof InterpretedMapper);
+        Assert.assertNull(((InterpretedMapper) personMapper).getCompiledMapper());
+        Assert.assertTrue(lookupMapper(factory, Address.class, AddressDto.class) instanceof InterpretedMapper);
+        Assert.assertEquals(2, executor.size());
+        
+        Person reversed = mapper.map(mapper.map(person, PersonDto.class), Person.class);
+        Assert.assertEquals(person.name, reversed.name);
+        Assert.assertEquals(person.id, reversed.id);
+        Assert.assertEquals(person.address.city, reversed.address.city);
+        
+        executor.runAll();
+        
+        Mapper<Object, Object> compiledMapper = ((InterpretedMapper) personMapper).getCompiledMapper();
+        Assert.assertNotNull(compiledMapper);
+        Assert.assertSame(compiledMapper, lookupMapper(factory, Person.class, PersonDto.class));
+        Assert.assertFalse(lookupMapper(factory, Address.class, AddressDto.class) instanceof InterpretedMapper);
+        assertMapped(person, mapper.map(person, PersonDto.class));
+    }
+    
+    @Test
+    public void testInterpretedMapperMapsNulls() {
+        QueueingExecutor executor = new QueueingExecutor();
+        MapperFactory factory = new DefaultMapperFactory.Builder().tieredMapping(true).buildExecutor(executor).build();
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        PersonDto result = mapper.map(newPerson(), PersonDto.class);
+        AddressDto address = result.getAddress();
+        
+        Person person = new Person();
+        person.address = new Address();
+        person.address.city = "Shelbyville";
+        mapper.map(person, result);
+        
+        Assert.assertNull(result.getName());
+        Assert.assertNull(result.getBirthDate());
+        Assert.assertNull(result.getId());
+        Assert.assertEquals(0, result.getAge());
+        /*
+         * The existing nested object is mapped in place
+         */
+        Assert.assertSame(address, result.getAddress());
+        Assert.assertNull(address.street);
+        Assert.assertEquals("Shelbyville", address.city);
+    }
+    
+    @Test
+    public void testUnsupportedClassMapsAreCompiledImmediately() {
+        QueueingExecutor executor = new QueueingExecutor();
+        MapperFactory factory = new DefaultMapperFactory.Builder().tieredMapping(true).buildExecutor(executor).build();
+        
+        Team team = new Team();
+        team.members = new ArrayList<>();
+        team.members.add(newPerson());
+        TeamDto result = factory.getMapperFacade().map(team, TeamDto.class);
+        assertMapped(team.members.get(0), result.members.get(0));
+        
+        Assert.assertFalse(lookupMapper(factory, Team.class, TeamDto.class) instanceof InterpretedMapper);
+    }
+    
+    @Test
+    public void testTieredMappingIsDisabledByDefault() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.getMapperFacade().map(newPerson(), PersonDto.class);
+        
+        Assert.assertFalse(lookupMapper(factory, Person.class, PersonDto.class) instanceof InterpretedMapper);
+    }
+}
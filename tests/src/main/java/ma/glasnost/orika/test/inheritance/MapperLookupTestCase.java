@@ -0,0 +1,90 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.inheritance;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ma.glasnost.orika.CustomMapper;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+/**
+ * Verifies that registered mappers are resolved through the superclasses and
+ * interfaces of the mapped types, and that the lookup reflects mappers which
+ * are registered after a previous lookup.
+ */
+public class MapperLookupTestCase {
+    
+    @Test
+    public void testMapperForInterfaceIsResolvedForImplementation() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.registerMapper(new NamedToNameDtoMapper());
+        
+        Assert.assertTrue(factory.existsRegisteredMapper(TypeFactory.valueOf(Employee.class), TypeFactory.valueOf(NameDto.class), false));
+        Assert.assertTrue(factory.existsRegisteredMapper(TypeFactory.valueOf(NameDto.class), TypeFactory.valueOf(Employee.class), false));
+        Assert.assertFalse(factory.existsRegisteredMapper(TypeFactory.valueOf(String.class), TypeFactory.valueOf(NameDto.class), false));
+        
+        Employee employee = new Employee();
+        employee.name = "Kermit";
+        NameDto result = factory.getMapperFacade().map(employee, NameDto.class);
+        
+        Assert.assertEquals("custom:Kermit", result.name);
+    }
+    
+    @Test
+    public void testMapperRegisteredAfterLookupIsResolved() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        
+        Assert.assertFalse(factory.existsRegisteredMapper(TypeFactory.valueOf(Manager.class), TypeFactory.valueOf(NameDto.class), false));
+        
+        factory.registerMapper(new NamedToNameDtoMapper());
+        
+        Assert.assertTrue(factory.existsRegisteredMapper(TypeFactory.valueOf(Manager.class), TypeFactory.valueOf(NameDto.class), false));
+    }
+    
+    public interface Named {
+        String getName();
+    }
+    
+    public static class Employee implements Named {
+        public String name;
+        
+        public String getName() {
+            return name;
+        }
+    }
+    
+    public static class Manager extends Employee {
+        public int reports;
+    }
+    
+    public static class NameDto {
+        public String name;
+    }
+    
+    public static class NamedToNameDtoMapper extends CustomMapper<Named, NameDto> {
+        
+        @Override
+        public void mapAtoB(Named a, NameDto b, MappingContext context) {
+            b.name = "custom:" + a.getName();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.inheritance;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StrategyCacheTestCase {
+
+    public static class Shape {
+        public String name;
+    }
+
+    public static class Circle extends Shape {
+        public int radius;
+    }
+
+    public static class ShapeDto {
+        public String name;
+    }
+
+    public static class CircleDto extends ShapeDto {
+        public int radius;
+    }
+
+    public static class Square extends Shape {
+        public int side;
+    }
+
+    public static class SquareDto extends ShapeDto {
+        public int side;
+    }
+
+    /**
+     * Defines its own copy of {@link Triangle}, which is not a nested class so
+     * that it may be defined without its enclosing class
+     */
+    private static class IsolatingClassLoader extends ClassLoader {
+
+        IsolatingClassLoader() {
+            super(StrategyCacheTestCase.class.getClassLoader());
+        }
+
+        Class<?> defineTriangle() throws IOException {
+            String resource = Triangle.class.getName().replace('.', '/') + ".class";
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (InputStream in = getParent().getResourceAsStream(resource)) {
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    bytes.write(buffer, 0, read);
+                }
+            }
+            byte[] classBytes = bytes.toByteArray();
+            return defineClass(Triangle.class.getName(), classBytes, 0, classBytes.length);
+        }
+    }
+
+    @Test
+    public void strategiesAreResolvedPerSourceClassAndDestinationType() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Shape.class, ShapeDto.class).byDefault().register();
+        factory.classMap(Circle.class, CircleDto.class).byDefault().register();
+        factory.classMap(Square.class, SquareDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Circle circle = new Circle();
+        circle.name = "circle";
+        circle.radius = 3;
+        Square square = new Square();
+        square.name = "square";
+        square.side = 4;
+
+        for (int i = 0; i < 3; ++i) {
+            ShapeDto circleDto = mapper.map(circle, ShapeDto.class);
+            Assert.assertEquals(CircleDto.class, circleDto.getClass());
+            Assert.assertEquals(3, ((CircleDto) circleDto).radius);
+
+            ShapeDto squareDto = mapper.map(square, ShapeDto.class);
+            Assert.assertEquals(SquareDto.class, squareDto.getClass());
+            Assert.assertEquals(4, ((SquareDto) squareDto).side);
+
+            Assert.assertEquals(CircleDto.class, mapper.map(circle, CircleDto.class).getClass());
+        }
+
+        /*
+         * The same source class, mapped with an explicit source type, is
+         * resolved separately
+         */
+        Type<Shape> shapeType = TypeFactory.valueOf(Shape.class);
+        ShapeDto shapeDto = mapper.map(circle, shapeType, TypeFactory.valueOf(ShapeDto.class));
+        Assert.assertEquals("circle", shapeDto.name);
+
+        CircleDto existing = new CircleDto();
+        mapper.map(circle, existing);
+        Assert.assertEquals(3, existing.radius);
+    }
+
+    @Test
+    public void strategiesAreResolvedAgainAfterFactoryIsModified() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Shape.class, ShapeDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Circle circle = new Circle();
+        circle.name = "circle";
+        circle.radius = 3;
+        Assert.assertEquals(ShapeDto.class, mapper.map(circle, ShapeDto.class).getClass());
+
+        factory.classMap(Circle.class, CircleDto.class).byDefault().register();
+        Assert.assertEquals(CircleDto.class, mapper.map(circle, ShapeDto.class).getClass());
+    }
+
+    @Test
+    public void sourceClassMayBeUnloadedWhileFacadeIsInUse() throws Exception {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(Shape.class, ShapeDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+
+        WeakReference<ClassLoader> loader = mapIsolatedTriangle(mapper);
+        for (int i = 0; i < 50 && loader.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull("the class-loader is still reachable from the mapper facade", loader.get());
+
+        Circle circle = new Circle();
+        circle.name = "circle";
+        Assert.assertEquals("circle", mapper.map(circle, ShapeDto.class).name);
+    }
+
+    private WeakReference<ClassLoader> mapIsolatedTriangle(MapperFacade mapper) throws Exception {
+        IsolatingClassLoader loader = new IsolatingClassLoader();
+        Constructor<?> constructor = loader.defineTriangle().getDeclaredConstructor();
+        constructor.setAccessible(true);
+        Shape triangle = (Shape) constructor.newInstance();
+        Assert.assertNotSame(Triangle.class, triangle.getClass());
+        triangle.name = "triangle";
+        for (int i = 0; i < 3; ++i) {
+            ShapeDto shapeDto = new ShapeDto();
+            mapper.map(triangle, shapeDto);
+            Assert.assertEquals("triangle", shapeDto.name);
+        }
+        return new WeakReference<ClassLoader>(loader);
+    }
+}
+
+class Triangle extends StrategyCacheTestCase.Shape {
+}
@@ -0,0 +1,170 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.metrics;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.StateReporter;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.TypeFactory;
+import ma.glasnost.orika.metrics.DefaultMapperMetrics;
+import ma.glasnost.orika.metrics.MapperMetrics;
+import ma.glasnost.orika.metrics.MapperStatistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MapperMetricsTestCase {
+
+    public static class Person {
+        public String name;
+        public Date birthDate;
+        public Address address;
+    }
+
+    public static class PersonDto {
+        public String name;
+        public Calendar birthDate;
+        public AddressDto address;
+    }
+
+    public static class Address {
+        public String street;
+        public String city;
+    }
+
+    public static class AddressDto {
+        public String street;
+        public String city;
+    }
+
+    private static Person newPerson(int i) {
+        Person person = new Person();
+        person.name = "Person #" + i;
+        person.birthDate = new Date(1000000L * i);
+        person.address = new Address();
+        person.address.street = i + " Main Street";
+        person.address.city = "Springfield";
+        return person;
+    }
+
+    private static MapperKey keyOf(Class<?> aType, Class<?> bType) {
+        return new MapperKey(TypeFactory.valueOf(aType), TypeFactory.valueOf(bType));
+    }
+
+    private static long totalConversions(MapperMetrics metrics) {
+        long conversions = 0;
+        for (MapperStatistics statistics : metrics.getStatistics()) {
+            conversions += statistics.getConversions();
+        }
+        return conversions;
+    }
+
+    @Test
+    public void metricsAreDisabledByDefault() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        Assert.assertNull(factory.getMapperMetrics());
+    }
+
+    @Test
+    public void recordInvocationsObjectsAndConversions() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().mapperMetrics(new DefaultMapperMetrics()).build();
+        factory.classMap(Person.class, PersonDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        MapperMetrics metrics = factory.getMapperMetrics();
+        Assert.assertNotNull(metrics);
+
+        for (int i = 0; i < 10; ++i) {
+            PersonDto result = mapper.map(newPerson(i), PersonDto.class);
+            Assert.assertEquals("Person #" + i, result.name);
+            Assert.assertEquals(1000000L * i, result.birthDate.getTimeInMillis());
+            Assert.assertEquals(i + " Main Street", result.address.street);
+        }
+
+        MapperStatistics person = metrics.getStatistics(keyOf(Person.class, PersonDto.class));
+        Assert.assertNotNull(person);
+        Assert.assertEquals(10, person.getInvocations());
+        Assert.assertEquals(10, person.getObjectsCreated());
+        Assert.assertTrue(person.getTotalNanos() > 0);
+        Assert.assertTrue(person.getPercentileNanos(50) > 0);
+        Assert.assertTrue(person.getPercentileNanos(50) <= person.getPercentileNanos(99.9));
+
+        /*
+         * Nested mappings are recorded against their own type pair
+         */
+        MapperStatistics address = metrics.getStatistics(keyOf(Address.class, AddressDto.class));
+        Assert.assertNotNull(address);
+        Assert.assertEquals(10, address.getInvocations());
+        Assert.assertEquals(10, address.getObjectsCreated());
+
+        Assert.assertEquals(10, totalConversions(metrics));
+    }
+
+    @Test
+    public void recordBoundMapperFacadeInvocations() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().mapperMetrics(new DefaultMapperMetrics()).build();
+        factory.classMap(Person.class, PersonDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        BoundMapperFacade<Person, PersonDto> mapper = factory.getMapperFacade(Person.class, PersonDto.class);
+
+        for (int i = 0; i < 5; ++i) {
+            mapper.map(newPerson(i));
+        }
+        Assert.assertEquals(5, factory.getMapperMetrics().getStatistics(keyOf(Person.class, PersonDto.class)).getInvocations());
+        Assert.assertEquals(5, factory.getMapperMetrics().getStatistics(keyOf(Address.class, AddressDto.class)).getInvocations());
+    }
+
+    @Test
+    public void resetClearsStatistics() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().mapperMetrics(new DefaultMapperMetrics()).build();
+        factory.classMap(Person.class, PersonDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+        mapper.map(newPerson(1), PersonDto.class);
+
+        MapperMetrics metrics = factory.getMapperMetrics();
+        metrics.reset();
+        MapperStatistics person = metrics.getStatistics(keyOf(Person.class, PersonDto.class));
+        Assert.assertEquals(0, person.getInvocations());
+        Assert.assertEquals(0, person.getPercentileNanos(99));
+        Assert.assertEquals(0, totalConversions(metrics));
+
+        mapper.map(newPerson(2), PersonDto.class);
+        Assert.assertEquals(1, metrics.getStatistics(keyOf(Person.class, PersonDto.class)).getInvocations());
+    }
+
+    @Test
+    public void reportCurrentStateIncludesMetrics() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().mapperMetrics(new DefaultMapperMetrics()).build();
+        factory.classMap(Person.class, PersonDto.class).byDefault().register();
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        factory.getMapperFacade().map(newPerson(1), PersonDto.class);
+
+        StringBuilder out = new StringBuilder();
+        StateReporter.reportCurrentState(out, factory);
+        String report = out.toString();
+        Assert.assertTrue(report, report.contains("Mapper metrics: "));
+        Assert.assertTrue(report, report.contains(keyOf(Person.class, PersonDto.class) + ": invocations=1"));
+    }
+}
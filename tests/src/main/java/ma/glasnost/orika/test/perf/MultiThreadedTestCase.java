@@ -17,6 +17,7 @@
  */
 package ma.glasnost.orika.test.perf;
 
+import ma.glasnost.orika.BoundMapperFacade;
 import ma.glasnost.orika.MapperFacade;
 import ma.glasnost.orika.MapperFactory;
 import ma.glasnost.orika.impl.DefaultMapperFactory;
@@ -34,6 +35,7 @@ import ma.glasnost.orika.test.common.types.TestCaseClasses.Library;
 import ma.glasnost.orika.test.common.types.TestCaseClasses.LibraryDTO;
 import ma.glasnost.orika.test.common.types.TestCaseClasses.LibraryImpl;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Rule;
 import org.junit.Test;
 
@@ -52,6 +54,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -209,6 +215,85 @@ public class MultiThreadedTestCase {
         testGenerateObjectFactories();
     }
     
+    /**
+     * Holds the factory shared by the concurrent mapping tests; it is only
+     * built when one of those tests first uses it.
+     */
+    private static final class Shared {
+        static final MapperFactory FACTORY = MappingUtil.getMapperFactory();
+        static final MapperFacade MAPPER = FACTORY.getMapperFacade();
+        static final BoundMapperFacade<Person, PersonVO> BOUND_MAPPER = FACTORY.getMapperFacade(Person.class, PersonVO.class);
+    }
+    
+    /**
+     * Exercises the state shared by all mappings of a single factory (the
+     * MappingContext pool, strategy cache and converter lookup) from many
+     * threads at once; the scaling of these same paths is measured by the
+     * ContentionBenchmark of the orika-benchmarks module.
+     */
+    @Test
+    @Concurrent(64)
+    public void testMapAndBoundMapSimultaneously() {
+        mapAndBoundMapRepeatedly(100);
+    }
+    
+    /**
+     * Same as {@link #testMapAndBoundMapSimultaneously()}, but run on virtual
+     * threads (which may be unmounted while holding or waiting on a lock);
+     * skipped on JVMs which do not support virtual threads.
+     */
+    @Test
+    public void testMapAndBoundMapOnVirtualThreads() throws Exception {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        Assume.assumeNotNull(executor);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 64; ++i) {
+                results.add(executor.submit(new Runnable() {
+                    public void run() {
+                        mapAndBoundMapRepeatedly(100);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    private void mapAndBoundMapRepeatedly(int times) {
+        Person person = new Person();
+        person.setFirstName("Abdelkrim");
+        person.setLastName("EL KHETTABI");
+        person.setDateOfBirth(new Date());
+        person.setAge(31L);
+        
+        for (int i = 0; i < times; ++i) {
+            PersonVO vo = Shared.MAPPER.map(person, PersonVO.class);
+            Assert.assertEquals(person.getLastName(), vo.getLastName());
+            
+            PersonVO boundVo = Shared.BOUND_MAPPER.map(person);
+            Assert.assertEquals(person.getDateOfBirth(), boundVo.getDateOfBirth());
+            Assert.assertEquals(person, Shared.BOUND_MAPPER.mapReverse(boundVo));
+        }
+    }
+    
+    /**
+     * @return an ExecutorService which starts a new virtual thread for each
+     *         task, or null if virtual threads are not supported (Java 21+)
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
     private final MapperFactory factory = new DefaultMapperFactory.Builder().build();
     
     @Test
@@ -0,0 +1,112 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.List;
+
+import ma.glasnost.orika.impl.util.ClassValueCache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ClassValueCacheTestCase {
+
+    public static class Unloadable {
+    }
+
+    /**
+     * Defines its own copy of {@link Unloadable}
+     */
+    private static class IsolatingClassLoader extends ClassLoader {
+
+        IsolatingClassLoader() {
+            super(ClassValueCacheTestCase.class.getClassLoader());
+        }
+
+        Class<?> defineUnloadable() throws IOException {
+            String resource = Unloadable.class.getName().replace('.', '/') + ".class";
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (InputStream in = getParent().getResourceAsStream(resource)) {
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    bytes.write(buffer, 0, read);
+                }
+            }
+            byte[] classBytes = bytes.toByteArray();
+            return defineClass(Unloadable.class.getName(), classBytes, 0, classBytes.length);
+        }
+    }
+
+    /**
+     * Each value refers back to its class
+     */
+    private final ClassValueCache<List<Class<?>>> cache = new ClassValueCache<List<Class<?>>>() {
+        @Override
+        protected List<Class<?>> computeValue(Class<?> type) {
+            return Collections.<Class<?>> singletonList(type);
+        }
+    };
+
+    @Test
+    public void valueIsComputedOncePerClass() {
+        List<Class<?>> value = cache.get(String.class);
+        Assert.assertEquals(String.class, value.get(0));
+        Assert.assertSame(value, cache.get(String.class));
+        Assert.assertSame(value, cache.asMap().get(String.class));
+
+        cache.clear();
+        Assert.assertNotSame(value, cache.get(String.class));
+    }
+
+    @Test
+    public void clearDiscardsValuesOfOtherClassLoaders() throws Exception {
+        Class<?> type = new IsolatingClassLoader().defineUnloadable();
+        List<Class<?>> value = cache.get(type);
+        Assert.assertSame(value, cache.get(type));
+
+        cache.clear();
+        Assert.assertEquals(0, cache.asMap().size());
+        Assert.assertNotSame(value, cache.get(type));
+        Assert.assertEquals(1, cache.asMap().size());
+    }
+
+    @Test
+    public void cachedClassMayBeUnloaded() throws Exception {
+        WeakReference<Class<?>> unloadable = cacheUnloadable();
+        for (int i = 0; i < 50 && unloadable.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull("the class is still reachable through the cache", unloadable.get());
+        Assert.assertEquals(0, cache.asMap().size());
+    }
+
+    private WeakReference<Class<?>> cacheUnloadable() throws IOException {
+        Class<?> type = new IsolatingClassLoader().defineUnloadable();
+        Assert.assertNotSame(Unloadable.class, type);
+        Assert.assertSame(type, cache.get(type).get(0));
+        Assert.assertEquals(1, cache.asMap().size());
+        return new WeakReference<Class<?>>(type);
+    }
+}
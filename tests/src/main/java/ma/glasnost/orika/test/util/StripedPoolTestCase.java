@@ -0,0 +1,122 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.util;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.util.StripedPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StripedPoolTestCase {
+
+    @Test
+    public void stripesAreRoundedUpToPowerOfTwo() {
+        Assert.assertEquals(1, new StripedPool<Object>(1).getStripes());
+        Assert.assertEquals(4, new StripedPool<Object>(3).getStripes());
+        Assert.assertEquals(16, new StripedPool<Object>(16).getStripes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stripesMustBePositive() {
+        new StripedPool<Object>(0);
+    }
+
+    @Test
+    public void releasedInstanceIsReusedByTheSameThread() {
+        StripedPool<Object> pool = new StripedPool<>(8);
+        Assert.assertNull(pool.poll());
+        Object value = new Object();
+        Assert.assertTrue(pool.offer(value));
+        Assert.assertSame(value, pool.poll());
+        Assert.assertNull(pool.poll());
+    }
+
+    @Test
+    public void poolIsBounded() {
+        StripedPool<Object> pool = new StripedPool<>(1);
+        Set<Object> offered = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (int i = 0; i < StripedPool.SLOTS_PER_STRIPE; ++i) {
+            Object value = new Object();
+            offered.add(value);
+            Assert.assertTrue(pool.offer(value));
+        }
+        Assert.assertFalse(pool.offer(new Object()));
+        for (int i = 0; i < StripedPool.SLOTS_PER_STRIPE; ++i) {
+            Assert.assertTrue(offered.remove(pool.poll()));
+        }
+        Assert.assertNull(pool.poll());
+    }
+
+    @Test
+    public void instancesAreSharedBetweenThreadsOfTheSameStripe() throws InterruptedException {
+        final StripedPool<Object> pool = new StripedPool<>(1);
+        final Object value = new Object();
+        pool.offer(value);
+        final AtomicReference<Object> polled = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                polled.set(pool.poll());
+            }
+        });
+        thread.start();
+        thread.join();
+        Assert.assertSame(value, polled.get());
+    }
+
+    @Test
+    public void contextFactorySharesGlobalProperties() throws InterruptedException {
+        final MappingContext.Factory factory = new MappingContext.Factory(4);
+        factory.getGlobalProperties().put("key", "value");
+        final CountDownLatch done = new CountDownLatch(8);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int i = 0; i < 8; ++i) {
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < 1000; ++j) {
+                            MappingContext context = factory.getContext();
+                            Assert.assertEquals("value", context.getProperty("key"));
+                            Assert.assertTrue(context.containsCycle());
+                            context.setProperty("local", j);
+                            factory.release(context);
+                        }
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        done.await();
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        MappingContext context = factory.getContext();
+        Assert.assertNull(context.getProperty("local"));
+        Assert.assertEquals("value", context.getProperty("key"));
+        factory.release(context);
+    }
+}